@@ -179,11 +179,20 @@ public class LX {
     public boolean sendCueToOutput = false;
     public boolean autosave = false;
     public long autosaveIntervalMs = 15000;
+
+    /**
+     * Whether auto-saves should only re-serialize the components that have been
+     * modified since the previous auto-save, see {@link LXComponent#markModified()}.
+     * Modifications are only tracked while this is set, it should be set on the flags
+     * passed to the LX constructor.
+     */
+    public boolean autosaveIncremental = false;
     public boolean zeroconf = false;
     public String zeroconfServiceName = "LX";
     public boolean zeroconfForce = false;
     public LXEngine.ThreadMode threadMode = LXEngine.ThreadMode.SCHEDULED_EXECUTOR_SERVICE;
     public int engineThreadPriority = Thread.MAX_PRIORITY;
+    public int networkQueueDepth = 3;
     public String mediaPath = ".";
     public LXPlugin initialize = null;
     public boolean loadPreferences = true;
@@ -419,6 +428,8 @@ public class LX {
    */
   public final LXCommandEngine command;
 
+  final LXAutoSave autoSave = new LXAutoSave();
+
   /**
    * Registry for classes
    */
@@ -678,7 +689,9 @@ public class LX {
   }
 
   /**
-   * Returns the model in use
+   * Returns the model in use. While the engine is running, changes to fixture
+   * parameters are applied to the model before the next frame rather than
+   * immediately, see LXStructure.getModel().
    *
    * @return model
    */
@@ -735,6 +748,7 @@ public class LX {
    */
   public void dispose() {
     LX.dispose(this.engine);
+    this.autoSave.dispose();
     this.registry.closeWatchService();
   }
 
@@ -991,6 +1005,7 @@ public class LX {
 
   protected void setProject(File file, ProjectListener.Change change) {
     this.file = file;
+    this.autoSave.invalidate();
     for (ProjectListener projectListener : this.projectListeners) {
       projectListener.projectChanged(file, change);
     }
@@ -1021,18 +1036,10 @@ public class LX {
     final File autosave = getAutoSaveFile();
     if (autosave != null) {
       // Need to serialize the data here on the engine thread
-      final JsonObject obj = saveProjectJson();
+      final JsonObject obj = this.autoSave.serialize(this::saveProjectJson, this.componentRegistry, this.flags.autosaveIncremental);
 
       // Write the file on another thread to avoid main thread jitter
-      new Thread(() -> {
-        try (JsonWriter writer = new JsonWriter(new FileWriter(autosave))) {
-          writer.setIndent("  ");
-          new GsonBuilder().create().toJson(obj, writer);
-          LX.debug("Project auto-saved successfully to " + autosave.toString());
-        } catch (IOException iox) {
-          LX.error(iox, "Could not auto-save project to output file: " + autosave.toString());
-        }
-      }, "LX Auto-Save Write Thread").start();
+      this.autoSave.write(autosave, obj);
     }
   }
 
@@ -1062,7 +1069,7 @@ public class LX {
     confirmModelSaved();
   }
 
-  private JsonObject saveProjectJson() {
+  JsonObject saveProjectJson() {
     JsonObject obj = new JsonObject();
     obj.addProperty(KEY_VERSION, LX.VERSION);
     obj.addProperty(KEY_TIMESTAMP, System.currentTimeMillis());
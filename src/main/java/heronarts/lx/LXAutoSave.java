@@ -0,0 +1,224 @@
+/**
+ * Copyright 2024- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.function.Supplier;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Serializes and writes project auto-saves. Serialization has to happen on the
+ * engine thread, but in incremental mode each component caches its own JSON and
+ * only the subtrees that have been modified since the previous auto-save are
+ * serialized again, so the cost follows the size of the changes rather than the
+ * size of the project. The document is then streamed to disk by a single
+ * persistent writer thread, via a temporary file that is atomically renamed over
+ * the auto-save file so that it is never left partially written.
+ */
+class LXAutoSave {
+
+  private final Gson gson = new GsonBuilder().create();
+
+  private volatile Thread serializingThread = null;
+
+  private int epoch = 0;
+
+  private boolean wasIncremental = false;
+
+  private int numSerialized = 0;
+  private int numReused = 0;
+
+  private WriteThread writeThread = null;
+
+  /**
+   * Whether an incremental serialization is in progress on the calling thread
+   *
+   * @return True if components should use their cached serialization
+   */
+  boolean isSerializing() {
+    return this.serializingThread == Thread.currentThread();
+  }
+
+  int getEpoch() {
+    return this.epoch;
+  }
+
+  void onSerialized(boolean serialized) {
+    if (serialized) {
+      ++this.numSerialized;
+    } else {
+      ++this.numReused;
+    }
+  }
+
+  /**
+   * Discards all cached component serializations, for instance when a new
+   * project is opened
+   */
+  void invalidate() {
+    ++this.epoch;
+  }
+
+  /**
+   * Serializes the project, reusing cached serializations of unmodified
+   * components if incremental
+   *
+   * @param serializer Serializes the project document
+   * @param registry Registry of all components
+   * @param incremental Whether to reuse unmodified components
+   * @return Project document
+   */
+  JsonObject serialize(Supplier<JsonObject> serializer, LXComponent.Registry registry, boolean incremental) {
+    if (!incremental) {
+      // Modifications are not tracked, cached results are no longer valid
+      this.wasIncremental = false;
+      return serializer.get();
+    }
+    if (!this.wasIncremental) {
+      invalidate();
+      this.wasIncremental = true;
+    }
+    registry.markVolatileModified();
+    this.numSerialized = 0;
+    this.numReused = 0;
+    this.serializingThread = Thread.currentThread();
+    try {
+      return serializer.get();
+    } finally {
+      this.serializingThread = null;
+      LX.debug("Auto-save serialized " + this.numSerialized + " components, reused " + this.numReused);
+    }
+  }
+
+  /**
+   * Queues a document to be written to the given file. If a previous document
+   * is still waiting to be written then it is superseded by this one.
+   *
+   * @param file File to write
+   * @param obj Document to write, must not be modified afterwards
+   */
+  void write(File file, JsonObject obj) {
+    if (this.writeThread == null) {
+      this.writeThread = new WriteThread();
+      this.writeThread.start();
+    }
+    this.writeThread.enqueue(file, obj);
+  }
+
+  /**
+   * Finishes any pending write and stops the writer thread
+   */
+  void dispose() {
+    if (this.writeThread != null) {
+      this.writeThread.finish();
+      try {
+        this.writeThread.join();
+      } catch (InterruptedException ix) {
+        LX.error(ix, "Interrupted waiting for auto-save write thread to finish");
+      }
+      this.writeThread = null;
+    }
+  }
+
+  private class WriteThread extends Thread {
+
+    private File file = null;
+    private JsonObject obj = null;
+    private boolean finished = false;
+
+    private WriteThread() {
+      super("LX Auto-Save Write Thread");
+      setDaemon(true);
+    }
+
+    private synchronized void enqueue(File file, JsonObject obj) {
+      this.file = file;
+      this.obj = obj;
+      notify();
+    }
+
+    private synchronized void finish() {
+      this.finished = true;
+      notify();
+    }
+
+    @Override
+    public void run() {
+      while (true) {
+        final File file;
+        final JsonObject obj;
+        synchronized (this) {
+          while ((this.obj == null) && !this.finished) {
+            try {
+              wait();
+            } catch (InterruptedException ix) {
+              return;
+            }
+          }
+          if (this.obj == null) {
+            return;
+          }
+          file = this.file;
+          obj = this.obj;
+          this.file = null;
+          this.obj = null;
+        }
+        writeFile(file, obj);
+      }
+    }
+
+    private void writeFile(File file, JsonObject obj) {
+      final Path path = file.toPath();
+      final Path tmp = path.resolveSibling(file.getName() + ".tmp");
+      try (FileOutputStream out = new FileOutputStream(tmp.toFile());
+           JsonWriter writer = new JsonWriter(new BufferedWriter(new OutputStreamWriter(out)))) {
+        writer.setIndent("  ");
+        gson.toJson(obj, writer);
+        writer.flush();
+        out.getFD().sync();
+      } catch (IOException iox) {
+        LX.error(iox, "Could not auto-save project to output file: " + tmp.toString());
+        return;
+      }
+      try {
+        try {
+          Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException amnsx) {
+          Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        LX.debug("Project auto-saved successfully to " + file.toString());
+      } catch (IOException iox) {
+        LX.error(iox, "Could not move auto-save into place: " + file.toString());
+      }
+    }
+  }
+
+}
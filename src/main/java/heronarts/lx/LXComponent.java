@@ -34,6 +34,7 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -194,6 +195,18 @@ public abstract class LXComponent implements LXPath, LXParameterListener, LXSeri
    */
   private int id;
 
+  /**
+   * Number of modifications made to this component or any of its descendants,
+   * used to validate the cached result of an incremental save. Parameters may be
+   * modified on channel rendering threads, so the counter is atomic, a lost
+   * increment could leave it equal to the count of a stale save.
+   */
+  private final AtomicLong modifiedCount = new AtomicLong(0);
+
+  private JsonObject savedObj = null;
+  private long savedCount = 0;
+  private int savedEpoch = 0;
+
   private String description = null;
 
   /**
@@ -290,6 +303,18 @@ public abstract class LXComponent implements LXPath, LXParameterListener, LXSeri
       this.projectIdMap.clear();
     }
 
+    /**
+     * Marks every component with continuously changing saved state as modified,
+     * before an incremental save
+     */
+    void markVolatileModified() {
+      for (LXComponent component : this.components.values()) {
+        if (component.hasVolatileSaveState()) {
+          component.markModified();
+        }
+      }
+    }
+
     int getIdCounter() {
       return this.idCounter;
     }
@@ -625,6 +650,7 @@ public abstract class LXComponent implements LXPath, LXParameterListener, LXSeri
       this.lx = parent.lx;
       this.lx.componentRegistry.register(this);
     }
+    parent.markModified();
     return this;
   }
 
@@ -722,7 +748,10 @@ public abstract class LXComponent implements LXPath, LXParameterListener, LXSeri
   /**
    * Handles an OSC message sent to this component. By default this method handles
    * registered components and parameters, but subclasses may override this method
-   * to handle different types of OSC messages.
+   * to handle different types of OSC messages. Note that once a message at the
+   * canonical address of a parameter has been resolved to it, the OSC engine will
+   * apply later messages at that address to the parameter directly, so overrides
+   * should not intercept such addresses conditionally.
    *
    * @param message Full OSC message object
    * @param parts The OSC address pattern, broken into an array of parts
@@ -766,10 +795,22 @@ public abstract class LXComponent implements LXPath, LXParameterListener, LXSeri
       return false;
     }
 
+    this.lx.engine.osc.oscParameterResolved(this, parameter, parts, index);
     return handleOscParameter(message, parameter, parts, index);
   }
 
-  private boolean handleOscParameter(OscMessage message, LXParameter parameter, String[] parts, int index) {
+  /**
+   * Applies an OSC message to one of this component's parameters. This is the final
+   * step of default OSC handling, and is invoked directly by the OSC engine for
+   * addresses that it has already resolved to a parameter.
+   *
+   * @param message Full OSC message object
+   * @param parameter Parameter the message is addressed to
+   * @param parts The OSC address pattern, broken into an array of parts
+   * @param index Which index into the parts array corresponds to the parameter
+   * @return <code>true</code> if the OSC message was handled and should be considered consumed, <code>false</code> otherwise
+   */
+  public final boolean handleOscParameter(OscMessage message, LXParameter parameter, String[] parts, int index) {
     // Handle OSC messages for different parameter types
     if (parameter instanceof BooleanParameter booleanParameter) {
       booleanParameter.setValue(message.getBoolean());
@@ -1113,6 +1154,8 @@ public abstract class LXComponent implements LXPath, LXParameterListener, LXSeri
     if (isDescendant(this.lx.engine.mixer)) {
       this.lx.engine.mixer.removeRemoteControls(this);
     }
+    this.lx.engine.metrics.unregister(this);
+    this.lx.engine.osc.invalidateAddresses();
 
     // Remove all of the parameters
     for (LXParameter parameter : new ArrayList<LXParameter>(this.parameters.values())) {
@@ -1127,7 +1170,11 @@ public abstract class LXComponent implements LXPath, LXParameterListener, LXSeri
     this.internalParameters.clear();
 
     // Unset our parent reference and dispose via registry
+    if (this.parent != null) {
+      this.parent.markModified();
+    }
     this.parent = null;
+    this.savedObj = null;
     this.lx.componentRegistry.dispose(this);
   }
 
@@ -1511,6 +1558,61 @@ public abstract class LXComponent implements LXPath, LXParameterListener, LXSeri
     obj.add(KEY_CHILDREN, LXSerializable.Utils.toObject(lx, this.mutableChildren));
   }
 
+  /**
+   * Marks this component as modified, so that it and all of its ancestors are
+   * re-serialized by the next incremental save. Changes to registered parameters,
+   * changes to the component hierarchy, and components that are targeted by
+   * commands in the LXCommandEngine are all tracked automatically. Subclasses
+   * which serialize other state, and modify it by some other means, should call
+   * this method when they do so. Nothing is tracked unless incremental auto-saves
+   * are enabled, see {@link LX.Flags#autosaveIncremental}.
+   */
+  public final void markModified() {
+    if ((this.lx == null) || !this.lx.flags.autosaveIncremental) {
+      return;
+    }
+    for (LXComponent component = this; component != null; component = component.parent) {
+      component.modifiedCount.incrementAndGet();
+    }
+  }
+
+  /**
+   * Whether this component saves state that changes continuously without being
+   * marked as modified, such as the basis of a running modulator. Such components,
+   * and their ancestors, are serialized again by every incremental save.
+   *
+   * @return True if saved state changes without calls to {@link #markModified()}
+   */
+  protected boolean hasVolatileSaveState() {
+    return false;
+  }
+
+  /**
+   * Serializes this component for an incremental save. The result of the previous
+   * incremental save is returned as-is if nothing in this component's subtree has
+   * been modified since. The returned object is shared and must not be mutated.
+   *
+   * @param lx LX instance
+   * @param epoch Epoch of the incremental save, results from other epochs are discarded
+   * @return JsonObject representation of the component
+   */
+  JsonObject saveIncremental(LX lx, int epoch) {
+    // Read the count before saving, if this changes during the save from
+    // another thread then the result is stale and will be redone next time
+    final long count = this.modifiedCount.get();
+    if ((this.savedObj == null) || (this.savedCount != count) || (this.savedEpoch != epoch)) {
+      final JsonObject obj = new JsonObject();
+      save(lx, obj);
+      this.savedObj = obj;
+      this.savedCount = count;
+      this.savedEpoch = epoch;
+      lx.autoSave.onSerialized(true);
+    } else {
+      lx.autoSave.onSerialized(false);
+    }
+    return this.savedObj;
+  }
+
   /**
    * Loads the LX component. Restores the ID of the component, as well as its
    * internal and user-facing parameters. Any explicitly registered children
@@ -29,20 +29,21 @@ import heronarts.lx.mixer.LXChannel;
 import heronarts.lx.mixer.LXAbstractChannel;
 import heronarts.lx.mixer.LXMixerEngine;
 import heronarts.lx.model.LXModel;
-import heronarts.lx.model.LXPoint;
 import heronarts.lx.modulation.LXModulationContainer;
 import heronarts.lx.modulation.LXModulationEngine;
 import heronarts.lx.osc.LXOscComponent;
 import heronarts.lx.osc.LXOscEngine;
 import heronarts.lx.osc.OscMessage;
+import heronarts.lx.output.LXDatagramTransport;
 import heronarts.lx.output.LXOutput;
 import heronarts.lx.output.LXOutputGroup;
 import heronarts.lx.parameter.BooleanParameter;
 import heronarts.lx.parameter.BoundedParameter;
+import heronarts.lx.parameter.DiscreteParameter;
 import heronarts.lx.parameter.LXParameter;
 import heronarts.lx.pattern.LXPattern;
 import heronarts.lx.snapshot.LXSnapshotEngine;
-import heronarts.lx.structure.LXFixture;
+import heronarts.lx.structure.LXStructure;
 import heronarts.lx.structure.view.LXViewDefinition;
 
 import java.io.File;
@@ -57,6 +58,9 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 import com.google.gson.JsonObject;
 
@@ -106,6 +110,8 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
 
   public final Output output;
 
+  public final LXMetrics metrics;
+
   public final BoundedParameter framesPerSecond =
     new BoundedParameter("FPS", 60, 1, 300)
     .setMappable(false)
@@ -139,6 +145,27 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
       new BooleanParameter("Restricted", false)
       .setDescription("Whether output is disabled due to license restrictions");
 
+    public final BooleanParameter batchDatagrams =
+      new BooleanParameter("Batch UDP", false)
+      .setMappable(false)
+      .setDescription("Whether datagrams are queued and sent together at the end of each frame on a non-blocking channel");
+
+    public final BooleanParameter parallelEncode =
+      new BooleanParameter("Parallel Encode", false)
+      .setMappable(false)
+      .setDescription("Whether datagram color data is encoded across multiple cores, this implies batched UDP output");
+
+    public final DiscreteParameter sendBufferSize =
+      new DiscreteParameter("Send Buffer", 0, 0, 16385)
+      .setMappable(false)
+      .setUnits(LXParameter.Units.INTEGER)
+      .setDescription("Socket send buffer size in KB for batched UDP output, 0 for system default");
+
+    /**
+     * Transport used to send datagrams when batching is enabled
+     */
+    public final LXDatagramTransport transport = new LXDatagramTransport();
+
     /**
      * This ModelOutput helper is used for sending dynamic datagrams that are
      * specified in the model. Any time the model is changed, this set will be
@@ -197,15 +224,41 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
           LXOutput.log("Network output restored.");
         }
       });
+      this.sendBufferSize.addListener(p -> {
+        this.transport.setSendBufferSize(1024 * this.sendBufferSize.getValuei());
+      });
+      this.parallelEncode.addListener(p -> {
+        this.transport.setParallelEncode(this.parallelEncode.isOn());
+      });
+      addParameter("batchDatagrams", this.batchDatagrams);
+      addParameter("parallelEncode", this.parallelEncode);
+      addParameter("sendBufferSize", this.sendBufferSize);
     }
 
     @Override
     public LXOutput send(int[] colors) {
       if (!this.restricted.isOn()) {
-        super.send(colors, this.lx.engine.mixer.masterBus.getOutputBrightness());
+        if (this.batchDatagrams.isOn() || this.parallelEncode.isOn()) {
+          this.transport.begin();
+          try {
+            super.send(colors, this.lx.engine.mixer.masterBus.getOutputBrightness());
+          } finally {
+            this.transport.flush();
+          }
+          metrics.record(this, LXMetrics.Metric.OUTPUT_ENCODE, this.transport.profiler.encodeNanos);
+          metrics.record(this, LXMetrics.Metric.OUTPUT_FLUSH, this.transport.profiler.flushNanos);
+        } else {
+          super.send(colors, this.lx.engine.mixer.masterBus.getOutputBrightness());
+        }
       }
       return this;
     }
+
+    @Override
+    public void dispose() {
+      this.transport.dispose();
+      super.dispose();
+    }
   }
 
   public interface Dispatch {
@@ -219,7 +272,29 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
     public long inputNanos = 0;
     public long midiNanos = 0;
     public long oscNanos = 0;
+    public long modulationNanos = 0;
     public long outputNanos = 0;
+
+    // NOTE: the output values below are written by the engine and network threads
+    // and read from others, so they are volatile. Each has a single writer.
+
+    /**
+     * Number of rendered frames waiting to be sent by the network thread
+     */
+    public volatile int outputQueueDepth = 0;
+
+    /**
+     * Total number of frames that were not sent because the network thread
+     * had fallen behind and the output queue was full, in which case the
+     * oldest queued frame is dropped in favor of the newest
+     */
+    public volatile long outputDroppedFrames = 0;
+
+    /**
+     * Time between a frame being completed by the engine and the network
+     * thread finishing sending it
+     */
+    public volatile long outputLatencyNanos = 0;
   }
 
   public final Profiler profiler = new Profiler();
@@ -236,6 +311,11 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
     private boolean cueOn = false;
     private boolean auxOn = false;
 
+    // Frames in the engine pool are shared between the render buffer and the
+    // network queue, they may only be reused once nothing references them
+    private final AtomicInteger refCount = new AtomicInteger(0);
+    private long completeNanos = 0;
+
     public Frame(LX lx) {
       setModel(lx.getModel());
     }
@@ -302,7 +382,9 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
 
   // A double buffer that holds two frames which are flipped back and forth such that
   // the engine thread may render into one of them while UI or networking threads may
-  // copy off the contents of another
+  // copy off the contents of another. Frames come from a small pool, so that completed
+  // frames may also be handed off to the network thread without copying. A frame
+  // is only recycled for rendering once the network thread has released it.
   class DoubleBuffer {
 
     // Frame buffer that is currently used by the engine to render
@@ -312,9 +394,26 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
     // works on the other buffer.
     Frame copy;
 
-    DoubleBuffer(LX lx) {
-      this.render = new Frame(lx);
-      this.copy = new Frame(lx);
+    private final Frame[] pool;
+
+    DoubleBuffer(LX lx, int queueDepth) {
+      // Render and copy, plus every frame that may be queued, plus the one that
+      // is actively being sent by the network thread. One is always free.
+      this.pool = new Frame[queueDepth + 3];
+      for (int i = 0; i < this.pool.length; ++i) {
+        this.pool[i] = new Frame(lx);
+      }
+      this.render = acquire();
+      this.copy = acquire();
+    }
+
+    private Frame acquire() {
+      for (Frame frame : this.pool) {
+        if (frame.refCount.compareAndSet(0, 1)) {
+          return frame;
+        }
+      }
+      throw new IllegalStateException("LXEngine.DoubleBuffer has no free frames");
     }
 
     synchronized void sync() {
@@ -322,9 +421,16 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
     }
 
     synchronized void flip() {
-      Frame tmp = this.render;
-      this.render = this.copy;
-      this.copy = tmp;
+      final Frame tmp = this.copy;
+      this.copy = this.render;
+      if (tmp.refCount.get() == 1) {
+        // Nobody else holds the old copy frame, simply swap it back in
+        this.render = tmp;
+      } else {
+        // Old copy is still queued for network output, render into a free frame
+        this.render = acquire();
+        tmp.refCount.decrementAndGet();
+      }
     }
 
     synchronized void copyTo(Frame that) {
@@ -339,6 +445,11 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
     .setMappable(false)
     .setDescription("Whether the compositing engine is multi-threaded");
 
+  public final BooleanParameter isChannelMultithreaded =
+    new BooleanParameter("Channel Threaded", false)
+    .setMappable(false)
+    .setDescription("Whether independent channels are rendered in parallel on multiple threads");
+
   public final BooleanParameter isNetworkMultithreaded =
     new BooleanParameter("Network Threaded", false)
     .setMappable(false)
@@ -352,7 +463,12 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
 
   boolean hasStarted = false;
 
-  private boolean paused = false;
+  private volatile boolean paused = false;
+
+  /**
+   * Epoch of memoized modulated parameter values, only advanced by the engine thread
+   */
+  private volatile long modulationEpoch = 0;
 
   private static final long INIT_RUN = -1;
   private long lastMillis = INIT_RUN;
@@ -373,17 +489,20 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
     LX.initProfiler.log("Engine: Init");
 
     // Initialize double-buffer of frame contents
-    this.buffer = new DoubleBuffer(lx);
+    this.buffer = new DoubleBuffer(lx, lx.flags.networkQueueDepth);
 
     // Create an engine executor service (doesn't start it)
     this.engineExecutorService = new ExecutorService();
 
     // Initialize network thread (don't start it yet)
-    this.networkThread = new NetworkThread(lx);
+    this.networkThread = new NetworkThread(lx.flags.networkQueueDepth);
 
     // Mapping engine
     this.mapping = new LXMappingEngine(lx);
 
+    // Metrics registry, first so that any component may record into it
+    addChild("metrics", this.metrics = new LXMetrics(lx));
+
     // Color palette
     addChild("palette", this.palette = new LXPalette(lx));
     LX.initProfiler.log("Engine: Palette");
@@ -433,6 +552,7 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
 
     // Register parameters
     addParameter("compositorMultithreaded", this.isCompositorMultithreaded);
+    addParameter("channelMultithreaded", this.isChannelMultithreaded);
     addParameter("networkMultithreaded", this.isNetworkMultithreaded);
     addParameter("framesPerSecond", this.framesPerSecond);
     addParameter("speed", this.speed);
@@ -455,6 +575,29 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
     this.logProfiler = true;
   }
 
+  private static void fillRanges(Frame frame, int[] ranges, int color) {
+    for (int r = 0; r < ranges.length; r += 2) {
+      final int start = ranges[r];
+      final int end = start + ranges[r+1];
+      Arrays.fill(frame.main, start, end, color);
+      Arrays.fill(frame.cue, start, end, color);
+      Arrays.fill(frame.aux, start, end, color);
+    }
+  }
+
+  private void recordMetrics() {
+    this.metrics.record(this, LXMetrics.Metric.FRAME, this.profiler.runNanos);
+    this.metrics.record(this, LXMetrics.Metric.CHANNEL, this.profiler.channelNanos);
+    this.metrics.record(this, LXMetrics.Metric.COMPOSITE, this.profiler.channelCompositeNanos);
+    this.metrics.record(this, LXMetrics.Metric.INPUT, this.profiler.inputNanos);
+    this.metrics.record(this, LXMetrics.Metric.MIDI, this.profiler.midiNanos);
+    this.metrics.record(this, LXMetrics.Metric.OSC, this.profiler.oscNanos);
+    this.metrics.record(this, LXMetrics.Metric.MODULATION, this.profiler.modulationNanos);
+    if (!this.isNetworkMultithreaded.isOn()) {
+      this.metrics.record(this, LXMetrics.Metric.OUTPUT, this.profiler.outputNanos);
+    }
+  }
+
   @Override
   public String getPath() {
     return LXPath.ROOT;
@@ -512,7 +655,7 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
     return this;
   }
 
-  private boolean running = false;
+  private volatile boolean running = false;
 
   /**
    * Starts the engine thread.
@@ -825,6 +968,37 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
     return this.paused;
   }
 
+  /**
+   * Gets the epoch of memoized modulated parameter values. The engine advances it
+   * before the modulation engine runs and again before the mixer renders, so that
+   * parameter changes in the preceding phase are seen by the values they modulate.
+   *
+   * @return Modulation epoch
+   */
+  public long getModulationEpoch() {
+    return this.modulationEpoch;
+  }
+
+  /**
+   * Starts a new epoch of memoized modulated parameter values. This must only be
+   * called from the engine thread.
+   *
+   * @return this
+   */
+  public LXEngine advanceModulationEpoch() {
+    ++this.modulationEpoch;
+    return this;
+  }
+
+  /**
+   * Whether the engine thread has been started
+   *
+   * @return If the engine thread is running
+   */
+  public boolean isRunning() {
+    return this.running;
+  }
+
   /**
    * Register a component with the engine. It will be saved and loaded.
    *
@@ -1018,6 +1192,9 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
     this.osc.dispatch();
     this.profiler.oscNanos = System.nanoTime() - oscStart;
 
+    // Swap in completed DMX input frames
+    this.dmx.dispatch();
+
     // Process UI input events
     if (this.inputDispatch == null) {
       this.profiler.inputNanos = 0;
@@ -1067,6 +1244,7 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
 
     // Paused? Reset timers and kill the loop...
     if (this.paused) {
+      this.osc.flush();
       this.profiler.channelNanos = 0;
       ((LXBus.Profiler) this.mixer.masterBus.profiler).effectNanos = 0;
       this.profiler.runNanos = System.nanoTime() - runStart;
@@ -1099,6 +1277,9 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
     // Run the project scheduler
     this.lx.scheduler.loop(deltaMs);
 
+    // Apply any fixture changes that were coalesced over the input and task phase
+    this.lx.structure.regeneratePending();
+
     // Initialize the model context for this render frame
     this.buffer.render.setModel(this.lx.model);
 
@@ -1116,8 +1297,14 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
     // Mutate by master speed for everything else
     deltaMs *= this.speed.getValue();
 
+    // Parameters may have changed in the input and task phases, start a new
+    // epoch for memoized modulated values
+    advanceModulationEpoch();
+
     // Run the modulation and snapshot engines
+    final long modulationStart = System.nanoTime();
     this.modulation.loop(deltaMs);
+    this.profiler.modulationNanos = System.nanoTime() - modulationStart;
     this.snapshots.loop(deltaMs);
 
     // Run the color control
@@ -1138,6 +1325,9 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
     }
     this.removedLoopTasks.clear();
 
+    // Everything modulations depend upon has been updated for this frame
+    advanceModulationEpoch();
+
     // Okay, time for the real work, to run and blend all of our channels
     // First, set up a bunch of state to keep track of which buffers we
     // are rendering into.
@@ -1154,8 +1344,9 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
     for (LXViewDefinition view : this.lx.structure.views.views) {
       if (view.cueActive.isOn() && (view.getView() != null)) {
         Arrays.fill(buffer.render.cue, LXColor.BLACK);
-        for (LXPoint p : view.getView().points) {
-          buffer.render.cue[p.index] = LXColor.WHITE;
+        final int[] ranges = view.getView().getIndexRanges();
+        for (int r = 0; r < ranges.length; r += 2) {
+          Arrays.fill(buffer.render.cue, ranges[r], ranges[r] + ranges[r+1], LXColor.WHITE);
         }
         buffer.render.setCueOn(true);
         break;
@@ -1163,56 +1354,24 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
     }
 
     // Add fixture identification very last
-    int identifyColor = LXColor.hsb(0, 100, Math.abs(-100 + (runStart / 8000000) % 200));
-    for (LXFixture fixture : this.lx.structure.fixtures) {
-      if (fixture.deactivate.isOn()) {
-        // Does not apply to deactivated fixtures
-        continue;
-      }
-      if (fixture.mute.isOn()) {
-        int start = fixture.getIndexBufferOffset();
-        int end = start + fixture.totalSize();
-        if (end > start) {
-          for (int i = start; i < end; ++i) {
-            this.buffer.render.main[i] = LXColor.BLACK;
-            this.buffer.render.cue[i] = LXColor.BLACK;
-            this.buffer.render.aux[i] = LXColor.BLACK;
-          }
-        }
-      } else if (fixture.identify.isOn()) {
-        int start = fixture.getIndexBufferOffset();
-        int end = start + fixture.totalSize();
-        if (end > start) {
-          for (int i = start; i < end; ++i) {
-            this.buffer.render.main[i] = identifyColor;
-            this.buffer.render.cue[i] = identifyColor;
-            this.buffer.render.aux[i] = identifyColor;
-          }
-        }
-      }
-      if (fixture.solo.isOn()) {
-        int start = fixture.getIndexBufferOffset();
-        int end = start + fixture.totalSize();
-        if (end > start) {
-          for (int i = 0; i < this.buffer.render.main.length; ++i) {
-            if (i < start || i >= end) {
-              this.buffer.render.main[i] = LXColor.BLACK;
-              this.buffer.render.cue[i] = LXColor.BLACK;
-              this.buffer.render.aux[i] = LXColor.BLACK;
-            }
-          }
-        }
-      }
-
-      // Finally, structure-level edits
+    if (!this.lx.structure.fixtures.isEmpty()) {
+      final Frame render = this.buffer.render;
       if (this.lx.structure.mute.isOn()) {
-        Arrays.fill(this.buffer.render.main, LXColor.BLACK);
-        Arrays.fill(this.buffer.render.cue, LXColor.BLACK);
-        Arrays.fill(this.buffer.render.aux, LXColor.BLACK);
+        // Structure-level edits override everything
+        Arrays.fill(render.main, LXColor.BLACK);
+        Arrays.fill(render.cue, LXColor.BLACK);
+        Arrays.fill(render.aux, LXColor.BLACK);
       } else if (this.lx.structure.allWhite.isOn()) {
-        Arrays.fill(this.buffer.render.main, LXColor.WHITE);
-        Arrays.fill(this.buffer.render.cue, LXColor.WHITE);
-        Arrays.fill(this.buffer.render.aux, LXColor.WHITE);
+        Arrays.fill(render.main, LXColor.WHITE);
+        Arrays.fill(render.cue, LXColor.WHITE);
+        Arrays.fill(render.aux, LXColor.WHITE);
+      } else {
+        final LXStructure.FixtureMask fixtureMask = this.lx.structure.getFixtureMask();
+        if (!fixtureMask.isEmpty()) {
+          final int identifyColor = LXColor.hsb(0, 100, Math.abs(-100 + (runStart / 8000000) % 200));
+          fillRanges(render, fixtureMask.black, LXColor.BLACK);
+          fillRanges(render, fixtureMask.identify, identifyColor);
+        }
       }
     }
 
@@ -1222,10 +1381,9 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
 
     if (eulaAccepted && !this.lx.preferences.suppressOutput.isOn() && !this.output.restricted.isOn()) {
       if (this.isNetworkMultithreaded.isOn()) {
-        // Notify the network thread of new work to do!
-        synchronized (this.networkThread) {
-          this.networkThread.notify();
-        }
+        // Hand off the completed frame to the network thread, which will send it
+        // while we proceed to render the next frame
+        this.networkThread.enqueue(this.buffer.copy);
         this.profiler.outputNanos = 0;
       } else {
         // Or do it ourself here on the engine thread
@@ -1239,8 +1397,14 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
       this.profiler.outputNanos = 0;
     }
 
+    // Send any OSC parameter changes that were coalesced over this frame
+    this.osc.flush();
+
     // All done running this pass of the engine!
     this.profiler.runNanos = System.nanoTime() - runStart;
+    if (this.metrics.isEnabled()) {
+      recordMetrics();
+    }
 
     // Debug trace logging
     if (this.logProfiler) {
@@ -1271,11 +1435,61 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
     LX.log(sb.toString());
   }
 
+  // Lock-free ring of frames with a single producer. The engine thread is the
+  // only producer. The network thread consumes frames, and the engine thread may
+  // also take the oldest frame off a full ring to make room for a newer one, so
+  // the head is advanced by compare-and-set.
+  static class FrameQueue {
+
+    private final Frame[] frames;
+    private final AtomicLong head = new AtomicLong(0);
+    private final AtomicLong tail = new AtomicLong(0);
+
+    FrameQueue(int capacity) {
+      if (capacity < 1) {
+        throw new IllegalArgumentException("FrameQueue capacity must be positive: " + capacity);
+      }
+      this.frames = new Frame[capacity];
+    }
+
+    boolean offer(Frame frame) {
+      final long tail = this.tail.get();
+      if (tail - this.head.get() >= this.frames.length) {
+        return false;
+      }
+      this.frames[(int) (tail % this.frames.length)] = frame;
+      this.tail.lazySet(tail + 1);
+      return true;
+    }
+
+    Frame poll() {
+      while (true) {
+        final long head = this.head.get();
+        if (head >= this.tail.get()) {
+          return null;
+        }
+        // Slots are not cleared after being taken, the producer may already be
+        // re-filling it by then. Frames are pooled so the stale reference is harmless.
+        final Frame frame = this.frames[(int) (head % this.frames.length)];
+        if (this.head.compareAndSet(head, head + 1)) {
+          return frame;
+        }
+      }
+    }
+
+    int size() {
+      return (int) (this.tail.get() - this.head.get());
+    }
+  }
+
   public class NetworkThread extends Thread {
 
     public class Profiler {
-      public long copyNanos = 0;
-      public long sendNanos = 0;
+      /**
+       * Time spent taking the next frame off the output queue
+       */
+      public volatile long copyNanos = 0;
+      public volatile long sendNanos = 0;
     }
 
     private long lastFrame = System.currentTimeMillis();
@@ -1284,44 +1498,65 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
 
     public final Profiler timer = new Profiler();
 
-    private final Frame networkFrame;
+    private final FrameQueue queue;
 
-    NetworkThread(LX lx) {
+    NetworkThread(int queueDepth) {
       super("LXEngine Network Thread");
-      this.networkFrame = new Frame(lx);
+      this.queue = new FrameQueue(queueDepth);
+    }
+
+    private void enqueue(Frame frame) {
+      frame.completeNanos = System.nanoTime();
+      frame.refCount.incrementAndGet();
+      if (!this.queue.offer(frame)) {
+        // Network thread has fallen behind by a full queue, drop the oldest
+        // frame so that live output stays as current as possible
+        final Frame oldest = this.queue.poll();
+        if (oldest != null) {
+          oldest.refCount.decrementAndGet();
+          ++profiler.outputDroppedFrames;
+        }
+        // This is the only producer, so there is now room for the frame
+        this.queue.offer(frame);
+      }
+      LockSupport.unpark(this);
+      profiler.outputQueueDepth = this.queue.size();
     }
 
     @Override
     public void run() {
       LXOutput.log("LXEngine Network Thread started");
       while (!isInterrupted()) {
-        try {
-          synchronized(this) {
-            wait();
-          }
-        } catch (InterruptedException ix) {
-          break;
+        final long pollStart = System.nanoTime();
+        final Frame frame = this.queue.poll();
+        if (frame == null) {
+          // Wait for the engine to enqueue a frame. Spurious or early wakeups
+          // just come back through the loop and poll again, so nothing is missed
+          LockSupport.park(this);
+          continue;
         }
 
         if (output.enabled.isOn()) {
-          // Copy from the double-buffer into our local storage and send from here
-          long copyStart = System.nanoTime();
-          synchronized (buffer) {
-            this.networkFrame.copyFrom(buffer.copy);
-          }
-          long copyEnd = System.nanoTime();
-          this.timer.copyNanos = copyEnd - copyStart;
+          final long sendStart = System.nanoTime();
+          this.timer.copyNanos = sendStart - pollStart;
           try {
-            output.send(this.networkFrame.main);
+            output.send(frame.main);
           } catch (Throwable x) {
             // TODO(mcslee): For now we don't flag these, there could be ConcurrentModificationException
             // or ArrayIndexBounds exceptions if the model/fixtures are being changed in real-time.
             // This is rare and would only occur at a VERY high framerate.
             LX.error(x, "Error in network thread: " + x.getLocalizedMessage());
           }
-          this.timer.sendNanos = System.nanoTime() - copyEnd;
+          final long sendEnd = System.nanoTime();
+          this.timer.sendNanos = sendEnd - sendStart;
+          profiler.outputLatencyNanos = sendEnd - frame.completeNanos;
+          metrics.record(LXEngine.this, LXMetrics.Metric.NETWORK_COPY, this.timer.copyNanos);
+          metrics.record(LXEngine.this, LXMetrics.Metric.NETWORK_SEND, this.timer.sendNanos);
         }
 
+        // Release the frame back to the engine pool
+        frame.refCount.decrementAndGet();
+
         // Compute network framerate
         long now = System.currentTimeMillis();
         this.actualFrameRate = 1000.f / (now - this.lastFrame);
@@ -1402,6 +1637,7 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
 
     // These need to be explicitly enabled per-project
     this.isCompositorMultithreaded.setValue(false);
+    this.isChannelMultithreaded.setValue(false);
     this.isNetworkMultithreaded.setValue(false);
 
     // Disable output by default, project must explicitly re-open
@@ -1463,11 +1699,10 @@ public class LXEngine extends LXComponent implements LXOscComponent, LXModulatio
     LX.dispose(this.osc);
     LX.dispose(this.dmx);
     LX.dispose(this.tempo);
+    LX.dispose(this.metrics);
 
     // Kill network thread if it exists
-    synchronized (this.networkThread) {
-      this.networkThread.interrupt();
-    }
+    this.networkThread.interrupt();
 
     // Clean up engine parameters
     super.dispose();
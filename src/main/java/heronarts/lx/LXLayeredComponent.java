@@ -24,6 +24,7 @@ import heronarts.lx.model.LXModel;
 import heronarts.lx.model.LXPoint;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -328,10 +329,7 @@ public abstract class LXLayeredComponent extends LXModelComponent implements LXL
    * @return this
    */
   protected final LXLayeredComponent setColors(int c) {
-    for (LXPoint p : model.points) {
-      this.colors[p.index] = c;
-    }
-    return this;
+    return setColor(this.model, c);
   }
 
   /**
@@ -342,8 +340,15 @@ public abstract class LXLayeredComponent extends LXModelComponent implements LXL
    * @return this
    */
   protected final LXLayeredComponent setColor(LXModel model, int c) {
-    for (LXPoint p : model.points) {
-      this.colors[p.index] = c;
+    if (model.hasCompactIndexRanges()) {
+      final int[] ranges = model.getIndexRanges();
+      for (int r = 0; r < ranges.length; r += 2) {
+        Arrays.fill(this.colors, ranges[r], ranges[r] + ranges[r+1], c);
+      }
+    } else {
+      for (LXPoint p : model.points) {
+        this.colors[p.index] = c;
+      }
     }
     return this;
   }
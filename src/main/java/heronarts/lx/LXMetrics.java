@@ -0,0 +1,349 @@
+/**
+ * Copyright 2013- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+
+import heronarts.lx.osc.LXOscComponent;
+import heronarts.lx.osc.OscMessage;
+import heronarts.lx.parameter.BooleanParameter;
+import heronarts.lx.parameter.LXParameter;
+
+/**
+ * Registry of timing histograms for the engine and its components. Where the
+ * profilers only hold the timing of the most recent frame, these histograms
+ * accumulate a distribution so that percentiles and jitter can be inspected.
+ * Recording is a no-op unless metrics are enabled.
+ *
+ * Metrics may be read in JSON form via toJson(), or over OSC by sending a
+ * message to /lx/metrics/query, which replies with count, mean, p50, p90,
+ * p99 and max values in milliseconds for every histogram, addressed by the
+ * component path under /lx/metrics. Sending /lx/metrics/reset clears them.
+ */
+public class LXMetrics extends LXComponent implements LXOscComponent {
+
+  /**
+   * Kinds of timing that may be recorded against a component
+   */
+  public enum Metric {
+    FRAME("frame"),
+    CHANNEL("channel"),
+    COMPOSITE("composite"),
+    INPUT("input"),
+    MIDI("midi"),
+    OSC("osc"),
+    MODULATION("modulation"),
+    OUTPUT("output"),
+    OUTPUT_ENCODE("outputEncode"),
+    OUTPUT_FLUSH("outputFlush"),
+    NETWORK_COPY("networkCopy"),
+    NETWORK_SEND("networkSend"),
+    LOOP("loop"),
+    BLEND("blend"),
+    RUN("run"),
+    EFFECT("effect");
+
+    public final String key;
+
+    private Metric(String key) {
+      this.key = key;
+    }
+  }
+
+  private static final Metric[] METRICS = Metric.values();
+
+  /**
+   * Log-linear histogram of nanosecond durations, in the style of HdrHistogram.
+   * Every power of two is split into 32 linear sub-buckets, giving roughly 3%
+   * precision over the full range. Recording is lock-free and safe from
+   * multiple threads.
+   */
+  public static class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final int NUM_BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(NUM_BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    private static int bucketIndex(long value) {
+      if (value < SUB_BUCKET_COUNT) {
+        return (int) Math.max(0, value);
+      }
+      final int exponent = Math.min(MAX_EXPONENT, 63 - Long.numberOfLeadingZeros(value));
+      final int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+      return Math.min(NUM_BUCKETS - 1, (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + sub);
+    }
+
+    private static long bucketValue(int index) {
+      if (index < SUB_BUCKET_COUNT) {
+        return index;
+      }
+      final int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+      final int sub = index % SUB_BUCKET_COUNT;
+      final long base = ((long) (SUB_BUCKET_COUNT | sub)) << (exponent - SUB_BUCKET_BITS);
+      // Middle of the bucket's range
+      return base + ((1L << (exponent - SUB_BUCKET_BITS)) >>> 1);
+    }
+
+    public void record(long nanos) {
+      this.counts.incrementAndGet(bucketIndex(nanos));
+      this.count.incrementAndGet();
+      this.sum.addAndGet(nanos);
+      long prev = this.max.get();
+      while ((nanos > prev) && !this.max.compareAndSet(prev, nanos)) {
+        prev = this.max.get();
+      }
+    }
+
+    public long getCount() {
+      return this.count.get();
+    }
+
+    public long getMaxNanos() {
+      return this.max.get();
+    }
+
+    public double getMeanNanos() {
+      final long count = this.count.get();
+      return (count == 0) ? 0 : this.sum.get() / (double) count;
+    }
+
+    /**
+     * Gets the approximate value at the given percentile
+     *
+     * @param percentile Percentile, from 0-100
+     * @return Approximate duration in nanoseconds
+     */
+    public long getPercentileNanos(double percentile) {
+      final long count = this.count.get();
+      if (count == 0) {
+        return 0;
+      }
+      final long target = Math.max(1, (long) Math.ceil(count * percentile / 100.));
+      long seen = 0;
+      for (int i = 0; i < NUM_BUCKETS; ++i) {
+        seen += this.counts.get(i);
+        if (seen >= target) {
+          return Math.min(bucketValue(i), this.max.get());
+        }
+      }
+      return this.max.get();
+    }
+
+    public void reset() {
+      for (int i = 0; i < NUM_BUCKETS; ++i) {
+        this.counts.set(i, 0);
+      }
+      this.count.set(0);
+      this.sum.set(0);
+      this.max.set(0);
+    }
+
+    public JsonObject toJson() {
+      final JsonObject obj = new JsonObject();
+      obj.addProperty("count", getCount());
+      obj.addProperty("meanMs", getMeanNanos() / 1000000.);
+      obj.addProperty("p50Ms", getPercentileNanos(50) / 1000000.);
+      obj.addProperty("p90Ms", getPercentileNanos(90) / 1000000.);
+      obj.addProperty("p99Ms", getPercentileNanos(99) / 1000000.);
+      obj.addProperty("p999Ms", getPercentileNanos(99.9) / 1000000.);
+      obj.addProperty("maxMs", getMaxNanos() / 1000000.);
+      return obj;
+    }
+  }
+
+  public final BooleanParameter enabled =
+    new BooleanParameter("Metrics", false)
+    .setMappable(false)
+    .setDescription("Whether timing histograms are recorded for the engine and its components");
+
+  private volatile boolean isEnabled = false;
+
+  private final Map<LXComponent, AtomicReferenceArray<Histogram>> histograms = new ConcurrentHashMap<>();
+
+  LXMetrics(LX lx) {
+    super(lx, "Metrics");
+    addParameter("enabled", this.enabled);
+  }
+
+  @Override
+  public void onParameterChanged(LXParameter p) {
+    super.onParameterChanged(p);
+    if (p == this.enabled) {
+      this.isEnabled = this.enabled.isOn();
+    }
+  }
+
+  public boolean isEnabled() {
+    return this.isEnabled;
+  }
+
+  /**
+   * Records a timing against a component. This does nothing if metrics are not enabled.
+   *
+   * @param component Component the timing belongs to
+   * @param metric Kind of timing
+   * @param nanos Duration in nanoseconds
+   */
+  public void record(LXComponent component, Metric metric, long nanos) {
+    if (this.isEnabled) {
+      getHistogram(component, metric).record(nanos);
+    }
+  }
+
+  /**
+   * Gets the histogram for a component and metric, creating it if necessary
+   *
+   * @param component Component
+   * @param metric Kind of timing
+   * @return Histogram
+   */
+  public Histogram getHistogram(LXComponent component, Metric metric) {
+    AtomicReferenceArray<Histogram> metrics = this.histograms.get(component);
+    if (metrics == null) {
+      metrics = this.histograms.computeIfAbsent(component, c -> new AtomicReferenceArray<Histogram>(METRICS.length));
+    }
+    Histogram histogram = metrics.get(metric.ordinal());
+    if (histogram == null) {
+      metrics.compareAndSet(metric.ordinal(), null, new Histogram());
+      histogram = metrics.get(metric.ordinal());
+    }
+    return histogram;
+  }
+
+  /**
+   * Discards all histograms for a component, invoked when it is disposed
+   *
+   * @param component Component
+   */
+  void unregister(LXComponent component) {
+    this.histograms.remove(component);
+  }
+
+  /**
+   * Clears all recorded values
+   */
+  public void reset() {
+    for (AtomicReferenceArray<Histogram> metrics : this.histograms.values()) {
+      for (int i = 0; i < metrics.length(); ++i) {
+        final Histogram histogram = metrics.get(i);
+        if (histogram != null) {
+          histogram.reset();
+        }
+      }
+    }
+  }
+
+  /**
+   * Serializes all histograms, keyed by component path and then metric name
+   *
+   * @return JSON object of all metrics
+   */
+  public JsonObject toJson() {
+    final JsonObject obj = new JsonObject();
+    for (Map.Entry<LXComponent, AtomicReferenceArray<Histogram>> entry : this.histograms.entrySet()) {
+      final JsonObject componentObj = new JsonObject();
+      final AtomicReferenceArray<Histogram> metrics = entry.getValue();
+      for (Metric metric : METRICS) {
+        final Histogram histogram = metrics.get(metric.ordinal());
+        if (histogram != null) {
+          componentObj.add(metric.key, histogram.toJson());
+        }
+      }
+      obj.add(entry.getKey().getCanonicalPath(), componentObj);
+    }
+    return obj;
+  }
+
+  /**
+   * Writes all metrics to a JSON file
+   *
+   * @param file File to write
+   * @throws IOException If the file could not be written
+   */
+  public void writeJson(File file) throws IOException {
+    try (JsonWriter writer = new JsonWriter(new FileWriter(file))) {
+      writer.setIndent("  ");
+      new GsonBuilder().create().toJson(toJson(), writer);
+    }
+  }
+
+  private static final String PATH_QUERY = "query";
+  private static final String PATH_RESET = "reset";
+
+  @Override
+  public boolean handleOscMessage(OscMessage message, String[] parts, int index) {
+    final String path = parts[index];
+    if (path.equals(PATH_QUERY)) {
+      oscMetrics();
+      return true;
+    } else if (path.equals(PATH_RESET)) {
+      reset();
+      return true;
+    }
+    return super.handleOscMessage(message, parts, index);
+  }
+
+  private void oscMetrics() {
+    final String prefix = getOscAddress();
+    for (Map.Entry<LXComponent, AtomicReferenceArray<Histogram>> entry : this.histograms.entrySet()) {
+      String componentPath = entry.getKey().getCanonicalPath();
+      if (componentPath.startsWith("/" + LXPath.ROOT)) {
+        componentPath = componentPath.substring(LXPath.ROOT.length() + 1);
+      }
+      componentPath = prefix + componentPath;
+      final AtomicReferenceArray<Histogram> metrics = entry.getValue();
+      for (Metric metric : METRICS) {
+        final Histogram histogram = metrics.get(metric.ordinal());
+        if (histogram != null) {
+          final String metricPath = componentPath + "/" + metric.key;
+          this.lx.engine.osc.sendMessage(metricPath + "/count", (int) histogram.getCount());
+          this.lx.engine.osc.sendMessage(metricPath + "/mean", (float) (histogram.getMeanNanos() / 1000000.));
+          this.lx.engine.osc.sendMessage(metricPath + "/p50", (float) (histogram.getPercentileNanos(50) / 1000000.));
+          this.lx.engine.osc.sendMessage(metricPath + "/p90", (float) (histogram.getPercentileNanos(90) / 1000000.));
+          this.lx.engine.osc.sendMessage(metricPath + "/p99", (float) (histogram.getPercentileNanos(99) / 1000000.));
+          this.lx.engine.osc.sendMessage(metricPath + "/max", (float) (histogram.getMaxNanos() / 1000000.));
+        }
+      }
+    }
+  }
+
+  @Override
+  public void dispose() {
+    this.histograms.clear();
+    super.dispose();
+  }
+
+}
@@ -379,6 +379,10 @@ public interface LXSerializable {
      * @return JsonObject representation of the object
      */
     public static JsonObject toObject(LX lx, LXSerializable serializable, boolean stripIds) {
+      if (!stripIds && (serializable instanceof LXComponent component) && (lx != null) && lx.autoSave.isSerializing()) {
+        // Unmodified subtrees are reused from the previous incremental save
+        return component.saveIncremental(lx, lx.autoSave.getEpoch());
+      }
       JsonObject obj = new JsonObject();
       serializable.save(lx,  obj);
       if (stripIds) {
@@ -397,9 +401,7 @@ public interface LXSerializable {
     public static JsonObject toObject(LX lx, Map<String, ? extends LXSerializable> serializables) {
       JsonObject map = new JsonObject();
       for (String key : serializables.keySet()) {
-        JsonObject obj = new JsonObject();
-        serializables.get(key).save(lx, obj);
-        map.add(key, obj);
+        map.add(key, toObject(lx, serializables.get(key)));
       }
       return map;
     }
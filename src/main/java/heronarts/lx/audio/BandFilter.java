@@ -185,8 +185,8 @@ public class BandFilter extends LXModulator implements LXNormalizedParameter, LX
     final double gain = this.gain.getValue();
     final double range = this.range.getValue();
 
-    final double attackGain = Math.exp(-meter.getBufferSize() / (this.attack.getValue() * meter.getSampleRate() * .001));
-    final double releaseGain = Math.exp(-meter.getBufferSize() / (this.release.getValue() * meter.getSampleRate() * .001));
+    final double attackGain = Math.exp(-meter.getHopSize() / (this.attack.getValue() * meter.getSampleRate() * .001));
+    final double releaseGain = Math.exp(-meter.getHopSize() / (this.release.getValue() * meter.getSampleRate() * .001));
     this.impl.compute(
       meter.fft,
       attackGain,
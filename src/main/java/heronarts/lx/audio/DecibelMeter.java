@@ -35,8 +35,33 @@ public class DecibelMeter extends LXModulator implements LXNormalizedParameter,
   protected static final double LOG_10 = Math.log(10);
   protected static final double RATIO_20_LOG10 = 20. / LOG_10;
 
+  /**
+   * Maximum number of windows analyzed in a single engine frame, if the meter has
+   * fallen further behind than this then the oldest windows are dropped
+   */
+  private static final int MAX_WINDOWS_PER_FRAME = 8;
+
   protected LXAudioBuffer buffer;
 
+  private LXAudioRing.Reader reader = null;
+
+  private int overlap = 1;
+
+  /**
+   * Window of samples currently being analyzed, valid during onAudioFrame()
+   */
+  protected float[] samples = new float[0];
+
+  /**
+   * Sample rate of the window currently being analyzed
+   */
+  protected int sampleRate = -1;
+
+  /**
+   * Position in the buffer's ring of the window currently being analyzed
+   */
+  protected long windowPosition = -1;
+
   /**
    * Gain of the meter, in decibels
    */
@@ -145,20 +170,73 @@ public class DecibelMeter extends LXModulator implements LXNormalizedParameter,
   }
 
   public final DecibelMeter setBuffer(LXAudioBuffer buffer) {
-    if (this.buffer != null) {
-      this.buffer.removeMeter(this);
-    }
     this.buffer = buffer;
-    if (this.buffer != null) {
-      this.buffer.addMeter(this);
+    updateReader();
+    return this;
+  }
+
+  /**
+   * Sets the number of analysis windows that overlap each sample. Windows are
+   * the size of the buffer and advance by the buffer size divided by this
+   * amount, so higher values give a higher analysis rate.
+   *
+   * @param overlap Overlap factor, must evenly divide the buffer size
+   * @return this
+   */
+  protected DecibelMeter setOverlap(int overlap) {
+    if ((overlap <= 0) || ((this.buffer != null) && (this.buffer.bufferSize() % overlap != 0))) {
+      throw new IllegalArgumentException("DecibelMeter overlap must evenly divide buffer size: " + overlap);
     }
+    this.overlap = overlap;
+    updateReader();
     return this;
   }
 
+  private void updateReader() {
+    if (this.buffer == null) {
+      this.reader = null;
+      return;
+    }
+    final int bufferSize = this.buffer.bufferSize();
+    if (this.samples.length != bufferSize) {
+      this.samples = new float[bufferSize];
+    }
+    this.reader = this.buffer.getRing().newReader(bufferSize, bufferSize / this.overlap);
+  }
+
   public int getBufferSize() {
     return this.buffer.bufferSize();
   }
 
+  /**
+   * Number of new samples between successive analysis windows
+   *
+   * @return Hop size in samples
+   */
+  public int getHopSize() {
+    return this.buffer.bufferSize() / this.overlap;
+  }
+
+  /**
+   * Total number of analysis windows that were skipped because the engine fell
+   * behind the audio input
+   *
+   * @return Number of dropped windows
+   */
+  public long getDroppedWindows() {
+    return (this.reader != null) ? this.reader.getDropped() : 0;
+  }
+
+  /**
+   * Total number of analysis windows that were overwritten by the audio input
+   * while being read, and had to be retried
+   *
+   * @return Number of overruns
+   */
+  public long getOverruns() {
+    return (this.reader != null) ? this.reader.getOverruns() : 0;
+  }
+
   public int getSampleRate() {
     return this.buffer.sampleRate();
   }
@@ -217,14 +295,35 @@ public class DecibelMeter extends LXModulator implements LXNormalizedParameter,
   }
 
   /**
-   * Compute new values when a frame of audio input is received. This is called by the
-   * thread that has filled the audio buffer.
+   * Analyzes all of the complete windows that have arrived from the audio thread
+   * since the last frame
+   */
+  private void processAudio() {
+    if (this.reader == null) {
+      return;
+    }
+    this.reader.discard(MAX_WINDOWS_PER_FRAME);
+    while (this.reader.read(this.samples)) {
+      this.sampleRate = this.reader.sampleRate();
+      this.windowPosition = this.reader.getWindowPosition();
+      onAudioFrame();
+    }
+  }
+
+  /**
+   * Compute new values for a window of audio. This is called on the engine thread
+   * with the window in the samples array, once for each window that has arrived.
    */
   protected void onAudioFrame() {
-    this.rmsRaw = this.buffer.getRms();
+    float sumSquares = 0;
+    for (float sample : this.samples) {
+      sumSquares += sample * sample;
+    }
+    this.rmsRaw = (float) Math.sqrt(sumSquares / this.samples.length);
 
-    this.attackGain = Math.exp(-this.buffer.bufferSize() / (this.attack.getValue() * this.buffer.sampleRate() * .001));
-    this.releaseGain = Math.exp(-this.buffer.bufferSize() / (this.release.getValue() * this.buffer.sampleRate() * .001));
+    final int hopSize = getHopSize();
+    this.attackGain = Math.exp(-hopSize / (this.attack.getValue() * this.sampleRate * .001));
+    this.releaseGain = Math.exp(-hopSize / (this.release.getValue() * this.sampleRate * .001));
 
     final double gain = (this.rmsRaw > this.rmsEnv) ? this.attackGain : this.releaseGain;
     this.rmsEnv = (this.rmsRaw + gain * (this.rmsEnv - this.rmsRaw));
@@ -233,16 +332,27 @@ public class DecibelMeter extends LXModulator implements LXNormalizedParameter,
       this.rmsPeak = this.rmsRaw;
       this.peakMillis = 0;
     } else {
-      this.peakMillis += this.buffer.bufferSize() * 1000. / this.buffer.sampleRate();
+      this.peakMillis += hopSize * 1000. / this.sampleRate;
       if (this.peakMillis > PEAK_HOLD_MS) {
-        final double r = Math.exp(-this.buffer.bufferSize() / (this.release.getValue() * .001 * this.buffer.sampleRate()));
+        final double r = Math.exp(-hopSize / (this.release.getValue() * .001 * this.sampleRate));
         this.rmsPeak = this.rmsRaw + r * (this.rmsPeak - this.rmsRaw);
       }
     }
   }
 
+  @Override
+  protected void onStart() {
+    super.onStart();
+    // Don't analyze whatever backlog built up while stopped
+    if (this.reader != null) {
+      this.reader.reset();
+    }
+  }
+
   @Override
   protected double computeValue(double deltaMs) {
+    processAudio();
+
     final double range = this.range.getValue();
     final double gain = this.gain.getValue();
 
@@ -20,6 +20,15 @@ package heronarts.lx.audio;
 
 import java.util.Arrays;
 
+/**
+ * Computes the magnitude spectrum of a window of real audio samples, and averages
+ * it into a set of bands spaced either by octave or on the mel scale.
+ *
+ * The transform of N real samples is computed by packing them into an N/2 point
+ * complex transform and then separating the even and odd halves, which is about
+ * twice as fast as a full complex transform with a zero imaginary input. Twiddle
+ * factors and bit-reversal indices are precomputed once per size.
+ */
 public class FourierTransform {
 
   public static final float LOG_2 = (float) Math.log(2);
@@ -39,23 +48,173 @@ public class FourierTransform {
     }
   };
 
+  /**
+   * Spacing of the frequency bands, both run from BASE_BAND_HZ up to nyquist
+   */
+  public enum BandScale {
+    /**
+     * Bands are an equal number of octaves wide, i.e. a constant-Q spacing
+     */
+    OCTAVE,
+
+    /**
+     * Bands are an equal width on the mel scale, linear in the low end and
+     * logarithmic in the high end
+     */
+    MEL;
+  }
+
+  /**
+   * The magnitude spectrum of a window of samples. A spectrum may be shared by
+   * any number of transforms analyzing the same buffer, in which case it is only
+   * computed once for each window.
+   */
+  static class Spectrum {
+
+    final int size;
+    final Window window;
+
+    private final int halfSize;
+    private final int logHalfSize;
+
+    private final float[] windowCoefficients;
+    private final int[] bitReverseIndex;
+
+    // e^(-2 pi i k / N/2) for k in [0, N/4)
+    private final float[] twiddleReal;
+    private final float[] twiddleImaginary;
+
+    // e^(-2 pi i k / N) for k in [0, N/2]
+    private final float[] unpackReal;
+    private final float[] unpackImaginary;
+
+    private final float[] real;
+    private final float[] imaginary;
+
+    final float[] amplitude;
+
+    /**
+     * Position of the window in its audio ring that this spectrum was computed
+     * from, or -1 if unknown
+     */
+    private long position = -1;
+
+    Spectrum(int size, Window window) {
+      if ((size < 2) || ((size & (size - 1)) != 0)) {
+        throw new IllegalArgumentException("bufferSize must be a power of two: " + size);
+      }
+      this.size = size;
+      this.window = window;
+      this.halfSize = size / 2;
+      this.logHalfSize = Integer.numberOfTrailingZeros(this.halfSize);
+
+      this.windowCoefficients = new float[size];
+      for (int i = 0; i < size; ++i) {
+        this.windowCoefficients[i] = window.getCoefficient(i, size);
+      }
+
+      this.bitReverseIndex = new int[this.halfSize];
+      for (int limit = 1, bit = this.halfSize/2; limit < this.halfSize; limit <<= 1, bit >>= 1) {
+        for (int i = 0; i < limit; ++i) {
+          this.bitReverseIndex[i + limit] = this.bitReverseIndex[i] + bit;
+        }
+      }
+
+      this.twiddleReal = new float[Math.max(1, this.halfSize / 2)];
+      this.twiddleImaginary = new float[this.twiddleReal.length];
+      for (int k = 0; k < this.twiddleReal.length; ++k) {
+        this.twiddleReal[k] = (float) Math.cos(-2 * Math.PI * k / this.halfSize);
+        this.twiddleImaginary[k] = (float) Math.sin(-2 * Math.PI * k / this.halfSize);
+      }
+
+      this.unpackReal = new float[this.halfSize + 1];
+      this.unpackImaginary = new float[this.halfSize + 1];
+      for (int k = 0; k <= this.halfSize; ++k) {
+        this.unpackReal[k] = (float) Math.cos(-2 * Math.PI * k / size);
+        this.unpackImaginary[k] = (float) Math.sin(-2 * Math.PI * k / size);
+      }
+
+      this.real = new float[this.halfSize];
+      this.imaginary = new float[this.halfSize];
+      this.amplitude = new float[this.halfSize + 1];
+    }
+
+    /**
+     * Computes the spectrum of a window, unless it was already computed
+     *
+     * @param samples Window of samples
+     * @param position Position of the window in its ring, or -1 to always compute
+     */
+    void compute(float[] samples, long position) {
+      if ((position >= 0) && (position == this.position)) {
+        return;
+      }
+      this.position = position;
+
+      final float[] real = this.real;
+      final float[] imaginary = this.imaginary;
+      final float[] coefficients = this.windowCoefficients;
+
+      // Pack even samples into real and odd into imaginary, windowed and in
+      // bit-reversed order
+      for (int i = 0; i < this.halfSize; ++i) {
+        final int j = this.bitReverseIndex[i] << 1;
+        real[i] = samples[j] * coefficients[j];
+        imaginary[i] = samples[j+1] * coefficients[j+1];
+      }
+
+      // Complex transform of size N/2
+      for (int l = 0, n = 1; l < this.logHalfSize; ++l, n <<= 1) {
+        final int step = this.halfSize / (2*n);
+        for (int f = 0; f < n; ++f) {
+          final float wR = this.twiddleReal[f * step];
+          final float wI = this.twiddleImaginary[f * step];
+          for (int i = f; i < this.halfSize; i += 2*n) {
+            final int n2 = i + n;
+            final float tR = wR * real[n2] - wI * imaginary[n2];
+            final float tI = wR * imaginary[n2] + wI * real[n2];
+            real[n2] = real[i] - tR;
+            imaginary[n2] = imaginary[i] - tI;
+            real[i] += tR;
+            imaginary[i] += tI;
+          }
+        }
+      }
+
+      // Separate the transforms of the even and odd samples, and combine
+      // them into the magnitude of the real transform
+      for (int k = 0; k <= this.halfSize; ++k) {
+        final int a = (k == this.halfSize) ? 0 : k;
+        final int b = (k == 0) ? 0 : this.halfSize - k;
+        final float aR = real[a], aI = imaginary[a];
+        final float bR = real[b], bI = -imaginary[b];
+        final float eR = .5f * (aR + bR);
+        final float eI = .5f * (aI + bI);
+        final float oR = .5f * (aI - bI);
+        final float oI = -.5f * (aR - bR);
+        final float wR = this.unpackReal[k];
+        final float wI = this.unpackImaginary[k];
+        final float xR = eR + wR * oR - wI * oI;
+        final float xI = eI + wR * oI + wI * oR;
+        this.amplitude[k] = (float) Math.sqrt(xR*xR + xI*xI);
+      }
+    }
+  }
+
   private Window window = Window.HAMMING;
 
+  private BandScale bandScale = BandScale.OCTAVE;
+
   private final int bufferSize;
 
-  private final int logN;
-  private final float[] sinN;
-  private final float[] cosN;
-  private final float[] windowCoefficients;
+  private Spectrum spectrum;
 
-  private final int[] bitReverseIndex;
-  private final float[] real;
-  private final float[] imaginary;
   private final float[] amplitude;
 
   private final int numBands;
   private final float[] bands;
   private final int[] bandOffset;
+  private final float[] bandOctave;
 
   // Function of sample rate, specified by compute() call
   private int sampleRate;
@@ -67,49 +226,14 @@ public class FourierTransform {
   }
 
   public FourierTransform(int bufferSize, int numBands) {
-    if ((bufferSize & (bufferSize - 1)) != 0) {
-      throw new IllegalArgumentException("bufferSize must be a power of two: " + bufferSize);
-    }
-
+    this.spectrum = new Spectrum(bufferSize, this.window);
     this.bufferSize = bufferSize;
-    this.logN = (int) (Math.log(bufferSize) / Math.log(2));
-
-    this.sinN = new float[this.logN];
-    this.cosN = new float[this.logN];
-    computePhaseTables();
-
-    this.windowCoefficients = new float[this.bufferSize];
-    computeWindowCoefficients();
-
-    this.bitReverseIndex = new int[this.bufferSize];
-    computeBitReverseIndices();
-
-    this.real = new float[this.bufferSize];
-    this.imaginary = new float[this.bufferSize];
     this.amplitude = new float[this.bufferSize/2 + 1];
 
     this.numBands = numBands;
     this.bands = new float[this.numBands];
     this.bandOffset = new int[this.numBands + 1];
-  }
-
-  private void computePhaseTables() {
-    // given i, N = 2^i
-    // sin[i] = sin(-PI / N);
-    // cos[i] = cos(-PI / N);
-    for (int i = 0, N = 1; i < this.logN; ++i, N <<= 1) {
-      this.sinN[i] = (float) Math.sin(-Math.PI / N);
-      this.cosN[i] = (float) Math.cos(-Math.PI / N);
-    }
-  }
-
-  private void computeBitReverseIndices() {
-    this.bitReverseIndex[0] = 0;
-    for (int limit = 1, bit = this.bufferSize/2; limit < this.bufferSize; limit <<= 1, bit >>= 1) {
-      for (int i = 0; i < limit; ++i) {
-        this.bitReverseIndex[i + limit] = this.bitReverseIndex[i] + bit;
-      }
-    }
+    this.bandOctave = new float[this.numBands];
   }
 
   public int getSize() {
@@ -119,59 +243,72 @@ public class FourierTransform {
   public FourierTransform setWindow(Window window) {
     if (this.window != window) {
       this.window = window;
-      computeWindowCoefficients();
+      this.spectrum = new Spectrum(this.bufferSize, window);
     }
     return this;
   }
 
-  private void computeWindowCoefficients() {
-    for (int i = 0; i < this.bufferSize; ++i) {
-      this.windowCoefficients[i] = this.window.getCoefficient(i, this.bufferSize);
+  /**
+   * Sets the spacing of the frequency bands
+   *
+   * @param bandScale Band scale
+   * @return this
+   */
+  public FourierTransform setBandScale(BandScale bandScale) {
+    if (this.bandScale != bandScale) {
+      this.bandScale = bandScale;
+      computeBandOffsets();
     }
+    return this;
+  }
+
+  public BandScale getBandScale() {
+    return this.bandScale;
   }
 
   public FourierTransform compute(LXAudioBuffer buffer) {
-    final float[] samples = buffer.samples;
+    return compute(buffer.samples, buffer.sampleRate());
+  }
+
+  /**
+   * Computes the transform of a window of samples
+   *
+   * @param samples Samples, must have the same length as this transform
+   * @param sampleRate Sample rate of the samples
+   * @return this
+   */
+  public FourierTransform compute(float[] samples, int sampleRate) {
+    return compute(this.spectrum, -1, samples, sampleRate);
+  }
+
+  /**
+   * Computes the transform of a window read from a buffer's ring, sharing the
+   * spectrum with any other transforms of the same size and window on that buffer
+   *
+   * @param buffer Buffer the window was read from
+   * @param position Position of the window in the buffer's ring
+   * @param samples Samples
+   * @param sampleRate Sample rate of the samples
+   * @return this
+   */
+  FourierTransform compute(LXAudioBuffer buffer, long position, float[] samples, int sampleRate) {
+    return compute(buffer.getSpectrum(this.bufferSize, this.window), position, samples, sampleRate);
+  }
+
+  private FourierTransform compute(Spectrum spectrum, long position, float[] samples, int sampleRate) {
     if (samples.length != this.bufferSize) {
       throw new IllegalArgumentException("Samples must have same length as FourierTransform size: " + samples.length);
     }
 
     // Set sample rate
-    setSampleRate(buffer.sampleRate());
+    setSampleRate(sampleRate);
 
-    // Apply window function, initialize bit-reverse-indexed values
-    for (int i = 0; i < this.bufferSize; ++i) {
-      int bri = this.bitReverseIndex[i];
-      this.real[i] = samples[bri] * this.windowCoefficients[bri];
-      this.imaginary[i] = 0f;
-    }
-    // Iterate through l = [0, logN-1], N = 2^l
-    for (int l = 0, n = 1; l < this.logN; ++l, n <<= 1) {
-      float cosN = this.cosN[l];
-      float sinN = this.sinN[l];
-      float phaseR = 1f;
-      float phaseI = 0f;
-      for (int f = 0; f < n; ++f) {
-        for (int i = f; i < this.bufferSize; i += 2*n) {
-          int n2 = i + n;
-          float tR = phaseR * this.real[n2] - phaseI * this.imaginary[n2];
-          float tI = phaseR * this.imaginary[n2] + phaseI * this.real[n2];
-          this.real[n2] = this.real[i] - tR;
-          this.imaginary[n2] = this.imaginary[i] - tI;
-          this.real[i] += tR;
-          this.imaginary[i] += tI;
-        }
-        float tmpR = phaseR;
-        phaseR = (phaseR * cosN) - (phaseI * sinN);
-        phaseI = (tmpR * sinN) + (phaseI * cosN);
-      }
-    }
-    // Amplitude
-    for (int i = 0; i < this.amplitude.length; ++i) {
-      this.amplitude[i] = (float) Math.sqrt(this.real[i]*this.real[i] + this.imaginary[i]*this.imaginary[i]);
-    }
+    // Take a copy of the spectrum, since a shared one will move on to other
+    // windows as other meters are processed
+    spectrum.compute(samples, position);
+    System.arraycopy(spectrum.amplitude, 0, this.amplitude, 0, this.amplitude.length);
 
-    // Compute octave averages
+    // Compute band averages
     if (this.numBands > 0) {
       for (int band = 0; band < this.numBands; ++band) {
         float avg = 0;
@@ -192,23 +329,44 @@ public class FourierTransform {
   private void setSampleRate(int sampleRate) {
     if (this.sampleRate != sampleRate) {
       this.sampleRate = sampleRate;
-      if (this.sampleRate <= 0) {
-        this.bandWidthInv = 0;
-        this.bandOctaveRatio = 0;
-        Arrays.fill(this.bandOffset, 0);
-      } else {
-        this.bandWidthInv = this.bufferSize / (float) this.sampleRate;
-
-        float nyquist = this.sampleRate / 2;
-        float nyquistRatio = nyquist / BASE_BAND_HZ;
-        float bandExpRange = (float) Math.log(nyquistRatio) / LOG_2;
-        this.bandOctaveRatio = bandExpRange / (this.numBands - 1);
-
-        for (int i = 0; i < this.numBands; ++i) {
-          float bandLimitHz = (float) Math.pow(2, i * this.bandOctaveRatio) * BASE_BAND_HZ;
-          this.bandOffset[i+1] = Math.round(this.bandWidthInv * bandLimitHz);
-        }
-      }
+      computeBandOffsets();
+    }
+  }
+
+  private static double hzToMel(double hz) {
+    return 2595 * Math.log10(1 + hz / 700.);
+  }
+
+  private static double melToHz(double mel) {
+    return 700 * (Math.pow(10, mel / 2595) - 1);
+  }
+
+  private void computeBandOffsets() {
+    if (this.sampleRate <= 0) {
+      this.bandWidthInv = 0;
+      this.bandOctaveRatio = 0;
+      Arrays.fill(this.bandOffset, 0);
+      Arrays.fill(this.bandOctave, 0);
+      return;
+    }
+
+    this.bandWidthInv = this.bufferSize / (float) this.sampleRate;
+
+    float nyquist = this.sampleRate / 2;
+    float nyquistRatio = nyquist / BASE_BAND_HZ;
+    float bandExpRange = (float) Math.log(nyquistRatio) / LOG_2;
+    this.bandOctaveRatio = bandExpRange / (this.numBands - 1);
+
+    final double minMel = hzToMel(BASE_BAND_HZ);
+    final double melRatio = (hzToMel(nyquist) - minMel) / (this.numBands - 1);
+
+    for (int i = 0; i < this.numBands; ++i) {
+      final float bandLimitHz = switch (this.bandScale) {
+        case MEL -> (float) melToHz(minMel + i * melRatio);
+        default -> (float) Math.pow(2, i * this.bandOctaveRatio) * BASE_BAND_HZ;
+      };
+      this.bandOffset[i+1] = Math.round(this.bandWidthInv * bandLimitHz);
+      this.bandOctave[i] = (float) Math.log(bandLimitHz / BASE_BAND_HZ) / LOG_2;
     }
   }
 
@@ -220,6 +378,16 @@ public class FourierTransform {
     return this.bandOctaveRatio;
   }
 
+  /**
+   * Number of octaves above BASE_BAND_HZ of the upper edge of a band
+   *
+   * @param i Band index
+   * @return Octaves above the base band
+   */
+  public float getBandOctave(int i) {
+    return this.bandOctave[i];
+  }
+
   public float getBand(int i) {
     return this.bands[i];
   }
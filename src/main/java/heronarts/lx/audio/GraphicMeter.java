@@ -43,6 +43,8 @@ public class GraphicMeter extends DecibelMeter {
     public void onMeterStop(GraphicMeter meter);
   }
 
+  private static final int ANALYSIS_OVERLAP = 2;
+
   private final LXMeterImpl impl;
 
   private final List<Processor> processors = new CopyOnWriteArrayList<>();
@@ -108,6 +110,9 @@ public class GraphicMeter extends DecibelMeter {
     super(label, buffer);
     addParameter("slope", this.slope);
     this.fft = new FourierTransform(buffer.bufferSize(), this.numBands = numBands);
+    // Hamming windows are analyzed with 50% overlap, so that every sample
+    // contributes to the spectrum near the peak of some window
+    setOverlap(ANALYSIS_OVERLAP);
     this.impl = new LXMeterImpl(this.numBands);
     this.bands = this.impl.bands;
     int i = 1;
@@ -138,7 +143,7 @@ public class GraphicMeter extends DecibelMeter {
     }
     super.onAudioFrame();
     this.impl.compute(
-      this.fft.compute(this.buffer),
+      this.fft.compute(this.buffer, this.windowPosition, this.samples, this.sampleRate),
       this.attackGain, // set by DecibelMeter.onAudioFrame()
       this.releaseGain, // set by DecibelMeter.onAudioFrame()
       this.gain.getValue(),
@@ -27,18 +27,30 @@ public class LXAudioBuffer {
 
   protected static final float INV_16_BIT = 1 / 32768.0f;
 
+  /**
+   * Number of buffers worth of history that is held in the ring
+   */
+  private static final int RING_BUFFERS = 16;
+
   final float[] samples;
   private float rms;
   private int sampleRate = -1;
 
   /**
-   * Loosely thread-safe list of meters that need computations (e.g. db/FFT metering) on
-   * the audio thread
+   * Ring through which samples are handed off from the audio thread to meters,
+   * which do their analysis on the engine thread
+   */
+  private final LXAudioRing ring;
+
+  /**
+   * Spectra of the windows read from the ring, shared by all of the transforms
+   * analyzing this buffer
    */
-  private final List<DecibelMeter> meters = new CopyOnWriteArrayList<>();
+  private final List<FourierTransform.Spectrum> spectra = new CopyOnWriteArrayList<>();
 
   LXAudioBuffer(int bufferSize) {
     this.samples = new float[bufferSize];
+    this.ring = new LXAudioRing(RING_BUFFERS * bufferSize);
   }
 
   public int sampleRate() {
@@ -53,12 +65,24 @@ public class LXAudioBuffer {
     return this.rms;
   }
 
-  void addMeter(DecibelMeter meter) {
-    this.meters.add(meter);
+  /**
+   * Ring of the most recent samples written to this buffer
+   *
+   * @return Audio ring
+   */
+  public LXAudioRing getRing() {
+    return this.ring;
   }
 
-  void removeMeter(DecibelMeter meter) {
-    this.meters.remove(meter);
+  FourierTransform.Spectrum getSpectrum(int size, FourierTransform.Window window) {
+    for (FourierTransform.Spectrum spectrum : this.spectra) {
+      if ((spectrum.size == size) && (spectrum.window == window)) {
+        return spectrum;
+      }
+    }
+    final FourierTransform.Spectrum spectrum = new FourierTransform.Spectrum(size, window);
+    this.spectra.add(spectrum);
+    return spectrum;
   }
 
   void computeMix(LXAudioBuffer left, LXAudioBuffer right) {
@@ -72,7 +96,7 @@ public class LXAudioBuffer {
       sumSquares += this.samples[i] * this.samples[i];
     }
     this.rms = (float) Math.sqrt(sumSquares / this.samples.length);
-    updateMeters();
+    this.ring.write(this.samples, this.samples.length, this.sampleRate);
   }
 
   void putSamples(byte[] rawBytes, int offset, int dataSize, int frameSize, int sampleRate) {
@@ -85,14 +109,7 @@ public class LXAudioBuffer {
       ++frameIndex;
     }
     this.rms = (float) Math.sqrt(sumSquares / this.samples.length);
-    updateMeters();
-  }
-
-  private void updateMeters() {
-    // Compute meters based upon new samples
-    for (DecibelMeter meter : this.meters) {
-      meter.onAudioFrame();
-    }
+    this.ring.write(this.samples, this.samples.length, this.sampleRate);
   }
 
 }
@@ -57,6 +57,11 @@ public class LXAudioEngine extends LXModulatorComponent implements LXOscComponen
 
   public final LXAudioOutput output;
 
+  /**
+   * Audio file input, for analysis without any sound hardware
+   */
+  public final LXAudioFileInput file;
+
   public final Meter meter;
 
   public final SoundStage soundStage;
@@ -69,7 +74,8 @@ public class LXAudioEngine extends LXModulatorComponent implements LXOscComponen
 
   public enum Mode {
     INPUT("Input"),
-    OUTPUT("Output");
+    OUTPUT("Output"),
+    FILE("File");
 
     public final String label;
 
@@ -151,6 +157,7 @@ public class LXAudioEngine extends LXModulatorComponent implements LXOscComponen
 
     addChild("input", this.input = new LXAudioInput(lx));
     addChild("output", this.output = new LXAudioOutput(lx, this));
+    addChild("file", this.file = new LXAudioFileInput(lx));
     addChild("soundStage", this.soundStage = new SoundStage(lx));
     addChild("adm", this.adm = new ADM(lx));
     addChild("envelop", this.envelop = new Envelop(lx));
@@ -161,6 +168,10 @@ public class LXAudioEngine extends LXModulatorComponent implements LXOscComponen
 
   @Override
   public void loop(double deltaMs) {
+    // File input is advanced before the meters run, so they see this frame's samples
+    if (this.enabled.isOn() && (this.mode.getEnum() == Mode.FILE)) {
+      this.file.advance(deltaMs);
+    }
     super.loop(deltaMs);
     this.envelop.loop(deltaMs);
     this.reaper.loop(deltaMs);
@@ -177,6 +188,10 @@ public class LXAudioEngine extends LXModulatorComponent implements LXOscComponen
         this.input.stop(false);
         this.output.start();
       }
+      case FILE -> {
+        this.input.stop(false);
+        this.output.stop();
+      }
     }
   }
 
@@ -194,6 +209,7 @@ public class LXAudioEngine extends LXModulatorComponent implements LXOscComponen
       switch (this.mode.getEnum()) {
         case INPUT -> this.meter.setBuffer(this.input);
         case OUTPUT -> this.meter.setBuffer(this.output);
+        case FILE -> this.meter.setBuffer(this.file);
       }
       if (this.enabled.isOn()) {
         toggleMode();
@@ -214,12 +230,14 @@ public class LXAudioEngine extends LXModulatorComponent implements LXOscComponen
   public void dispose() {
     this.input.dispose();
     this.output.dispose();
+    this.file.dispose();
     super.dispose();
   }
 
   @Override
   public void load(LX lx, JsonObject obj) {
     this.output.reset();
+    this.file.reset();
     this.numSoundObjects.setValue(0);
 
     // Force-load input *first* so that the input device is selected before
@@ -0,0 +1,258 @@
+/**
+ * Copyright 2024- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx.audio;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+
+import heronarts.lx.LX;
+import heronarts.lx.osc.LXOscComponent;
+import heronarts.lx.parameter.BooleanParameter;
+import heronarts.lx.parameter.LXParameter;
+import heronarts.lx.parameter.StringParameter;
+import heronarts.lx.parameter.TriggerParameter;
+
+/**
+ * Audio input that streams samples from a file (WAV, AIFF, or anything else
+ * Java Sound can decode to PCM) with no sound hardware involved. Rather than
+ * running on its own thread, the file is advanced on the engine thread by the
+ * elapsed time of each frame. With a normal engine clock this plays the file in
+ * real time, and with LXEngine.setFixedDeltaMs() it runs in lockstep with the
+ * engine, as fast as frames can be rendered, and the meters see exactly the same
+ * samples on every run.
+ *
+ * The file and trigger parameters may be changed on any thread. The stream is only
+ * ever opened, rewound, read and closed by advance() on the engine thread, which
+ * applies such changes before reading the next frame's samples.
+ */
+public class LXAudioFileInput extends LXAudioComponent implements LXOscComponent {
+
+  public final StringParameter file = new StringParameter("File")
+    .setDescription("Audio file to use as input");
+
+  public final BooleanParameter play = new BooleanParameter("Play", false)
+    .setDescription("Play/Pause state of the input audio file");
+
+  public final BooleanParameter looping = new BooleanParameter("Loop", false)
+    .setDescription("Whether the input audio file should loop");
+
+  public final TriggerParameter trigger =
+    new TriggerParameter("Trigger")
+    .setDescription("Restarts the input audio file from its beginning");
+
+  private AudioInputStream inputStream = null;
+  private volatile AudioFormat format = null;
+
+  // Set by parameter changes on any thread, applied by advance()
+  private volatile boolean pendingOpen = false;
+  private volatile boolean pendingRewind = false;
+  private int sampleRate = 0;
+  private boolean isMono = false;
+
+  private final byte[] rawBytes = new byte[STEREO_BUFFER_SIZE_16];
+
+  private double pendingFrames = 0;
+  private long framesRead = 0;
+
+  LXAudioFileInput(LX lx) {
+    super(lx, "File");
+    addParameter("file", this.file);
+    addParameter("trigger", this.trigger);
+    addParameter("looping", this.looping);
+    addParameter("play", this.play);
+  }
+
+  @Override
+  public void onParameterChanged(LXParameter p) {
+    super.onParameterChanged(p);
+    if (p == this.file) {
+      this.pendingOpen = true;
+    } else if (p == this.trigger) {
+      if (this.trigger.isOn()) {
+        this.pendingRewind = true;
+        this.play.setValue(true);
+      }
+    }
+  }
+
+  public String getFileName() {
+    return new File(this.file.getString()).getName();
+  }
+
+  /**
+   * Format of the samples being read from the file
+   *
+   * @return Audio format, or null if no file is open
+   */
+  public AudioFormat getFormat() {
+    return this.format;
+  }
+
+  /**
+   * Number of sample frames that have been read since the file was opened or
+   * last rewound
+   *
+   * @return Number of frames read
+   */
+  public long getFramesRead() {
+    return this.framesRead;
+  }
+
+  private void open() {
+    final File file = this.lx.getMediaFile(this.file.getString());
+    try {
+      AudioInputStream inputStream = AudioSystem.getAudioInputStream(new BufferedInputStream(new FileInputStream(file)));
+      AudioFormat format = inputStream.getFormat();
+
+      // Convert whatever we got to 16-bit signed little-endian PCM, at the
+      // file's own sample rate since there is no line to match
+      if ((format.getEncoding() != AudioFormat.Encoding.PCM_SIGNED) ||
+          (format.getSampleSizeInBits() != BITS_PER_SAMPLE_16) ||
+          format.isBigEndian() ||
+          (format.getChannels() > 2)) {
+        final AudioFormat target = new AudioFormat(format.getSampleRate(), BITS_PER_SAMPLE_16, Math.min(2, format.getChannels()), true, false);
+        inputStream = AudioSystem.getAudioInputStream(target, inputStream);
+        format = target;
+      }
+      this.inputStream = inputStream;
+      this.format = format;
+      this.sampleRate = (int) format.getSampleRate();
+      this.isMono = isMono(format);
+      this.pendingFrames = 0;
+      this.framesRead = 0;
+    } catch (Exception x) {
+      LX.error(x, "Could not open audio input file " + file + ": " + x.getLocalizedMessage());
+      close();
+    }
+  }
+
+  private void close() {
+    if (this.inputStream != null) {
+      try {
+        this.inputStream.close();
+      } catch (IOException iox) {
+        LX.error(iox, "Error closing audio input file: " + iox.getLocalizedMessage());
+      }
+      this.inputStream = null;
+    }
+    this.format = null;
+  }
+
+  private void rewind() {
+    if (this.inputStream != null) {
+      close();
+      open();
+    }
+  }
+
+  /**
+   * Advances the file by the elapsed time of an engine frame, putting every
+   * complete buffer of samples that falls within it
+   *
+   * @param deltaMs Elapsed engine time
+   */
+  void advance(double deltaMs) {
+    if (this.pendingOpen) {
+      this.pendingOpen = false;
+      this.pendingRewind = false;
+      close();
+      final String path = this.file.getString();
+      if ((path != null) && !path.isEmpty()) {
+        open();
+      }
+    } else if (this.pendingRewind) {
+      this.pendingRewind = false;
+      rewind();
+    }
+    if ((this.inputStream == null) || !this.play.isOn()) {
+      return;
+    }
+    this.pendingFrames += deltaMs * this.sampleRate * .001;
+    while (this.pendingFrames >= SAMPLE_BUFFER_SIZE) {
+      this.pendingFrames -= SAMPLE_BUFFER_SIZE;
+      if (!readBuffer()) {
+        this.pendingFrames = 0;
+        this.play.setValue(false);
+        break;
+      }
+    }
+  }
+
+  private boolean readBuffer() {
+    final int bufferSize = this.isMono ? MONO_BUFFER_SIZE_16 : STEREO_BUFFER_SIZE_16;
+    int len = 0;
+    try {
+      while (len < bufferSize) {
+        final int read = this.inputStream.read(this.rawBytes, len, bufferSize - len);
+        if (read < 0) {
+          if (!this.looping.isOn() || (this.framesRead == 0)) {
+            break;
+          }
+          rewind();
+          if (this.inputStream == null) {
+            break;
+          }
+        } else {
+          len += read;
+        }
+      }
+    } catch (IOException iox) {
+      LX.error(iox, "Error reading audio input file: " + iox.getLocalizedMessage());
+      close();
+    }
+    if (len == 0) {
+      return false;
+    }
+
+    // Pad out the last partial buffer of the file with silence
+    Arrays.fill(this.rawBytes, len, bufferSize, (byte) 0);
+    this.framesRead += len / (this.isMono ? MONO_FRAME_SIZE_16 : STEREO_FRAME_SIZE_16);
+
+    if (this.isMono) {
+      left.putSamples(this.rawBytes, 0, MONO_BUFFER_SIZE_16, MONO_FRAME_SIZE_16, this.sampleRate);
+      right.putSamples(this.rawBytes, 0, MONO_BUFFER_SIZE_16, MONO_FRAME_SIZE_16, this.sampleRate);
+      mix.putSamples(this.rawBytes, 0, MONO_BUFFER_SIZE_16, MONO_FRAME_SIZE_16, this.sampleRate);
+    } else {
+      left.putSamples(this.rawBytes, 0, STEREO_BUFFER_SIZE_16, STEREO_FRAME_SIZE_16, this.sampleRate);
+      right.putSamples(this.rawBytes, BYTES_PER_SAMPLE_16, STEREO_BUFFER_SIZE_16, STEREO_FRAME_SIZE_16, this.sampleRate);
+      mix.computeMix(left, right);
+    }
+    return len == bufferSize;
+  }
+
+  void reset() {
+    this.play.setValue(false);
+    this.looping.setValue(false);
+    this.file.setValue("");
+  }
+
+  @Override
+  public void dispose() {
+    close();
+    super.dispose();
+  }
+
+}
@@ -0,0 +1,256 @@
+/**
+ * Copyright 2024- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx.audio;
+
+import java.lang.invoke.VarHandle;
+
+/**
+ * Lock-free ring of audio samples, written by a single audio thread and read by
+ * any number of readers on the engine thread. The writer never blocks or waits,
+ * it simply overwrites the oldest samples. Readers pull fixed-size windows at a
+ * given hop size, which may be smaller than the window for overlapped analysis.
+ * A read that raced with the writer overwriting its window is detected and
+ * retried against the newest samples, so a reader never sees a torn window.
+ */
+public class LXAudioRing {
+
+  private final float[] samples;
+  private final int mask;
+
+  /**
+   * Total number of samples ever written. Published after the samples are in
+   * place, so that everything before this position is visible to readers.
+   */
+  private volatile long writePosition = 0;
+
+  /**
+   * End of the samples the writer is currently copying in, set before they are
+   * written. Any read of a window that starts within capacity of this may have
+   * been overwritten.
+   */
+  private volatile long writeLimit = 0;
+
+  /**
+   * Sample rate of the most recently written samples, published by writePosition
+   */
+  private int sampleRate = -1;
+
+  /**
+   * Creates a ring of the given capacity
+   *
+   * @param capacity Number of samples held, must be a power of two
+   */
+  public LXAudioRing(int capacity) {
+    if ((capacity <= 0) || ((capacity & (capacity - 1)) != 0)) {
+      throw new IllegalArgumentException("LXAudioRing capacity must be a power of two: " + capacity);
+    }
+    this.samples = new float[capacity];
+    this.mask = capacity - 1;
+  }
+
+  public int capacity() {
+    return this.samples.length;
+  }
+
+  public int sampleRate() {
+    return this.sampleRate;
+  }
+
+  /**
+   * Appends samples to the ring. Must only ever be called from one thread.
+   *
+   * @param src Source samples
+   * @param num Number of samples
+   * @param sampleRate Sample rate of the samples
+   */
+  void write(float[] src, int num, int sampleRate) {
+    final long position = this.writePosition;
+    this.writeLimit = position + num;
+    VarHandle.storeStoreFence();
+    final int start = (int) (position & this.mask);
+    final int first = Math.min(num, this.samples.length - start);
+    System.arraycopy(src, 0, this.samples, start, first);
+    if (first < num) {
+      System.arraycopy(src, first, this.samples, 0, num - first);
+    }
+    this.sampleRate = sampleRate;
+    this.writePosition = position + num;
+  }
+
+  /**
+   * Creates a reader positioned at the newest samples in the ring
+   *
+   * @param windowSize Number of samples in each window
+   * @param hopSize Number of samples between the start of successive windows
+   * @return Reader
+   */
+  public Reader newReader(int windowSize, int hopSize) {
+    return new Reader(windowSize, hopSize);
+  }
+
+  /**
+   * A reader of windows from the ring. Each reader tracks its own position and
+   * must only be used from a single thread.
+   */
+  public class Reader {
+
+    public final int windowSize;
+    public final int hopSize;
+
+    private long position;
+    private long windowPosition = -1;
+
+    private long dropped = 0;
+    private long overruns = 0;
+
+    private Reader(int windowSize, int hopSize) {
+      if ((windowSize <= 0) || (windowSize > samples.length)) {
+        throw new IllegalArgumentException("LXAudioRing.Reader windowSize must be in [1, " + samples.length + "]: " + windowSize);
+      }
+      if ((hopSize <= 0) || (hopSize > windowSize)) {
+        throw new IllegalArgumentException("LXAudioRing.Reader hopSize must be in [1, windowSize]: " + hopSize);
+      }
+      this.windowSize = windowSize;
+      this.hopSize = hopSize;
+      reset();
+    }
+
+    /**
+     * Moves this reader to the newest complete window, without counting the
+     * skipped windows as dropped
+     */
+    public void reset() {
+      this.position = Math.max(0, writePosition - this.windowSize);
+    }
+
+    /**
+     * Number of complete windows that are waiting to be read
+     *
+     * @return Number of windows available
+     */
+    public int available() {
+      final long end = writePosition - this.windowSize;
+      if (end < this.position) {
+        return 0;
+      }
+      return (int) Math.min(Integer.MAX_VALUE, 1 + (end - this.position) / this.hopSize);
+    }
+
+    /**
+     * Discards the oldest pending windows so that no more than the given number
+     * remain. Discarded windows are counted as dropped.
+     *
+     * @param maxWindows Maximum number of windows to leave pending
+     * @return Number of windows dropped
+     */
+    public int discard(int maxWindows) {
+      final int excess = available() - maxWindows;
+      if (excess <= 0) {
+        return 0;
+      }
+      this.position += (long) excess * this.hopSize;
+      this.dropped += excess;
+      return excess;
+    }
+
+    /**
+     * Reads the next complete window, if there is one
+     *
+     * @param window Destination for the window of samples
+     * @return True if a window was read, false if none is complete yet
+     */
+    public boolean read(float[] window) {
+      while (true) {
+        final long write = writePosition;
+        if (this.position + this.windowSize > write) {
+          return false;
+        }
+        if (this.position < writeLimit - samples.length) {
+          // Fell so far behind that the window is already gone
+          skipToNewest(write);
+          continue;
+        }
+        final int start = (int) (this.position & mask);
+        final int first = Math.min(this.windowSize, samples.length - start);
+        System.arraycopy(samples, start, window, 0, first);
+        if (first < this.windowSize) {
+          System.arraycopy(samples, 0, window, first, this.windowSize - first);
+        }
+
+        // Keep the copy from being reordered after the re-check, if the writer
+        // lapped into our window while copying then it is torn and discarded
+        VarHandle.loadLoadFence();
+        if (this.position < writeLimit - samples.length) {
+          ++this.overruns;
+          skipToNewest(writePosition);
+          continue;
+        }
+        this.windowPosition = this.position;
+        this.position += this.hopSize;
+        return true;
+      }
+    }
+
+    /**
+     * Position in the ring of the most recently read window. Windows read from
+     * the same position of the same ring contain identical samples.
+     *
+     * @return Position of the last window read, or -1 if none
+     */
+    public long getWindowPosition() {
+      return this.windowPosition;
+    }
+
+    private void skipToNewest(long write) {
+      final long newest = write - this.windowSize;
+      this.dropped += (newest - this.position) / this.hopSize;
+      this.position = newest;
+    }
+
+    /**
+     * Sample rate of the samples in this reader's ring
+     *
+     * @return Sample rate
+     */
+    public int sampleRate() {
+      return sampleRate;
+    }
+
+    /**
+     * Total number of windows that were skipped without being read, because the
+     * reader fell behind
+     *
+     * @return Number of dropped windows
+     */
+    public long getDropped() {
+      return this.dropped;
+    }
+
+    /**
+     * Total number of reads that were retried because the writer overwrote the
+     * window while it was being copied
+     *
+     * @return Number of overruns
+     */
+    public long getOverruns() {
+      return this.overruns;
+    }
+  }
+
+}
@@ -44,12 +44,11 @@ class LXMeterImpl {
   }
 
   void compute(FourierTransform fft, double attackGain, double releaseGain, double gain, double range, double slope) {
-    final double bandOctaveRatio = fft.getBandOctaveRatio();
     for (int i = 0; i < this.numBands; ++i) {
       float rmsLevel = fft.getBand(i) / fft.getSize();
       double rmsGain = (rmsLevel >= this.rmsBands[i]) ? attackGain : releaseGain;
       this.rmsBands[i] = rmsLevel + (float) rmsGain * (this.rmsBands[i] - rmsLevel);
-      this.dbBands[i] = DecibelMeter.amplitudeToDecibels(this.rmsBands[i]) + gain + i * slope * bandOctaveRatio;
+      this.dbBands[i] = DecibelMeter.amplitudeToDecibels(this.rmsBands[i]) + gain + slope * fft.getBandOctave(i);
       this.bands[i].setValue(1 + this.dbBands[i] / range);
     }
   }
@@ -23,6 +23,6 @@ import heronarts.lx.color.LXColor;
 
 public class AddBlend extends LXBlend.FunctionalBlend {
   public AddBlend(LX lx) {
-    super(lx, LXColor::add);
+    super(lx, LXColor::add, BlendKernels.ADD);
   }
 }
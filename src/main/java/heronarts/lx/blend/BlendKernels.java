@@ -0,0 +1,85 @@
+/**
+ * Copyright 2025- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx.blend;
+
+import heronarts.lx.blend.LXBlend.FunctionalBlend.BulkFunction;
+
+/**
+ * Bulk functions for the built-in blends. These are only available when LX was
+ * built with the vector profile (mvn -Pvector) and the application was launched
+ * with --add-modules jdk.incubator.vector, otherwise they are all null and the
+ * blends use their scalar function for every color. Setting the system property
+ * heronarts.lx.blend.scalar to true forces the scalar path.
+ *
+ * Dodge and burn have no bulk function, they need an integer division per
+ * channel which the Vector API does not compile to a SIMD instruction.
+ */
+final class BlendKernels {
+
+  private BlendKernels() {}
+
+  static final String SCALAR_PROPERTY = "heronarts.lx.blend.scalar";
+
+  /**
+   * VectorBlend is looked up by name, it is not compiled in the default build and
+   * cannot even be linked without the module.
+   */
+  private static final Class<?> VECTOR_BLEND = findVectorBlend();
+
+  /**
+   * Whether vectorized bulk functions are in use
+   */
+  static final boolean VECTORIZED = (VECTOR_BLEND != null);
+
+  static final BulkFunction LERP = bulkFunction("LERP");
+  static final BulkFunction ADD = bulkFunction("ADD");
+  static final BulkFunction SUBTRACT = bulkFunction("SUBTRACT");
+  static final BulkFunction MULTIPLY = bulkFunction("MULTIPLY");
+  static final BulkFunction SCREEN = bulkFunction("SCREEN");
+  static final BulkFunction LIGHTEST = bulkFunction("LIGHTEST");
+  static final BulkFunction DARKEST = bulkFunction("DARKEST");
+  static final BulkFunction DIFFERENCE = bulkFunction("DIFFERENCE");
+  static final BulkFunction HIGHLIGHT = bulkFunction("HIGHLIGHT");
+  static final BulkFunction SPOTLIGHT = bulkFunction("SPOTLIGHT");
+
+  private static Class<?> findVectorBlend() {
+    if (Boolean.getBoolean(SCALAR_PROPERTY) ||
+        ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+      return null;
+    }
+    try {
+      final Class<?> vectorBlend = Class.forName("heronarts.lx.blend.VectorBlend");
+      return (vectorBlend.getDeclaredField("LANES").getInt(null) > 1) ? vectorBlend : null;
+    } catch (ReflectiveOperationException | LinkageError x) {
+      return null;
+    }
+  }
+
+  private static BulkFunction bulkFunction(String name) {
+    if (VECTOR_BLEND == null) {
+      return null;
+    }
+    try {
+      return (BulkFunction) VECTOR_BLEND.getDeclaredField(name).get(null);
+    } catch (ReflectiveOperationException x) {
+      throw new IllegalStateException("Missing VectorBlend." + name, x);
+    }
+  }
+
+}
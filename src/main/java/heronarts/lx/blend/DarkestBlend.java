@@ -23,6 +23,6 @@ import heronarts.lx.color.LXColor;
 
 public class DarkestBlend extends LXBlend.FunctionalBlend {
   public DarkestBlend(LX lx) {
-    super(lx, LXColor::darkest);
+    super(lx, LXColor::darkest, BlendKernels.DARKEST);
   }
 }
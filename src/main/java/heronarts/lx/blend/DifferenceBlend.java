@@ -23,6 +23,6 @@ import heronarts.lx.color.LXColor;
 
 public class DifferenceBlend extends LXBlend.FunctionalBlend {
   public DifferenceBlend(LX lx) {
-    super(lx, LXColor::difference);
+    super(lx, LXColor::difference, BlendKernels.DIFFERENCE);
   }
 }
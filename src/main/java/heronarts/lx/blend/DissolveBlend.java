@@ -36,6 +36,13 @@ public class DissolveBlend extends LXBlend {
 
   @Override
   public void blend(int[] dst, int[] src, double alpha, int[] output, LXModel model) {
+    if (model.hasCompactIndexRanges()) {
+      final int[] ranges = model.getIndexRanges();
+      for (int r = 0; r < ranges.length; r += 2) {
+        blend(dst, src, alpha, output, ranges[r], ranges[r+1]);
+      }
+      return;
+    }
     // Multiply the src alpha only by half!
     final int srcAlpha = (int) (alpha * LXColor.BLEND_ALPHA_HALF);
     final int dstAlpha = LXColor.BLEND_ALPHA_FULL - srcAlpha;
@@ -54,4 +61,15 @@ public class DissolveBlend extends LXBlend {
       output[i] = LXColor.add(LXColor.add(LXColor.CLEAR, dst[i], dstAlpha), src[i], srcAlpha);
     }
   }
+
+  @Override
+  public void blend(int[] dst, int[] src, double alpha, int[] output, int[] indices, int offset, int num) {
+    // Multiply the src alpha only by half!
+    final int srcAlpha = (int) (alpha * LXColor.BLEND_ALPHA_HALF);
+    final int dstAlpha = LXColor.BLEND_ALPHA_FULL - srcAlpha;
+    for (int i = offset; i < offset + num; ++i) {
+      final int index = indices[i];
+      output[index] = LXColor.add(LXColor.add(LXColor.CLEAR, dst[index], dstAlpha), src[i], srcAlpha);
+    }
+  }
 }
@@ -24,7 +24,7 @@ import heronarts.lx.color.LXColor;
 public class HighlightBlend extends LXBlend.FunctionalBlend {
 
   public HighlightBlend(LX lx) {
-    super(lx, LXColor::highlight);
+    super(lx, LXColor::highlight, BlendKernels.HIGHLIGHT);
   }
 
 }
@@ -51,15 +51,64 @@ public abstract class LXBlend extends LXModulatorComponent {
       public int apply(int dst, int src, int alpha);
     }
 
+    /**
+     * Functional interface for a bulk blending function, which processes a contiguous
+     * run of colors in a single call
+     */
+    public interface BulkFunction {
+      /**
+       * Blends a contiguous run of colors
+       *
+       * @param dst Background colors
+       * @param src Overlay colors
+       * @param alpha Secondary alpha mask (from 0x00 - 0x100)
+       * @param output Output colors, which may be the same as dst or src
+       * @param start Starting index
+       * @param num Number of colors to blend
+       */
+      public void apply(int[] dst, int[] src, int alpha, int[] output, int start, int num);
+    }
+
     private final BlendFunction function;
 
+    private final BulkFunction bulk;
+
     public FunctionalBlend(LX lx, BlendFunction function) {
+      this(lx, function, null);
+    }
+
+    /**
+     * Constructs a functional blend with a bulk function, which must produce exactly
+     * the same results as the per-color blend function.
+     *
+     * @param lx LX instance
+     * @param function Per-color blend function
+     * @param bulk Bulk blend function for contiguous ranges, or null to always use the function
+     */
+    public FunctionalBlend(LX lx, BlendFunction function, BulkFunction bulk) {
       super(lx);
       this.function = function;
+      this.bulk = bulk;
+    }
+
+    /**
+     * Whether this blend uses a bulk function for contiguous ranges
+     *
+     * @return True if contiguous ranges are blended in bulk
+     */
+    public boolean hasBulkFunction() {
+      return this.bulk != null;
     }
 
     @Override
     public void blend(int[] dst, int[] src, double alpha, int[] output, LXModel model) {
+      if (model.hasCompactIndexRanges()) {
+        final int[] ranges = model.getIndexRanges();
+        for (int r = 0; r < ranges.length; r += 2) {
+          blend(dst, src, alpha, output, ranges[r], ranges[r+1]);
+        }
+        return;
+      }
       int alphaMask = (int) (alpha * LXColor.BLEND_ALPHA_FULL);
       for (LXPoint p : model.points) {
         output[p.index] = this.function.apply(dst[p.index], src[p.index], alphaMask);
@@ -69,10 +118,23 @@ public abstract class LXBlend extends LXModulatorComponent {
     @Override
     public void blend(int[] dst, int[] src, double alpha, int[] output, int start, int num) {
       int alphaMask = (int) (alpha * LXColor.BLEND_ALPHA_FULL);
+      if (this.bulk != null) {
+        this.bulk.apply(dst, src, alphaMask, output, start, num);
+        return;
+      }
       for (int i = start; i < start+num; ++i) {
         output[i] = this.function.apply(dst[i], src[i], alphaMask);
       }
     }
+
+    @Override
+    public void blend(int[] dst, int[] src, double alpha, int[] output, int[] indices, int offset, int num) {
+      int alphaMask = (int) (alpha * LXColor.BLEND_ALPHA_FULL);
+      for (int i = offset; i < offset+num; ++i) {
+        final int index = indices[i];
+        output[index] = this.function.apply(dst[index], src[i], alphaMask);
+      }
+    }
   }
 
   private String name;
@@ -151,6 +213,38 @@ public abstract class LXBlend extends LXModulatorComponent {
    */
   public abstract void blend(int[] dst, int[] src, double alpha, int[] output, int start, int num);
 
+  /**
+   * Blends a compact src buffer, which holds the colors of a set of points in order,
+   * onto the destination buffer at the specified alpha amount. By default this gathers
+   * the destination colors into a scratch array borrowed from the mixer, subclasses
+   * should override it to blend in place.
+   *
+   * @param dst Destination buffer (lower layer), indexed by the model
+   * @param src Source buffer (top layer), holding one color per entry of indices
+   * @param alpha Alpha blend, from 0-1
+   * @param output Output buffer, which may be the same as dst, indexed by the model
+   * @param indices Model index of each color in the src buffer
+   * @param offset First position in src and indices to blend
+   * @param num Number of pixels to blend
+   */
+  public void blend(int[] dst, int[] src, double alpha, int[] output, int[] indices, int offset, int num) {
+    // The scratch array is the size of the model, which is never smaller than
+    // the compact buffer, so the gathered colors can line up with src
+    final int[] scratch = this.lx.engine.mixer.acquireScratch();
+    try {
+      final int end = offset + num;
+      for (int i = offset; i < end; ++i) {
+        scratch[i] = dst[indices[i]];
+      }
+      blend(scratch, src, alpha, scratch, offset, num);
+      for (int i = offset; i < end; ++i) {
+        output[indices[i]] = scratch[i];
+      }
+    } finally {
+      this.lx.engine.mixer.releaseScratch(scratch);
+    }
+  }
+
   /**
    * Transitions from one buffer to another. By default, this is used by first
    * blending from-to with alpha 0-1, then blending to-from with
@@ -23,6 +23,6 @@ import heronarts.lx.color.LXColor;
 
 public class NormalBlend extends LXBlend.FunctionalBlend {
   public NormalBlend(LX lx) {
-    super(lx, LXColor::lerp);
+    super(lx, LXColor::lerp, BlendKernels.LERP);
   }
 }
@@ -24,7 +24,7 @@ import heronarts.lx.color.LXColor;
 public class ScreenBlend extends LXBlend.FunctionalBlend {
 
   public ScreenBlend(LX lx) {
-    super(lx, LXColor::screen);
+    super(lx, LXColor::screen, BlendKernels.SCREEN);
   }
 
 }
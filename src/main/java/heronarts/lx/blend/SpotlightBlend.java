@@ -24,7 +24,7 @@ import heronarts.lx.color.LXColor;
 public class SpotlightBlend extends LXBlend.FunctionalBlend {
 
   public SpotlightBlend(LX lx) {
-    super(lx, LXColor::spotlight);
+    super(lx, LXColor::spotlight, BlendKernels.SPOTLIGHT);
   }
 
 }
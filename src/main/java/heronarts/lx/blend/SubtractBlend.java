@@ -24,7 +24,7 @@ import heronarts.lx.color.LXColor;
 public class SubtractBlend extends LXBlend.FunctionalBlend {
 
   public SubtractBlend(LX lx) {
-    super(lx, LXColor::subtract);
+    super(lx, LXColor::subtract, BlendKernels.SUBTRACT);
   }
 
 }
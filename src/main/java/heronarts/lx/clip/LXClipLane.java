@@ -62,6 +62,9 @@ public abstract class LXClipLane<T extends LXClipEvent<?>> extends LXComponent {
     addInternalParameter("uiHeight", this.uiHeight);
     addInternalParameter("uiExpanded", this.uiExpanded);
     addInternalParameter("uiMaximized", this.uiMaximized);
+
+    // Events are edited directly rather than through parameters
+    this.onChange.addListener(p -> markModified());
   }
 
   final void resetRecordingState() {
@@ -636,8 +636,9 @@ public class LXPalette extends LXComponent implements LXLoopTask, LXOscComponent
         }
       }
     } else if (path.equals("color")) {
-      parts[index] = "primary";
-      return this.swatch.colors.get(0).handleOscMessage(message, parts, index);
+      final String[] primaryParts = parts.clone();
+      primaryParts[index] = "primary";
+      return this.swatch.colors.get(0).handleOscMessage(message, primaryParts, index);
     }
     return super.handleOscMessage(message, parts, index);
   }
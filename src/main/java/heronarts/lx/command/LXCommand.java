@@ -131,7 +131,13 @@ public abstract class LXCommand {
 
     @SuppressWarnings("unchecked")
     public T get() {
-      return (T) this.lx.getComponent(this.componentId);
+      final T component = (T) this.lx.getComponent(this.componentId);
+      if (component != null) {
+        // Commands resolve their targets through here, anything they touch
+        // needs to be re-serialized by an incremental save
+        component.markModified();
+      }
+      return component;
     }
   }
 
@@ -20,7 +20,7 @@ package heronarts.lx.dmx;
 
 import heronarts.lx.LX;
 import heronarts.lx.LXComponent;
-import heronarts.lx.model.LXPoint;
+import heronarts.lx.output.LXBufferOutput;
 import heronarts.lx.parameter.DiscreteParameter;
 import heronarts.lx.parameter.EnumParameter;
 import heronarts.lx.pattern.LXPattern;
@@ -37,10 +37,12 @@ public class DmxPattern extends LXPattern {
     new DiscreteParameter("Channel", 0, 510)
     .setDescription("Starting channel");
 
-  public final EnumParameter<LXDmxEngine.ByteOrder> byteOrder =
-    new EnumParameter<LXDmxEngine.ByteOrder>("Byte Order", LXDmxEngine.ByteOrder.RGB)
+  public final EnumParameter<LXBufferOutput.ByteOrder> byteOrder =
+    new EnumParameter<LXBufferOutput.ByteOrder>("Byte Order", LXBufferOutput.ByteOrder.RGB)
     .setDescription("DMX input byte order");
 
+  private DmxPixelMap pixelMap = null;
+
   public DmxPattern(LX lx) {
     super(lx);
     addParameter("universe", this.universe);
@@ -50,19 +52,13 @@ public class DmxPattern extends LXPattern {
 
   @Override
   protected void run(double deltaMs) {
-    final LXDmxEngine.ByteOrder byteOrder = this.byteOrder.getEnum();
-    int universe = this.universe.getValuei();
-    int channel = this.channel.getValuei();
-    for (LXPoint p : model.points) {
-      colors[p.index] = lx.engine.dmx.getColor(universe, channel, byteOrder);
-      channel += 3;
-      if (channel >= 510) {
-        channel = 0;
-        if (++universe >= LXDmxEngine.MAX_UNIVERSE) {
-          break;
-        }
-      }
+    final int universe = this.universe.getValuei();
+    final int channel = this.channel.getValuei();
+    final LXBufferOutput.ByteOrder byteOrder = this.byteOrder.getEnum();
+    if ((this.pixelMap == null) || !this.pixelMap.isValid(model, universe, channel, byteOrder)) {
+      this.pixelMap = new DmxPixelMap(model, universe, channel, byteOrder);
     }
+    this.pixelMap.decode(lx.engine.dmx, colors);
   }
 
 }
@@ -0,0 +1,184 @@
+/**
+ * Copyright 2017- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx.dmx;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import heronarts.lx.model.LXModel;
+import heronarts.lx.model.LXPoint;
+import heronarts.lx.output.LXBufferOutput;
+
+/**
+ * Precompiled mapping of consecutive DMX pixels onto the points of a model.
+ * The points of the model are assigned pixels in order, starting at the given
+ * universe and channel and continuing into subsequent universes when a pixel
+ * would not fit in the remainder of a universe.
+ *
+ * The mapping is broken down into segments, each of which is a contiguous range
+ * of point indices within a single universe, so that decoding a frame is a
+ * straight pass over the DMX data rather than a lookup per point.
+ */
+public class DmxPixelMap {
+
+  private static class Segment {
+    private final int universe;
+    private final int channel;
+    private final int index;
+    private final int count;
+
+    private Segment(int universe, int channel, int index, int count) {
+      this.universe = universe;
+      this.channel = channel;
+      this.index = index;
+      this.count = count;
+    }
+  }
+
+  public final LXModel model;
+  public final int universe;
+  public final int channel;
+  public final LXBufferOutput.ByteOrder byteOrder;
+
+  private final LXPoint[] points;
+  private final Segment[] segments;
+
+  private final int numBytes;
+  private final int r, g, b, w;
+
+  /**
+   * Compiles a mapping for the points of a model
+   *
+   * @param model Model, whose points are mapped in order
+   * @param universe Starting universe
+   * @param channel Starting channel
+   * @param byteOrder Byte order of the pixels
+   */
+  public DmxPixelMap(LXModel model, int universe, int channel, LXBufferOutput.ByteOrder byteOrder) {
+    this.model = model;
+    this.points = model.points;
+    this.universe = universe;
+    this.channel = channel;
+    this.byteOrder = byteOrder;
+
+    final int[] byteOffset = byteOrder.getByteOffset();
+    this.numBytes = byteOrder.getNumBytes();
+    if (this.numBytes == 1) {
+      this.r = this.g = this.b = -1;
+      this.w = byteOffset[0];
+    } else {
+      this.r = byteOffset[0];
+      this.g = byteOffset[1];
+      this.b = byteOffset[2];
+      this.w = byteOrder.hasWhite ? byteOffset[3] : -1;
+    }
+
+    final List<Segment> segments = new ArrayList<Segment>();
+    int segmentUniverse = universe;
+    int segmentChannel = channel;
+    int segmentIndex = -1;
+    int count = 0;
+    int u = universe;
+    int c = channel;
+    for (LXPoint p : this.points) {
+      if (c + this.numBytes > LXDmxEngine.MAX_CHANNEL) {
+        c = 0;
+        ++u;
+      }
+      if (u >= LXDmxEngine.MAX_UNIVERSE) {
+        break;
+      }
+      if ((count > 0) && ((u != segmentUniverse) || (p.index != segmentIndex + count))) {
+        segments.add(new Segment(segmentUniverse, segmentChannel, segmentIndex, count));
+        count = 0;
+      }
+      if (count == 0) {
+        segmentUniverse = u;
+        segmentChannel = c;
+        segmentIndex = p.index;
+      }
+      ++count;
+      c += this.numBytes;
+    }
+    if (count > 0) {
+      segments.add(new Segment(segmentUniverse, segmentChannel, segmentIndex, count));
+    }
+    this.segments = segments.toArray(new Segment[0]);
+  }
+
+  /**
+   * Whether this mapping is still valid for the given model and settings
+   *
+   * @param model Model
+   * @param universe Starting universe
+   * @param channel Starting channel
+   * @param byteOrder Byte order
+   * @return True if the mapping may be reused
+   */
+  public boolean isValid(LXModel model, int universe, int channel, LXBufferOutput.ByteOrder byteOrder) {
+    return
+      (this.model == model) &&
+      (this.points == model.points) &&
+      (this.universe == universe) &&
+      (this.channel == channel) &&
+      (this.byteOrder == byteOrder);
+  }
+
+  /**
+   * Decodes the current DMX input frame into a color buffer
+   *
+   * @param dmx DMX engine
+   * @param colors Color buffer, indexed by point index
+   */
+  public void decode(LXDmxEngine dmx, int[] colors) {
+    for (Segment segment : this.segments) {
+      final byte[] data = dmx.getData(segment.universe);
+      final int end = segment.index + segment.count;
+      int c = segment.channel;
+      if (this.numBytes == 1) {
+        for (int i = segment.index; i < end; ++i) {
+          final int w = data[c] & 0xff;
+          colors[i] = 0xff000000 | (w << 16) | (w << 8) | w;
+          ++c;
+        }
+      } else if (this.w < 0) {
+        for (int i = segment.index; i < end; ++i) {
+          colors[i] =
+            0xff000000 |
+            ((data[c + this.r] & 0xff) << 16) |
+            ((data[c + this.g] & 0xff) << 8) |
+            (data[c + this.b] & 0xff);
+          c += this.numBytes;
+        }
+      } else {
+        // White is added back to each of the color components, the inverse
+        // of how LXBufferOutput.ByteOrder extracts it
+        for (int i = segment.index; i < end; ++i) {
+          final int w = data[c + this.w] & 0xff;
+          colors[i] =
+            0xff000000 |
+            (Math.min(255, (data[c + this.r] & 0xff) + w) << 16) |
+            (Math.min(255, (data[c + this.g] & 0xff) + w) << 8) |
+            Math.min(255, (data[c + this.b] & 0xff) + w);
+          c += this.numBytes;
+        }
+      }
+    }
+  }
+}
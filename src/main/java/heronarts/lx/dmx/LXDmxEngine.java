@@ -24,9 +24,19 @@ import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.Inet4Address;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.NetworkInterface;
+import java.net.SocketAddress;
 import java.net.SocketException;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.List;
 
 import com.google.gson.JsonObject;
 
@@ -43,9 +53,24 @@ import heronarts.lx.parameter.LXParameter;
 import heronarts.lx.parameter.StringParameter;
 import heronarts.lx.parameter.TriggerParameter;
 
+/**
+ * Receives DMX input over Art-Net and Streaming ACN (E1.31). Both protocols are
+ * received by a single thread which selects over all of the input sockets.
+ *
+ * Input is double-buffered. The receiver thread merges data into a back buffer
+ * for each universe, and the engine swaps completed universes into the front
+ * buffers once per frame in dispatch(), so that patterns and modulators always
+ * see coherent DMX frames. When senders use ArtSync or E1.31 synchronization
+ * packets, data is held back until the sync packet arrives.
+ *
+ * Multiple sources on the same universe are merged by priority, with the highest
+ * priority source winning and sources of equal priority merged highest-takes-precedence.
+ * Art-Net sources are treated as having the default sACN priority.
+ */
 public class LXDmxEngine extends LXComponent {
 
   public final static String DEFAULT_ARTNET_HOST = "0.0.0.0";
+  public final static String DEFAULT_SACN_HOST = "0.0.0.0";
 
   public enum ByteOrder {
     RGB(0,1,2),
@@ -93,22 +118,169 @@ public class LXDmxEngine extends LXComponent {
     new BooleanParameter("Log Art-Net Activity", false)
     .setDescription("Whether to write Art-Net activity to the log");
 
-  private ArtNetReceiver artNetReceiver = null;
+  public final EnumParameter<IOState> sacnReceiveState =
+    new EnumParameter<IOState>("sACN RX State", IOState.STOPPED)
+    .setMappable(false)
+    .setDescription("The state of the sACN receiver");
+
+  public final BooleanParameter sacnReceiveActive =
+    new BooleanParameter("sACN Active", false)
+    .setMappable(false)
+    .setDescription("Enables or disables sACN (E1.31) DMX input");
+
+  public final StringParameter sacnReceiveHost =
+    new StringParameter("sACN Host", DEFAULT_SACN_HOST)
+    .setDescription("Hostname to which the sACN receiver socket is bound, or whose network interface joins multicast groups");
+
+  public final BooleanParameter sacnMulticast =
+    new BooleanParameter("sACN Multicast", true)
+    .setMappable(false)
+    .setDescription("Whether to join the sACN multicast groups of the received universes");
+
+  public final DiscreteParameter sacnUniverseStart =
+    new DiscreteParameter("sACN Universe", 1, 1, MAX_UNIVERSE)
+    .setMappable(false)
+    .setDescription("First sACN universe to join by multicast");
+
+  public final DiscreteParameter sacnUniverseCount =
+    new DiscreteParameter("sACN Universes", 1, 1, MAX_UNIVERSE)
+    .setMappable(false)
+    .setDescription("Number of consecutive sACN universes to join by multicast")
+    .setUnits(LXParameter.Units.INTEGER);
+
+  public final TriggerParameter sacnActivity =
+    new TriggerParameter("sACN Activity")
+    .setMappable(false)
+    .setDescription("Triggers when sACN input is received");
+
+  public final BooleanParameter sacnLog =
+    new BooleanParameter("Log sACN Activity", false)
+    .setDescription("Whether to write sACN activity to the log");
+
+  private DmxReceiver receiver = null;
 
   public static final int MAX_CHANNEL = 512;
   public static final int MAX_UNIVERSE = 512;
 
+  // E1.31 network data loss timeout, after which a source is no longer merged
+  private static final long SOURCE_TIMEOUT_NANOS = 2500 * 1000000L;
+
+  // Art-Net reverts to unsynchronized output after 4 seconds without ArtSync,
+  // the same timeout is applied to E1.31 synchronization
+  private static final long SYNC_TIMEOUT_NANOS = 4000 * 1000000L;
+
+  private static final long PRUNE_INTERVAL_NANOS = 500 * 1000000L;
+
+  // Sync address used for universes held back waiting on ArtSync
+  private static final int ARTSYNC_ADDRESS = -1;
+
+  private static final int MAX_PACKET_SIZE = 1024;
+
+  // Front buffers, read by the engine thread
   private final byte[][] data =
     new byte[MAX_UNIVERSE][ArtNetDatagram.MAX_DATA_LENGTH];
 
+  private final Universe[] universes = new Universe[MAX_UNIVERSE];
+
   private DatagramSocket artPollSocket;
 
+  /**
+   * A single sender of data to a universe, identified by its E1.31 CID or Art-Net
+   * IP address. Only accessed by the receiver thread.
+   */
+  private static class Source {
+
+    private final long idHi, idLo;
+    private final byte[] data = new byte[MAX_CHANNEL];
+    private int priority;
+    private int sequence = -1;
+    private long lastNanos;
+
+    private Source(long idHi, long idLo) {
+      this.idHi = idHi;
+      this.idLo = idLo;
+    }
+  }
+
+  private static class Universe {
+
+    private final int index;
+
+    // Merged data waiting to be swapped to the front, guarded by this
+    private byte[] back = new byte[MAX_CHANNEL];
+
+    private volatile boolean ready = false;
+
+    // Receiver thread state
+    private final List<Source> sources = new ArrayList<Source>();
+    private boolean held = false;
+    private int syncAddress = 0;
+
+    private Universe(int index) {
+      this.index = index;
+    }
+
+    private Source getSource(long idHi, long idLo) {
+      for (int i = 0; i < this.sources.size(); ++i) {
+        final Source source = this.sources.get(i);
+        if ((source.idHi == idHi) && (source.idLo == idLo)) {
+          return source;
+        }
+      }
+      return null;
+    }
+
+    /**
+     * Merges the highest priority sources into the back buffer and marks it
+     * ready to be swapped by the engine.
+     */
+    private void commit() {
+      this.held = false;
+      if (this.sources.isEmpty()) {
+        return;
+      }
+      int priority = -1;
+      for (int i = 0; i < this.sources.size(); ++i) {
+        priority = Math.max(priority, this.sources.get(i).priority);
+      }
+      synchronized (this) {
+        boolean first = true;
+        for (int i = 0; i < this.sources.size(); ++i) {
+          final Source source = this.sources.get(i);
+          if (source.priority != priority) {
+            continue;
+          }
+          if (first) {
+            System.arraycopy(source.data, 0, this.back, 0, MAX_CHANNEL);
+            first = false;
+          } else {
+            for (int c = 0; c < MAX_CHANNEL; ++c) {
+              if ((source.data[c] & 0xff) > (this.back[c] & 0xff)) {
+                this.back[c] = source.data[c];
+              }
+            }
+          }
+        }
+        this.ready = true;
+      }
+    }
+  }
+
   public LXDmxEngine(LX lx) {
     super(lx);
+    for (int i = 0; i < MAX_UNIVERSE; ++i) {
+      this.universes[i] = new Universe(i);
+    }
     addParameter("artNetReceiveHost", this.artNetReceiveHost);
     addParameter("artNetReceivePort", this.artNetReceivePort);
     addParameter("artNetReceiveActive", this.artNetReceiveActive);
     addParameter("artNetLog", this.artNetLog);
+    addParameter("sacnReceiveHost", this.sacnReceiveHost);
+    addParameter("sacnMulticast", this.sacnMulticast);
+    addParameter("sacnUniverseStart", this.sacnUniverseStart);
+    addParameter("sacnUniverseCount", this.sacnUniverseCount);
+    addParameter("sacnReceiveActive", this.sacnReceiveActive);
+    addParameter("sacnLog", this.sacnLog);
   }
 
   private DatagramSocket _getArtPollSocket() {
@@ -125,44 +297,92 @@ public class LXDmxEngine extends LXComponent {
 
   @Override
   public void onParameterChanged(LXParameter p) {
-    if (p == this.artNetReceiveActive) {
-      stopReceiver(IOState.STOPPED);
-      if (this.artNetReceiveActive.isOn()) {
-        startReceiver();
-      }
-    } else if (p == this.artNetReceiveHost) {
+    if (p == this.artNetReceiveActive || p == this.sacnReceiveActive) {
+      startReceiver();
+    } else if (p == this.artNetReceiveHost || p == this.artNetReceivePort) {
       if (this.artNetReceiveActive.isOn()) {
         startReceiver();
       }
-    } else if (p == this.artNetReceivePort) {
-      if (this.artNetReceiveActive.isOn()) {
+    } else if (
+      p == this.sacnReceiveHost ||
+      p == this.sacnMulticast ||
+      p == this.sacnUniverseStart ||
+      p == this.sacnUniverseCount) {
+      if (this.sacnReceiveActive.isOn()) {
         startReceiver();
       }
     }
   }
 
-  private void stopReceiver(IOState state) {
-    if (this.artNetReceiver != null) {
-      this.artNetReceiver.interrupt();
-      this.artNetReceiver.socket.close();
-      this.artNetReceiver = null;
+  private void stopReceiver() {
+    if (this.receiver != null) {
+      this.receiver.interrupt();
+      try {
+        // Wait for the thread to close its channels so the ports may be rebound
+        this.receiver.join(1000);
+      } catch (InterruptedException ix) {
+        Thread.currentThread().interrupt();
+      }
+      this.receiver = null;
     }
-    this.artNetReceiveState.setValue(state);
+    this.artNetReceiveState.setValue(IOState.STOPPED);
+    this.sacnReceiveState.setValue(IOState.STOPPED);
   }
 
   private void startReceiver() {
-    if (this.artNetReceiver != null) {
-      stopReceiver(IOState.STOPPED);
+    stopReceiver();
+
+    final DatagramChannel artNetChannel = this.artNetReceiveActive.isOn() ? openArtNet() : null;
+    final List<DatagramChannel> sacnChannels = this.sacnReceiveActive.isOn() ? openSacn() : null;
+    if (artNetChannel == null && sacnChannels == null) {
+      return;
+    }
+
+    try {
+      this.receiver = new DmxReceiver(artNetChannel, sacnChannels);
+      this.receiver.start();
+    } catch (IOException iox) {
+      error(iox, "Could not create DMX receiver selector: " + iox.getMessage());
+      this.lx.pushError("Failed to start DMX receiver\n" + iox.getLocalizedMessage());
+      closeChannel(artNetChannel);
+      if (artNetChannel != null) {
+        this.artNetReceiveState.setValue(IOState.SOCKET_ERROR);
+      }
+      if (sacnChannels != null) {
+        closeChannels(sacnChannels);
+        this.sacnReceiveState.setValue(IOState.SOCKET_ERROR);
+      }
+    }
+  }
+
+  private static void closeChannels(List<DatagramChannel> channels) {
+    for (DatagramChannel channel : channels) {
+      closeChannel(channel);
+    }
+  }
+
+  private static void closeChannel(DatagramChannel channel) {
+    if (channel != null) {
+      try {
+        channel.close();
+      } catch (IOException iox) {
+        error(iox, "Error closing DatagramChannel: " + iox.getMessage());
+      }
     }
+  }
+
+  private DatagramChannel openArtNet() {
     this.artNetReceiveState.setValue(IOState.BINDING);
     final String artNetHost = this.artNetReceiveHost.getString();
     final int artNetPort = this.artNetReceivePort.getValuei();
+    DatagramChannel channel = null;
     try {
       final InetAddress addr = InetAddress.getByName(artNetHost);
-      final DatagramSocket socket = new DatagramSocket(artNetPort, addr);
-      this.artNetReceiver = new ArtNetReceiver(socket);
-      this.artNetReceiver.start();
+      channel = DatagramChannel.open(StandardProtocolFamily.INET);
+      channel.bind(new InetSocketAddress(addr, artNetPort));
+      channel.configureBlocking(false);
       this.artNetReceiveState.setValue(IOState.BOUND);
+      return channel;
     } catch (SocketException sx) {
       error(sx, "Could not create Art-Net listener socket: " + sx.getMessage());
       this.lx.pushError("Failed to start Art-Net receiver at " + artNetHost + ":" + artNetPort + "\n" + sx.getLocalizedMessage());
@@ -172,6 +392,134 @@ public class LXDmxEngine extends LXComponent {
       this.lx.pushError("Uknown error starting Art-Net receiver at " + artNetHost + ":" + artNetPort + "\n" + x.getLocalizedMessage());
       this.artNetReceiveState.setValue(IOState.SOCKET_ERROR);
     }
+    closeChannel(channel);
+    return null;
+  }
+
+  private List<DatagramChannel> openSacn() {
+    this.sacnReceiveState.setValue(IOState.BINDING);
+    final String sacnHost = this.sacnReceiveHost.getString();
+    final int sacnPort = StreamingACNDatagram.DEFAULT_PORT;
+    final boolean multicast = this.sacnMulticast.isOn();
+    final List<DatagramChannel> channels = new ArrayList<DatagramChannel>();
+    try {
+      final InetAddress addr = InetAddress.getByName(sacnHost);
+
+      // Multicast datagrams are addressed to the group, not the host, so the
+      // socket is bound to the wildcard address and the host selects the interface
+      final InetSocketAddress bindAddress = multicast ?
+        new InetSocketAddress(sacnPort) :
+        new InetSocketAddress(addr, sacnPort);
+      channels.add(openSacnChannel(bindAddress));
+      if (multicast) {
+        joinSacnMulticast(channels, bindAddress, addr);
+      }
+      this.sacnReceiveState.setValue(IOState.BOUND);
+      return channels;
+    } catch (SocketException sx) {
+      error(sx, "Could not create sACN listener socket: " + sx.getMessage());
+      this.lx.pushError("Failed to start sACN receiver at " + sacnHost + ":" + sacnPort + "\n" + sx.getLocalizedMessage());
+      this.sacnReceiveState.setValue(IOState.SOCKET_ERROR);
+    } catch (Throwable x) {
+      error(x, "Unknown error starting sACN receiver: " + x.getMessage());
+      this.lx.pushError("Uknown error starting sACN receiver at " + sacnHost + ":" + sacnPort + "\n" + x.getLocalizedMessage());
+      this.sacnReceiveState.setValue(IOState.SOCKET_ERROR);
+    }
+    closeChannels(channels);
+    return null;
+  }
+
+  private static DatagramChannel openSacnChannel(InetSocketAddress bindAddress) throws IOException {
+    final DatagramChannel channel = DatagramChannel.open(StandardProtocolFamily.INET);
+    try {
+      channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+      channel.bind(bindAddress);
+      channel.configureBlocking(false);
+    } catch (IOException iox) {
+      closeChannel(channel);
+      throw iox;
+    }
+    return channel;
+  }
+
+  private void joinSacnMulticast(List<DatagramChannel> channels, InetSocketAddress bindAddress, InetAddress host) throws IOException {
+    final NetworkInterface networkInterface = getMulticastInterface(host);
+    if (networkInterface == null) {
+      error("Could not find a network interface for sACN multicast, only unicast sACN will be received");
+      return;
+    }
+    final int start = this.sacnUniverseStart.getValuei();
+    final int end = Math.min(MAX_UNIVERSE, start + this.sacnUniverseCount.getValuei());
+    DatagramChannel channel = channels.get(0);
+    int memberships = 0;
+    int universe = start;
+    while (universe < end) {
+      final InetAddress group = InetAddress.getByAddress(new byte[] {
+        (byte) 239, (byte) 255, (byte) (universe >>> 8), (byte) universe
+      });
+      try {
+        channel.join(group, networkInterface);
+        ++memberships;
+        ++universe;
+      } catch (IOException iox) {
+        if (memberships == 0) {
+          throw iox;
+        }
+        // The OS limits multicast memberships per socket (20 by default on Linux),
+        // so further groups are joined by another socket bound to the same port.
+        // Where such sockets each receive every group, the duplicates are dropped
+        // by sequence number.
+        channel = openSacnChannel(bindAddress);
+        channels.add(channel);
+        memberships = 0;
+      }
+    }
+    log("Joined sACN multicast for universes " + start + "-" + (end - 1) + " on " + networkInterface.getName() + " using " + channels.size() + " socket(s)");
+  }
+
+  private static NetworkInterface getMulticastInterface(InetAddress host) throws SocketException {
+    if (!host.isAnyLocalAddress()) {
+      final NetworkInterface networkInterface = NetworkInterface.getByInetAddress(host);
+      if (networkInterface != null) {
+        return networkInterface;
+      }
+    }
+    NetworkInterface loopback = null;
+    final Enumeration<NetworkInterface> networkInterfaces = NetworkInterface.getNetworkInterfaces();
+    while (networkInterfaces.hasMoreElements()) {
+      final NetworkInterface networkInterface = networkInterfaces.nextElement();
+      if (!networkInterface.isUp() || !networkInterface.supportsMulticast()) {
+        continue;
+      }
+      if (networkInterface.isLoopback()) {
+        loopback = networkInterface;
+        continue;
+      }
+      final Enumeration<InetAddress> inetAddresses = networkInterface.getInetAddresses();
+      while (inetAddresses.hasMoreElements()) {
+        if (inetAddresses.nextElement() instanceof Inet4Address) {
+          return networkInterface;
+        }
+      }
+    }
+    return loopback;
+  }
+
+  /**
+   * Swaps all universes that have received complete frames of input into the
+   * front buffers. Invoked by the engine once per frame before patterns run.
+   */
+  public void dispatch() {
+    for (Universe universe : this.universes) {
+      if (universe.ready) {
+        synchronized (universe) {
+          final byte[] front = this.data[universe.index];
+          this.data[universe.index] = universe.back;
+          universe.back = front;
+          universe.ready = false;
+        }
+      }
+    }
   }
 
   public int getColor(int universe, int channel) {
@@ -179,14 +527,22 @@ public class LXDmxEngine extends LXComponent {
   }
 
   public int getColor(int universe, int channel, ByteOrder byteOrder) {
+    final byte[] data = this.data[universe];
     return LXColor.rgba(
-      this.data[universe][channel + byteOrder.r],
-      this.data[universe][channel + byteOrder.g],
-      this.data[universe][channel + byteOrder.b],
+      data[channel + byteOrder.r],
+      data[channel + byteOrder.g],
+      data[channel + byteOrder.b],
       0xff
     );
   }
 
+  /**
+   * Front buffer of a universe, valid until the next dispatch()
+   */
+  byte[] getData(int universe) {
+    return this.data[universe];
+  }
+
   public byte getByte(int universe, int channel) {
     return this.data[universe][channel];
   }
@@ -199,160 +555,359 @@ public class LXDmxEngine extends LXComponent {
     return (this.data[universe][channel] & 0xff) / 255.;
   }
 
-  private class ArtNetReceiver extends Thread {
+  private static byte[] constructArtPollReply(DatagramChannel channel) throws IOException {
+    final InetSocketAddress socketAddress = (InetSocketAddress) channel.getLocalAddress();
+    final Inet4Address localAddress =
+      (socketAddress.getAddress() instanceof Inet4Address inet4 && !inet4.isAnyLocalAddress()) ?
+        inet4 : getLocalhostIPv4();
+    if (localAddress == null) {
+      return null;
+    }
 
-    private final DatagramSocket socket;
-    private final byte[] artPollReply;
-    private int artPollCount = 0;
+    final byte[] ip = localAddress.getAddress();
+    final int port = socketAddress.getPort();
+
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream(207);
+    try {
+      buffer.write(ArtNetDatagram.HEADER);
+      buffer.write(new byte[] {
+        0x00, 0x21, // OpPollReply
+        ip[0], ip[1], ip[2], ip[3], // IP
+        (byte) (port & 0xff), (byte) ((port >>> 8) & 0xff), // Port
+        0x00, 0x01, // Firmware
+        0x00, 0x00, // NetSwitch, SubSwitch
+        0x00, 0x00, // OEM
+        0x00, // UBEA
+        0x00, // Status1
+        0x00, 0x00 // ESTA
+      });
+      buffer.write(byteStr(18, "Chromatik")); // PortName
+      buffer.write(byteStr(64, "Chromatik Digital Lighting Workstation - " + LX.VERSION)); // LongName
+      buffer.write(byteStr(64, "#0001 [0000] Chromatik Status OK")); // NodeReport
+      buffer.write(new byte[] {
+        0x00, 0x04, // NumPorts
+        (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, // PortTypes (output DMX)
+        0x00, 0x00, 0x00, 0x00, // GoodInput
+        (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, // GoodOutput
+        0x00, 0x00, 0x00, 0x00, // SwIn
+        0x00, 0x01, 0x02, 0x03, // SwOut
+        StreamingACNDatagram.DEFAULT_PRIORITY, // AcnPriority
+        0x00, // SwMacro
+        0x00, // SwRemote
+        0x00, 0x00, 0x00, // Spare
+        0x02, // Style (media server)
+        0x00, 0x00, 0x00, 0x00, 0x00, 0x00 // MAC unspecified
+      });
+    } catch (IOException iox) {
+      error(iox, "Failed to create Art Poll Reply");
+      return null;
+    }
+
+    return buffer.toByteArray();
+  }
 
-    private ArtNetReceiver(DatagramSocket socket) {
-      super("Art-Net Receiver Thread");
-      this.socket = socket;
-      this.artPollReply = constructArtPollReply();
+  private static byte[] byteStr(int len, String str) {
+    byte[] bytes = new byte[len];
+    int i = 0;
+    for (byte b : str.getBytes()) {
+      bytes[i++] = b;
     }
+    return bytes;
+  }
 
-    private byte[] constructArtPollReply() {
-      final Inet4Address localAddress =
-        (this.socket.getLocalAddress() instanceof Inet4Address inet4) ?
-          inet4 : getLocalhostIPv4();
-      if (localAddress == null) {
-        return null;
+  private static Inet4Address getLocalhostIPv4() {
+    try {
+      final Enumeration<NetworkInterface> networkInterfaces = NetworkInterface.getNetworkInterfaces();
+      while (networkInterfaces.hasMoreElements()) {
+        final NetworkInterface networkInterface = networkInterfaces.nextElement();
+        if (!networkInterface.isLoopback() && networkInterface.isUp()) {
+          final Enumeration<InetAddress> inetAddresses = networkInterface.getInetAddresses();
+          while (inetAddresses.hasMoreElements()) {
+            InetAddress inetAddress = inetAddresses.nextElement();
+            if ((inetAddress instanceof Inet4Address inet4) &&
+                !inetAddress.isLoopbackAddress() &&
+                !inetAddress.isLinkLocalAddress()) {
+              return inet4;
+            }
+          }
+        }
       }
+    } catch (SocketException sx) {
+      error(sx, "Exception searching for local IPv4 address");
+    }
+    error("Could not determine a local IPv4 address, will not respond to ArtPoll");
+    return null;
+  }
+
+  enum Protocol {
+    ART_NET,
+    SACN
+  }
+
+  /**
+   * Thread which selects over all of the input sockets, receiving each packet into
+   * the buffer of a DmxInput which then handles it.
+   */
+  private class DmxReceiver extends Thread {
 
-      final byte[] ip = localAddress.getAddress();
-      final int port = this.socket.getLocalPort();
+    private final Selector selector;
+    private final DatagramChannel artNetChannel;
+    private final List<DatagramChannel> sacnChannels;
+    private final String artNetAddress;
+    private final String sacnAddress;
 
-      final ByteArrayOutputStream buffer = new ByteArrayOutputStream(207);
+    private final DmxInput input = new DmxInput();
+
+    private long pruneNanos;
+
+    private DmxReceiver(DatagramChannel artNetChannel, List<DatagramChannel> sacnChannels) throws IOException {
+      super("DMX Receiver Thread");
+      this.artNetChannel = artNetChannel;
+      this.sacnChannels = (sacnChannels != null) ? sacnChannels : List.of();
+      this.selector = Selector.open();
       try {
-        buffer.write(ArtNetDatagram.HEADER);
-        buffer.write(new byte[] {
-          0x00, 0x21, // OpPollReply
-          ip[0], ip[1], ip[2], ip[3], // IP
-          (byte) (port & 0xff), (byte) ((port >>> 8) & 0xff), // Port
-          0x00, 0x01, // Firmware
-          0x00, 0x00, // NetSwitch, SubSwitch
-          0x00, 0x00, // OEM
-          0x00, // UBEA
-          0x00, // Status1
-          0x00, 0x00 // ESTA
-        });
-        buffer.write(byteStr(18, "Chromatik")); // PortName
-        buffer.write(byteStr(64, "Chromatik Digital Lighting Workstation - " + LX.VERSION)); // LongName
-        buffer.write(byteStr(64, "#0001 [0000] Chromatik Status OK")); // NodeReport
-        buffer.write(new byte[] {
-          0x00, 0x04, // NumPorts
-          (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, // PortTypes (output DMX)
-          0x00, 0x00, 0x00, 0x00, // GoodInput
-          (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, // GoodOutput
-          0x00, 0x00, 0x00, 0x00, // SwIn
-          0x00, 0x01, 0x02, 0x03, // SwOut
-          StreamingACNDatagram.DEFAULT_PRIORITY, // AcnPriority
-          0x00, // SwMacro
-          0x00, // SwRemote
-          0x00, 0x00, 0x00, // Spare
-          0x02, // Style (media server)
-          0x00, 0x00, 0x00, 0x00, 0x00, 0x00 // MAC unspecified
-        });
+        if (artNetChannel != null) {
+          this.artNetAddress = String.valueOf(artNetChannel.getLocalAddress());
+          this.input.artPollReply = constructArtPollReply(artNetChannel);
+          artNetChannel.register(this.selector, SelectionKey.OP_READ, Protocol.ART_NET);
+        } else {
+          this.artNetAddress = null;
+        }
+        if (!this.sacnChannels.isEmpty()) {
+          this.sacnAddress = String.valueOf(this.sacnChannels.get(0).getLocalAddress());
+          for (DatagramChannel sacnChannel : this.sacnChannels) {
+            sacnChannel.register(this.selector, SelectionKey.OP_READ, Protocol.SACN);
+          }
+        } else {
+          this.sacnAddress = null;
+        }
       } catch (IOException iox) {
-        error(iox, "Failed to create Art Poll Reply");
-        return null;
+        this.selector.close();
+        throw iox;
       }
-
-      return buffer.toByteArray();
     }
 
-    private byte[] byteStr(int len, String str) {
-      byte[] bytes = new byte[len];
-      int i = 0;
-      for (byte b : str.getBytes()) {
-        bytes[i++] = b;
+    @Override
+    public void run() {
+      if (this.artNetChannel != null) {
+        log("Starting Art-Net listener on " + this.artNetAddress);
+      }
+      if (!this.sacnChannels.isEmpty()) {
+        log("Starting sACN listener on " + this.sacnAddress);
+      }
+      this.pruneNanos = System.nanoTime();
+      while (!isInterrupted()) {
+        try {
+          this.selector.select(this::receive, 1000);
+          final long nowNanos = System.nanoTime();
+          if (nowNanos - this.pruneNanos > PRUNE_INTERVAL_NANOS) {
+            this.pruneNanos = nowNanos;
+            this.input.pruneSources(nowNanos);
+          }
+        } catch (Throwable x) {
+          if (isInterrupted()) {
+            break;
+          }
+          error(x, x.getMessage());
+        }
+      }
+
+      // Thread is finished, closing the selector deregisters the channels
+      try {
+        this.selector.close();
+      } catch (Throwable x) {
+        LX.error(x, "Error closing DMX receiver Selector: " + x.getMessage());
+      }
+      if (this.artNetChannel != null) {
+        closeChannel(this.artNetChannel);
+        log("Art-Net receiver thread finished " + this.artNetAddress + ".");
+      }
+      if (!this.sacnChannels.isEmpty()) {
+        closeChannels(this.sacnChannels);
+        log("sACN receiver thread finished " + this.sacnAddress + ".");
       }
-      return bytes;
     }
 
-    private Inet4Address getLocalhostIPv4() {
+    private void receive(SelectionKey key) {
+      final Protocol protocol = (Protocol) key.attachment();
+      final DatagramChannel channel = (DatagramChannel) key.channel();
+      final ByteBuffer buffer = this.input.buffer;
       try {
-        final Enumeration<NetworkInterface> networkInterfaces = NetworkInterface.getNetworkInterfaces();
-        while (networkInterfaces.hasMoreElements()) {
-          final NetworkInterface networkInterface = networkInterfaces.nextElement();
-          if (!networkInterface.isLoopback() && networkInterface.isUp()) {
-            final Enumeration<InetAddress> inetAddresses = networkInterface.getInetAddresses();
-            while (inetAddresses.hasMoreElements()) {
-              InetAddress inetAddress = inetAddresses.nextElement();
-              if ((inetAddress instanceof Inet4Address inet4) &&
-                  !inetAddress.isLoopbackAddress() &&
-                  !inetAddress.isLinkLocalAddress()) {
-                return inet4;
-              }
-            }
-          }
+        // Drain everything available on the channel
+        SocketAddress from;
+        while ((from = channel.receive(buffer.clear())) != null) {
+          this.input.receive(protocol, buffer.position(), ((InetSocketAddress) from).getAddress(), System.nanoTime());
+        }
+      } catch (Throwable x) {
+        if (!isInterrupted()) {
+          error(x, x.getMessage());
         }
-      } catch (SocketException sx) {
-        error(sx, "Exception searching for local IPv4 address");
       }
-      error("Could not determine a local IPv4 address, will not respond to ArtPoll");
-      return null;
     }
+  }
 
-    private boolean checkHeader(byte[] dmxData, int offset) {
-      for (int i = 0; i < ArtNetDatagram.HEADER.length; ++i) {
-        if (dmxData[offset + i] != ArtNetDatagram.HEADER[i]) {
-          error("Packet missing valid Art-Net header");
+  /**
+   * Handles Art-Net and sACN packets, merging their data into the back buffers of
+   * the universes. Packets are received into the buffer by the DmxReceiver thread,
+   * this class does no socket I/O apart from replying to ArtPoll. It is only accessed
+   * by one thread at a time.
+   */
+  class DmxInput {
+
+    private static final int VECTOR_ROOT_E131_DATA = 0x00000004;
+    private static final int VECTOR_ROOT_E131_EXTENDED = 0x00000008;
+    private static final int VECTOR_E131_DATA_PACKET = 0x00000002;
+    private static final int VECTOR_E131_EXTENDED_SYNCHRONIZATION = 0x00000001;
+
+    private static final int OFFSET_ACN_PACKET_IDENTIFIER = 4;
+    private static final int OFFSET_ROOT_VECTOR = 18;
+    private static final int OFFSET_CID = 22;
+    private static final int OFFSET_FRAMING_VECTOR = 40;
+    private static final int OFFSET_SYNCHRONIZATION_ADDRESS = 109;
+    private static final int OFFSET_OPTIONS = 112;
+    private static final int OFFSET_PROPERTY_VALUE_COUNT = 123;
+    private static final int OFFSET_START_CODE = 125;
+
+    // Synchronization packets carry the sync address after the sequence number
+    private static final int OFFSET_SYNC_PACKET_ADDRESS = 45;
+    private static final int SYNC_PACKET_LENGTH = 49;
+
+    private static final int OPTION_PREVIEW_DATA = 0x80;
+    private static final int OPTION_STREAM_TERMINATED = 0x40;
+
+    private static final byte[] ACN_PACKET_IDENTIFIER = {
+      0x41, 0x53, 0x43, 0x2d, 0x45, 0x31, 0x2e, 0x31, 0x37, 0x00, 0x00, 0x00
+    };
+
+    final ByteBuffer buffer = ByteBuffer.allocate(MAX_PACKET_SIZE);
+    final byte[] packet = this.buffer.array();
+
+    private long nowNanos;
+
+    // Reply to ArtPoll for the Art-Net socket's address, null if not replying
+    private byte[] artPollReply = null;
+    private int artPollCount = 0;
+
+    // Art-Net synchronization state
+    private boolean artSync = false;
+    private long artSyncNanos = 0;
+
+    // E1.31 synchronization state, shared by all sACN sockets
+    private boolean sacnSync = false;
+    private long sacnSyncNanos = 0;
+
+    /**
+     * Handles a packet that has been received into the buffer
+     *
+     * @param protocol Protocol of the socket the packet was received on
+     * @param length Length of the packet
+     * @param from Sender address
+     * @param nowNanos Time of receipt
+     */
+    void receive(Protocol protocol, int length, InetAddress from, long nowNanos) {
+      this.nowNanos = nowNanos;
+      switch (protocol) {
+        case ART_NET -> receiveArtNet(length, from);
+        case SACN -> receiveSacn(length, from);
+      }
+    }
+
+    /**
+     * Applies data from a source to a universe
+     *
+     * @return false if the packet was out of sequence and discarded
+     */
+    private boolean receiveData(Universe universe, long idHi, long idLo, int priority, int sequence, int offset, int length, boolean held, int syncAddress) {
+      Source source = universe.getSource(idHi, idLo);
+      if (source == null) {
+        source = new Source(idHi, idLo);
+        universe.sources.add(source);
+      } else if ((sequence >= 0) && (source.sequence >= 0) && (this.nowNanos - source.lastNanos < SOURCE_TIMEOUT_NANOS)) {
+        // E1.31 6.7.2, reject packets less than 20 behind the last sequence number
+        final int diff = (byte) (sequence - source.sequence);
+        if ((diff <= 0) && (diff > -20)) {
           return false;
         }
       }
+      source.priority = priority;
+      source.sequence = sequence;
+      source.lastNanos = this.nowNanos;
+      System.arraycopy(this.packet, offset, source.data, 0, length);
+      if (held) {
+        universe.held = true;
+        universe.syncAddress = syncAddress;
+      } else {
+        universe.commit();
+      }
       return true;
     }
 
-    @Override
-    public void run() {
-      final String address = this.socket.getLocalAddress() + ":" + this.socket.getLocalPort();
-      log("Starting Art-Net listener on " + address);
-      final byte[] buffer = new byte[ArtNetDatagram.ARTNET_HEADER_LENGTH + ArtNetDatagram.MAX_DATA_LENGTH];
-      final DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+    private void releaseSync(int syncAddress) {
+      for (Universe universe : universes) {
+        if (universe.held && (universe.syncAddress == syncAddress)) {
+          universe.commit();
+        }
+      }
+    }
 
-      while (!isInterrupted()) {
-        try {
-          this.socket.receive(packet);
-          final byte[] artNetData = packet.getData();
-          final int offset = packet.getOffset();
-          if (!checkHeader(artNetData, offset)) {
-            continue;
+    /**
+     * Removes sources which have not sent data within the E1.31 network data loss timeout
+     *
+     * @param nowNanos Current time
+     */
+    void pruneSources(long nowNanos) {
+      this.nowNanos = nowNanos;
+      for (Universe universe : universes) {
+        final List<Source> sources = universe.sources;
+        boolean removed = false;
+        for (int i = sources.size() - 1; i >= 0; --i) {
+          if (this.nowNanos - sources.get(i).lastNanos > SOURCE_TIMEOUT_NANOS) {
+            sources.remove(i);
+            removed = true;
           }
+        }
+        // Remaining sources may now win the merge, if none remain the last look is held
+        if (removed) {
+          universe.commit();
+        }
+      }
+    }
 
-          artNetActivity.trigger();
+    private boolean checkArtNetHeader(int length) {
+      if (length < ArtNetDatagram.OPCODE_MSB + 1) {
+        error("Art-Net packet too short: " + length);
+        return false;
+      }
+      for (int i = 0; i < ArtNetDatagram.HEADER.length; ++i) {
+        if (this.packet[i] != ArtNetDatagram.HEADER[i]) {
+          error("Packet missing valid Art-Net header");
+          return false;
+        }
+      }
+      return true;
+    }
 
-          final int opcode =
-            (artNetData[offset + ArtNetDatagram.OPCODE_LSB] & 0xff) |
-            ((artNetData[offset + ArtNetDatagram.OPCODE_MSB] & 0xff) << 8);
+    private void receiveArtNet(int length, InetAddress from) {
+      if (!checkArtNetHeader(length)) {
+        return;
+      }
 
-          switch (opcode) {
-            case ArtNetDatagram.OPCODE_POLL -> receivePoll(packet, artNetData, offset);
-            case ArtNetDatagram.OPCODE_POLL_REPLY -> receivePollReply(packet, artNetData, offset);
-            case ArtNetDatagram.OPCODE_DMX -> receiveDmx(packet, artNetData, offset);
-            case ArtNetDatagram.OPCODE_SYNC -> receiveSync(packet, artNetData, offset);
-            default -> error("Unsupported ArtNet opcode: " + String.format("0x%04X", opcode));
-          }
+      artNetActivity.trigger();
 
-        } catch (Throwable x) {
-          if (isInterrupted()) {
-            break;
-          }
-          error(x, x.getMessage());
-        }
-      }
+      final int opcode =
+        (this.packet[ArtNetDatagram.OPCODE_LSB] & 0xff) |
+        ((this.packet[ArtNetDatagram.OPCODE_MSB] & 0xff) << 8);
 
-      // Thread is finished, close the socket
-      try {
-        this.socket.close();
-      } catch (Throwable x) {
-        LX.error(x, "Error closing Art-Net DatagramSocket: " + x.getMessage());
+      switch (opcode) {
+        case ArtNetDatagram.OPCODE_POLL -> receiveArtPoll(from);
+        case ArtNetDatagram.OPCODE_POLL_REPLY -> receiveArtPollReply(from);
+        case ArtNetDatagram.OPCODE_DMX -> receiveArtDmx(length, from);
+        case ArtNetDatagram.OPCODE_SYNC -> receiveArtSync(from);
+        default -> error("Unsupported ArtNet opcode: " + String.format("0x%04X", opcode));
       }
-      log("Art-Net receiver thread finished " + address + ".");
     }
 
-    private void receivePoll(DatagramPacket packet, byte[] artNetData, int offset) {
-      final InetAddress from = packet.getAddress();
+    private void receiveArtPoll(InetAddress from) {
       final boolean log = artNetLog.isOn();
       if (log) {
         log("[RX] ArtPoll <- " + from);
@@ -375,7 +930,7 @@ public class LXDmxEngine extends LXComponent {
       for (byte b : nodeReport.getBytes()) {
         this.artPollReply[n++] = b;
       }
-      while (n < nodeReportLength) {
+      while (n < nodeReportOffset + nodeReportLength) {
         this.artPollReply[n++] = 0;
       }
 
@@ -387,7 +942,7 @@ public class LXDmxEngine extends LXComponent {
         try {
           socket.send(reply);
           if (log) {
-            log("[TX] ArtPollReply -> " + packet.getAddress());
+            log("[TX] ArtPollReply -> " + from);
           }
         } catch (IOException iox) {
           error(iox, "Failed to send ArtPollReply: " + iox.getMessage());
@@ -395,41 +950,188 @@ public class LXDmxEngine extends LXComponent {
       }
     }
 
-    private void receivePollReply(DatagramPacket packet, byte[] artNetData, int offset) {
+    private void receiveArtPollReply(InetAddress from) {
       if (artNetLog.isOn()) {
-        log("[RX] ArtPollReply <- " + packet.getAddress() + " (will be ignored)");
+        log("[RX] ArtPollReply <- " + from + " (will be ignored)");
       }
     }
 
-    private void receiveDmx(DatagramPacket packet, byte[] artNetData, int offset) {
-      final int dmxOffset = offset + ArtNetDatagram.ARTNET_HEADER_LENGTH;
+    private void receiveArtDmx(int length, InetAddress from) {
+      if (length < ArtNetDatagram.ARTNET_HEADER_LENGTH) {
+        error("ArtDmx packet too short: " + length);
+        return;
+      }
 
       final int universe =
-        (artNetData[offset + ArtNetDatagram.UNIVERSE_LSB] & 0xff) |
-        ((artNetData[offset + ArtNetDatagram.UNIVERSE_MSB] & 0xff) << 8);
+        (this.packet[ArtNetDatagram.UNIVERSE_LSB] & 0xff) |
+        ((this.packet[ArtNetDatagram.UNIVERSE_MSB] & 0xff) << 8);
 
       if (universe >= MAX_UNIVERSE) {
         error("Ignoring ArtDmx packet, universe exceeds max: " + universe);
         return;
       }
 
-      final int dataLength =
-        (artNetData[offset + ArtNetDatagram.DATA_LENGTH_LSB] & 0xff) |
-        ((artNetData[offset + ArtNetDatagram.DATA_LENGTH_MSB] & 0xff) << 8);
-
-      System.arraycopy(artNetData, dmxOffset, data[universe], 0, dataLength);
+      final int dataLength = Math.min(
+        length - ArtNetDatagram.ARTNET_HEADER_LENGTH,
+        Math.min(MAX_CHANNEL,
+          (this.packet[ArtNetDatagram.DATA_LENGTH_LSB] & 0xff) |
+          ((this.packet[ArtNetDatagram.DATA_LENGTH_MSB] & 0xff) << 8)
+        )
+      );
+
+      // Sequence of 0 indicates that the sender does not sequence packets
+      final int sequence = this.packet[ArtNetDatagram.SEQUENCE_INDEX] & 0xff;
+
+      // Art-Net sources are identified by IPv4 address, tagged to avoid collision with any CID
+      final long id = (1L << 32) | (from.hashCode() & 0xffffffffL);
+
+      // Once ArtSync has been received, output is held for the next sync
+      final boolean held = this.artSync && (this.nowNanos - this.artSyncNanos < SYNC_TIMEOUT_NANOS);
+
+      final boolean accepted = receiveData(
+        universes[universe],
+        0,
+        id,
+        StreamingACNDatagram.DEFAULT_PRIORITY,
+        (sequence == 0) ? -1 : sequence,
+        ArtNetDatagram.ARTNET_HEADER_LENGTH,
+        dataLength,
+        held,
+        ARTSYNC_ADDRESS
+      );
 
       if (artNetLog.isOn()) {
-        log("[RX] ArtDmx <- " + packet.getAddress() + " univ:" + universe + " len:" + dataLength);
+        log("[RX] ArtDmx <- " + from + " univ:" + universe + " len:" + dataLength + (accepted ? "" : " (out of sequence)"));
       }
     }
 
-    private void receiveSync(DatagramPacket packet, byte[] artNetData, int offset) {
+    private void receiveArtSync(InetAddress from) {
+      this.artSync = true;
+      this.artSyncNanos = this.nowNanos;
+      releaseSync(ARTSYNC_ADDRESS);
       if (artNetLog.isOn()) {
-        log("[RX] ArtSync <- " + packet.getAddress());
+        log("[RX] ArtSync <- " + from);
       }
     }
 
+    private boolean checkSacnHeader(int length) {
+      if (length < SYNC_PACKET_LENGTH) {
+        error("sACN packet too short: " + length);
+        return false;
+      }
+      for (int i = 0; i < ACN_PACKET_IDENTIFIER.length; ++i) {
+        if (this.packet[OFFSET_ACN_PACKET_IDENTIFIER + i] != ACN_PACKET_IDENTIFIER[i]) {
+          error("Packet missing valid ACN packet identifier");
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private int getShort(int offset) {
+      return ((this.packet[offset] & 0xff) << 8) | (this.packet[offset + 1] & 0xff);
+    }
+
+    private void receiveSacn(int length, InetAddress from) {
+      if (!checkSacnHeader(length)) {
+        return;
+      }
+
+      sacnActivity.trigger();
+
+      final int rootVector = this.buffer.getInt(OFFSET_ROOT_VECTOR);
+      final int framingVector = this.buffer.getInt(OFFSET_FRAMING_VECTOR);
+      if (rootVector == VECTOR_ROOT_E131_EXTENDED) {
+        if (framingVector == VECTOR_E131_EXTENDED_SYNCHRONIZATION) {
+          receiveSacnSync(getShort(OFFSET_SYNC_PACKET_ADDRESS), from);
+        }
+        // Universe discovery packets are ignored
+        return;
+      }
+      if ((rootVector != VECTOR_ROOT_E131_DATA) || (framingVector != VECTOR_E131_DATA_PACKET)) {
+        error("Unsupported sACN vector: " + String.format("0x%08X/0x%08X", rootVector, framingVector));
+        return;
+      }
+      if (length < StreamingACNDatagram.OFFSET_DMX_DATA) {
+        error("sACN data packet too short: " + length);
+        return;
+      }
+
+      final int options = this.packet[OFFSET_OPTIONS] & 0xff;
+      if ((options & OPTION_PREVIEW_DATA) != 0) {
+        return;
+      }
+
+      final int universe = getShort(StreamingACNDatagram.OFFSET_UNIVERSE_NUMBER);
+      if (universe >= MAX_UNIVERSE) {
+        error("Ignoring sACN packet, universe exceeds max: " + universe);
+        return;
+      }
+
+      final long cidHi = this.buffer.getLong(OFFSET_CID);
+      final long cidLo = this.buffer.getLong(OFFSET_CID + 8);
+
+      if ((options & OPTION_STREAM_TERMINATED) != 0) {
+        receiveSacnTerminated(universes[universe], cidHi, cidLo, from);
+        return;
+      }
+
+      // Non-zero start codes (e.g. per-address priority) are not supported
+      if (this.packet[OFFSET_START_CODE] != 0) {
+        return;
+      }
+
+      final int dataLength = Math.min(
+        length - StreamingACNDatagram.OFFSET_DMX_DATA,
+        Math.min(MAX_CHANNEL, getShort(OFFSET_PROPERTY_VALUE_COUNT) - 1)
+      );
+      if (dataLength < 0) {
+        return;
+      }
+
+      final int priority = Math.min(StreamingACNDatagram.MAX_PRIORITY, this.packet[StreamingACNDatagram.OFFSET_PRIORITY] & 0xff);
+      final int sequence = this.packet[StreamingACNDatagram.OFFSET_SEQUENCE_NUMBER] & 0xff;
+      final int syncAddress = getShort(OFFSET_SYNCHRONIZATION_ADDRESS);
+
+      // Data with a sync address is held for the sync packet, unless sync has stopped
+      final boolean held = (syncAddress != 0) && this.sacnSync && (this.nowNanos - this.sacnSyncNanos < SYNC_TIMEOUT_NANOS);
+
+      final boolean accepted = receiveData(
+        universes[universe],
+        cidHi,
+        cidLo,
+        priority,
+        sequence,
+        StreamingACNDatagram.OFFSET_DMX_DATA,
+        dataLength,
+        held,
+        syncAddress
+      );
+
+      if (sacnLog.isOn()) {
+        log("[RX] sACN <- " + from + " univ:" + universe + " len:" + dataLength + " priority:" + priority + (accepted ? "" : " (out of sequence)"));
+      }
+    }
+
+    private void receiveSacnSync(int syncAddress, InetAddress from) {
+      this.sacnSync = true;
+      this.sacnSyncNanos = this.nowNanos;
+      releaseSync(syncAddress);
+      if (sacnLog.isOn()) {
+        log("[RX] sACN Sync <- " + from + " addr:" + syncAddress);
+      }
+    }
+
+    private void receiveSacnTerminated(Universe universe, long cidHi, long cidLo, InetAddress from) {
+      final Source source = universe.getSource(cidHi, cidLo);
+      if (source != null) {
+        universe.sources.remove(source);
+        universe.commit();
+      }
+      if (sacnLog.isOn()) {
+        log("[RX] sACN Terminated <- " + from + " univ:" + universe.index);
+      }
+    }
   }
 
   @Override
@@ -439,12 +1141,17 @@ public class LXDmxEngine extends LXComponent {
       this.artNetReceiveActive.reset();
       this.artNetReceiveHost.reset();
       this.artNetReceivePort.reset();
+      this.sacnReceiveActive.reset();
+      this.sacnReceiveHost.reset();
+      this.sacnMulticast.reset();
+      this.sacnUniverseStart.reset();
+      this.sacnUniverseCount.reset();
     }
   }
 
   @Override
   public void dispose() {
-    stopReceiver(IOState.STOPPED);
+    stopReceiver();
     super.dispose();
     if (this.artPollSocket != null) {
       this.artPollSocket.close();
@@ -452,14 +1159,14 @@ public class LXDmxEngine extends LXComponent {
   }
 
   public static void error(String log) {
-    LX.error("[ArtNet] " + log);
+    LX.error("[DMX] " + log);
   }
 
   public static void error(Throwable x, String log) {
-    LX.error(x, "[ArtNet] " + log);
+    LX.error(x, "[DMX] " + log);
   }
 
   public static void log(String log) {
-    LX.log("[ArtNet] " + log);
+    LX.log("[DMX] " + log);
   }
 }
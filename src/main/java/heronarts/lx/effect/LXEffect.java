@@ -27,6 +27,7 @@ import com.google.gson.JsonObject;
 import heronarts.lx.LX;
 import heronarts.lx.LXComponent;
 import heronarts.lx.LXDeviceComponent;
+import heronarts.lx.LXMetrics;
 import heronarts.lx.command.LXCommand;
 import heronarts.lx.mixer.LXBus;
 import heronarts.lx.modulator.LinearEnvelope;
@@ -380,6 +381,7 @@ public abstract class LXEffect extends LXDeviceComponent implements LXComponent.
       run(deltaMs, 1);
     }
     this.profiler.runNanos = System.nanoTime() - runStart;
+    this.lx.engine.metrics.record(this, LXMetrics.Metric.RUN, this.profiler.runNanos);
   }
 
   /**
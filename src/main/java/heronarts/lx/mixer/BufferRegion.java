@@ -0,0 +1,187 @@
+/**
+ * Copyright 2024- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx.mixer;
+
+import java.util.Arrays;
+import java.util.List;
+
+import heronarts.lx.model.LXModel;
+
+/**
+ * Clears the region of a channel buffer that is rendered each frame. Buffers are
+ * indexed by the root model, but only the points of a channel's view are ever
+ * composited, so only those need to be cleared each frame and the cost scales with
+ * the size of the view rather than the model. The whole buffer is cleared once
+ * whenever the view or the array changes, so that no stale content lingers outside
+ * of it.
+ *
+ * Arrays that are lent from the mixer's pool for a single frame hold whatever other
+ * channels rendered into them, and only the points of the view are ever read back,
+ * so for those just the view is cleared.
+ *
+ * A view may also be given that is known to be completely overwritten, for instance
+ * by a full coverage pattern, and its points are not cleared at all.
+ */
+class BufferRegion {
+
+  private static final int[] EMPTY = new int[0];
+
+  // Array that was last cleared in full, and the ranges of the view at that time
+  private int[] cleared = null;
+  private int[] clearedRanges = null;
+
+  // Ranges of the view less the covered points, cached for the inputs they came from
+  private int[] viewRanges = null;
+  private int[] coverRanges = null;
+  private int size = -1;
+  private int[] clearRanges = null;
+
+  // Union of the ranges of several views, cached for the ranges it came from
+  private int[][] unionOf = new int[0][];
+  private int unionSize = -1;
+  private int[] unionRanges = null;
+
+  /**
+   * Clears the points of a view in the buffer to transparent
+   *
+   * @param colors Buffer, indexed by the root model
+   * @param view View of the buffer that is composited
+   * @return Number of points cleared
+   */
+  int clear(int[] colors, LXModel view) {
+    return clear(colors, view, null, false);
+  }
+
+  /**
+   * Clears the points of a view in the buffer to transparent, other than those
+   * which will be overwritten
+   *
+   * @param colors Buffer, indexed by the root model
+   * @param view View of the buffer that is composited
+   * @param cover View whose points will all be overwritten, or null
+   * @param isLent Whether the buffer is lent from the pool for this frame only
+   * @return Number of points cleared
+   */
+  int clear(int[] colors, LXModel view, LXModel cover, boolean isLent) {
+    return clear(colors, view.getIndexRanges(), (cover != null) ? cover.getIndexRanges() : EMPTY, isLent);
+  }
+
+  /**
+   * Clears the points of several views in the buffer to transparent, used when
+   * multiple views are composited into the same buffer
+   *
+   * @param colors Buffer, indexed by the root model
+   * @param views Views of the buffer that are composited
+   * @return Number of points cleared
+   */
+  int clear(int[] colors, List<LXModel> views) {
+    return clear(colors, unionRanges(views, colors.length), EMPTY, false);
+  }
+
+  private int clear(int[] colors, int[] viewRanges, int[] coverRanges, boolean isLent) {
+    if (!isLent && ((colors != this.cleared) || (viewRanges != this.clearedRanges))) {
+      this.cleared = colors;
+      this.clearedRanges = viewRanges;
+      Arrays.fill(colors, 0);
+      return colors.length;
+    }
+
+    if ((viewRanges != this.viewRanges) || (coverRanges != this.coverRanges) || (colors.length != this.size)) {
+      this.viewRanges = viewRanges;
+      this.coverRanges = coverRanges;
+      this.size = colors.length;
+      this.clearRanges = subtractRanges(viewRanges, coverRanges, colors.length);
+    }
+
+    int cleared = 0;
+    for (int r = 0; r < this.clearRanges.length; r += 2) {
+      final int start = this.clearRanges[r];
+      final int num = this.clearRanges[r+1];
+      Arrays.fill(colors, start, start + num, 0);
+      cleared += num;
+    }
+    return cleared;
+  }
+
+  /**
+   * Computes the union of the ranges of several views, or returns the previous
+   * result if none of them have changed
+   */
+  private int[] unionRanges(List<LXModel> views, int size) {
+    boolean changed = (views.size() != this.unionOf.length) || (size != this.unionSize);
+    for (int i = 0; !changed && (i < this.unionOf.length); ++i) {
+      changed = (views.get(i).getIndexRanges() != this.unionOf[i]);
+    }
+    if (changed) {
+      this.unionOf = new int[views.size()][];
+      this.unionSize = size;
+      final boolean[] marked = new boolean[size];
+      for (int i = 0; i < this.unionOf.length; ++i) {
+        final int[] ranges = this.unionOf[i] = views.get(i).getIndexRanges();
+        mark(marked, ranges, true);
+      }
+      this.unionRanges = toRanges(marked);
+    }
+    return this.unionRanges;
+  }
+
+  /**
+   * Computes the (start, num) index ranges that are in one set of ranges but not another,
+   * limited to the size of the buffer
+   */
+  private static int[] subtractRanges(int[] ranges, int[] subtract, int size) {
+    final boolean[] marked = new boolean[size];
+    mark(marked, ranges, true);
+    mark(marked, subtract, false);
+    return toRanges(marked);
+  }
+
+  private static void mark(boolean[] marked, int[] ranges, boolean value) {
+    final int size = marked.length;
+    for (int r = 0; r < ranges.length; r += 2) {
+      Arrays.fill(marked, Math.min(size, ranges[r]), Math.min(size, ranges[r] + ranges[r+1]), value);
+    }
+  }
+
+  /**
+   * Converts marked indices into (start, num) index ranges
+   */
+  private static int[] toRanges(boolean[] marked) {
+    final int size = marked.length;
+    int numRanges = 0;
+    for (int i = 0; i < size; ++i) {
+      if (marked[i] && ((i == 0) || !marked[i-1])) {
+        ++numRanges;
+      }
+    }
+    final int[] result = new int[2 * numRanges];
+    int r = -2;
+    for (int i = 0; i < size; ++i) {
+      if (marked[i]) {
+        if ((i == 0) || !marked[i-1]) {
+          r += 2;
+          result[r] = i;
+        }
+        ++result[r+1];
+      }
+    }
+    return result;
+  }
+
+}
@@ -0,0 +1,325 @@
+/**
+ * Copyright 2024- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx.mixer;
+
+import heronarts.lx.LX;
+import heronarts.lx.LXBuffer;
+import heronarts.lx.blend.LXBlend;
+import heronarts.lx.model.LXModel;
+import heronarts.lx.utils.LXUtils;
+
+/**
+ * Color buffer of a channel. Patterns and effects address colors by the index of
+ * points in the root model, so a channel always renders into an array the size of
+ * the model. When the channel's view is only a small part of the model though, that
+ * array is only lent to the channel from a shared pool while it renders. Afterwards
+ * the colors of the view's points are gathered into a compact array, along with a
+ * map of their indices in the model. Such a channel holds memory in proportion to
+ * its view, and compositing it only touches the points of the view.
+ *
+ * If the array is requested outside of rendering, for instance by a UI preview
+ * reading the colors of a pattern, the caller never receives the lent array. The
+ * view's colors are scattered into an array the size of the model, and the request
+ * is noted for the engine. At the start of the next frame the rendering thread then
+ * switches to rendering into an array the buffer keeps, which stays valid between
+ * frames and is returned to such callers. Once the requests stop for RETAIN_FRAMES
+ * frames the kept array is dropped again.
+ */
+public class ChannelBuffer implements LXBuffer {
+
+  /**
+   * Views with no more than this fraction of the points in the model are held compactly
+   */
+  public static final double COMPACT_VIEW_FRACTION = .25;
+
+  /**
+   * Number of frames an array requested from outside of rendering is kept for after
+   * the last request
+   */
+  static final int RETAIN_FRAMES = 60;
+
+  private static final int[] EMPTY = new int[0];
+
+  private final LX lx;
+
+  // Array indexed by the model that is being rendered into, either owned or lent
+  private int[] array = null;
+  private boolean isLent = false;
+
+  // Model-sized array owned by the buffer, shared with callers outside of rendering
+  private volatile int[] owned = null;
+
+  // Thread between beginRender() and endRender(), the only one given the lent array
+  private volatile Thread renderThread = null;
+
+  private volatile boolean isCompact = false;
+
+  // Set by callers outside of rendering, consumed by the rendering thread
+  private volatile boolean isRequested = false;
+  private int unrequestedFrames = RETAIN_FRAMES;
+
+  // Compact colors of the view's points, and their ascending indices in the model
+  private int[] viewRanges = null;
+  private int viewSize = -1;
+  private volatile int[] indices = EMPTY;
+  private volatile int[] compact = EMPTY;
+
+  ChannelBuffer(LX lx) {
+    this.lx = lx;
+  }
+
+  /**
+   * Whether the colors are currently held in a compact array
+   *
+   * @return True if the buffer was compacted after the last render
+   */
+  public boolean isCompact() {
+    return this.isCompact;
+  }
+
+  /**
+   * Whether the array being rendered into is lent from the pool for this frame only,
+   * and may hold colors rendered by other channels outside of the view
+   *
+   * @return True if rendering into a lent array
+   */
+  boolean isLent() {
+    return this.isLent;
+  }
+
+  @Override
+  public int[] getArray() {
+    if (Thread.currentThread() == this.renderThread) {
+      return this.array;
+    }
+    if (!this.isCompact) {
+      return ensureOwned();
+    }
+
+    // Requested from outside of rendering, ask the engine to keep a model-sized
+    // array. Until it does, expand the compact colors into a new one.
+    this.isRequested = true;
+    final int size = this.lx.getModel().size;
+    final int[] owned = this.owned;
+    if ((owned != null) && (owned.length == size)) {
+      return owned;
+    }
+    final int[] array = new int[size];
+    final int[] indices = this.indices;
+    final int[] compact = this.compact;
+    final int num = LXUtils.min(indices.length, compact.length);
+    for (int i = 0; i < num; ++i) {
+      if (indices[i] < size) {
+        array[indices[i]] = compact[i];
+      }
+    }
+    return array;
+  }
+
+  /**
+   * Array the channel was rendered into, used by the channel itself after rendering
+   * without causing a compact buffer to keep a model-sized array
+   *
+   * @return Model-sized array if one is held, otherwise an empty array
+   */
+  int[] peekArray() {
+    return (this.array != null) ? this.array : EMPTY;
+  }
+
+  private int[] ensureOwned() {
+    final int size = this.lx.getModel().size;
+    int[] owned = this.owned;
+    if ((owned == null) || (owned.length != size)) {
+      this.owned = owned = new int[size];
+    }
+    return owned;
+  }
+
+  /**
+   * Prepares the buffer to render a frame of the given view. May be called from
+   * a channel rendering thread. Buffers that are never rendered this way, such as
+   * those of groups, are always indexed by the model.
+   *
+   * @param view View of the channel
+   */
+  void beginRender(LXModel view) {
+    releaseLent();
+    final LXModel model = this.lx.getModel();
+    final boolean isCompact = (view != model) && (view.size <= model.size * COMPACT_VIEW_FRACTION);
+
+    if (this.isRequested) {
+      this.isRequested = false;
+      this.unrequestedFrames = 0;
+    } else if (this.unrequestedFrames < RETAIN_FRAMES) {
+      ++this.unrequestedFrames;
+    }
+
+    if (isCompact) {
+      updateIndices(view, model.size);
+      if (this.unrequestedFrames < RETAIN_FRAMES) {
+        this.array = ensureOwned();
+      } else {
+        this.owned = null;
+        this.array = this.lx.engine.mixer.acquireScratch();
+        this.isLent = true;
+      }
+    } else {
+      this.viewRanges = null;
+      this.indices = EMPTY;
+      this.compact = EMPTY;
+      this.array = ensureOwned();
+    }
+    this.isCompact = isCompact;
+    this.renderThread = Thread.currentThread();
+  }
+
+  /**
+   * Finishes rendering a frame, gathering the view's colors into the compact array
+   * and returning the lent array to the pool
+   */
+  void endRender() {
+    this.renderThread = null;
+    if (this.isCompact) {
+      final int[] array = this.array;
+      final int[] indices = this.indices;
+      final int[] compact = this.compact;
+      for (int i = 0; i < indices.length; ++i) {
+        compact[i] = array[indices[i]];
+      }
+      releaseLent();
+    }
+  }
+
+  private void releaseLent() {
+    if (this.isLent) {
+      this.lx.engine.mixer.releaseScratch(this.array);
+      this.array = null;
+      this.isLent = false;
+    }
+  }
+
+  private void updateIndices(LXModel view, int size) {
+    final int[] ranges = view.getIndexRanges();
+    if ((ranges == this.viewRanges) && (size == this.viewSize)) {
+      return;
+    }
+    this.viewRanges = ranges;
+    this.viewSize = size;
+
+    // Views may list points in any order, mark them to get sorted unique indices
+    final boolean[] marked = new boolean[size];
+    int count = 0;
+    for (int r = 0; r < ranges.length; r += 2) {
+      final int end = LXUtils.min(size, ranges[r] + ranges[r+1]);
+      for (int i = ranges[r]; i < end; ++i) {
+        if (!marked[i]) {
+          marked[i] = true;
+          ++count;
+        }
+      }
+    }
+    final int[] indices = new int[count];
+    int n = 0;
+    for (int i = 0; i < size; ++i) {
+      if (marked[i]) {
+        indices[n++] = i;
+      }
+    }
+    this.compact = new int[count];
+    this.indices = indices;
+  }
+
+  /**
+   * Blends the channel's colors within its view
+   *
+   * @param blend Blend
+   * @param dst Destination buffer, indexed by the model
+   * @param alpha Alpha
+   * @param output Output buffer, indexed by the model
+   * @param view View of the channel
+   */
+  void blend(LXBlend blend, int[] dst, double alpha, int[] output, LXModel view) {
+    if (this.isCompact) {
+      blend.blend(dst, this.compact, alpha, output, this.indices, 0, this.indices.length);
+    } else if (view == this.lx.getModel()) {
+      blend.blend(dst, getArray(), alpha, output, 0, view.size);
+    } else {
+      blend.blend(dst, getArray(), alpha, output, view);
+    }
+  }
+
+  /**
+   * Blends the channel's colors within its view that fall within a range of indices,
+   * used by the multi-threaded compositor to blend a chunk of the buffer
+   *
+   * @param blend Blend
+   * @param dst Destination buffer, indexed by the model
+   * @param alpha Alpha
+   * @param output Output buffer, indexed by the model
+   * @param view View of the channel
+   * @param start First index of the chunk
+   * @param num Number of indices in the chunk
+   */
+  void blend(LXBlend blend, int[] dst, double alpha, int[] output, LXModel view, int start, int num) {
+    final int end = start + num;
+    if (this.isCompact) {
+      final int from = lowerBound(this.indices, start);
+      final int to = lowerBound(this.indices, end);
+      if (from < to) {
+        blend.blend(dst, this.compact, alpha, output, this.indices, from, to - from);
+      }
+    } else if (view == this.lx.getModel()) {
+      blend.blend(dst, getArray(), alpha, output, start, num);
+    } else {
+      final int[] src = getArray();
+      final int[] ranges = view.getIndexRanges();
+      for (int r = 0; r < ranges.length; r += 2) {
+        final int rangeStart = LXUtils.max(start, ranges[r]);
+        final int rangeEnd = LXUtils.min(end, ranges[r] + ranges[r+1]);
+        if (rangeStart < rangeEnd) {
+          blend.blend(dst, src, alpha, output, rangeStart, rangeEnd - rangeStart);
+        }
+      }
+    }
+  }
+
+  void dispose() {
+    releaseLent();
+    this.array = null;
+    this.owned = null;
+    this.renderThread = null;
+  }
+
+  /**
+   * Position of the first element of a sorted array that is not less than the key
+   */
+  private static int lowerBound(int[] sorted, int key) {
+    int lo = 0, hi = sorted.length;
+    while (lo < hi) {
+      final int mid = (lo + hi) >>> 1;
+      if (sorted[mid] < key) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+
+}
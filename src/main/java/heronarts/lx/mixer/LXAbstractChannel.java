@@ -28,7 +28,6 @@ import heronarts.lx.LX;
 import heronarts.lx.LXComponent;
 import heronarts.lx.LXModulatorComponent;
 import heronarts.lx.LXSerializable;
-import heronarts.lx.ModelBuffer;
 import heronarts.lx.blend.LXBlend;
 import heronarts.lx.effect.LXEffect;
 import heronarts.lx.midi.LXShortMessage;
@@ -63,6 +62,12 @@ public abstract class LXAbstractChannel extends LXBus implements LXComponent.Ren
 
   public class Profiler extends LXBus.Profiler {
     public long blendNanos;
+
+    /**
+     * Number of points of the channel buffer cleared before rendering patterns,
+     * zero when the active pattern covered the whole buffer
+     */
+    public int clearPoints;
   }
 
   @Override
@@ -88,7 +93,7 @@ public abstract class LXAbstractChannel extends LXBus implements LXComponent.Ren
   /**
    * This is a local buffer used for transition blending on this channel
    */
-  protected final ModelBuffer blendBuffer;
+  protected final ChannelBuffer blendBuffer;
 
   protected int[] colors;
 
@@ -161,7 +166,7 @@ public abstract class LXAbstractChannel extends LXBus implements LXComponent.Ren
     super(lx, label);
     this.index = index;
     this.label.setDescription("The name of this channel");
-    this.blendBuffer = new ModelBuffer(lx);
+    this.blendBuffer = new ChannelBuffer(lx);
     this.colors = this.blendBuffer.getArray();
 
     this.autoMute.setValue(lx.engine.mixer.autoMuteDefault.isOn());
@@ -357,10 +362,6 @@ public abstract class LXAbstractChannel extends LXBus implements LXComponent.Ren
     return this.index;
   }
 
-  int[] getColors() {
-    return this.colors;
-  }
-
   @Override
   public void dispose() {
     super.dispose();
@@ -333,6 +333,7 @@ public abstract class LXBus extends LXModelComponent implements LXPresetComponen
     this.mutableEffects.remove(effect);
     this.mutableEffects.add(index, effect);
     _reindexEffects();
+    markModified();
     for (Listener listener : this.listeners) {
       listener.effectMoved(this, effect);
     }
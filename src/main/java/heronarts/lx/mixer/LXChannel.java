@@ -443,35 +443,78 @@ public class LXChannel extends LXAbstractChannel implements LXPatternEngine.Cont
     return this.patternEngine.getTransitionProgress();
   }
 
+  // Time spent in loopComponents() this frame, which is reported as part of the loop
+  private long componentNanos = 0;
+
   @Override
   public void loop(double deltaMs) {
+    loopComponents(deltaMs);
+    render(deltaMs);
+  }
+
+  /**
+   * Runs the parts of the channel loop that may change parameters or notify
+   * listeners: clips, the channel's modulators, and the pattern engine's
+   * transition and auto-cycle state. When channels are rendered in parallel this
+   * is invoked on the engine thread for every channel before any of them render.
+   *
+   * @param deltaMs Milliseconds elapsed since last frame
+   */
+  void loopComponents(double deltaMs) {
     long loopStart = System.nanoTime();
 
     // Delegate to LXAbstractChannel loop method
     super.loop(deltaMs);
 
     // LXAbstractChannel will have figured out if we need to run everything.
-    // If not, then we're done here and skip the rest.
+    if (this.isAnimating) {
+      this.patternEngine.update(deltaMs);
+    }
+    this.componentNanos = System.nanoTime() - loopStart;
+  }
+
+  /**
+   * Renders the channel's patterns and effects into its buffer. When channels are
+   * rendered in parallel this is invoked from a channel rendering thread. Patterns
+   * and effects then run concurrently with those of other channels, along with the
+   * modulators scoped to them, which can only target their own parameters.
+   *
+   * @param deltaMs Milliseconds elapsed since last frame
+   */
+  void render(double deltaMs) {
+    long renderStart = System.nanoTime();
+
+    // If not animating, then we're done here and skip the rest.
     if (!this.isAnimating) {
-      this.profiler.loopNanos = System.nanoTime() - loopStart;
+      ((LXAbstractChannel.Profiler) this.profiler).clearPoints = 0;
+      this.profiler.loopNanos = this.componentNanos;
       return;
     }
 
-    // Run the pattern engine
-    this.colors = this.blendBuffer.getArray();
-    this.patternEngine.loop(this.blendBuffer, getModelView(), deltaMs);
-    this.profiler.loopNanos = System.nanoTime() - loopStart;
-
-    // Apply effects
-    long effectStart = System.nanoTime();
-    if (!this.mutableEffects.isEmpty()) {
-      for (LXEffect effect : this.mutableEffects) {
-        effect.setBuffer(this.blendBuffer);
-        effect.setModel(effect.getModelView());
-        effect.loop(deltaMs);
+    // Small views render into a lent buffer and are compacted afterwards
+    final LXModel modelView = getModelView();
+    this.blendBuffer.beginRender(modelView);
+    try {
+      // Run the pattern engine
+      this.colors = this.blendBuffer.getArray();
+      this.patternEngine.render(this.blendBuffer, modelView, deltaMs);
+      ((LXAbstractChannel.Profiler) this.profiler).clearPoints = this.patternEngine.getClearPoints();
+      this.profiler.loopNanos = this.componentNanos + System.nanoTime() - renderStart;
+
+      // Apply effects
+      long effectStart = System.nanoTime();
+      if (!this.mutableEffects.isEmpty()) {
+        for (LXEffect effect : this.mutableEffects) {
+          effect.setBuffer(this.blendBuffer);
+          effect.setModel(effect.getModelView());
+          effect.loop(deltaMs);
+        }
       }
+      ((LXBus.Profiler) this.profiler).effectNanos = System.nanoTime() - effectStart;
+    } finally {
+      this.blendBuffer.endRender();
+      this.colors = this.blendBuffer.peekArray();
     }
-    ((LXBus.Profiler) this.profiler).effectNanos = System.nanoTime() - effectStart;
   }
 
   @Override
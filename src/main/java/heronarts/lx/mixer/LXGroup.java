@@ -27,6 +27,7 @@ import heronarts.lx.LXModulatorComponent;
 import heronarts.lx.clip.LXClip;
 import heronarts.lx.clip.LXGroupClip;
 import heronarts.lx.effect.LXEffect;
+import heronarts.lx.model.LXModel;
 import heronarts.lx.parameter.LXParameter;
 
 public class LXGroup extends LXAbstractChannel {
@@ -43,6 +44,11 @@ public class LXGroup extends LXAbstractChannel {
   private final List<LXChannel> mutableChannels = new ArrayList<LXChannel>();
   public final List<LXChannel> channels = Collections.unmodifiableList(this.mutableChannels);
 
+  // Region of the group buffer cleared each frame, bounded by the views of the
+  // group and of every channel that is blended into it
+  private final BufferRegion clearRegion = new BufferRegion();
+  private final List<LXModel> clearViews = new ArrayList<LXModel>();
+
   public LXGroup(LX lx, int index) {
     super(lx, index, "Group-" + (index+1));
   }
@@ -114,17 +120,23 @@ public class LXGroup extends LXAbstractChannel {
     long compositeStart = System.nanoTime();
 
     // Because of channel views, channel blends may not touch all pixels, so start
-    // by splatting transparency onto the group buffer
-    this.blendBuffer.copyFrom(this.lx.engine.mixer.backgroundTransparent);
+    // by splatting transparency onto the group buffer within the group's view and
+    // the views of its channels, which may extend beyond it
     this.colors = this.blendBuffer.getArray();
+    this.clearViews.clear();
+    this.clearViews.add(getModelView());
+    for (LXChannel channel : this.channels) {
+      this.clearViews.add(channel.getModelView());
+    }
+    this.clearRegion.clear(this.colors, this.clearViews);
 
     // Blend all channels that are enabled.
     for (LXChannel channel : this.channels) {
       final long blendStart = System.nanoTime();
       if (channel.enabled.isOn()) {
-        channel.blendMode.getObject().blend(
+        channel.blendBuffer.blend(
+          channel.blendMode.getObject(),
           this.colors,
-          channel.getColors(),
           channel.fader.getValue(),
           this.colors,
           channel.getModelView()
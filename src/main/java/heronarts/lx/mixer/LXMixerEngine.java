@@ -23,6 +23,8 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -35,6 +37,7 @@ import heronarts.lx.LX;
 import heronarts.lx.LXComponent;
 import heronarts.lx.LXDeviceComponent;
 import heronarts.lx.LXEngine;
+import heronarts.lx.LXMetrics;
 import heronarts.lx.LXRegistry;
 import heronarts.lx.LXSerializable;
 import heronarts.lx.ModelBuffer;
@@ -150,6 +153,10 @@ public class LXMixerEngine extends LXComponent implements LXOscComponent {
   private final ModelBuffer blendBufferLeft;
   private final ModelBuffer blendBufferRight;
 
+  // Arrays the size of the model that are lent to channels while they render,
+  // which may be acquired and released from channel rendering threads
+  private final ConcurrentLinkedQueue<int[]> scratchPool = new ConcurrentLinkedQueue<int[]>();
+
   public final BooleanParameter viewCondensed =
     new BooleanParameter("View Condensed", false)
     .setDescription("Whether the mixer view should be condensed");
@@ -321,6 +328,34 @@ public class LXMixerEngine extends LXComponent implements LXOscComponent {
     return super.handleOscMessage(message, parts, index);
   }
 
+  /**
+   * Borrows an array the size of the model from the scratch pool. Its contents
+   * are undefined. May be called from channel rendering threads.
+   *
+   * @return Array the size of the model
+   */
+  public int[] acquireScratch() {
+    final int size = this.lx.getModel().size;
+    int[] scratch;
+    while ((scratch = this.scratchPool.poll()) != null) {
+      if (scratch.length == size) {
+        return scratch;
+      }
+    }
+    return new int[size];
+  }
+
+  /**
+   * Returns an array to the scratch pool, arrays from a previous model are discarded
+   *
+   * @param scratch Array previously acquired from the pool
+   */
+  public void releaseScratch(int[] scratch) {
+    if (scratch.length == this.lx.getModel().size) {
+      this.scratchPool.offer(scratch);
+    }
+  }
+
   private LXBlend[] instantiateBlends(List<Class<? extends LXBlend>> blendTypes, LXComponent context) {
     List<LXBlend> blends = new ArrayList<LXBlend>(blendTypes.size());
     for (Class<? extends LXBlend> blend : blendTypes) {
@@ -988,6 +1023,20 @@ public class LXMixerEngine extends LXComponent implements LXOscComponent {
       this.destination = this.output;
     }
 
+    void blend(LXBlend blend, LXAbstractChannel channel, double alpha) {
+      channel.blendBuffer.blend(blend, this.destination, alpha, this.output, channel.getModelView());
+      this.destination = this.output;
+    }
+
+    /**
+     * Blends the points of a channel's view that fall within a range of indices,
+     * used by the multi-threaded compositor to blend a chunk of the buffer
+     */
+    void blend(LXBlend blend, LXAbstractChannel channel, double alpha, int start, int num) {
+      channel.blendBuffer.blend(blend, this.destination, alpha, this.output, channel.getModelView(), start, num);
+      this.destination = this.output;
+    }
+
     void transition(LXBlend blend, int[] src, double lerp, LXModel model) {
       blend.lerp(this.destination, src, lerp, this.output, model);
       this.destination = this.output;
@@ -1008,14 +1057,21 @@ public class LXMixerEngine extends LXComponent implements LXOscComponent {
   private boolean _blendCueCalled = false;
   private boolean _blendAuxCalled = false;
 
+  // NOTE: these may be invoked concurrently from channel threads when the
+  // multi-threaded channel renderer is enabled, so the stacks are locked. The
+  // add blend is commutative, so the order of channel calls does not matter.
   public void blendCue(int[] cueColors, LXModel cueView) {
-    this.blendStackCue.blend(this.addBlend, cueColors, 1, cueView);
-    this._blendCueCalled = true;
+    synchronized (this.blendStackCue) {
+      this.blendStackCue.blend(this.addBlend, cueColors, 1, cueView);
+      this._blendCueCalled = true;
+    }
   }
 
   public void blendAux(int[] auxColors, LXModel auxView) {
-    this.blendStackAux.blend(this.addBlend, auxColors, 1, auxView);
-    this._blendAuxCalled = true;
+    synchronized (this.blendStackAux) {
+      this.blendStackAux.blend(this.addBlend, auxColors, 1, auxView);
+      this._blendAuxCalled = true;
+    }
   }
 
   private static final int NUM_COMPOSITOR_THREADS = 12;
@@ -1024,6 +1080,84 @@ public class LXMixerEngine extends LXComponent implements LXOscComponent {
   private final List<Future<?>> compositorFutures = new ArrayList<>();
   private ExecutorService compositor = null;
 
+  private final List<Future<?>> channelFutures = new ArrayList<>();
+  private ExecutorService channelRenderer = null;
+
+  /**
+   * Loops all the channels, rendering them in parallel on a work-stealing pool.
+   * Only the rendering of patterns and effects is parallel. Groups, clips, channel
+   * modulators and pattern engine state run first on the engine thread, since they
+   * may change parameters of other channels or notify listeners. Each channel's
+   * patterns and effects are then rendered concurrently, along with their own
+   * modulators, which are scoped to the device and cannot target parameters of
+   * other channels. Patterns and effects must not modify anything outside of their
+   * own channel while rendering. This method does not return until all channels
+   * have finished.
+   *
+   * @param deltaMs Milliseconds elapsed since last frame
+   */
+  private void loopChannelsMultithreaded(double deltaMs) {
+    if (this.channelRenderer == null) {
+      this.channelRenderer = Executors.newWorkStealingPool();
+    }
+
+    // Groups first, they determine whether their member channels are animating
+    for (LXAbstractChannel channel : this.channels) {
+      if (channel instanceof LXGroup) {
+        channel.loop(deltaMs);
+      }
+    }
+    for (LXAbstractChannel channel : this.channels) {
+      if (channel instanceof LXChannel lxChannel) {
+        lxChannel.loopComponents(deltaMs);
+      }
+    }
+
+    this.channelFutures.clear();
+    for (LXAbstractChannel channel : this.channels) {
+      if (channel instanceof LXChannel lxChannel) {
+        this.channelFutures.add(this.channelRenderer.submit(() -> lxChannel.render(deltaMs)));
+      }
+    }
+
+    // Join on every channel before proceeding to group compositing. Errors thrown
+    // by a channel are re-thrown here on the engine thread, same as when single-threaded.
+    Throwable error = null;
+    for (Future<?> future : this.channelFutures) {
+      try {
+        future.get();
+      } catch (InterruptedException x) {
+        LX.log("LXMixerEngine interrupted waiting for channel future");
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException x) {
+        if (error == null) {
+          error = x.getCause();
+        }
+      }
+    }
+    this.channelFutures.clear();
+    if (error instanceof RuntimeException runtimeException) {
+      throw runtimeException;
+    } else if (error instanceof Error err) {
+      throw err;
+    } else if (error != null) {
+      throw new RuntimeException(error);
+    }
+  }
+
+  private void recordMetrics() {
+    final LXMetrics metrics = this.lx.engine.metrics;
+    for (LXAbstractChannel channel : this.channels) {
+      final LXAbstractChannel.Profiler profiler = (LXAbstractChannel.Profiler) channel.profiler;
+      metrics.record(channel, LXMetrics.Metric.LOOP, profiler.loopNanos);
+      metrics.record(channel, LXMetrics.Metric.EFFECT, profiler.effectNanos);
+      metrics.record(channel, LXMetrics.Metric.BLEND, profiler.blendNanos);
+    }
+    final LXBus.Profiler masterProfiler = (LXBus.Profiler) this.masterBus.profiler;
+    metrics.record(this.masterBus, LXMetrics.Metric.LOOP, masterProfiler.loopNanos);
+    metrics.record(this.masterBus, LXMetrics.Metric.EFFECT, masterProfiler.effectNanos);
+  }
+
   public void loop(LXEngine.Frame render, double deltaMs) {
     final long channelStart = System.nanoTime();
 
@@ -1047,8 +1181,12 @@ public class LXMixerEngine extends LXComponent implements LXOscComponent {
     final boolean isPerformanceMode = this.lx.engine.performanceMode.isOn();
 
     // Step 1a: Loop all of the channels
-    for (LXAbstractChannel channel : this.channels) {
-      channel.loop(deltaMs);
+    if (this.lx.engine.isChannelMultithreaded.isOn() && (this.channels.size() > 1)) {
+      loopChannelsMultithreaded(deltaMs);
+    } else {
+      for (LXAbstractChannel channel : this.channels) {
+        channel.loop(deltaMs);
+      }
     }
     cueBusActive = this._blendCueCalled;
     auxBusActive = this._blendAuxCalled;
@@ -1111,7 +1249,7 @@ public class LXMixerEngine extends LXComponent implements LXOscComponent {
           if ((blendStack != null) && channel.enabled.isOn()) {
             final double alpha = channel.fader.getValue();
             if (alpha > 0) {
-              blendStack.blend(channel.blendMode.getObject(), channel.getColors(), alpha, channel.getModelView());
+              blendStack.blend(channel.blendMode.getObject(), channel, alpha);
             }
           }
         }
@@ -1150,7 +1288,7 @@ public class LXMixerEngine extends LXComponent implements LXOscComponent {
                   case BYPASS -> this.blendStackMain;
                 };
                 if (blendStack != null) {
-                  blendStack.blend(channel.blendMode.getObject(), channel.getColors(), alpha, start, num);
+                  blendStack.blend(channel.blendMode.getObject(), channel, alpha, start, num);
                 }
               }
             }
@@ -1180,13 +1318,13 @@ public class LXMixerEngine extends LXComponent implements LXOscComponent {
       // Blend into the cue buffer, always a direct add blend for any type of channel
       if (channel.cueActive.isOn()) {
         cueBusActive = true;
-        this.blendStackCue.blend(this.addBlend, channel.getColors(), 1, channel.getModelView());
+        this.blendStackCue.blend(this.addBlend, channel, 1);
       }
 
       // Blend into the aux buffer when in performance mode
       if (isPerformanceMode && channel.auxActive.isOn()) {
         auxBusActive = true;
-        this.blendStackAux.blend(this.addBlend, channel.getColors(), 1, channel.getModelView());
+        this.blendStackAux.blend(this.addBlend, channel, 1);
       }
     }
 
@@ -1240,6 +1378,11 @@ public class LXMixerEngine extends LXComponent implements LXOscComponent {
     }
     ((LXBus.Profiler) this.masterBus.profiler).effectNanos = System.nanoTime() - effectStart;
 
+    // Accumulate per-channel timing into the metrics histograms
+    if (this.lx.engine.metrics.isEnabled()) {
+      recordMetrics();
+    }
+
     // Step 7: If the master fader is POST-visualizer/output, apply global scaling now
     if (this.masterBus.previewMode.getEnum() == LXMasterBus.PreviewMode.POST) {
       final double fader = this.masterBus.fader.getValue();
@@ -1360,6 +1503,9 @@ public class LXMixerEngine extends LXComponent implements LXOscComponent {
     if (this.compositor != null) {
       this.compositor.shutdownNow();
     }
+    if (this.channelRenderer != null) {
+      this.channelRenderer.shutdownNow();
+    }
   }
 
   /**
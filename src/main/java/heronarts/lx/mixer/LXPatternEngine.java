@@ -22,7 +22,6 @@ import heronarts.lx.LX;
 import heronarts.lx.LXBuffer;
 import heronarts.lx.LXComponent;
 import heronarts.lx.LXSerializable;
-import heronarts.lx.ModelBuffer;
 import heronarts.lx.blend.LXBlend;
 import heronarts.lx.midi.LXShortMessage;
 import heronarts.lx.midi.MidiPanic;
@@ -196,9 +195,10 @@ public class LXPatternEngine implements LXParameterListener, LXSerializable {
   public final MutableParameter numPatternsChanged = new MutableParameter();
 
   /**
-   * This is a local buffer used to render a secondary pattern
+   * This is a local buffer used to render a secondary pattern, which only
+   * holds an array while the engine is looping
    */
-  protected final ModelBuffer renderBuffer;
+  protected final ScratchBuffer renderBuffer;
 
   private double autoCycleProgress = 0;
   private double transitionProgress = 0;
@@ -212,6 +212,11 @@ public class LXPatternEngine implements LXParameterListener, LXSerializable {
 
   private long transitionMillis = 0;
 
+  // Region of the buffer cleared each frame, bounded by the view
+  private final BufferRegion clearRegion = new BufferRegion();
+
+  private int clearPoints = 0;
+
   private final LX lx;
   public final LXComponent component;
   private final Container container;
@@ -232,7 +237,7 @@ public class LXPatternEngine implements LXParameterListener, LXSerializable {
     this.component = component;
     this.container = (Container) component;
 
-    this.renderBuffer = new ModelBuffer(lx);
+    this.renderBuffer = new ScratchBuffer(lx);
 
     this.launchPatternCycle =
       new QuantizedTriggerParameter.Launch(this.lx, "Launch Pattern Cycle", this.triggerPatternCycle::trigger)
@@ -666,6 +671,7 @@ public class LXPatternEngine implements LXParameterListener, LXSerializable {
     }
     this.activePatternIndex = activePattern.getIndex();
     this.nextPatternIndex = nextPattern.getIndex();
+    this.component.markModified();
     this.container.getPatternEngineDelegate().patternMoved(this, pattern);
     this.listeners.forEach(listener -> listener.patternMoved(this, pattern));
     if (pattern == focusedPattern) {
@@ -922,6 +928,7 @@ public class LXPatternEngine implements LXParameterListener, LXSerializable {
   private void finishTransition() {
     getActivePattern().deactivate(LXMixerEngine.patternFriendAccess);
     this.activePatternIndex = this.nextPatternIndex;
+    this.component.markModified();
     LXPattern activePattern = getActivePattern();
     if (this.transition != null) {
       activePattern.onTransitionEnd();
@@ -949,62 +956,43 @@ public class LXPatternEngine implements LXParameterListener, LXSerializable {
     }
   }
 
-  public void loop(LXBuffer blendBuffer, LXModel modelView, double deltaMs) {
-    // Initialize buffer colors
-    int[] colors = blendBuffer.getArray();
+  /**
+   * Number of points of the buffer that were cleared to transparent on the last
+   * call to loop(), which is zero when the active pattern covered the whole view
+   *
+   * @return Number of points cleared
+   */
+  public int getClearPoints() {
+    return this.clearPoints;
+  }
 
-    // Initialize colors to transparent. This needs to be done no matter
-    // what the mixing mode is, because sub-patterns/effects may render
-    // to views that only touch a subset of the channel's view. We don't
-    // want to leave old frame cruft in the channel buffer in that case
-    blendBuffer.copyFrom(this.lx.engine.mixer.backgroundTransparent);
+  public void loop(LXBuffer blendBuffer, LXModel modelView, double deltaMs) {
+    update(deltaMs);
+    render(blendBuffer, modelView, deltaMs);
+  }
 
+  /**
+   * Advances the state of the engine for a frame. In blend mode this updates the
+   * composite damping and auto-mute state of each pattern, in playlist mode it
+   * completes transitions and auto-cycles patterns. These may change parameters and
+   * notify listeners, so when channels are rendered in parallel this is invoked on
+   * the engine thread before render().
+   *
+   * @param deltaMs Milliseconds elapsed since last frame
+   */
+  void update(double deltaMs) {
     if (this.compositeMode.getEnum() == CompositeMode.BLEND) {
 
-      // Blend mode, this channel is like a mini-mixer
-
       // Damping mode
       final boolean dampingEnabled = this.compositeDampingEnabled.isOn();
       final double dampingTimeSecs = this.compositeDampingTimeSecs.getValue();
 
       for (LXPattern pattern : this.patterns) {
         pattern.updateCompositeDamping(deltaMs, dampingEnabled, dampingTimeSecs);
-        final double patternDamping = pattern.getCompositeDampingLevel();
-
-        final boolean isAutoMuted =
+        pattern.isAutoMuted.setValue(
           pattern.autoMute.isOn() &&
-          (pattern.compositeLevel.getValue() == 0);
-        pattern.isAutoMuted.setValue(isAutoMuted);
-
-        final boolean patternRender = !isAutoMuted && (patternDamping > 0);
-        final boolean patternCueActive = pattern.cueActive.isOn();
-        final boolean patternAuxActive = pattern.auxActive.isOn();
-
-        if (patternRender || patternCueActive || patternAuxActive) {
-
-          // Generate the pattern output
-          final LXModel patternView = pattern.getModelView();
-          pattern.setBuffer(this.renderBuffer);
-          pattern.setModel(patternView);
-          pattern.loop(deltaMs);
-
-          if (patternRender) {
-            pattern.compositeBlend.getObject().blend(
-              colors,
-              pattern.getColors(),
-              patternDamping * pattern.compositeLevel.getValue(),
-              colors,
-              patternView
-            );
-          }
-
-          if (patternCueActive) {
-            this.lx.engine.mixer.blendCue(pattern.getColors(), patternView);
-          }
-          if (patternAuxActive) {
-            this.lx.engine.mixer.blendAux(pattern.getColors(), patternView);
-          }
-        }
+          (pattern.compositeLevel.getValue() == 0)
+        );
       }
 
     } else {
@@ -1022,11 +1010,9 @@ public class LXPatternEngine implements LXParameterListener, LXSerializable {
         }
       }
 
-
-      final LXPattern activePattern = getActivePattern();
-
       // Auto-cycle if appropriate
       if (this.transition == null) {
+        final LXPattern activePattern = getActivePattern();
 
         // Check for a custom pattern cycle time
         BoundedParameter autoCycleTimeParam = this.autoCycleTimeSecs;
@@ -1045,6 +1031,103 @@ public class LXPatternEngine implements LXParameterListener, LXSerializable {
         }
       }
 
+      // Advance the transition
+      if (this.transition != null) {
+        this.autoCycleProgress = 1.;
+        this.transitionProgress = (this.lx.engine.nowMillis - this.transitionMillis) / (1000 * this.transitionTimeSecs.getValue());
+        this.transition.loop(deltaMs);
+      } else {
+        this.transitionProgress = 0;
+      }
+    }
+  }
+
+  /**
+   * Renders the patterns into the buffer, using the state from the last call
+   * to update(). When channels are rendered in parallel this is invoked from a
+   * channel rendering thread.
+   *
+   * @param blendBuffer Buffer to render into
+   * @param modelView View of the channel
+   * @param deltaMs Milliseconds elapsed since last frame
+   */
+  void render(LXBuffer blendBuffer, LXModel modelView, double deltaMs) {
+    try {
+      renderPatterns(blendBuffer, modelView, deltaMs);
+    } finally {
+      // Return the secondary render buffer to the pool, if it was used
+      this.renderBuffer.release();
+    }
+  }
+
+  private void renderPatterns(LXBuffer blendBuffer, LXModel modelView, double deltaMs) {
+    // Initialize buffer colors
+    int[] colors = blendBuffer.getArray();
+    final boolean isLent = (blendBuffer instanceof ChannelBuffer channelBuffer) && channelBuffer.isLent();
+
+    if (this.compositeMode.getEnum() == CompositeMode.BLEND) {
+
+      // Initialize colors to transparent. This needs to be done because
+      // sub-patterns/effects may render to views that only touch a subset
+      // of the channel's view. We don't want to leave old frame cruft in the
+      // channel buffer in that case, and patterns are composited onto it.
+      // Only the channel's view is ever composited, so only it is cleared.
+      this.clearPoints = this.clearRegion.clear(colors, modelView, null, isLent);
+
+      // Blend mode, this channel is like a mini-mixer
+      for (LXPattern pattern : this.patterns) {
+        final double patternDamping = pattern.getCompositeDampingLevel();
+        final boolean patternRender = !pattern.isAutoMuted.isOn() && (patternDamping > 0);
+        final boolean patternCueActive = pattern.cueActive.isOn();
+        final boolean patternAuxActive = pattern.auxActive.isOn();
+
+        if (patternRender || patternCueActive || patternAuxActive) {
+
+          // Generate the pattern output
+          final LXModel patternView = pattern.getModelView();
+          this.renderBuffer.acquire();
+          pattern.setBuffer(this.renderBuffer);
+          pattern.setModel(patternView);
+          pattern.loop(deltaMs);
+
+          if (patternRender) {
+            pattern.compositeBlend.getObject().blend(
+              colors,
+              pattern.getColors(),
+              patternDamping * pattern.compositeLevel.getValue(),
+              colors,
+              patternView
+            );
+          }
+
+          if (patternCueActive) {
+            this.lx.engine.mixer.blendCue(pattern.getColors(), patternView);
+          }
+          if (patternAuxActive) {
+            this.lx.engine.mixer.blendAux(pattern.getColors(), patternView);
+          }
+        }
+      }
+
+    } else {
+
+      final LXPattern activePattern = getActivePattern();
+
+      // The active pattern renders directly into the buffer. If it declares
+      // full coverage, only the points of the channel's view outside of the
+      // pattern's view need to be cleared of old frame cruft. With no active
+      // pattern the buffer is overwritten with black below.
+      if (activePattern == null) {
+        this.clearPoints = 0;
+      } else {
+        this.clearPoints = this.clearRegion.clear(
+          colors,
+          modelView,
+          activePattern.isFullCoverage() ? activePattern.getModelView() : null,
+          isLent
+        );
+      }
+
       // Run active pattern
       if (activePattern != null) {
         activePattern.setBuffer(blendBuffer);
@@ -1057,13 +1140,11 @@ public class LXPatternEngine implements LXParameterListener, LXSerializable {
 
       // Run transition!
       if (this.transition != null) {
-        this.autoCycleProgress = 1.;
-        this.transitionProgress = (this.lx.engine.nowMillis - this.transitionMillis) / (1000 * this.transitionTimeSecs.getValue());
         final LXPattern nextPattern = getNextPattern();
+        this.renderBuffer.acquire();
         nextPattern.setBuffer(this.renderBuffer);
         nextPattern.setModel(nextPattern.getModelView());
         nextPattern.loop(deltaMs);
-        this.transition.loop(deltaMs);
         this.transition.lerp(
           colors,
           this.renderBuffer.getArray(),
@@ -1071,8 +1152,6 @@ public class LXPatternEngine implements LXParameterListener, LXSerializable {
           colors,
           modelView
         );
-      } else {
-        this.transitionProgress = 0;
       }
     }
   }
@@ -1091,7 +1170,7 @@ public class LXPatternEngine implements LXParameterListener, LXSerializable {
       LX.dispose(pattern);
     }
     this.mutablePatterns.clear();
-    this.renderBuffer.dispose();
+    this.renderBuffer.release();
     disposeTransitionBlendOptions();
     this.listeners.forEach(listener -> LX.warning("Stranded LXPatternEngine.Listener: " + listener));
     this.listeners.clear();
@@ -0,0 +1,115 @@
+/**
+ * Copyright 2024- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx.mixer;
+
+import heronarts.lx.LX;
+import heronarts.lx.LXBuffer;
+
+/**
+ * A buffer indexed by the model that only holds an array while it is in use,
+ * which is lent from the mixer's shared pool. Used for intermediate rendering
+ * that does not need to persist between frames, such as patterns that are blended
+ * or transitioned onto a channel.
+ *
+ * Callers other than the thread that acquired the buffer never receive the lent
+ * array. If one requests the array, for instance a UI preview reading the colors
+ * of a blended pattern, the buffer gives it a model-sized array of its own and the
+ * next acquire() renders into that instead of borrowing from the pool, so that it
+ * stays valid between frames. Once the requests stop for ChannelBuffer.RETAIN_FRAMES
+ * frames the buffer goes back to borrowing.
+ */
+public class ScratchBuffer implements LXBuffer {
+
+  private static final int[] EMPTY = new int[0];
+
+  private final LX lx;
+
+  // Array that is rendered into while acquired, either owned or lent
+  private int[] array = EMPTY;
+  private boolean isLent = false;
+
+  // Model-sized array owned by the buffer, shared with callers outside of rendering
+  private volatile int[] owned = null;
+
+  // Thread that has acquired the buffer, the only one given the lent array
+  private volatile Thread renderThread = null;
+
+  // Set by callers outside of rendering, consumed by acquire()
+  private volatile boolean isRequested = false;
+  private int unrequestedFrames = ChannelBuffer.RETAIN_FRAMES;
+
+  ScratchBuffer(LX lx) {
+    this.lx = lx;
+  }
+
+  @Override
+  public int[] getArray() {
+    if (Thread.currentThread() == this.renderThread) {
+      return this.array;
+    }
+    this.isRequested = true;
+    final int size = this.lx.getModel().size;
+    int[] owned = this.owned;
+    if ((owned == null) || (owned.length != size)) {
+      this.owned = owned = new int[size];
+    }
+    return owned;
+  }
+
+  /**
+   * Prepares an array to render into, borrowed from the pool unless one has been
+   * requested from outside of rendering. Does nothing if already acquired.
+   */
+  void acquire() {
+    if (this.renderThread != null) {
+      return;
+    }
+    if (this.isRequested) {
+      this.isRequested = false;
+      this.unrequestedFrames = 0;
+    } else if (this.unrequestedFrames < ChannelBuffer.RETAIN_FRAMES) {
+      ++this.unrequestedFrames;
+    }
+    final int size = this.lx.getModel().size;
+    final int[] owned = this.owned;
+    if ((this.unrequestedFrames < ChannelBuffer.RETAIN_FRAMES) && (owned != null) && (owned.length == size)) {
+      this.array = owned;
+    } else {
+      this.owned = null;
+      this.array = this.lx.engine.mixer.acquireScratch();
+      this.isLent = true;
+    }
+    this.renderThread = Thread.currentThread();
+  }
+
+  /**
+   * Returns a lent array to the pool
+   */
+  void release() {
+    if (this.renderThread != null) {
+      this.renderThread = null;
+      if (this.isLent) {
+        this.lx.engine.mixer.releaseScratch(this.array);
+        this.isLent = false;
+      }
+      this.array = EMPTY;
+    }
+  }
+
+}
@@ -131,6 +131,86 @@ public class LXModel extends LXNormalizationBounds implements LXSerializable {
     }
   }
 
+  /**
+   * Columnar storage of point geometry, one primitive array per field. Each array
+   * is indexed by LXPoint.index, in the same manner as getGeometry(), so that patterns
+   * may scan geometry with sequential memory access rather than dereferencing an
+   * LXPoint for every pixel. Points in a model may be iterated by index with
+   * getIndexRanges().
+   *
+   * Arrays are sized to the main root model and only hold valid values for points
+   * in the owning model. They are kept in sync when the model is updated or
+   * normalized, and must not be modified.
+   */
+  public static class Columns {
+
+    public final int size;
+
+    // Absolute position and derived polar values
+    public final float[] x;
+    public final float[] y;
+    public final float[] z;
+    public final float[] r;
+    public final float[] rc;
+    public final float[] theta;
+    public final float[] azimuth;
+    public final float[] elevation;
+
+    // Normalized values
+    public final float[] xn;
+    public final float[] yn;
+    public final float[] zn;
+    public final float[] rn;
+    public final float[] rcn;
+
+    // Surface normal
+    public final float[] xnormal;
+    public final float[] ynormal;
+    public final float[] znormal;
+
+    private Columns(int size) {
+      this.size = size;
+      this.x = new float[size];
+      this.y = new float[size];
+      this.z = new float[size];
+      this.r = new float[size];
+      this.rc = new float[size];
+      this.theta = new float[size];
+      this.azimuth = new float[size];
+      this.elevation = new float[size];
+      this.xn = new float[size];
+      this.yn = new float[size];
+      this.zn = new float[size];
+      this.rn = new float[size];
+      this.rcn = new float[size];
+      this.xnormal = new float[size];
+      this.ynormal = new float[size];
+      this.znormal = new float[size];
+    }
+
+    private void update(LXPoint[] points) {
+      for (LXPoint p : points) {
+        final int i = p.index;
+        this.x[i] = p.x;
+        this.y[i] = p.y;
+        this.z[i] = p.z;
+        this.r[i] = p.r;
+        this.rc[i] = p.rc;
+        this.theta[i] = p.theta;
+        this.azimuth[i] = p.azimuth;
+        this.elevation[i] = p.elevation;
+        this.xn[i] = p.xn;
+        this.yn[i] = p.yn;
+        this.zn[i] = p.zn;
+        this.rn[i] = p.rn;
+        this.rcn[i] = p.rcn;
+        this.xnormal[i] = p.xnormal;
+        this.ynormal[i] = p.ynormal;
+        this.znormal[i] = p.znormal;
+      }
+    }
+  }
+
   public static class Mesh {
 
     public static class Lighting {
@@ -336,6 +416,14 @@ public class LXModel extends LXNormalizationBounds implements LXSerializable {
 
   private int generation = 0;
 
+  // Cached index ranges, held in a single immutable object so that the cache
+  // may be safely read and replaced from multiple rendering threads
+  private record IndexRanges(int generation, LXModel root, int[] ranges) {}
+
+  private IndexRanges indexRanges = null;
+
+  private Columns columns = null;
+
   /**
    * Total number of points in the model
    */
@@ -888,6 +976,8 @@ public class LXModel extends LXNormalizationBounds implements LXSerializable {
     for (LXPoint p : this.points) {
       p.index = index++;
     }
+    this.indexRanges = null;
+    this.columns = null;
     return this;
   }
 
@@ -1062,6 +1152,8 @@ public class LXModel extends LXNormalizationBounds implements LXSerializable {
     recomputeGeometry();
     if (normalize) {
       normalizePoints();
+    } else if (this.columns != null) {
+      this.columns.update(this.points);
     }
 
     // Geometry cache could be stale - we'll re-compute whatever is in use
@@ -1149,6 +1241,64 @@ public class LXModel extends LXNormalizationBounds implements LXSerializable {
     return indexBuffer;
   }
 
+  /**
+   * Gets a compact run-length description of the color buffer indices of the points in
+   * this model. The result is a flat array of (start, num) pairs, each of which is a
+   * contiguous run of indices in the global color buffer. Whole fixtures, and views made
+   * up of a few of them, typically collapse to one or a handful of ranges, so that buffer
+   * operations can use tight loops or array copies rather than per-point index lookups.
+   *
+   * The result is cached and recomputed whenever the generation of this model changes.
+   * The returned array must not be modified.
+   *
+   * @return Flat array of (start, num) index range pairs
+   */
+  public int[] getIndexRanges() {
+    final LXModel root = getMainRoot();
+    IndexRanges indexRanges = this.indexRanges;
+    if ((indexRanges == null) || (indexRanges.generation != this.generation) || (indexRanges.root != root)) {
+      this.indexRanges = indexRanges = new IndexRanges(this.generation, root, computeIndexRanges());
+    }
+    return indexRanges.ranges;
+  }
+
+  /**
+   * Whether the points in this model are best processed using index ranges. This is true
+   * when the average run of contiguous indices is longer than two points, otherwise there
+   * are so many ranges that direct per-point iteration is cheaper.
+   *
+   * @return Whether index ranges are efficient for this model
+   */
+  public boolean hasCompactIndexRanges() {
+    return getIndexRanges().length < this.size;
+  }
+
+  private int[] computeIndexRanges() {
+    if (this.points.length == 0) {
+      return new int[0];
+    }
+    int numRanges = 1;
+    for (int i = 1; i < this.points.length; ++i) {
+      if (this.points[i].index != this.points[i-1].index + 1) {
+        ++numRanges;
+      }
+    }
+    final int[] ranges = new int[2 * numRanges];
+    int r = 0;
+    ranges[0] = this.points[0].index;
+    ranges[1] = 1;
+    for (int i = 1; i < this.points.length; ++i) {
+      if (this.points[i].index == this.points[i-1].index + 1) {
+        ++ranges[r+1];
+      } else {
+        r += 2;
+        ranges[r] = this.points[i].index;
+        ranges[r+1] = 1;
+      }
+    }
+    return ranges;
+  }
+
   /**
    * Recompute the geometry values of the model
    */
@@ -1270,9 +1420,81 @@ public class LXModel extends LXNormalizationBounds implements LXSerializable {
       }
     }
 
+    if (this.columns != null) {
+      this.columns.update(this.points);
+    }
+
     return this;
   }
 
+  /**
+   * Sets the normalized values of the points of the given sub-models, for a model that
+   * replaces a previous model holding all of its other points. That is only possible if
+   * the normalization bounds and radial extents are unchanged from the previous model,
+   * since the other points are left untouched. If they have changed, false is returned
+   * and the model should be built again from new points and normalized in full. The
+   * sub-models adopted from the previous model are then handed back to it.
+   *
+   * @param previous Model that this one replaces, may be null
+   * @param changed Sub-models of this model whose points are new
+   * @return Whether all points in this model now hold their normalized values
+   */
+  public boolean normalizePoints(LXModel previous, List<LXModel> changed) {
+    if ((previous == null) ||
+        (previous.rMax != this.rMax) ||
+        !this.normalizationBounds.isSameBounds(previous.normalizationBounds)) {
+      return restoreAdopted(previous, changed);
+    }
+    for (LXModel submodel : changed) {
+      for (LXPoint p : submodel.points) {
+        p.normalize(this.normalizationBounds, this);
+      }
+    }
+
+    // The radial extent can still be changed by the new points
+    float rcMin = 0, rcMax = 0;
+    boolean firstPoint = true;
+    for (LXPoint p : this.points) {
+      if (firstPoint) {
+        rcMin = rcMax = p.rc;
+        firstPoint = false;
+      } else if (p.rc < rcMin) {
+        rcMin = p.rc;
+      } else if (p.rc > rcMax) {
+        rcMax = p.rc;
+      }
+    }
+    if (rcMax != previous.rcMax) {
+      return restoreAdopted(previous, changed);
+    }
+    this.rcMin = rcMin;
+    this.rcMax = rcMax;
+    this.rcRange = rcMax - rcMin;
+    for (LXModel submodel : changed) {
+      for (LXPoint p : submodel.points) {
+        p.rcn = (rcMax == 0) ? 0.5f : p.rc / rcMax;
+      }
+    }
+
+    if (this.columns != null) {
+      this.columns.update(this.points);
+    }
+
+    return true;
+  }
+
+  private boolean restoreAdopted(LXModel previous, List<LXModel> changed) {
+    if (previous != null) {
+      for (LXModel child : this.children) {
+        if ((child.parent == this) && !changed.contains(child)) {
+          child.parent = previous;
+          child.setNormalizationBounds(previous.normalizationBounds);
+        }
+      }
+    }
+    return false;
+  }
+
   /**
    * Accessor for a list of all points in the model. Generally preferable
    * to directly access the points array when iterating over a full buffer,
@@ -1284,6 +1506,29 @@ public class LXModel extends LXNormalizationBounds implements LXSerializable {
     return this.pointList;
   }
 
+  /**
+   * Gets the columnar geometry store for the points in this model. Sub-models that share the
+   * normalization of their root share the root's store, since their points are the same objects.
+   * The store is built the first time this is called and then kept in sync as the model is
+   * updated.
+   *
+   * @return Columnar geometry, indexed by LXPoint.index
+   */
+  public Columns getColumns() {
+    final LXModel root = getRoot();
+    if ((root != this) && (root.normalizationBounds == this.normalizationBounds)) {
+      return root.getColumns();
+    }
+    Columns columns = this.columns;
+    final int size = getMainRoot().size;
+    if ((columns == null) || (columns.size != size)) {
+      columns = new Columns(size);
+      columns.update(this.points);
+      this.columns = columns;
+    }
+    return columns;
+  }
+
   /**
    * Gets a computed geometry array for all the points in this model, indexed by LXPoint.index.
    * Note that the array is not guaranteed to be complete, it will only contain valid values for
@@ -1362,8 +1607,11 @@ public class LXModel extends LXNormalizationBounds implements LXSerializable {
       this.derivedViews.get(this.derivedViews.size() - 1).dispose();
     }
 
+    // Children that have been adopted by a newer model are not ours to dispose
     for (LXModel child : this.children) {
-      child.dispose();
+      if (child.parent == this) {
+        child.dispose();
+      }
     }
 
     this.listeners.clear();
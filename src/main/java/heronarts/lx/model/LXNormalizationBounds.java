@@ -38,6 +38,21 @@ public class LXNormalizationBounds {
     return this.orientationModel;
   }
 
+  /**
+   * Whether another set of bounds defines the same normalization space as this one
+   *
+   * @param that Other bounds
+   * @return True if points normalize identically against both bounds
+   */
+  boolean isSameBounds(LXNormalizationBounds that) {
+    return
+      (this.orientationModel == that.orientationModel) &&
+      (this.xMin == that.xMin) && (this.xMax == that.xMax) &&
+      (this.yMin == that.yMin) && (this.yMax == that.yMax) &&
+      (this.zMin == that.zMin) && (this.zMax == that.zMax) &&
+      (this.cx == that.cx) && (this.cy == that.cy) && (this.cz == that.cz);
+  }
+
   /**
    * Translates this point into the normalization orientation space, when
    * re-orientation is needed we use rounding to avoid numerical quantization
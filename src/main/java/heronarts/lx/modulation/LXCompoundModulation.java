@@ -127,6 +127,8 @@ public class LXCompoundModulation extends LXParameterModulation {
     .setUnits(CompoundParameter.Units.PERCENT_NORMALIZED)
     .setPolarity(LXParameter.Polarity.BIPOLAR);
 
+  private volatile long version = 0;
+
   public LXCompoundModulation(LX lx, LXModulationEngine scope, JsonObject obj) throws ModulationException {
     this(
       scope,
@@ -158,6 +160,22 @@ public class LXCompoundModulation extends LXParameterModulation {
     return this.polarity.getEnum();
   }
 
+  @Override
+  public void onParameterChanged(LXParameter p) {
+    super.onParameterChanged(p);
+    // Settings of the modulation feed into the memoized values of its target
+    ++this.version;
+  }
+
+  /**
+   * Gets the number of times the settings of this modulation have changed
+   *
+   * @return Version of the modulation settings
+   */
+  public long getVersion() {
+    return this.version;
+  }
+
   public double getModulationAmount() {
     if (!this.enabled.isOn()) {
       return 0;
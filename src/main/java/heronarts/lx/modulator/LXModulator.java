@@ -149,6 +149,13 @@ public abstract class LXModulator extends LXRunnableComponent implements LXCompo
    */
   private double value = 0;
 
+  /**
+   * Counts changes to the value of this modulator, so that memoized values of the
+   * parameters it modulates can tell whether it has changed. It is only written by
+   * the thread running the modulator, after the value itself.
+   */
+  private volatile long valueVersion = 0;
+
   private Throwable crash = null;
 
   public final BooleanParameter crashed =
@@ -302,13 +309,29 @@ public abstract class LXModulator extends LXRunnableComponent implements LXCompo
   }
 
   protected final LXModulator setValue(double value, boolean notify) {
-    this.value = value;
+    setValueVersioned(value);
     if (notify) {
       this.onSetValue(value);
     }
     return this;
   }
 
+  private void setValueVersioned(double value) {
+    if (this.value != value) {
+      this.value = value;
+      ++this.valueVersion;
+    }
+  }
+
+  /**
+   * Gets the number of times the value of this modulator has changed
+   *
+   * @return Version of the modulator value
+   */
+  public final long getValueVersion() {
+    return this.valueVersion;
+  }
+
   /**
    * Subclasses may override when actions are necessary on value change.
    *
@@ -327,7 +350,7 @@ public abstract class LXModulator extends LXRunnableComponent implements LXCompo
    * @return this, for method chaining
    */
   protected final LXModulator updateValue(double value) {
-    this.value = value;
+    setValueVersioned(value);
     return this;
   }
 
@@ -362,7 +385,7 @@ public abstract class LXModulator extends LXRunnableComponent implements LXCompo
    */
   @Override
   protected final void run(double deltaMs) {
-    this.value = this.computeValue(deltaMs);
+    setValueVersioned(this.computeValue(deltaMs));
   }
 
   /**
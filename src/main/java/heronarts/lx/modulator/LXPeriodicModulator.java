@@ -388,6 +388,15 @@ public abstract class LXPeriodicModulator extends LXModulator implements LXModul
 
   private static final String KEY_BASIS = "basis";
 
+  /**
+   * The basis advances on every frame without marking the modulator as modified,
+   * so incremental saves always serialize it again
+   */
+  @Override
+  protected boolean hasVolatileSaveState() {
+    return true;
+  }
+
   @Override
   public void save(LX lx, JsonObject object) {
     super.save(lx, object);
@@ -247,10 +247,16 @@ public abstract class LXOscConnection extends LXComponent {
    */
   public static class Output extends LXOscConnection {
 
+    public final BooleanParameter bundle =
+      new BooleanParameter("TX Bundle", false)
+      .setMappable(false)
+      .setDescription("Coalesces parameter changes over each engine frame and sends them in OSC bundles");
+
     EngineTransmitter transmitter;
 
     Output(LX lx) {
       super(lx);
+      addParameter("bundle", this.bundle);
     }
 
     @Override
@@ -25,14 +25,17 @@ import java.net.InetAddress;
 import java.net.SocketAddress;
 import java.net.SocketException;
 import java.net.UnknownHostException;
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.jmdns.JmDNS;
 import javax.jmdns.ServiceInfo;
@@ -43,6 +46,7 @@ import com.google.gson.JsonObject;
 
 import heronarts.lx.LX;
 import heronarts.lx.LXComponent;
+import heronarts.lx.LXPath;
 import heronarts.lx.LXSerializable;
 import heronarts.lx.audio.ADM;
 import heronarts.lx.audio.Envelop;
@@ -67,6 +71,16 @@ public class LXOscEngine extends LXComponent {
 
   private final static int DEFAULT_MAX_PACKET_SIZE = 8192;
 
+  // Capacity of each receiver's queue, enough for a full second of delayed input
+  // from a busy control surface
+  private final static int RECEIVE_QUEUE_SIZE = 1 << 15;
+
+  // Number of dispatched messages each receiver keeps for re-use
+  private final static int MESSAGE_POOL_SIZE = 1024;
+
+  // Limit on the number of distinct addresses whose split parts are cached
+  private final static int MAX_CACHED_ADDRESSES = 8192;
+
   public interface IOListener {
     public void inputAdded(LXOscEngine osc, LXOscConnection.Input input);
     public void inputRemoved(LXOscEngine osc, LXOscConnection.Input input);
@@ -136,6 +150,11 @@ public class LXOscEngine extends LXComponent {
     .setMappable(false)
     .setDescription("Triggers when OSC data is sent");
 
+  public final BooleanParameter transmitBundle =
+    new BooleanParameter("TX Bundle", false)
+    .setMappable(false)
+    .setDescription("Coalesces parameter changes over each engine frame and sends them in OSC bundles");
+
   public final DiscreteParameter transmitPort =
     new DiscreteParameter("TX Port", DEFAULT_TRANSMIT_PORT, 1, 65535)
     .setDescription("UDP port on which the engine transmits OSC messages")
@@ -158,6 +177,9 @@ public class LXOscEngine extends LXComponent {
 
   private EngineTransmitter engineTransmitter;
 
+  // Incremented whenever cached address resolutions may refer to disposed components
+  private volatile int addressGeneration = 0;
+
   private final List<IOListener> ioListeners =
     new ArrayList<IOListener>();
 
@@ -267,6 +289,7 @@ public class LXOscEngine extends LXComponent {
     addParameter("receiveActive", this.receiveActive);
     addParameter("transmitHost", this.transmitHost);
     addParameter("transmitPort", this.transmitPort);
+    addParameter("transmitBundle", this.transmitBundle);
     addParameter("transmitActive", this.transmitActive);
     addParameter("logInput", this.logInput);
     addParameter("logOutput", this.logOutput);
@@ -398,19 +421,149 @@ public class LXOscEngine extends LXComponent {
     return true;
   }
 
-  private class EngineListener implements LXOscListener {
+  /**
+   * Invoked by default component OSC handling when a message has been resolved
+   * to one of the component's parameters. If the address of the message being
+   * dispatched is the canonical address of that parameter, subsequent messages
+   * to the same address are applied to the parameter directly without walking
+   * the component hierarchy again.
+   *
+   * @param component Component that owns the parameter
+   * @param parameter Parameter the message resolved to
+   * @param parts Address parts used for resolution
+   * @param index Index of the parameter in the address parts
+   */
+  public void oscParameterResolved(LXComponent component, LXParameter parameter, String[] parts, int index) {
+    this.engineListener.oscParameterResolved(component, parameter, parts, index);
+  }
+
+  /**
+   * Discards all addresses that have been resolved directly to parameters. This is
+   * invoked whenever a component is disposed.
+   */
+  public void invalidateAddresses() {
+    ++this.addressGeneration;
+  }
+
+  // Checks whether an address is the canonical path of an object, without building the path string
+  static boolean isCanonicalAddress(LXPath path, String address) {
+    int end = address.length();
+    while (path != null) {
+      final String segment = path.getPath();
+      if (segment == null) {
+        return false;
+      }
+      final int start = end - segment.length() - 1;
+      if ((start < 0) || (address.charAt(start) != '/') || !address.regionMatches(start + 1, segment, 0, segment.length())) {
+        return false;
+      }
+      end = start;
+      path = path.getParent();
+    }
+    return end == 0;
+  }
+
+  /**
+   * An OSC address pattern that has been received, split into parts, and possibly
+   * resolved directly to the parameter at its canonical address
+   */
+  private static class Address {
+
+    private final String raw;
+    private final String address;
+    private final String[] parts;
+
+    private LXComponent component = null;
+    private LXParameter parameter = null;
+
+    private Address(String raw) {
+      this.raw = raw;
+      this.address = raw.trim();
+      this.parts = this.address.split("/");
+    }
+
+    private boolean hasWhitespace() {
+      return this.address != this.raw;
+    }
+
+    private boolean dispatch(OscMessage message) {
+      if (this.parameter != null) {
+        // Check that the parameter is still at this address, components in
+        // arrays may have been re-ordered since resolution
+        if (isCanonicalAddress(this.parameter, this.address)) {
+          this.component.handleOscParameter(message, this.parameter, this.parts, this.parts.length - 1);
+          return true;
+        }
+        this.component = null;
+        this.parameter = null;
+      }
+      return false;
+    }
+  }
+
+  class EngineListener implements LXOscListener {
+
+    // Received messages are only re-used if no custom listener may have kept them
+    @Override
+    public boolean isTransient() {
+      for (LXOscListener listener : LXOscEngine.this.listeners) {
+        if (!listener.isTransient()) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private final Map<String, Address> addresses = new HashMap<String, Address>();
+
+    private int addressGeneration = 0;
+
+    private Address resolving = null;
+
+    private Address getAddress(String raw) {
+      if (this.addressGeneration != LXOscEngine.this.addressGeneration) {
+        this.addressGeneration = LXOscEngine.this.addressGeneration;
+        this.addresses.clear();
+      }
+      Address address = this.addresses.get(raw);
+      if (address == null) {
+        if (this.addresses.size() >= MAX_CACHED_ADDRESSES) {
+          this.addresses.clear();
+        }
+        address = new Address(raw);
+        this.addresses.put(raw, address);
+      }
+      return address;
+    }
+
+    private void oscParameterResolved(LXComponent component, LXParameter parameter, String[] parts, int index) {
+      final Address address = this.resolving;
+      if ((address != null) &&
+          (parts == address.parts) &&
+          (index == parts.length - 1) &&
+          isCanonicalAddress(parameter, address.address)) {
+        address.component = component;
+        address.parameter = parameter;
+      }
+    }
 
     @Override
     public void oscMessage(OscMessage message) {
       try {
-        String raw = message.getAddressPattern().getValue();
-        String trim = raw.trim();
-        if (trim != raw) {
-          error("Trailing whitespace in OSC address pattern: \"" + raw + "\"");
+        final Address address = getAddress(message.getAddressPattern().getValue());
+        if (address.hasWhitespace()) {
+          error("Trailing whitespace in OSC address pattern: \"" + address.raw + "\"");
         }
-        String[] parts = trim.split("/");
+        final String[] parts = address.parts;
         if (parts[1].equals(lx.engine.getPath())) {
-          lx.engine.handleOscMessage(message, parts, 2);
+          if (!address.dispatch(message)) {
+            this.resolving = address;
+            try {
+              lx.engine.handleOscMessage(message, parts, 2);
+            } finally {
+              this.resolving = null;
+            }
+          }
         } else if (parts[1].equals(ADM.ADM_OSC_PATH)) {
           lx.engine.audio.adm.handleAdmOscMessage(message, parts, 1);
         } else if (parts[1].equals(Envelop.ENVELOP_OSC_PATH)) {
@@ -438,12 +591,12 @@ public class LXOscEngine extends LXComponent {
 
   public class Transmitter {
 
-    private final byte[] bytes;
+    protected final byte[] bytes;
     private final ByteBuffer buffer;
-    private final DatagramSocket socket;
+    protected final DatagramSocket socket;
     protected final DatagramPacket packet;
-    private BooleanParameter log;
-    private TriggerParameter activity;
+    protected BooleanParameter log;
+    protected TriggerParameter activity;
 
     private Transmitter(InetAddress address, int port, int bufferSize) throws SocketException {
       this.bytes = new byte[bufferSize];
@@ -490,16 +643,99 @@ public class LXOscEngine extends LXComponent {
     }
   }
 
+  /**
+   * Re-usable argument objects for encoding parameter values
+   */
+  private static class ParameterArguments {
+
+    private final OscFloat oscFloat = new OscFloat(0);
+    private final OscInt oscInt = new OscInt(0);
+    private final OscRgba oscRgba = new OscRgba(0);
+    private final OscString oscString = new OscString("");
+
+    // Returns null if the parameter has no value to send, i.e. a null string
+    private OscArgument set(LXParameter parameter) {
+      if (parameter instanceof BooleanParameter b) {
+        return this.oscInt.setValue(b.isOn() ? 1 : 0);
+      } else if (parameter instanceof StringParameter string) {
+        final String value = string.getString();
+        return (value != null) ? this.oscString.setValue(value) : null;
+      } else if (parameter instanceof ColorParameter color) {
+        this.oscRgba.setARGB(color.getBaseColor());
+        return this.oscRgba;
+      } else if (parameter instanceof DiscreteParameter discrete) {
+        return this.oscInt.setValue(discrete.getBaseValuei());
+      } else if (parameter instanceof LXNormalizedParameter normalizedParameter) {
+        if (normalizedParameter.getOscMode() == LXNormalizedParameter.OscMode.ABSOLUTE) {
+          return this.oscFloat.setValue(normalizedParameter.getBaseValuef());
+        } else {
+          return this.oscFloat.setValue(normalizedParameter.getBaseNormalizedf());
+        }
+      }
+      return this.oscFloat.setValue(parameter.getBaseValuef());
+    }
+  }
+
+  /**
+   * A parameter whose changes are being coalesced for bundled transmission,
+   * with its OSC address cached in encoded form
+   */
+  private static class BundledParameter {
+
+    private final LXParameter parameter;
+    private boolean pending = false;
+
+    private String address = null;
+    private byte[] encodedAddress = null;
+    private boolean isCanonical = false;
+
+    private BundledParameter(LXParameter parameter) {
+      this.parameter = parameter;
+    }
+
+    /**
+     * Gets the encoded OSC address of the parameter. Canonical addresses are cached and
+     * checked against the current hierarchy, so that they are rebuilt after the parameter
+     * or one of its parents is moved. Others, such as modulators addressed by label, are
+     * rebuilt each time but only re-encoded when they change.
+     */
+    private byte[] getEncodedAddress() {
+      if ((this.address != null) && this.isCanonical && isCanonicalAddress(this.parameter, this.address)) {
+        return this.encodedAddress;
+      }
+      final String address = getOscAddress(this.parameter);
+      if (address == null) {
+        this.address = null;
+        this.encodedAddress = null;
+      } else if (!address.equals(this.address)) {
+        this.address = address;
+        final byte[] bytes = address.getBytes();
+        this.encodedAddress = new byte[(bytes.length / 4 + 1) * 4];
+        System.arraycopy(bytes, 0, this.encodedAddress, 0, bytes.length);
+        this.isCanonical = isCanonicalAddress(this.parameter, address);
+      }
+      return this.encodedAddress;
+    }
+  }
+
   class EngineTransmitter extends Transmitter implements LXParameterListener {
 
+    // Bundles are packed up to a typical ethernet MTU, less IP and UDP headers
+    static final int MAX_BUNDLE_SIZE = 1472;
+
+    // Number of bundle buffers that may be queued for the sender thread
+    private static final int NUM_BUNDLE_BUFFERS = 16;
+
     private final BooleanParameter active;
     private final EnumParameter<IOState> state;
+    private final BooleanParameter bundle;
     private LXOscConnection connection;
 
     EngineTransmitter(InetAddress address, int port, int bufferSize) throws SocketException {
       super(address, port, bufferSize);
       this.active = transmitActive;
       this.state = transmitState;
+      this.bundle = transmitBundle;
       setActivity(transmitActivity);
       setLog(logOutput);
     }
@@ -508,6 +744,7 @@ public class LXOscEngine extends LXComponent {
       super(address, port, bufferSize);
       this.active = output.active;
       this.state = output.state;
+      this.bundle = output.bundle;
       setActivity(output.activity);
       setLog(output.log);
     }
@@ -515,8 +752,18 @@ public class LXOscEngine extends LXComponent {
     private final OscMessage oscMessage = new OscMessage("");
     private final OscFloat oscFloat = new OscFloat(0);
     private final OscInt oscInt = new OscInt(0);
-    private final OscRgba oscRgba = new OscRgba(0);
     private final OscString oscString = new OscString("");
+    private final ParameterArguments arguments = new ParameterArguments();
+
+    // State for coalescing parameter changes, guarded by synchronizing on pendingParameters
+    private final Map<LXParameter, BundledParameter> bundledParameters = new HashMap<LXParameter, BundledParameter>();
+    private final List<BundledParameter> pendingParameters = new ArrayList<BundledParameter>();
+    private int addressGeneration = LXOscEngine.this.addressGeneration;
+
+    // Engine thread only
+    private final List<BundledParameter> flushParameters = new ArrayList<BundledParameter>();
+    private final ParameterArguments bundleArguments = new ParameterArguments();
+    private BundleSender sender = null;
 
     void setConnection(LXOscConnection connection) {
       this.connection = connection;
@@ -541,13 +788,26 @@ public class LXOscEngine extends LXComponent {
 
     @Override
     public void onParameterChanged(LXParameter parameter) {
-      // TODO(mcslee): contemplate accumulating OscMessages into OscBundle
-      // and sending once per engine loop?? Maybe a bad tradeoff since
-      // it would require dynamic memory allocations that we can skip here...
       if (!isActive()) {
         return;
       }
 
+      // In bundle mode, just note the change, the latest value is sent at the end of the frame
+      if (this.bundle.isOn()) {
+        synchronized (this.pendingParameters) {
+          BundledParameter bundled = this.bundledParameters.get(parameter);
+          if (bundled == null) {
+            bundled = new BundledParameter(parameter);
+            this.bundledParameters.put(parameter, bundled);
+          }
+          if (!bundled.pending) {
+            bundled.pending = true;
+            this.pendingParameters.add(bundled);
+          }
+        }
+        return;
+      }
+
       // Check parameter has valid OSC address
       final String address = getOscAddress(parameter);
       if (address == null) {
@@ -559,33 +819,190 @@ public class LXOscEngine extends LXComponent {
         return;
       }
 
+      final OscArgument argument = this.arguments.set(parameter);
+      if (argument == null) {
+        return;
+      }
+
       // This checks out, set the osc message values and ship it
       oscMessage.clearArguments();
       oscMessage.setAddressPattern(address);
-      if (parameter instanceof BooleanParameter b) {
-        oscInt.setValue(b.isOn() ? 1 : 0);
-        oscMessage.add(oscInt);
-      } else if (parameter instanceof StringParameter string) {
-        oscString.setValue(string.getString());
-        oscMessage.add(oscString);
-      } else if (parameter instanceof ColorParameter color) {
-        oscRgba.setARGB(color.getBaseColor());
-        oscMessage.add(oscRgba);
-      } else if (parameter instanceof DiscreteParameter discrete) {
-        oscInt.setValue(discrete.getBaseValuei());
-        oscMessage.add(oscInt);
-      } else if (parameter instanceof LXNormalizedParameter normalizedParameter) {
-        if (normalizedParameter.getOscMode() == LXNormalizedParameter.OscMode.ABSOLUTE) {
-          oscFloat.setValue(normalizedParameter.getBaseValuef());
+      oscMessage.add(argument);
+      _sendMessage(oscMessage);
+    }
+
+    /**
+     * Packs all parameter changes coalesced since the last call into bundles, and
+     * hands them to the sender thread. Invoked on the engine thread once per frame.
+     */
+    void flush() {
+      synchronized (this.pendingParameters) {
+        if (this.addressGeneration != LXOscEngine.this.addressGeneration) {
+          // Don't hold on to parameters of components that have been disposed
+          this.addressGeneration = LXOscEngine.this.addressGeneration;
+          for (BundledParameter bundled : this.pendingParameters) {
+            if (bundled.parameter.getParent() != null) {
+              this.flushParameters.add(bundled);
+            }
+          }
+          this.bundledParameters.clear();
         } else {
-          oscFloat.setValue(normalizedParameter.getBaseNormalizedf());
+          this.flushParameters.addAll(this.pendingParameters);
+        }
+        for (BundledParameter bundled : this.pendingParameters) {
+          bundled.pending = false;
+        }
+        this.pendingParameters.clear();
+      }
+      if (this.flushParameters.isEmpty()) {
+        return;
+      }
+      if (!isActive()) {
+        this.flushParameters.clear();
+        return;
+      }
+      if (this.sender == null) {
+        this.sender = newSender();
+      }
+
+      ByteBuffer buffer = null;
+      for (int i = 0; i < this.flushParameters.size(); ++i) {
+        final BundledParameter bundled = this.flushParameters.get(i);
+        final byte[] address = bundled.getEncodedAddress();
+        if ((address == null) || isAddressFiltered(bundled.address)) {
+          continue;
+        }
+        final OscArgument argument = this.bundleArguments.set(bundled.parameter);
+        if (argument == null) {
+          continue;
+        }
+        final int messageSize = 4 + address.length + 4 + argument.getByteLength();
+        if ((buffer != null) && (buffer.position() + messageSize > MAX_BUNDLE_SIZE)) {
+          this.sender.send(buffer);
+          buffer = null;
+        }
+        if (buffer == null) {
+          buffer = this.sender.getBuffer();
+          if (buffer == null) {
+            // Sender is backed up, leave the rest for the next frame
+            requeue(i);
+            break;
+          }
+          OscBundle.serializeHeader(buffer, OscTimeTag.NOW);
+        }
+        final int sizePosition = buffer.position();
+        try {
+          buffer.position(sizePosition + 4);
+          buffer.put(address);
+          buffer.put((byte) ',').put((byte) argument.getTypeTag()).putShort((short) 0);
+          argument.serialize(buffer);
+          buffer.putInt(sizePosition, buffer.position() - (sizePosition + 4));
+        } catch (BufferOverflowException box) {
+          buffer.position(sizePosition);
+          error("OSC message too large to transmit: " + bundled.address);
+          continue;
+        }
+        if ((this.log != null) && this.log.isOn()) {
+          log("[TX] [" + this.packet.getPort() + "] " + bundled.address + " " + argument);
+        }
+      }
+      if (buffer != null) {
+        this.sender.send(buffer);
+      }
+      this.flushParameters.clear();
+    }
+
+    private void requeue(int fromIndex) {
+      synchronized (this.pendingParameters) {
+        for (int i = fromIndex; i < this.flushParameters.size(); ++i) {
+          final BundledParameter bundled = this.flushParameters.get(i);
+          if (!bundled.pending) {
+            bundled.pending = true;
+            this.pendingParameters.add(bundled);
+          }
+        }
+      }
+    }
+
+    /**
+     * Creates and starts the thread which sends bundles, on the first flush
+     *
+     * @return Bundle sender
+     */
+    BundleSender newSender() {
+      final BundleSender sender = new BundleSender();
+      sender.start();
+      return sender;
+    }
+
+    /**
+     * Background thread which writes completed bundles to the socket
+     */
+    class BundleSender extends Thread {
+
+      private final ArrayBlockingQueue<ByteBuffer> sendQueue = new ArrayBlockingQueue<ByteBuffer>(NUM_BUNDLE_BUFFERS);
+      private final ArrayBlockingQueue<ByteBuffer> freeQueue = new ArrayBlockingQueue<ByteBuffer>(NUM_BUNDLE_BUFFERS);
+      private final DatagramPacket bundlePacket = new DatagramPacket(new byte[0], 0);
+      private int numBuffers = 0;
+
+      BundleSender() {
+        super("LXOscEngine Bundle Sender");
+        setDaemon(true);
+      }
+
+      // Engine thread: gets an empty buffer, or null if all are queued
+      private ByteBuffer getBuffer() {
+        ByteBuffer buffer = this.freeQueue.poll();
+        if ((buffer == null) && (this.numBuffers < NUM_BUNDLE_BUFFERS)) {
+          ++this.numBuffers;
+          buffer = ByteBuffer.allocate(bytes.length);
+        }
+        if (buffer != null) {
+          buffer.clear();
+        }
+        return buffer;
+      }
+
+      // Engine thread: queues a completed bundle
+      private void send(ByteBuffer buffer) {
+        this.sendQueue.add(buffer);
+        if (activity != null) {
+          activity.trigger();
+        }
+      }
+
+      // Takes the next queued bundle without blocking, or null if there is none
+      ByteBuffer poll() {
+        return this.sendQueue.poll();
+      }
+
+      // Sender thread: returns a bundle buffer once it has been sent
+      void release(ByteBuffer buffer) {
+        this.freeQueue.add(buffer);
+      }
+
+      @Override
+      public void run() {
+        while (!isInterrupted()) {
+          try {
+            final ByteBuffer buffer = this.sendQueue.take();
+            try {
+              this.bundlePacket.setData(buffer.array(), 0, buffer.position());
+              this.bundlePacket.setAddress(packet.getAddress());
+              this.bundlePacket.setPort(packet.getPort());
+              socket.send(this.bundlePacket);
+            } catch (IOException iox) {
+              if (!socket.isClosed()) {
+                error(iox, "Failed to transmit OSC bundle: " + iox.getLocalizedMessage());
+              }
+            } finally {
+              release(buffer);
+            }
+          } catch (InterruptedException ix) {
+            break;
+          }
         }
-        oscMessage.add(oscFloat);
-      } else {
-        oscFloat.setValue(parameter.getBaseValuef());
-        oscMessage.add(oscFloat);
       }
-      _sendMessage(oscMessage);
     }
 
     private void sendMessage(String address, int value) {
@@ -629,6 +1046,82 @@ public class LXOscEngine extends LXComponent {
         error(iox, "Failed to transmit message: " + message.getAddressPattern().toString());
       }
     }
+
+    @Override
+    public void dispose() {
+      if (this.sender != null) {
+        this.sender.interrupt();
+        this.sender = null;
+      }
+      super.dispose();
+    }
+  }
+
+  /**
+   * Bounded lock-free queue of messages between exactly one producer thread and
+   * one consumer thread. The producer may offer several messages and then publish
+   * them together, so that a bundle is never seen half-received.
+   */
+  static class MessageRing {
+
+    private final OscMessage[] messages;
+    private final int mask;
+
+    // Next slot to be read, written only by the consumer
+    private final AtomicLong head = new AtomicLong(0);
+
+    // Slots up to here are visible to the consumer, written only by the producer
+    private final AtomicLong tail = new AtomicLong(0);
+
+    // Producer's position including staged but unpublished messages
+    private long stagedTail = 0;
+
+    MessageRing(int capacity) {
+      this.messages = new OscMessage[capacity];
+      this.mask = capacity - 1;
+    }
+
+    // Producer: stages a message, returns false if the ring is full
+    boolean offer(OscMessage message) {
+      if (this.stagedTail - this.head.get() >= this.messages.length) {
+        return false;
+      }
+      this.messages[(int) this.stagedTail & this.mask] = message;
+      ++this.stagedTail;
+      return true;
+    }
+
+    // Producer: makes all staged messages visible to the consumer
+    void publish() {
+      this.tail.lazySet(this.stagedTail);
+    }
+
+    // Producer: abandons any staged messages
+    void discard() {
+      for (long i = this.tail.get(); i < this.stagedTail; ++i) {
+        this.messages[(int) i & this.mask] = null;
+      }
+      this.stagedTail = this.tail.get();
+    }
+
+    // Consumer: next message, or null if empty
+    OscMessage peek() {
+      final long head = this.head.get();
+      return (head < this.tail.get()) ? this.messages[(int) head & this.mask] : null;
+    }
+
+    // Consumer: removes and returns the next message, or null if empty
+    OscMessage poll() {
+      final long head = this.head.get();
+      if (head >= this.tail.get()) {
+        return null;
+      }
+      final int slot = (int) head & this.mask;
+      final OscMessage message = this.messages[slot];
+      this.messages[slot] = null;
+      this.head.lazySet(head + 1);
+      return message;
+    }
   }
 
   public class Receiver {
@@ -640,9 +1133,18 @@ public class LXOscEngine extends LXComponent {
     private final byte[] buffer;
     private final ReceiverThread thread;
 
-    private final AtomicBoolean hasMessages = new AtomicBoolean(false);
+    private final ByteBuffer byteBuffer;
+
+    // Messages handed from the receiver thread to the engine thread
+    private final MessageRing threadSafeEventQueue = new MessageRing(RECEIVE_QUEUE_SIZE);
+
+    // Dispatched messages handed back to the receiver thread for re-use, only
+    // used while all of the listeners are transient
+    private final MessageRing messagePool = new MessageRing(MESSAGE_POOL_SIZE);
+
+    private final OscMessage.AddressCache addressCache = new OscMessage.AddressCache();
 
-    private final ArrayDeque<OscMessage> threadSafeEventQueue = new ArrayDeque<OscMessage>(256);
+    private boolean droppedLogged = false;
 
     private final List<OscMessage> engineThreadEventQueue = new ArrayList<OscMessage>();
 
@@ -670,6 +1172,7 @@ public class LXOscEngine extends LXComponent {
       this.address = socket.getLocalSocketAddress();
       this.port = port;
       this.buffer = new byte[bufferSize];
+      this.byteBuffer = ByteBuffer.wrap(this.buffer);
       this.packet = new DatagramPacket(this.buffer, bufferSize);
       this.thread = new ReceiverThread();
       this.thread.start();
@@ -723,27 +1226,12 @@ public class LXOscEngine extends LXComponent {
           try {
             socket.receive(packet);
             try {
-              // Parse the OSC packet
-              final OscPacket oscPacket = OscPacket.parse(packet);
+              // Parse the OSC packet, adding all of its messages to the queue
               final int delayMs = ((connection != null) && connection.hasDelay.isOn()) ? connection.delayMs.getValuei() : 0;
-
-              // Add all messages in the packet to the queue
-              if (oscPacket instanceof OscMessage oscMessage) {
-                oscMessage.nanoTime += delayMs * 1000000;
-                synchronized (threadSafeEventQueue) {
-                  threadSafeEventQueue.add(oscMessage);
-                }
-                hasMessages.set(true);
-              } else if (oscPacket instanceof OscBundle oscBundle) {
-                synchronized (threadSafeEventQueue) {
-                  for (OscMessage message : oscBundle) {
-                    message.nanoTime += delayMs * 1000000;
-                    threadSafeEventQueue.add(message);
-                  }
-                }
-                hasMessages.set(true);
-              }
+              parsePacket(packet.getOffset(), packet.getOffset() + packet.getLength(), delayMs * 1000000L);
+              threadSafeEventQueue.publish();
             } catch (OscException oscx) {
+              threadSafeEventQueue.discard();
               error(oscx, "Error handling OscPacket in receiver");
             }
           } catch (IOException iox) {
@@ -758,21 +1246,49 @@ public class LXOscEngine extends LXComponent {
       }
     }
 
+    // Parses a packet from the receive buffer, invoked on the receiver thread. Messages
+    // are taken from the pool where possible and staged on the queue, they are not
+    // visible to the engine thread until the whole packet has been published.
+    private void parsePacket(int offset, int len, long delayNanos) throws OscException {
+      if (len <= offset) {
+        throw new OscEmptyPacketException();
+      }
+      if (this.buffer[offset] == '#') {
+        offset = OscBundle.parseHeader(this.buffer, offset, len) + 8;
+        while (offset < len) {
+          final int packetLength = this.byteBuffer.getInt(offset);
+          offset += 4;
+          parsePacket(offset, offset + packetLength, delayNanos);
+          offset += packetLength;
+        }
+      } else if (this.buffer[offset] == '/') {
+        OscMessage message = this.messagePool.poll();
+        if (message == null) {
+          message = new OscMessage();
+        }
+        message.parse(this.packet.getAddress(), this.byteBuffer, offset, len, this.addressCache);
+        message.nanoTime += delayNanos;
+        if (!this.threadSafeEventQueue.offer(message) && !this.droppedLogged) {
+          error("OSC receive queue on port " + this.port + " is full, messages are being dropped");
+          this.droppedLogged = true;
+        }
+      } else {
+        throw new OscMalformedDataException("Osc Packet does not start with # or / --- " + new String(this.buffer, offset, Math.min(len - offset, 10)), this.buffer, offset, len);
+      }
+    }
+
     private void dispatch() {
-      if (this.hasMessages.compareAndSet(true, false)) {
-        final long now = System.nanoTime();
-        this.engineThreadEventQueue.clear();
-        synchronized (this.threadSafeEventQueue) {
-          OscMessage message;
-          while ((message = this.threadSafeEventQueue.peekFirst()) != null) {
-            if (now < message.nanoTime) {
-              // There are still messages that need processing...
-              this.hasMessages.set(true);
-              break;
-            }
-            this.engineThreadEventQueue.add(message);
-            this.threadSafeEventQueue.removeFirst();
+      final OscMessage first = this.threadSafeEventQueue.peek();
+      final long now = System.nanoTime();
+      if ((first != null) && (now >= first.nanoTime)) {
+        OscMessage message;
+        while ((message = this.threadSafeEventQueue.peek()) != null) {
+          if (now < message.nanoTime) {
+            // There are still messages that need processing later...
+            break;
           }
+          this.engineThreadEventQueue.add(message);
+          this.threadSafeEventQueue.poll();
         }
         // TODO(mcslee): do we want to handle NTP timetags?
 
@@ -780,9 +1296,14 @@ public class LXOscEngine extends LXComponent {
         // to the listener list will be post-processed to avoid ConcurrentModificationException
         this.inListener = true;
 
+        // Listeners may be added or removed by a listener during dispatch, messages
+        // are only re-used if every listener before and after dispatch was transient
+        boolean reuse = isTransient();
+
         final List<String> prefixFilters = (this.connection != null) ? this.connection.getFilters() : null;
 
-        for (OscMessage message : this.engineThreadEventQueue) {
+        for (int i = 0; i < this.engineThreadEventQueue.size(); ++i) {
+          message = this.engineThreadEventQueue.get(i);
           if (!shouldAddressBeExcluded(prefixFilters, message.getAddressPattern().getValue())) {
             if ((this.log != null) && this.log.isOn()) {
               log("[RX] [" + this.port + "] " + message.toString());
@@ -800,6 +1321,17 @@ public class LXOscEngine extends LXComponent {
           }
         }
 
+        // Hand the messages back to the receiver thread for re-use, any that
+        // don't fit in the pool are left to be collected
+        reuse = reuse && isTransient();
+        if (reuse) {
+          for (int i = 0; i < this.engineThreadEventQueue.size(); ++i) {
+            this.messagePool.offer(this.engineThreadEventQueue.get(i));
+          }
+          this.messagePool.publish();
+        }
+        this.engineThreadEventQueue.clear();
+
         // Post-process listener modifications
         this.inListener = false;
         if (!this.removeListeners.isEmpty()) {
@@ -813,6 +1345,15 @@ public class LXOscEngine extends LXComponent {
       }
     }
 
+    private boolean isTransient() {
+      for (LXOscListener listener : this.listeners) {
+        if (!listener.isTransient()) {
+          return false;
+        }
+      }
+      return true;
+    }
+
     private boolean stopped = false;
 
     public void stop() {
@@ -1086,6 +1627,21 @@ public class LXOscEngine extends LXComponent {
     }
   }
 
+  /**
+   * Sends the parameter changes that transmitters in bundle mode have coalesced
+   * over the engine frame. Invoked by the engine at the end of each frame.
+   */
+  public void flush() {
+    if (this.engineTransmitter != null) {
+      this.engineTransmitter.flush();
+    }
+    for (LXOscConnection.Output output : this.outputs) {
+      if (output.transmitter != null) {
+        output.transmitter.flush();
+      }
+    }
+  }
+
   private void disposeIO() {
     for (LXOscConnection.Input input : this.inputs) {
       LX.dispose(input);
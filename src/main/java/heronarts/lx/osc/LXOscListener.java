@@ -19,5 +19,23 @@
 package heronarts.lx.osc;
 
 public interface LXOscListener {
+  /**
+   * Invoked on the engine thread for each received message.
+   *
+   * @param message Received OSC message
+   */
   public void oscMessage(OscMessage message);
+
+  /**
+   * Whether this listener only uses a received message for the duration of the
+   * oscMessage() call. Messages which have only been delivered to transient listeners
+   * are re-used for subsequent packets, so a listener returning true must not hold
+   * references to the message or its arguments after returning. By default this is
+   * false and received messages are never re-used.
+   *
+   * @return True if this listener never keeps received messages
+   */
+  public default boolean isTransient() {
+    return false;
+  }
 }
\ No newline at end of file
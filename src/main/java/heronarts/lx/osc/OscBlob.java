@@ -60,9 +60,9 @@ public class OscBlob implements OscArgument {
 
   @Override
   public void serialize(ByteBuffer buffer) {
-    buffer.putInt(this.byteLength);
+    buffer.putInt(this.data.length);
     buffer.put(this.data);
-    for (int i = this.data.length; i < this.byteLength; ++i) {
+    for (int i = 4 + this.data.length; i < this.byteLength; ++i) {
       buffer.put((byte) 0);
     }
   }
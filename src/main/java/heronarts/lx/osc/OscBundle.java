@@ -54,13 +54,29 @@ public class OscBundle extends OscPacket implements Iterable<OscMessage> {
     return this;
   }
 
-  public static OscBundle parse(InetAddress source, byte[] data, int offset, int len) throws OscException {
+  /**
+   * Checks for the bundle header in packet data
+   *
+   * @param data Packet data
+   * @param offset Offset of the bundle in the data
+   * @param len End offset of the bundle in the data
+   * @return Offset of the time tag that follows the header
+   * @throws OscException If the header is missing
+   */
+  static int parseHeader(byte[] data, int offset, int len) throws OscException {
+    if (len - offset < BUNDLE_HEADER.length + 8) {
+      throw new OscMalformedDataException("Missing #bundle header in OscBundle", data, offset, len);
+    }
     for (int i = 0; i < BUNDLE_HEADER.length; ++i) {
       if (data[offset+i] != BUNDLE_HEADER[i]) {
         throw new OscMalformedDataException("Missing #bundle header in OscBundle", data, offset, len);
       }
     }
-    offset += BUNDLE_HEADER.length;
+    return offset + BUNDLE_HEADER.length;
+  }
+
+  public static OscBundle parse(InetAddress source, byte[] data, int offset, int len) throws OscException {
+    offset = parseHeader(data, offset, len);
     OscBundle bundle = new OscBundle();
     ByteBuffer buffer = ByteBuffer.wrap(data);
     bundle.setTimeTag(buffer.getLong(offset));
@@ -102,10 +118,21 @@ public class OscBundle extends OscPacket implements Iterable<OscMessage> {
     return sb.toString();
   }
 
+  /**
+   * Writes the bundle header and time tag, which are followed by the size-prefixed
+   * elements of the bundle
+   *
+   * @param buffer Buffer to write to
+   * @param timeTag Time tag of the bundle
+   */
+  static void serializeHeader(ByteBuffer buffer, long timeTag) {
+    buffer.put(BUNDLE_HEADER);
+    buffer.putLong(timeTag);
+  }
+
   @Override
   void serialize(ByteBuffer buffer) {
-    buffer.put(BUNDLE_HEADER);
-    buffer.putLong(this.timeTag);
+    serializeHeader(buffer, this.timeTag);
     for (OscPacket packet : this.elements) {
       int sizePosition = buffer.position();
       buffer.position(sizePosition + 4);
@@ -21,6 +21,7 @@ package heronarts.lx.osc;
 import java.net.InetAddress;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 
@@ -200,31 +201,66 @@ public class OscMessage extends OscPacket implements Iterable<OscArgument> {
   }
 
   public static OscMessage parse(InetAddress source, byte[] data, int offset, int len) throws OscException {
-    OscMessage message = new OscMessage();
-    message.setSource(source);
+    return new OscMessage().parse(source, ByteBuffer.wrap(data), offset, len, null);
+  }
+
+  /**
+   * Parses data into this message object, replacing its contents. Argument objects
+   * of the common numeric types are re-used when the previous contents of this
+   * message had an argument of the same type in the same position, so that
+   * re-using a message for a stream of similar packets does not allocate.
+   *
+   * @param source Source address
+   * @param buffer Buffer wrapping the packet data array
+   * @param offset Offset of the message in the data
+   * @param len End offset of the message in the data
+   * @param addressCache Cache of address pattern strings, may be null
+   * @return this
+   * @throws OscException If the data is malformed
+   */
+  OscMessage parse(InetAddress source, ByteBuffer buffer, int offset, int len, AddressCache addressCache) throws OscException {
+    final byte[] data = buffer.array();
+    setSource(source);
+    this.nanoTime = System.nanoTime();
+    this.cursor = 0;
+    this.typeTag = null;
+    this.typeTagDirty = true;
 
     // Read address pattern
-    OscString addressPattern = OscString.parse(data, offset, len);
+    OscString addressPattern = (addressCache != null) ?
+      addressCache.parse(data, offset, len) :
+      OscString.parse(data, offset, len);
     offset += addressPattern.getByteLength();
-    message.setAddressPattern(addressPattern);
+    setAddressPattern(addressPattern);
 
     // Is there a typetag?
+    int numArguments = 0;
     if (offset < len) {
-      OscString typeTag = OscString.parse(data, offset, len);
-      offset += typeTag.getByteLength();
+      int typeTagEnd = offset;
+      while (data[typeTagEnd] != 0) {
+        if (++typeTagEnd >= len) {
+          throw new OscMalformedDataException("OscString has no terminating null character", data, offset, len);
+        }
+      }
+      int typeTagIndex = offset + 1;
+      offset += ((typeTagEnd - offset) / 4 + 1) * 4;
 
       // TODO(mcslee): check for buffer overruns
-      ByteBuffer buffer = ByteBuffer.wrap(data);
-      String typeTagValue = typeTag.getValue();
-      for (int i = 1; i < typeTagValue.length(); ++i) {
-        char tag = typeTagValue.charAt(i);
+      for (; typeTagIndex < typeTagEnd; ++typeTagIndex) {
+        final char tag = (char) data[typeTagIndex];
+        final OscArgument previous = (numArguments < this.arguments.size()) ? this.arguments.get(numArguments) : null;
+        final Class<?> previousClass = (previous != null) ? previous.getClass() : null;
         OscArgument argument = null;
         switch (tag) {
           case OscTypeTag.INT:
-            argument = new OscInt(buffer.getInt(offset));
+            argument = (previousClass == OscInt.class) ?
+              ((OscInt) previous).setValue(buffer.getInt(offset)) :
+              new OscInt(buffer.getInt(offset));
             break;
           case OscTypeTag.FLOAT:
-            argument = new OscFloat(buffer.getFloat(offset));
+            argument = (previousClass == OscFloat.class) ?
+              ((OscFloat) previous).setValue(buffer.getFloat(offset)) :
+              new OscFloat(buffer.getFloat(offset));
             break;
           case OscTypeTag.STRING:
             argument = OscString.parse(data, offset, len);
@@ -232,17 +268,21 @@ public class OscMessage extends OscPacket implements Iterable<OscArgument> {
           case OscTypeTag.BLOB:
             int blobLength = buffer.getInt(offset);
             byte[] blobData = new byte[blobLength];
-            System.arraycopy(buffer, offset, blobData, 0, blobLength);
+            System.arraycopy(data, offset + 4, blobData, 0, blobLength);
             argument = new OscBlob(blobData);
             break;
           case OscTypeTag.LONG:
-            argument = new OscLong(buffer.getLong(offset));
+            argument = (previousClass == OscLong.class) ?
+              ((OscLong) previous).setValue(buffer.getLong(offset)) :
+              new OscLong(buffer.getLong(offset));
             break;
           case OscTypeTag.TIMETAG:
             argument = new OscTimeTag(buffer.getLong(offset));
             break;
           case OscTypeTag.DOUBLE:
-            argument = new OscDouble(buffer.getDouble(offset));
+            argument = (previousClass == OscDouble.class) ?
+              ((OscDouble) previous).setValue(buffer.getDouble(offset)) :
+              new OscDouble(buffer.getDouble(offset));
             break;
           case OscTypeTag.SYMBOL:
             argument = OscSymbol.parse(data, offset, len);
@@ -257,25 +297,69 @@ public class OscMessage extends OscPacket implements Iterable<OscArgument> {
             argument = new OscMidi(buffer.getInt(offset));
             break;
           case OscTypeTag.TRUE:
-            argument = new OscTrue();
+            argument = (previousClass == OscTrue.class) ? previous : new OscTrue();
             break;
           case OscTypeTag.FALSE:
-            argument = new OscFalse();
+            argument = (previousClass == OscFalse.class) ? previous : new OscFalse();
             break;
           case OscTypeTag.NIL:
-            argument = new OscNil();
+            argument = (previousClass == OscNil.class) ? previous : new OscNil();
             break;
           case OscTypeTag.INFINITUM:
-            argument = new OscInfinitum();
+            argument = (previousClass == OscInfinitum.class) ? previous : new OscInfinitum();
             break;
           default:
             throw new OscMalformedDataException("Unrecognized type tag: " + tag, data, offset, len);
         }
         offset += argument.getByteLength();
-        message.add(argument);
+        if (argument != previous) {
+          if (previous != null) {
+            this.arguments.set(numArguments, argument);
+          } else {
+            this.arguments.add(argument);
+          }
+        }
+        ++numArguments;
+      }
+    }
+    for (int i = this.arguments.size() - 1; i >= numArguments; --i) {
+      this.arguments.remove(i);
+    }
+    return this;
+  }
+
+  /**
+   * Cache of address pattern strings, keyed by their raw bytes. A stream of messages
+   * to a working set of addresses will re-use the same OscString objects rather than
+   * decoding a new String for every message. Entries are direct-mapped by hash and
+   * simply replaced on collision.
+   */
+  static class AddressCache {
+
+    private static final int SIZE = 1024;
+
+    private final byte[][] keys = new byte[SIZE][];
+    private final OscString[] values = new OscString[SIZE];
+
+    OscString parse(byte[] data, int offset, int len) throws OscException {
+      int hash = 1;
+      for (int i = offset; i < len; ++i) {
+        if (data[i] == 0) {
+          hash ^= (hash >>> 16);
+          final int slot = hash & (SIZE - 1);
+          final byte[] key = this.keys[slot];
+          if ((key != null) && Arrays.equals(key, 0, key.length, data, offset, i)) {
+            return this.values[slot];
+          }
+          final OscString value = new OscString(new String(data, offset, i-offset));
+          this.keys[slot] = Arrays.copyOfRange(data, offset, i);
+          this.values[slot] = value;
+          return value;
+        }
+        hash = 31 * hash + data[i];
       }
+      throw new OscMalformedDataException("OscString has no terminating null character", data, offset, len);
     }
-    return message;
   }
 
   @Override
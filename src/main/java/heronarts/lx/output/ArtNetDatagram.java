@@ -38,7 +38,7 @@ public class ArtNetDatagram extends LXDatagram {
   public final static int OPCODE_POLL = 0x2000;
   public final static int OPCODE_POLL_REPLY = 0x2100;
   public final static int OPCODE_DMX = 0x5000;
-  public final static int OPCODE_SYNC = 0x5100;
+  public final static int OPCODE_SYNC = 0x5200;
 
   public final static int VERSION_MSB = 10;
   public final static int VERSION_LSB = 11;
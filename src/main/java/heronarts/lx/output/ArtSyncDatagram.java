@@ -49,4 +49,10 @@ public class ArtSyncDatagram extends LXDatagram {
     return 0;
   }
 
+  @Override
+  protected boolean isSuppressible() {
+    // Receivers in sync mode only latch new data on ArtSync
+    return false;
+  }
+
 }
@@ -41,6 +41,26 @@ public abstract class LXBufferOutput extends LXOutput {
      */
     public void writeBytes(int argb, GammaTable.Curve gamma, byte[] output, int offset);
 
+    /**
+     * Writes the bytes for a whole segment of pixels to an output. The default
+     * implementation invokes writeBytes for each pixel, encoders may override this
+     * to provide a faster bulk path.
+     *
+     * @param colors Array of color values
+     * @param indices Indices into the color array, negative values are sent as black
+     * @param gamma Gamma lookup table
+     * @param output Output byte array
+     * @param offset Offset to write the first pixel at in output array
+     * @param stride Number of bytes between the start of each pixel in output array
+     */
+    public default void writeSegment(int[] colors, int[] indices, GammaTable.Curve gamma, byte[] output, int offset, int stride) {
+      for (int i = 0; i < indices.length; ++i) {
+        final int index = indices[i];
+        writeBytes((index >= 0) ? colors[index] : 0, gamma, output, offset);
+        offset += stride;
+      }
+    }
+
   }
 
   /**
@@ -116,8 +136,76 @@ public abstract class LXBufferOutput extends LXOutput {
         output[offset + this.byteOffset[2]] = gamma.blue[b];
       }
     }
+
+    @Override
+    public void writeSegment(int[] colors, int[] indices, GammaTable.Curve gamma, byte[] output, int offset, int stride) {
+      final int[] byteOffset = this.byteOffset;
+      if (byteOffset.length == 1) {
+        writeW(colors, indices, gamma.white, output, offset, stride);
+      } else if (this.hasWhite) {
+        writeRGBW(colors, indices, gamma, byteOffset[0], byteOffset[1], byteOffset[2], byteOffset[3], output, offset, stride);
+      } else {
+        writeRGB(colors, indices, gamma, byteOffset[0], byteOffset[1], byteOffset[2], output, offset, stride);
+      }
+    }
   };
 
+  /**
+   * Three-byte encoder for any RGB ordering. The byte offsets and lookup tables are
+   * hoisted out of the loop, so there are no per-pixel table or interface lookups.
+   */
+  private static void writeRGB(int[] colors, int[] indices, GammaTable.Curve gamma, int r, int g, int b, byte[] output, int offset, int stride) {
+    final byte[] red = gamma.red;
+    final byte[] green = gamma.green;
+    final byte[] blue = gamma.blue;
+    for (int i = 0; i < indices.length; ++i) {
+      final int index = indices[i];
+      final int color = (index >= 0) ? colors[index] : 0;
+      output[offset + r] = red[(color >> 16) & 0xff];
+      output[offset + g] = green[(color >> 8) & 0xff];
+      output[offset + b] = blue[color & 0xff];
+      offset += stride;
+    }
+  }
+
+  /**
+   * Four-byte encoder for any RGBW ordering. White is extracted as the minimum of the
+   * three color components, which are then reduced by that amount. Math.min is used
+   * rather than nested ternaries so that the minimum compiles to branch-free code,
+   * which matters on noisy content where the branches are unpredictable.
+   */
+  private static void writeRGBW(int[] colors, int[] indices, GammaTable.Curve gamma, int r, int g, int b, int w, byte[] output, int offset, int stride) {
+    final byte[] red = gamma.red;
+    final byte[] green = gamma.green;
+    final byte[] blue = gamma.blue;
+    final byte[] white = gamma.white;
+    for (int i = 0; i < indices.length; ++i) {
+      final int index = indices[i];
+      final int color = (index >= 0) ? colors[index] : 0;
+      final int rv = (color >> 16) & 0xff;
+      final int gv = (color >> 8) & 0xff;
+      final int bv = color & 0xff;
+      final int wv = Math.min(rv, Math.min(gv, bv));
+      output[offset + r] = red[rv - wv];
+      output[offset + g] = green[gv - wv];
+      output[offset + b] = blue[bv - wv];
+      output[offset + w] = white[wv];
+      offset += stride;
+    }
+  }
+
+  /**
+   * Single-byte encoder, white is the average of the three color components
+   */
+  private static void writeW(int[] colors, int[] indices, byte[] white, byte[] output, int offset, int stride) {
+    for (int i = 0; i < indices.length; ++i) {
+      final int index = indices[i];
+      final int color = (index >= 0) ? colors[index] : 0;
+      output[offset] = white[(((color >> 16) & 0xff) + ((color >> 8) & 0xff) + (color & 0xff)) / 3];
+      offset += stride;
+    }
+  }
+
   protected final IndexBuffer indexBuffer;
 
   protected LXBufferOutput(LX lx, IndexBuffer indexBuffer) {
@@ -165,65 +253,7 @@ public abstract class LXBufferOutput extends LXOutput {
         final int glutIndex = (int) Math.round(255. * brightness * segment.brightness.getValue());
         final GammaTable.Curve gamma = glut.level[glutIndex];
 
-        final ByteEncoder byteEncoder = segment.byteEncoder;
-        final int numBytes = byteEncoder.getNumBytes();
-        final int stride = segment.outputStride;
-
-        // TODO(mcslee): determine if there's actually any performance gain at all here by
-        // putting branches outside of the for loops? If not just nuke this...
-        if (byteEncoder instanceof ByteOrder) {
-          final ByteOrder byteOrder = (ByteOrder) byteEncoder;
-          final int[] byteOffset = byteOrder.getByteOffset();
-
-          if (byteOrder.hasWhite) {
-            if (numBytes == 1) {
-              for (int i = 0; i < segment.indices.length; ++i) {
-                int index = segment.indices[i];
-                int color = (index >= 0) ? colors[index] : 0;
-                int r = ((color >> 16) & 0xff);
-                int g = ((color >> 8) & 0xff);
-                int b = (color & 0xff);
-                int w = (r + b + g) / 3;
-                buffer[offset] = gamma.white[w];
-                offset += stride;
-              }
-            } else {
-              for (int i = 0; i < segment.indices.length; ++i) {
-                int index = segment.indices[i];
-                int color = (index >= 0) ? colors[index] : 0;
-                int r = ((color >> 16) & 0xff);
-                int g = ((color >> 8) & 0xff);
-                int b = (color & 0xff);
-                int w = (r < g) ? ((r < b) ? r : b) : ((g < b) ? g : b);
-                r -= w;
-                g -= w;
-                b -= w;
-                buffer[offset + byteOffset[0]] = gamma.red[r];
-                buffer[offset + byteOffset[1]] = gamma.green[g];
-                buffer[offset + byteOffset[2]] = gamma.blue[b];
-                buffer[offset + byteOffset[3]] = gamma.white[w];
-                offset += stride;
-              }
-            }
-          } else {
-            for (int i = 0; i < segment.indices.length; ++i) {
-              int index = segment.indices[i];
-              int color = (index >= 0) ? colors[index] : 0;
-              buffer[offset + byteOffset[0]] = gamma.red[((color >> 16) & 0xff)]; // R
-              buffer[offset + byteOffset[1]] = gamma.green[((color >> 8) & 0xff)]; // G
-              buffer[offset + byteOffset[2]] = gamma.blue[(color & 0xff)]; // B
-              offset += stride;
-            }
-          }
-        } else {
-          // Generic ByteEncoder implementation
-          for (int i = 0; i < segment.indices.length; ++i) {
-            int index = segment.indices[i];
-            int color = (index >= 0) ? colors[index] : 0;
-            byteEncoder.writeBytes(color, gamma, buffer, offset);
-            offset += stride;
-          }
-        }
+        segment.byteEncoder.writeSegment(colors, segment.indices, gamma, buffer, offset, segment.outputStride);
       }
     }
 
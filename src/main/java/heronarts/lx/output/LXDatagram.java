@@ -20,12 +20,16 @@ package heronarts.lx.output;
 
 import heronarts.lx.LX;
 import heronarts.lx.parameter.BooleanParameter;
+import heronarts.lx.parameter.DiscreteParameter;
+import heronarts.lx.parameter.LXParameter;
 
 import java.io.IOException;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.SocketException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -40,6 +44,11 @@ public abstract class LXDatagram extends LXBufferOutput implements LXOutput.Inet
     }
   }
 
+  /**
+   * Default interval at which unchanged datagrams are re-sent when suppression is on
+   */
+  public static final int DEFAULT_KEEP_ALIVE_MS = 1000;
+
   private static DatagramSocket defaultSocket = null;
 
   private static DatagramSocket getDefaultSocket() throws SocketException {
@@ -84,6 +93,14 @@ public abstract class LXDatagram extends LXBufferOutput implements LXOutput.Inet
 
   private DatagramSocket socket;
 
+  private InetSocketAddress socketAddress = null;
+
+  // Arguments held while this datagram is queued on a batched transport,
+  // which encodes the data buffer before sending
+  private int[] pendingColors = null;
+  private GammaTable pendingGlut = null;
+  private double pendingBrightness = 1;
+
   /**
    * Whether this datagram is in an error state
    */
@@ -91,6 +108,31 @@ public abstract class LXDatagram extends LXBufferOutput implements LXOutput.Inet
     new BooleanParameter("Error", false)
     .setDescription("Whether there have been errors sending to this datagram address");
 
+  /**
+   * Whether packets with unchanged data are skipped
+   */
+  public final BooleanParameter suppressUnchanged =
+    new BooleanParameter("Suppress Unchanged", false)
+    .setMappable(false)
+    .setDescription("Whether packets are skipped when their data has not changed since the last send");
+
+  /**
+   * Maximum interval between sends of unchanged data when suppression is on
+   */
+  public final DiscreteParameter keepAlive =
+    new DiscreteParameter("Keep Alive", DEFAULT_KEEP_ALIVE_MS, 0, 60001)
+    .setMappable(false)
+    .setUnits(LXParameter.Units.MILLISECONDS_RAW)
+    .setDescription("Interval at which unchanged packets are re-sent so that receivers do not time out");
+
+  // Data most recently sent successfully, used for suppressing unchanged packets
+  private final byte[] lastSent;
+  private long lastSentMillis = -1;
+  private boolean suppressed = false;
+
+  private long sentPackets = 0;
+  private long suppressedPackets = 0;
+
   protected LXDatagram(LX lx, IndexBuffer indexBuffer, int datagramSize) {
     super(lx, indexBuffer);
 
@@ -98,7 +140,20 @@ public abstract class LXDatagram extends LXBufferOutput implements LXOutput.Inet
     for (int i = 0; i < datagramSize; ++i) {
       this.buffer[i] = 0;
     }
+    this.lastSent = new byte[datagramSize];
     this.packet = new DatagramPacket(this.buffer, datagramSize);
+
+    addParameter("suppressUnchanged", this.suppressUnchanged);
+    addParameter("keepAlive", this.keepAlive);
+  }
+
+  @Override
+  public void onParameterChanged(LXParameter p) {
+    super.onParameterChanged(p);
+    if (p == this.suppressUnchanged) {
+      // Force a full send when suppression is toggled
+      this.lastSentMillis = -1;
+    }
   }
 
   protected void validateBufferSize() {
@@ -132,6 +187,8 @@ public abstract class LXDatagram extends LXBufferOutput implements LXOutput.Inet
   @Override
   public LXDatagram setAddress(InetAddress address) {
     this.errorState = null;
+    this.socketAddress = null;
+    this.lastSentMillis = -1;
     this.packet.setAddress(address);
     return this;
   }
@@ -155,6 +212,8 @@ public abstract class LXDatagram extends LXBufferOutput implements LXOutput.Inet
   @Override
   public LXDatagram setPort(int port) {
     this.errorState = null;
+    this.socketAddress = null;
+    this.lastSentMillis = -1;
     this.packet.setPort(port);
     return this;
   }
@@ -169,6 +228,42 @@ public abstract class LXDatagram extends LXBufferOutput implements LXOutput.Inet
     return this.packet.getPort();
   }
 
+  /**
+   * Gets the destination socket address, cached so that batched sends do not
+   * allocate on every frame
+   *
+   * @return Destination socket address
+   * @throws IOException If no destination address has been set
+   */
+  InetSocketAddress getSocketAddress() throws IOException {
+    if (this.socketAddress == null) {
+      final InetAddress address = getAddress();
+      if (address == null) {
+        throw new IOException("No destination address set for datagram");
+      }
+      this.socketAddress = new InetSocketAddress(address, getPort());
+    }
+    return this.socketAddress;
+  }
+
+  /**
+   * Gets the number of packets this datagram has sent
+   *
+   * @return Number of packets sent
+   */
+  public long getSentPackets() {
+    return this.sentPackets;
+  }
+
+  /**
+   * Gets the number of packets skipped because their data was unchanged
+   *
+   * @return Number of packets suppressed
+   */
+  public long getSuppressedPackets() {
+    return this.suppressedPackets;
+  }
+
   /**
    * Returns the data buffer
    */
@@ -206,32 +301,122 @@ public abstract class LXDatagram extends LXBufferOutput implements LXOutput.Inet
       return;
     }
 
-    // Update the data buffer and sequence number
+    // Datagrams on the default socket are queued if the engine is batching
+    // output, otherwise they are encoded and sent immediately
+    final LXDatagramTransport transport = getTransport();
+    if (transport != null) {
+      this.pendingColors = colors;
+      this.pendingGlut = glut;
+      this.pendingBrightness = brightness;
+      transport.enqueue(this);
+    } else {
+      encode(colors, glut, brightness);
+      sendPacket(null);
+    }
+  }
+
+  private void encode(int[] colors, GammaTable glut, double brightness) {
     updateDataBuffer(colors, glut, brightness);
-    updateSequenceNumber();
+    this.suppressed = isUnchanged();
+    if (!this.suppressed) {
+      updateSequenceNumber();
+    }
+  }
+
+  /**
+   * Whether this datagram may ever be skipped when its data is unchanged. Datagrams
+   * that carry no color data, or whose sending is itself a signal such as a sync
+   * packet, must always be sent.
+   *
+   * @return Whether unchanged packets of this datagram may be suppressed
+   */
+  protected boolean isSuppressible() {
+    return this.indexBuffer.numChannels > 0;
+  }
+
+  /**
+   * Determines whether the freshly encoded packet matches what was last sent,
+   * within the keep-alive interval. The whole packet is compared, so that header
+   * changes such as a new universe number or priority are always sent. Sequence
+   * numbers are only advanced after this check, so at this point the header still
+   * carries the sequence number of the last packet that was sent.
+   *
+   * @return Whether this packet may be skipped
+   */
+  private boolean isUnchanged() {
+    if (!this.suppressUnchanged.isOn() || (this.lastSentMillis < 0) || !isSuppressible()) {
+      return false;
+    }
+    if (this.lx.engine.nowMillis - this.lastSentMillis >= this.keepAlive.getValuei()) {
+      return false;
+    }
+    return Arrays.equals(this.buffer, this.lastSent);
+  }
+
+  /**
+   * Encodes the data buffer and sequence number for a datagram queued on a
+   * batched transport. This may be invoked from a worker thread, and only
+   * touches state that belongs to this datagram.
+   */
+  void encodePending() {
+    if (this.pendingColors != null) {
+      encode(this.pendingColors, this.pendingGlut, this.pendingBrightness);
+      this.pendingColors = null;
+      this.pendingGlut = null;
+    }
+  }
+
+  private LXDatagramTransport getTransport() {
+    if ((this.socket == null) && (this.lx.engine != null)) {
+      final LXDatagramTransport transport = this.lx.engine.output.transport;
+      if (transport.isBatching()) {
+        return transport;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Sends the packet, either directly on a DatagramSocket or through the
+   * batched transport, and updates the error and backoff state for the
+   * destination address.
+   *
+   * @param transport Batched transport, or null to send on the socket
+   */
+  void sendPacket(LXDatagramTransport transport) {
+    if (this.suppressed) {
+      ++this.suppressedPackets;
+      return;
+    }
+
+    final ErrorState datagramErrorState = getErrorState();
 
     // Try sending the packet
     try {
-      final DatagramSocket socket = (this.socket != null) ? this.socket : LXDatagram.getDefaultSocket();
-      final long latencyCheck = System.currentTimeMillis();
-      if (slowPacketInitMs < 0) {
-        slowPacketInitMs = latencyCheck;
-      }
+      if (transport != null) {
+        transport.send(this);
+      } else {
+        final DatagramSocket socket = (this.socket != null) ? this.socket : LXDatagram.getDefaultSocket();
+        final long latencyCheck = System.currentTimeMillis();
+        if (slowPacketInitMs < 0) {
+          slowPacketInitMs = latencyCheck;
+        }
 
-      socket.send(this.packet);
-
-      if (!slowPacketLogged) {
-        final long afterSend = System.currentTimeMillis();
-        if (afterSend - latencyCheck > 1) {
-          // Check that this call is not blocking, this issue has been noticed by multiple users on
-          // Raspberry Pi systems, when any address being sent is unresolvable, the output queues fill causing
-          // major framerate degradation to all addresses. A solution for this (thanks to Brian Bulkowski)
-          // is documented on the wiki. On Mac/Windows this never seems to be an issue, streaming as many
-          // UDP packets as you like to an unresolvable address will not choke the system.
-          if (++slowPacketCount > 10) {
-            if (afterSend - slowPacketInitMs > 5000) {
-              LX.error("Calls to DatagramSocket.send() appear to be unexpectedly blocking, you may be sending to an unresolvable address or network queues may be saturated. If you are on Linux/Raspberry-Pi, consult the following URL for guidance on relevant kernel parameters: https://github.com/heronarts/LXStudio/wiki/Raspberry-Pi");
-              slowPacketLogged = true;
+        socket.send(this.packet);
+
+        if (!slowPacketLogged) {
+          final long afterSend = System.currentTimeMillis();
+          if (afterSend - latencyCheck > 1) {
+            // Check that this call is not blocking, this issue has been noticed by multiple users on
+            // Raspberry Pi systems, when any address being sent is unresolvable, the output queues fill causing
+            // major framerate degradation to all addresses. A solution for this (thanks to Brian Bulkowski)
+            // is documented on the wiki. On Mac/Windows this never seems to be an issue, streaming as many
+            // UDP packets as you like to an unresolvable address will not choke the system.
+            if (++slowPacketCount > 10) {
+              if (afterSend - slowPacketInitMs > 5000) {
+                LX.error("Calls to DatagramSocket.send() appear to be unexpectedly blocking, you may be sending to an unresolvable address or network queues may be saturated. If you are on Linux/Raspberry-Pi, consult the following URL for guidance on relevant kernel parameters: https://github.com/heronarts/LXStudio/wiki/Raspberry-Pi");
+                slowPacketLogged = true;
+              }
             }
           }
         }
@@ -241,6 +426,11 @@ public abstract class LXDatagram extends LXBufferOutput implements LXOutput.Inet
         LXOutput.log("Recovered connectivity to " + datagramErrorState.destination);
       }
       // Sent fine! All good here...
+      ++this.sentPackets;
+      if (this.suppressUnchanged.isOn()) {
+        System.arraycopy(this.buffer, 0, this.lastSent, 0, this.buffer.length);
+        this.lastSentMillis = this.lx.engine.nowMillis;
+      }
       datagramErrorState.failureCount = 0;
       datagramErrorState.sendAfter = 0;
       this.error.setValue(false);
@@ -0,0 +1,349 @@
+/**
+ * Copyright 2013- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx.output;
+
+import java.io.IOException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import heronarts.lx.LX;
+
+/**
+ * Batched transport for datagram output. While a frame is being sent, datagrams
+ * that use the default socket are queued here rather than sent immediately. The
+ * whole frame is then written in a single loop through one non-blocking
+ * DatagramChannel, staging each packet in a re-used direct buffer so that no
+ * allocation takes place on the send path. If the socket send buffer fills up,
+ * the send waits for it to drain rather than dropping packets, just as a
+ * blocking DatagramSocket would.
+ *
+ * Datagrams are flushed in the order they were queued, so protocol semantics
+ * such as ArtSync following all of the ArtDmx packets in a frame are retained.
+ * Encoding of the queued datagrams' color data happens first, and may
+ * optionally be split across a worker pool before the ordered send loop.
+ */
+public class LXDatagramTransport {
+
+  /**
+   * Maximum payload of a UDP datagram over IPv4
+   */
+  public static final int MAX_DATAGRAM_SIZE = 65507;
+
+  private static final int DEFAULT_QUEUE_SIZE = 1024;
+
+  /**
+   * Minimum number of datagrams encoded by each parallel task, below this the
+   * overhead of handing off work is not worth it
+   */
+  private static final int MIN_ENCODE_BATCH = 32;
+
+  /**
+   * Upper bound on a single wait for the send buffer to drain, the write is
+   * simply retried after this
+   */
+  private static final long SELECT_TIMEOUT_MS = 100;
+
+  public class Profiler {
+
+    /**
+     * Number of datagrams written to the channel
+     */
+    public long sentPackets = 0;
+
+    /**
+     * Number of datagrams that had to wait for space in the socket send buffer
+     */
+    public long stalledPackets = 0;
+
+    /**
+     * Time spent encoding the most recent frame
+     */
+    public long encodeNanos = 0;
+
+    /**
+     * Time spent flushing the most recent frame, including encoding
+     */
+    public long flushNanos = 0;
+  }
+
+  public final Profiler profiler = new Profiler();
+
+  private final ByteBuffer buffer = ByteBuffer.allocateDirect(MAX_DATAGRAM_SIZE);
+
+  private DatagramChannel channel = null;
+
+  private Selector selector = null;
+
+  private int sendBufferSize = 0;
+
+  private LXDatagram[] queue = new LXDatagram[DEFAULT_QUEUE_SIZE];
+
+  private int queueSize = 0;
+
+  private boolean batching = false;
+
+  private boolean stalledLogged = false;
+
+  private boolean parallelEncode = false;
+
+  private ExecutorService encoder = null;
+
+  private final List<Future<?>> encodeFutures = new ArrayList<>();
+
+  /**
+   * Sets the socket send buffer size (SO_SNDBUF) requested for the channel. A
+   * larger buffer lets more of a frame be written without the channel refusing
+   * packets. A value of 0 leaves the operating system default in place.
+   *
+   * @param sendBufferSize Send buffer size in bytes, or 0 for system default
+   * @return this
+   */
+  public LXDatagramTransport setSendBufferSize(int sendBufferSize) {
+    if (sendBufferSize < 0) {
+      throw new IllegalArgumentException("LXDatagramTransport sendBufferSize may not be negative: " + sendBufferSize);
+    }
+    if (this.sendBufferSize != sendBufferSize) {
+      this.sendBufferSize = sendBufferSize;
+      if (this.channel != null) {
+        try {
+          applySendBufferSize(this.channel);
+        } catch (IOException iox) {
+          LXOutput.error(iox, "Could not set datagram send buffer size to " + sendBufferSize);
+        }
+      }
+    }
+    return this;
+  }
+
+  public int getSendBufferSize() {
+    return this.sendBufferSize;
+  }
+
+  /**
+   * Sets whether queued datagrams are encoded in parallel on a worker pool
+   *
+   * @param parallelEncode Whether to encode in parallel
+   * @return this
+   */
+  public LXDatagramTransport setParallelEncode(boolean parallelEncode) {
+    this.parallelEncode = parallelEncode;
+    return this;
+  }
+
+  public boolean isParallelEncode() {
+    return this.parallelEncode;
+  }
+
+  private void applySendBufferSize(DatagramChannel channel) throws IOException {
+    if (this.sendBufferSize > 0) {
+      channel.setOption(StandardSocketOptions.SO_SNDBUF, this.sendBufferSize);
+      int actual = channel.getOption(StandardSocketOptions.SO_SNDBUF);
+      if (actual < this.sendBufferSize) {
+        LXOutput.log("Requested datagram send buffer of " + this.sendBufferSize + " bytes, system granted " + actual);
+      }
+    }
+  }
+
+  private DatagramChannel getChannel() throws IOException {
+    if (this.channel == null) {
+      DatagramChannel channel = DatagramChannel.open();
+      try {
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.SO_BROADCAST, true);
+        applySendBufferSize(channel);
+      } catch (IOException iox) {
+        channel.close();
+        throw iox;
+      }
+      this.channel = channel;
+    }
+    return this.channel;
+  }
+
+  /**
+   * Begins a frame, datagrams sent after this call will be queued until flush()
+   */
+  public void begin() {
+    this.batching = true;
+  }
+
+  /**
+   * Whether a frame is currently being batched
+   *
+   * @return If datagrams are being queued for this transport
+   */
+  public boolean isBatching() {
+    return this.batching;
+  }
+
+  void enqueue(LXDatagram datagram) {
+    if (this.queueSize == this.queue.length) {
+      LXDatagram[] queue = new LXDatagram[this.queue.length * 2];
+      System.arraycopy(this.queue, 0, queue, 0, this.queueSize);
+      this.queue = queue;
+    }
+    this.queue[this.queueSize++] = datagram;
+  }
+
+  /**
+   * Ends the frame and writes all of the queued datagrams, in order
+   */
+  public void flush() {
+    final long flushStart = System.nanoTime();
+    this.batching = false;
+    try {
+      encode();
+      this.profiler.encodeNanos = System.nanoTime() - flushStart;
+      for (int i = 0; i < this.queueSize; ++i) {
+        this.queue[i].sendPacket(this);
+      }
+    } finally {
+      for (int i = 0; i < this.queueSize; ++i) {
+        this.queue[i] = null;
+      }
+      this.queueSize = 0;
+      this.profiler.flushNanos = System.nanoTime() - flushStart;
+    }
+  }
+
+  private void encode() {
+    final int numTasks = Math.min(
+      Runtime.getRuntime().availableProcessors(),
+      this.queueSize / MIN_ENCODE_BATCH
+    );
+    if (!this.parallelEncode || (numTasks < 2)) {
+      for (int i = 0; i < this.queueSize; ++i) {
+        this.queue[i].encodePending();
+      }
+      return;
+    }
+
+    if (this.encoder == null) {
+      this.encoder = Executors.newWorkStealingPool();
+    }
+
+    // Each task encodes a contiguous run of the queue, datagrams only write
+    // into their own buffers so there is no contention between tasks
+    final LXDatagram[] queue = this.queue;
+    final int batchSize = (this.queueSize + numTasks - 1) / numTasks;
+    for (int start = 0; start < this.queueSize; start += batchSize) {
+      final int from = start;
+      final int to = Math.min(this.queueSize, start + batchSize);
+      this.encodeFutures.add(this.encoder.submit(() -> {
+        for (int i = from; i < to; ++i) {
+          queue[i].encodePending();
+        }
+      }));
+    }
+
+    // Join on every task before anything is sent, errors are re-thrown on the
+    // calling thread as they would be for serial encoding
+    Throwable error = null;
+    for (Future<?> future : this.encodeFutures) {
+      try {
+        future.get();
+      } catch (InterruptedException x) {
+        LX.log("LXDatagramTransport interrupted waiting for encode future");
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException x) {
+        if (error == null) {
+          error = x.getCause();
+        }
+      }
+    }
+    this.encodeFutures.clear();
+    if (error instanceof RuntimeException runtimeException) {
+      throw runtimeException;
+    } else if (error instanceof Error err) {
+      throw err;
+    } else if (error != null) {
+      throw new RuntimeException(error);
+    }
+  }
+
+  /**
+   * Writes a single datagram to the channel. If the socket send buffer is full,
+   * this waits until the channel is writable again, the packet is never dropped.
+   *
+   * @param datagram Datagram to send
+   * @throws IOException If there was a network error sending the packet
+   */
+  void send(LXDatagram datagram) throws IOException {
+    final DatagramChannel channel = getChannel();
+    this.buffer.clear();
+    this.buffer.put(datagram.buffer, 0, datagram.packet.getLength());
+    this.buffer.flip();
+    if (channel.send(this.buffer, datagram.getSocketAddress()) == 0) {
+      ++this.profiler.stalledPackets;
+      if (!this.stalledLogged) {
+        LXOutput.log("Datagram send buffer is full and output is waiting for it to drain, consider increasing the output send buffer size");
+        this.stalledLogged = true;
+      }
+      awaitWritable(channel);
+      while (channel.send(this.buffer, datagram.getSocketAddress()) == 0) {
+        awaitWritable(channel);
+      }
+    }
+    ++this.profiler.sentPackets;
+  }
+
+  private void awaitWritable(DatagramChannel channel) throws IOException {
+    if (this.selector == null) {
+      this.selector = Selector.open();
+      channel.register(this.selector, SelectionKey.OP_WRITE);
+    }
+    this.selector.select(SELECT_TIMEOUT_MS);
+    this.selector.selectedKeys().clear();
+  }
+
+  public void dispose() {
+    this.batching = false;
+    this.queueSize = 0;
+    if (this.encoder != null) {
+      this.encoder.shutdownNow();
+      this.encoder = null;
+    }
+    if (this.selector != null) {
+      try {
+        this.selector.close();
+      } catch (IOException iox) {
+        LXOutput.error(iox, "Error closing datagram selector");
+      }
+      this.selector = null;
+    }
+    if (this.channel != null) {
+      try {
+        this.channel.close();
+      } catch (IOException iox) {
+        LXOutput.error(iox, "Error closing datagram channel");
+      }
+      this.channel = null;
+    }
+  }
+
+}
@@ -19,6 +19,8 @@
 package heronarts.lx.output;
 
 import java.net.InetAddress;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import com.google.gson.JsonObject;
 
@@ -132,6 +134,44 @@ public abstract class LXOutput extends LXComponent {
       return this;
     }
 
+    private record Key(double gamma, double whitePointRed, double whitePointGreen, double whitePointBlue, double whitePointWhite) {}
+
+    private static final int MAX_CACHED_TABLES = 16;
+
+    private static final Map<Key, GammaTable> cache = new LinkedHashMap<Key, GammaTable>(MAX_CACHED_TABLES, .75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, GammaTable> eldest) {
+        return size() > MAX_CACHED_TABLES;
+      }
+    };
+
+    /**
+     * Gets a shared gamma table for the given settings. Tables are cached, so outputs
+     * with the same settings share one set of lookup tables, and returning to a recent
+     * setting does not regenerate anything. The table covers all brightness levels.
+     * Tables returned by this method are shared and must not be modified.
+     *
+     * @param gamma Gamma level
+     * @param whitePointRed White point for red (0-255)
+     * @param whitePointGreen White point for green (0-255)
+     * @param whitePointBlue White point for blue (0-255)
+     * @param whitePointWhite White point for white (0-255)
+     * @return Shared gamma table
+     */
+    public static GammaTable get(double gamma, double whitePointRed, double whitePointGreen, double whitePointBlue, double whitePointWhite) {
+      final Key key = new Key(gamma, whitePointRed, whitePointGreen, whitePointBlue, whitePointWhite);
+      synchronized (cache) {
+        GammaTable table = cache.get(key);
+        if (table == null) {
+          table = new GammaTable().generate(gamma, whitePointRed, whitePointGreen, whitePointBlue, whitePointWhite);
+          cache.put(key, table);
+        }
+        return table;
+      }
+    }
+
     @Deprecated
     private GammaTable(byte[][] lut) {
       for (int i = 0; i < this.level.length; ++i) {
@@ -231,7 +271,7 @@ public abstract class LXOutput extends LXComponent {
    * A lookup table that maps brightness and index byte to output byte. For high-pixel projects
    * this avoids lots of redundant brightness multiplies at the output.
    */
-  private GammaTable gammaLut = null;
+  private volatile GammaTable gammaLut = null;
 
   private boolean hasCustomGamma = false;
 
@@ -241,10 +281,9 @@ public abstract class LXOutput extends LXComponent {
 
   private void buildGammaTable() {
     if (this.gammaMode.getEnum() == GammaMode.DIRECT) {
-      if (this.gammaLut == null) {
-        this.gammaLut = new GammaTable();
-      }
-      this.gammaLut.generate(
+      // Swap in a complete shared table, never modify one the output
+      // thread may be reading from
+      this.gammaLut = GammaTable.get(
         this.gamma.getValue(),
         this.whitePointRed.getValue(),
         this.whitePointGreen.getValue(),
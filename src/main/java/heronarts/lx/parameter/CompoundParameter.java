@@ -23,11 +23,86 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
+import heronarts.lx.LX;
+import heronarts.lx.LXComponent;
 import heronarts.lx.modulation.LXCompoundModulation;
+import heronarts.lx.modulator.LXModulator;
 import heronarts.lx.utils.LXEngineThreadArrayList;
 
 public class CompoundParameter extends BoundedParameter implements LXCompoundModulation.Target {
 
+  /**
+   * Modulated values computed for a base value, along with everything else they
+   * depend upon. The engine's modulation epoch covers sources which are ordinary
+   * parameters, it advances once per frame before the modulation engine runs and
+   * again before the mixer renders. Modulators and modulation settings have their
+   * own versions, which are recorded for each modulation. Ordinary parameter changes
+   * do not invalidate memos, so repeated getValue() calls in the inner loop of a
+   * pattern only compare a few fields. A parameter that is a modulation source and
+   * is changed while the mixer renders takes effect on its targets from the next
+   * frame, changes to a parameter's own base value are always seen immediately.
+   * Immutable so that it may be shared by channels rendering on different threads.
+   */
+  private static final class Memo {
+
+    private final long epoch;
+    private final int settings;
+    private final long[] versions;
+    private final double base;
+    private final double normalized;
+    private final double value;
+
+    private Memo(long epoch, int settings, long[] versions, double base, double normalized, double value) {
+      this.epoch = epoch;
+      this.settings = settings;
+      this.versions = versions;
+      this.base = base;
+      this.normalized = normalized;
+      this.value = value;
+    }
+
+    private boolean isCurrent(List<LXCompoundModulation> modulations) {
+      if (modulations.size() != this.versions.length) {
+        return false;
+      }
+      for (int i = 0; i < this.versions.length; ++i) {
+        if (getVersion(modulations.get(i)) != this.versions[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Version of a modulation's settings and its source value. Both only ever count up,
+   * so the sum changes whenever either does. Changes to parameter sources are picked
+   * up by the engine's modulation epoch instead.
+   */
+  private static long getVersion(LXCompoundModulation modulation) {
+    final LXNormalizedParameter source = modulation.source;
+    long version = modulation.getVersion();
+    if (source instanceof LXModulator modulator) {
+      version += modulator.getValueVersion();
+    } else if (source instanceof NormalizedParameter parameter) {
+      version += parameter.getValueVersion();
+    }
+    return version;
+  }
+
+  private volatile Memo memo = null;
+
+  /**
+   * Whether all of the modulation sources are of a type whose changes are tracked
+   * by the memo, e.g. a FunctionalParameter source may change at any time
+   */
+  private boolean memoizable = true;
+
+  /**
+   * Version of the settings of this parameter which modulated values depend upon
+   */
+  private volatile int settingsVersion = 0;
+
   // Thread-safe list here since UI may draw these while engine modifies them
   private final LXEngineThreadArrayList<LXCompoundModulation> mutableModulations =
     new LXEngineThreadArrayList<LXCompoundModulation>();
@@ -116,6 +191,7 @@ public class CompoundParameter extends BoundedParameter implements LXCompoundMod
   @Override
   public CompoundParameter setWrappable(boolean wrappable) {
     super.setWrappable(wrappable);
+    ++this.settingsVersion;
     return this;
   }
 
@@ -140,12 +216,14 @@ public class CompoundParameter extends BoundedParameter implements LXCompoundMod
   @Override
   public CompoundParameter setExponent(double exponent) {
     super.setExponent(exponent);
+    ++this.settingsVersion;
     return this;
   }
 
   @Override
   public CompoundParameter setNormalizationCurve(NormalizationCurve curve) {
     super.setNormalizationCurve(curve);
+    ++this.settingsVersion;
     return this;
   }
 
@@ -195,6 +273,7 @@ public class CompoundParameter extends BoundedParameter implements LXCompoundMod
       throw new IllegalStateException("Cannot add same modulation twice");
     }
     this.mutableModulations.add(modulation);
+    updateMemoizable();
     for (LXCompoundModulation.Listener listener : this.modulationListeners) {
       listener.modulationAdded(this, modulation);
     }
@@ -211,6 +290,7 @@ public class CompoundParameter extends BoundedParameter implements LXCompoundMod
   @Override
   public CompoundParameter removeModulation(LXCompoundModulation modulation) {
     this.mutableModulations.remove(modulation);
+    updateMemoizable();
     for (LXCompoundModulation.Listener listener : this.modulationListeners) {
       listener.modulationRemoved(this, modulation);
     }
@@ -218,6 +298,64 @@ public class CompoundParameter extends BoundedParameter implements LXCompoundMod
     return this;
   }
 
+  private void updateMemoizable() {
+    boolean memoizable = true;
+    for (LXCompoundModulation modulation : this.mutableModulations) {
+      final LXNormalizedParameter source = modulation.source;
+      if (!(source instanceof LXListenableParameter) &&
+          !(source instanceof LXModulator) &&
+          !(source instanceof NormalizedParameter)) {
+        memoizable = false;
+        break;
+      }
+    }
+    this.memoizable = memoizable;
+    ++this.settingsVersion;
+  }
+
+  /**
+   * Computes the modulated normalized and real values, or reuses them if nothing
+   * they depend on has changed since they were last computed
+   *
+   * @return Memoized values, or null if they cannot be memoized
+   */
+  private Memo memoize() {
+    if (!this.memoizable) {
+      return null;
+    }
+    final LXComponent parent = getParent();
+    final LX lx = (parent != null) ? parent.getLX() : null;
+    if ((lx == null) || (lx.engine == null)) {
+      return null;
+    }
+    final long epoch = lx.engine.getModulationEpoch();
+    final int settings = this.settingsVersion;
+    final double base = getBaseValue();
+    Memo memo = this.memo;
+    if ((memo == null) ||
+        (memo.epoch != epoch) ||
+        (memo.settings != settings) ||
+        (memo.base != base) ||
+        !memo.isCurrent(this.modulations)) {
+      // Versions are captured before computing, if a source changes in the
+      // meantime the memo is stored under the older version and recomputed
+      final long[] versions = new long[this.modulations.size()];
+      for (int i = 0; i < versions.length; ++i) {
+        versions[i] = getVersion(this.modulations.get(i));
+      }
+      final double normalized = getNormalizedWithModulation(getBaseNormalized(), this.modulations);
+      this.memo = memo = new Memo(
+        epoch,
+        settings,
+        versions,
+        base,
+        normalized,
+        this.range.normalizedToValue(normalized, getExponent(), getNormalizationCurve())
+      );
+    }
+    return memo;
+  }
+
   @Override
   public double getBaseValue() {
     return super.getValue();
@@ -230,6 +368,12 @@ public class CompoundParameter extends BoundedParameter implements LXCompoundMod
 
   @Override
   public double getNormalized() {
+    if (this.mutableModulations.size() > 0) {
+      final Memo memo = memoize();
+      if (memo != null) {
+        return memo.normalized;
+      }
+    }
     return getNormalizedWithModulation(getBaseNormalized(), this.modulations);
   }
 
@@ -238,6 +382,10 @@ public class CompoundParameter extends BoundedParameter implements LXCompoundMod
     if (this.mutableModulations.size() == 0) {
       return super.getValue();
     }
+    final Memo memo = memoize();
+    if (memo != null) {
+      return memo.value;
+    }
     return this.range.normalizedToValue(getNormalized(), getExponent(), getNormalizationCurve());
   }
 
@@ -219,6 +219,9 @@ public abstract class LXListenableParameter implements LXParameter {
         value = updateValue(value);
         if (this.value != value) {
           this.value = value;
+          if (this.parent != null) {
+            this.parent.markModified();
+          }
           if (notifyListeners) {
             this.inListener = true;
             this.listeners.forEach(l -> l.onParameterChanged(this));
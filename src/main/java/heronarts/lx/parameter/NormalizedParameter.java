@@ -31,6 +31,7 @@ public class NormalizedParameter implements LXNormalizedParameter {
   private final String label;
   private String description = null;
   private double value = 0;
+  private volatile long valueVersion = 0;
   private boolean mappable = true;
   private Formatter formatter = null;
 
@@ -103,16 +104,28 @@ public class NormalizedParameter implements LXNormalizedParameter {
 
   @Override
   public NormalizedParameter reset() {
-    this.value = 0;
-    return this;
+    return setValue(0);
   }
 
   @Override
   public NormalizedParameter setValue(double value) {
-    this.value = LXUtils.constrain(value, 0, 1);;
+    value = LXUtils.constrain(value, 0, 1);
+    if (this.value != value) {
+      this.value = value;
+      ++this.valueVersion;
+    }
     return this;
   }
 
+  /**
+   * Gets the number of times the value of this parameter has changed
+   *
+   * @return Version of the parameter value
+   */
+  public long getValueVersion() {
+    return this.valueVersion;
+  }
+
   @Override
   public double getValue() {
     return this.value;
@@ -30,6 +30,7 @@ import com.google.gson.JsonObject;
 import heronarts.lx.LX;
 import heronarts.lx.LXComponent;
 import heronarts.lx.LXDeviceComponent;
+import heronarts.lx.LXMetrics;
 import heronarts.lx.LXSerializable;
 import heronarts.lx.LXTime;
 import heronarts.lx.blend.LXBlend;
@@ -268,6 +269,8 @@ public abstract class LXPattern extends LXDeviceComponent implements LXComponent
 
   private boolean isActive = false;
 
+  private boolean isFullCoverage = false;
+
   public final Profiler profiler = new Profiler();
 
   public class Profiler {
@@ -514,6 +517,30 @@ public abstract class LXPattern extends LXDeviceComponent implements LXComponent
     }
   }
 
+  /**
+   * Declares whether this pattern sets the color of every point in its model on
+   * every frame. When such a pattern is the active pattern of a channel, the
+   * channel does not clear its buffer before running it, other than any points
+   * outside of the pattern's view. Patterns that only draw some points, or that
+   * build upon the existing contents of the buffer, must not declare this.
+   *
+   * @param fullCoverage Whether every point is set on every frame
+   * @return this
+   */
+  protected final LXPattern setFullCoverage(boolean fullCoverage) {
+    this.isFullCoverage = fullCoverage;
+    return this;
+  }
+
+  /**
+   * Whether this pattern sets the color of every point in its model on every frame
+   *
+   * @return True if the pattern has declared full coverage
+   */
+  public final boolean isFullCoverage() {
+    return this.isFullCoverage;
+  }
+
   /**
    * Sets whether this pattern is eligible for automatic selection.
    *
@@ -634,6 +661,7 @@ public abstract class LXPattern extends LXDeviceComponent implements LXComponent
     this.mutableEffects.remove(effect);
     this.mutableEffects.add(index, effect);
     _reindexEffects();
+    markModified();
     for (Listener listener : this.listeners) {
       listener.effectMoved(this, effect);
     }
@@ -676,6 +704,7 @@ public abstract class LXPattern extends LXDeviceComponent implements LXComponent
     this.runMs += deltaMs;
     this.run(deltaMs);
     this.profiler.runNanos = System.nanoTime() - runStart;
+    this.lx.engine.metrics.record(this, LXMetrics.Metric.RUN, this.profiler.runNanos);
   }
 
   @Override
@@ -689,6 +718,7 @@ public abstract class LXPattern extends LXDeviceComponent implements LXComponent
       }
     }
     this.profiler.effectNanos = System.nanoTime() - effectStart;
+    this.lx.engine.metrics.record(this, LXMetrics.Metric.EFFECT, this.profiler.effectNanos);
   }
 
   /**
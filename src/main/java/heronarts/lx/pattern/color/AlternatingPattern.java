@@ -60,6 +60,7 @@ public class AlternatingPattern extends LXPattern {
     addParameter("firstColor", this.firstColor);
     addParameter("secondColor", this.secondColor);
     addParameter("stripeLength", this.stripeLength);
+    setFullCoverage(true);
   }
 
   @Override
@@ -485,6 +485,7 @@ public class GradientPattern extends LXPattern {
     super(lx);
     this.engine = new Engine(lx);
     addParameters(this.engine.parameters);
+    setFullCoverage(true);
   }
 
   @Override
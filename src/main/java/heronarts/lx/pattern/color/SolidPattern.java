@@ -41,6 +41,7 @@ public class SolidPattern extends LXPattern {
     super(lx);
     this.color.setColor(color);
     addParameter("color", this.color);
+    setFullCoverage(true);
   }
 
   @Override
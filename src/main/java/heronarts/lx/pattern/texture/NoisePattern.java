@@ -335,6 +335,8 @@ public class NoisePattern extends LXPattern {
     addTransformParameter("pitch", this.pitch);
     addTransformParameter("roll", this.roll);
 
+    setFullCoverage(true);
+
     // Set the order of most useful control parameters
     setRemoteControls(
       this.scale,
@@ -18,6 +18,12 @@
 
 package heronarts.lx.structure;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 import heronarts.lx.utils.LXUtils;
 
 /**
@@ -329,41 +335,831 @@ public class Expression {
     };
   }
 
+  /**
+   * Values for the variables referenced by a compiled expression, addressed by slot
+   * index. An instance may be re-used across evaluations of any compiled expressions.
+   */
+  public static class Variables {
+
+    private float[] numbers = new float[0];
+    private boolean[] booleans = new boolean[0];
+    private boolean[] isBoolean = new boolean[0];
+
+    private void ensureCapacity(int slot) {
+      if (slot >= this.numbers.length) {
+        final int size = Math.max(slot + 1, 2 * this.numbers.length);
+        this.numbers = Arrays.copyOf(this.numbers, size);
+        this.booleans = Arrays.copyOf(this.booleans, size);
+        this.isBoolean = Arrays.copyOf(this.isBoolean, size);
+      }
+    }
+
+    public Variables setNumber(int slot, float number) {
+      ensureCapacity(slot);
+      this.numbers[slot] = number;
+      this.isBoolean[slot] = false;
+      return this;
+    }
+
+    public Variables setBoolean(int slot, boolean bool) {
+      ensureCapacity(slot);
+      this.booleans[slot] = bool;
+      this.isBoolean[slot] = true;
+      return this;
+    }
+  }
+
+  private static final Variables NO_VARIABLES = new Variables();
+
+  /**
+   * An expression that has been parsed once into a tree of operations, which may
+   * then be evaluated repeatedly without any string processing or allocation.
+   * Variable references of the form $name or ${name} are bound to slots, whose
+   * values are supplied at evaluation time.
+   *
+   * Evaluation gives the same results as text substitution of the variable values
+   * followed by evaluate(), including the rounding of parenthetical results.
+   */
+  public static class Compiled {
+
+    public final String expression;
+
+    private final Node root;
+
+    private final String[] variables;
+
+    private Compiled(String expression, Node root, String[] variables) {
+      this.expression = expression;
+      this.root = root;
+      this.variables = variables;
+    }
+
+    /**
+     * Number of distinct variables referenced by the expression
+     *
+     * @return Number of variable slots
+     */
+    public int getNumVariables() {
+      return this.variables.length;
+    }
+
+    /**
+     * Name of the variable bound to a slot
+     *
+     * @param slot Variable slot
+     * @return Variable name, without the $ prefix
+     */
+    public String getVariable(int slot) {
+      return this.variables[slot];
+    }
+
+    public float evaluateNumeric() {
+      return evaluateNumeric(NO_VARIABLES);
+    }
+
+    public float evaluateNumeric(Variables variables) {
+      return this.root.numeric(variables);
+    }
+
+    public boolean evaluateBoolean() {
+      return evaluateBoolean(NO_VARIABLES);
+    }
+
+    public boolean evaluateBoolean(Variables variables) {
+      return this.root.bool(variables);
+    }
+
+    @Override
+    public String toString() {
+      return this.expression;
+    }
+  }
+
+  private static final Pattern VARIABLE_PATTERN = Pattern.compile("\\$\\{?([a-zA-Z0-9]+)\\}?");
+
+  // Private-use characters delimit references to compiled nodes in the working string
+  private static final char NODE_START = '\uE000';
+  private static final char NODE_END = '\uE001';
+
+  /**
+   * Compiles an expression for repeated evaluation. Whitespace is ignored.
+   *
+   * @param expression Expression, which may contain $variable references
+   * @return Compiled expression
+   * @throws IllegalArgumentException If the expression is malformed
+   */
+  public static Compiled compile(String expression) {
+    final List<Node> nodes = new ArrayList<Node>();
+    final List<String> variables = new ArrayList<String>();
+    final StringBuilder str = new StringBuilder();
+    final Matcher matcher = VARIABLE_PATTERN.matcher(expression);
+    int index = 0;
+    while (matcher.find()) {
+      final String name = matcher.group(1);
+      int slot = variables.indexOf(name);
+      if (slot < 0) {
+        slot = variables.size();
+        variables.add(name);
+      }
+      str.append(expression, index, matcher.start());
+      appendNode(str, nodes, new Node.Variable(slot, name));
+      index = matcher.end();
+    }
+    str.append(expression, index, expression.length());
+    final String stripped = str.toString().replaceAll("\\s", "");
+    return new Compiled(expression, compile(stripped, nodes), variables.toArray(new String[0]));
+  }
+
+  private static void appendNode(StringBuilder str, List<Node> nodes, Node node) {
+    str.append(NODE_START).append(nodes.size()).append(NODE_END);
+    nodes.add(node);
+  }
+
+  /**
+   * Mirrors the structure of evaluate(), but builds nodes rather than computing a
+   * result. Wherever evaluate() would substitute the text of a parenthetical result,
+   * a reference to its compiled node is substituted instead.
+   */
+  private static Node compile(String expression, List<Node> nodes) {
+    expression = expression.trim();
+    if (expression.isEmpty()) {
+      throw new IllegalArgumentException("Cannot evaluate empty expression");
+    }
+
+    final char[] chars = expression.toCharArray();
+
+    // Parentheses pass
+    int openParen = -1;
+    for (int i = 0; i < chars.length; ++i) {
+      if (chars[i] == '(') {
+        openParen = i;
+      } else if (chars[i] == ')') {
+        if (openParen < 0) {
+          throw new IllegalArgumentException("Mismatched parentheses in expression: " + expression);
+        }
+        Node result = compile(expression.substring(openParen+1, i), nodes);
+        if ((openParen == 0) && (i == chars.length-1)) {
+          return result;
+        }
+
+        String left = expression.substring(0, openParen).trim();
+        for (SimpleFunction function : SimpleFunction.values()) {
+          final String name = function.name();
+          if (left.endsWith(name)) {
+            result = new Node.Function(function, result);
+            left = left.substring(0, left.length() - name.length()).trim();
+            break;
+          }
+        }
+
+        final String right = expression.substring(i + 1).trim();
+        if (left.isEmpty() && right.isEmpty()) {
+          return result;
+        }
+
+        // Substitute a rounded reference, list items are spliced individually
+        // just as their text would be
+        final StringBuilder str = new StringBuilder(left);
+        if (result instanceof Node.List list) {
+          boolean first = true;
+          for (Node item : list.items) {
+            if (!first) {
+              str.append(',');
+            }
+            first = false;
+            appendNode(str, nodes, new Node.Round(item));
+          }
+        } else {
+          appendNode(str, nodes, new Node.Round(result));
+        }
+        str.append(right);
+        return compile(str.toString(), nodes);
+      }
+    }
+
+    if (expression.indexOf(',') >= 0) {
+      final String[] parts = expression.split(",");
+      final Node[] items = new Node[parts.length];
+      int i = 0;
+      for (String part : parts) {
+        items[i++] = compile(part, nodes);
+      }
+      return new Node.List(items);
+    }
+
+    final int condition = expression.indexOf('?');
+    if (condition > 0) {
+      final int end = expression.lastIndexOf(':');
+      if (end <= condition) {
+        throw new IllegalArgumentException("Mismatched ternary conditional ?: in expression: " + expression);
+      }
+      return new Node.Ternary(
+        compile(expression.substring(0, condition), nodes),
+        compileLazy(expression.substring(condition+1, end), nodes),
+        compileLazy(expression.substring(end+1), nodes)
+      );
+    }
+
+    for (String[] operators : EXPRESSION_OPERATORS) {
+      int lastIndex = -1;
+      String operator = null;
+      for (String candidate : operators) {
+        int candidateIndex = _getOperatorIndex(expression, chars, candidate);
+        if (candidateIndex > lastIndex) {
+          operator = candidate;
+          lastIndex = candidateIndex;
+        }
+      }
+      if (operator != null) {
+        final Node left = compile(expression.substring(0, lastIndex), nodes);
+        final String rightExpression = expression.substring(lastIndex + operator.length());
+        final Node right = isLogical(operator) ? null : compile(rightExpression, nodes);
+        return switch (operator) {
+          case "&&", "&" -> new Node.And(left, compileLazy(rightExpression, nodes));
+          case "||", "|" -> new Node.Or(left, compileLazy(rightExpression, nodes));
+          case "<=", "<", ">=", ">", "==", "!=" -> new Node.Comparison(operator, left, right);
+          case "+", "-", "*", "/", "%", "^" -> new Node.Arithmetic(operator.charAt(0), left, right);
+          default -> throw new IllegalStateException("Unrecognized operator: " + operator);
+        };
+      }
+    }
+
+    final char unary = expression.charAt(0);
+    if (unary == '-') {
+      return new Node.Negate(compile(expression.substring(1), nodes));
+    } else if (unary == '!') {
+      return new Node.Not(compile(expression.substring(1), nodes));
+    }
+
+    // A lone reference to a compiled parenthetical or variable
+    if ((unary == NODE_START) && (expression.indexOf(NODE_END) == expression.length() - 1)) {
+      return nodes.get(Integer.parseInt(expression.substring(1, expression.length() - 1)));
+    }
+
+    return switch (expression.toLowerCase()) {
+      case "true" -> Node.Literal.TRUE;
+      case "false" -> Node.Literal.FALSE;
+      default -> new Node.Literal(Float.parseFloat(expression));
+    };
+  }
+
+  private static boolean isLogical(String operator) {
+    return switch (operator) {
+      case "&&", "&", "||", "|" -> true;
+      default -> false;
+    };
+  }
+
+  /**
+   * Compiles a portion of the expression that evaluate() only processes on demand,
+   * the right side of a logical operator or a ternary branch. If it is malformed the
+   * error is deferred until the portion is actually evaluated. Parentheticals within
+   * it are still evaluated by evaluate() in its first pass, so the branch keeps them
+   * to be checked when it is skipped.
+   */
+  private static Node.Branch compileLazy(String expression, List<Node> nodes) {
+    final List<Node> parentheticals = new ArrayList<Node>();
+    int start = expression.indexOf(NODE_START);
+    while (start >= 0) {
+      final int end = expression.indexOf(NODE_END, start);
+      final Node node = nodes.get(Integer.parseInt(expression.substring(start + 1, end)));
+      if (node instanceof Node.Round) {
+        parentheticals.add(node);
+      }
+      start = expression.indexOf(NODE_START, end);
+    }
+    Node node;
+    try {
+      node = compile(expression, nodes);
+    } catch (IllegalArgumentException iax) {
+      node = new Node.Invalid(iax);
+    }
+    return new Node.Branch(node, parentheticals.toArray(new Node[0]));
+  }
+
+  /**
+   * Rounds in the same manner as substituting the text of Result.Numeric.toString()
+   */
+  private static float round(float number) {
+    if (!Float.isFinite(number) || (Math.abs(number) >= 1e7f)) {
+      // Floats this large have no fractional precision to round
+      return number;
+    }
+    return (float) (Math.rint(number * 1e10) / 1e10);
+  }
+
+  private static abstract class Node {
+
+    float numeric(Variables variables) {
+      throw new IllegalArgumentException("Expected expression to be numeric: " + this);
+    }
+
+    boolean bool(Variables variables) {
+      throw new IllegalArgumentException("Expected expression to be boolean: " + this);
+    }
+
+    /**
+     * Evaluates the node as whichever type it produces, for the errors only. This
+     * is how evaluate() processes a parenthetical, before it knows how the result
+     * will be used.
+     */
+    abstract void check(Variables variables);
+
+    private static class Branch extends Node {
+
+      private final Node node;
+      private final Node[] parentheticals;
+
+      private Branch(Node node, Node[] parentheticals) {
+        this.node = node;
+        this.parentheticals = parentheticals;
+      }
+
+      @Override
+      float numeric(Variables variables) {
+        return this.node.numeric(variables);
+      }
+
+      @Override
+      boolean bool(Variables variables) {
+        return this.node.bool(variables);
+      }
+
+      @Override
+      void check(Variables variables) {
+        this.node.check(variables);
+      }
+
+      /**
+       * Invoked when the branch is not taken, evaluate() would still have
+       * evaluated any parentheticals within it
+       */
+      void skip(Variables variables) {
+        for (Node parenthetical : this.parentheticals) {
+          parenthetical.check(variables);
+        }
+      }
+
+      @Override
+      public String toString() {
+        return this.node.toString();
+      }
+    }
+
+    private static class Literal extends Node {
+
+      private static final Literal TRUE = new Literal(true);
+      private static final Literal FALSE = new Literal(false);
+
+      private final boolean isBoolean;
+      private final float number;
+      private final boolean bool;
+
+      private Literal(float number) {
+        this.isBoolean = false;
+        this.number = number;
+        this.bool = false;
+      }
+
+      private Literal(boolean bool) {
+        this.isBoolean = true;
+        this.number = 0;
+        this.bool = bool;
+      }
+
+      @Override
+      float numeric(Variables variables) {
+        return this.isBoolean ? super.numeric(variables) : this.number;
+      }
+
+      @Override
+      boolean bool(Variables variables) {
+        return this.isBoolean ? this.bool : super.bool(variables);
+      }
+
+      @Override
+      void check(Variables variables) {}
+
+      @Override
+      public String toString() {
+        return this.isBoolean ? String.valueOf(this.bool) : String.valueOf(this.number);
+      }
+    }
+
+    private static class Invalid extends Node {
+
+      private final IllegalArgumentException error;
+
+      private Invalid(IllegalArgumentException error) {
+        this.error = error;
+      }
+
+      @Override
+      float numeric(Variables variables) {
+        throw this.error;
+      }
+
+      @Override
+      boolean bool(Variables variables) {
+        throw this.error;
+      }
+
+      @Override
+      void check(Variables variables) {
+        throw this.error;
+      }
+
+      @Override
+      public String toString() {
+        return "<" + this.error.getMessage() + ">";
+      }
+    }
+
+    private static class Variable extends Node {
+
+      private final int slot;
+      private final String name;
+
+      private Variable(int slot, String name) {
+        this.slot = slot;
+        this.name = name;
+      }
+
+      @Override
+      float numeric(Variables variables) {
+        if ((this.slot >= variables.numbers.length) || variables.isBoolean[this.slot]) {
+          return super.numeric(variables);
+        }
+        return variables.numbers[this.slot];
+      }
+
+      @Override
+      boolean bool(Variables variables) {
+        if ((this.slot >= variables.numbers.length) || !variables.isBoolean[this.slot]) {
+          return super.bool(variables);
+        }
+        return variables.booleans[this.slot];
+      }
+
+      @Override
+      void check(Variables variables) {}
+
+      @Override
+      public String toString() {
+        return "$" + this.name;
+      }
+    }
+
+    private static class Round extends Node {
+
+      private final Node node;
+
+      private Round(Node node) {
+        this.node = node;
+      }
+
+      @Override
+      float numeric(Variables variables) {
+        return round(this.node.numeric(variables));
+      }
+
+      @Override
+      boolean bool(Variables variables) {
+        return this.node.bool(variables);
+      }
+
+      @Override
+      void check(Variables variables) {
+        this.node.check(variables);
+      }
+
+      @Override
+      public String toString() {
+        return "(" + this.node + ")";
+      }
+    }
+
+    private static class List extends Node {
+
+      private final Node[] items;
+
+      private List(Node[] items) {
+        this.items = items;
+      }
+
+      @Override
+      void check(Variables variables) {
+        for (Node item : this.items) {
+          item.check(variables);
+        }
+      }
+
+      @Override
+      public String toString() {
+        final StringBuilder str = new StringBuilder();
+        for (int i = 0; i < this.items.length; ++i) {
+          if (i > 0) {
+            str.append(',');
+          }
+          str.append(this.items[i]);
+        }
+        return str.toString();
+      }
+    }
+
+    private static class Function extends Node {
+
+      private final SimpleFunction function;
+      private final Node a, b, c;
+
+      private Function(SimpleFunction function, Node args) {
+        final Node[] items = (args instanceof List list) ? list.items : new Node[] { args };
+        if (function.numArgs != items.length) {
+          throw new IllegalArgumentException("Function " + function.name() + " expects " + function.numArgs + " arguments, was given " + items.length);
+        }
+        this.function = function;
+        this.a = items[0];
+        this.b = (items.length > 1) ? items[1] : null;
+        this.c = (items.length > 2) ? items[2] : null;
+      }
+
+      @Override
+      float numeric(Variables variables) {
+        return this.function.compute.compute(
+          this.a.numeric(variables),
+          (this.b != null) ? this.b.numeric(variables) : 0,
+          (this.c != null) ? this.c.numeric(variables) : 0
+        );
+      }
+
+      @Override
+      void check(Variables variables) {
+        numeric(variables);
+      }
+
+      @Override
+      public String toString() {
+        return this.function.name() + "(" + this.a + ((this.b != null) ? "," + this.b : "") + ((this.c != null) ? "," + this.c : "") + ")";
+      }
+    }
+
+    private static class Ternary extends Node {
+
+      private final Node condition;
+      private final Branch ifTrue, ifFalse;
+
+      private Ternary(Node condition, Branch ifTrue, Branch ifFalse) {
+        this.condition = condition;
+        this.ifTrue = ifTrue;
+        this.ifFalse = ifFalse;
+      }
+
+      private Branch select(Variables variables) {
+        if (this.condition.bool(variables)) {
+          this.ifFalse.skip(variables);
+          return this.ifTrue;
+        }
+        this.ifTrue.skip(variables);
+        return this.ifFalse;
+      }
+
+      @Override
+      float numeric(Variables variables) {
+        return select(variables).numeric(variables);
+      }
+
+      @Override
+      boolean bool(Variables variables) {
+        return select(variables).bool(variables);
+      }
+
+      @Override
+      void check(Variables variables) {
+        select(variables).check(variables);
+      }
+
+      @Override
+      public String toString() {
+        return this.condition + "?" + this.ifTrue + ":" + this.ifFalse;
+      }
+    }
+
+    private static class And extends Node {
+
+      private final Node left;
+      private final Branch right;
+
+      private And(Node left, Branch right) {
+        this.left = left;
+        this.right = right;
+      }
+
+      @Override
+      boolean bool(Variables variables) {
+        if (!this.left.bool(variables)) {
+          this.right.skip(variables);
+          return false;
+        }
+        return this.right.bool(variables);
+      }
+
+      @Override
+      void check(Variables variables) {
+        bool(variables);
+      }
+
+      @Override
+      public String toString() {
+        return this.left + "&&" + this.right;
+      }
+    }
+
+    private static class Or extends Node {
+
+      private final Node left;
+      private final Branch right;
+
+      private Or(Node left, Branch right) {
+        this.left = left;
+        this.right = right;
+      }
+
+      @Override
+      boolean bool(Variables variables) {
+        if (this.left.bool(variables)) {
+          this.right.skip(variables);
+          return true;
+        }
+        return this.right.bool(variables);
+      }
+
+      @Override
+      void check(Variables variables) {
+        bool(variables);
+      }
+
+      @Override
+      public String toString() {
+        return this.left + "||" + this.right;
+      }
+    }
+
+    private static class Not extends Node {
+
+      private final Node node;
+
+      private Not(Node node) {
+        this.node = node;
+      }
+
+      @Override
+      boolean bool(Variables variables) {
+        return !this.node.bool(variables);
+      }
+
+      @Override
+      void check(Variables variables) {
+        bool(variables);
+      }
+
+      @Override
+      public String toString() {
+        return "!" + this.node;
+      }
+    }
+
+    private static class Negate extends Node {
+
+      private final Node node;
+
+      private Negate(Node node) {
+        this.node = node;
+      }
+
+      @Override
+      float numeric(Variables variables) {
+        return -this.node.numeric(variables);
+      }
+
+      @Override
+      void check(Variables variables) {
+        numeric(variables);
+      }
+
+      @Override
+      public String toString() {
+        return "-" + this.node;
+      }
+    }
+
+    private static class Comparison extends Node {
+
+      private final String operator;
+      private final Node left, right;
+
+      private Comparison(String operator, Node left, Node right) {
+        this.operator = operator;
+        this.left = left;
+        this.right = right;
+      }
+
+      @Override
+      boolean bool(Variables variables) {
+        final float left = this.left.numeric(variables);
+        final float right = this.right.numeric(variables);
+        return switch (this.operator) {
+          case "<=" -> left <= right;
+          case "<" -> left < right;
+          case ">=" -> left >= right;
+          case ">" -> left > right;
+          case "==" -> left == right;
+          default -> left != right;
+        };
+      }
+
+      @Override
+      void check(Variables variables) {
+        bool(variables);
+      }
+
+      @Override
+      public String toString() {
+        return this.left + this.operator + this.right;
+      }
+    }
+
+    private static class Arithmetic extends Node {
+
+      private final char operator;
+      private final Node left, right;
+
+      private Arithmetic(char operator, Node left, Node right) {
+        this.operator = operator;
+        this.left = left;
+        this.right = right;
+      }
+
+      @Override
+      float numeric(Variables variables) {
+        final float left = this.left.numeric(variables);
+        final float right = this.right.numeric(variables);
+        return switch (this.operator) {
+          case '+' -> left + right;
+          case '-' -> left - right;
+          case '*' -> left * right;
+          case '/' -> left / right;
+          case '%' -> left % right;
+          default -> (float) Math.pow(left, right);
+        };
+      }
+
+      @Override
+      void check(Variables variables) {
+        numeric(variables);
+      }
+
+      @Override
+      public String toString() {
+        return this.left + String.valueOf(this.operator) + this.right;
+      }
+    }
+  }
+
   private enum SimpleFunction {
-    acos(1, f -> { return (float) Math.toDegrees(Math.acos(f[0])); }),
-    asin(1, f -> { return (float) Math.toDegrees(Math.asin(f[0])); }),
-    atan(1, f -> { return (float) Math.toDegrees(Math.atan(f[0])); }),
-    atan2(2, f -> { return (float) Math.toDegrees(Math.atan2(f[0], f[1])); }),
-    atan2p(2, f -> { return (float) Math.toDegrees(LXUtils.atan2pf(f[0], f[1])); }),
+    acos(1, (a, b, c) -> (float) Math.toDegrees(Math.acos(a))),
+    asin(1, (a, b, c) -> (float) Math.toDegrees(Math.asin(a))),
+    atan(1, (a, b, c) -> (float) Math.toDegrees(Math.atan(a))),
+    atan2(2, (a, b, c) -> (float) Math.toDegrees(Math.atan2(a, b))),
+    atan2p(2, (a, b, c) -> (float) Math.toDegrees(LXUtils.atan2pf(a, b))),
 
     // NB: it's critical that cos/sin/tan come *after* asin/acos/atan so that
     // they are not mistaken for the above when checking for functions, since
     // str.endsWidth("cos") is true when str.endsWidth("acos") is true
-    cos(1, f -> { return LXUtils.cosf(Math.toRadians(f[0])); }),
-    sin(1, f -> { return LXUtils.sinf(Math.toRadians(f[0])); }),
-    tan(1, f -> { return LXUtils.tanf(Math.toRadians(f[0])); }),
-
-    abs(1, f -> { return Math.abs(f[0]); }),
-    avg(2, f -> { return 0.5f * (f[0] + f[1]); }),
-    cbrt(1, f -> { return (float) Math.cbrt(f[0]); }),
-    ceil(1, f -> { return (float) Math.ceil(f[0]); }),
-    clamp(3, f -> { return LXUtils.clampf(f[0], f[1], f[2]); }),
-    deg(1, f -> { return (float) Math.toDegrees(f[0]); }),
-    exp(1, f -> { return (float) Math.exp(f[0]); }),
-    floor(1, f -> { return (float) Math.floor(f[0]); }),
-    ilerp(3, f -> { return LXUtils.ilerpf(f[0], f[1], f[2]); }),
-    lerp(3, f -> { return LXUtils.lerpf(f[0], f[1], f[2]); }),
-    log(1, f -> { return (float) Math.log(f[0]); }),
-    log10(1, f -> { return (float) Math.log10(f[0]); }),
-    max(2, f -> { return Math.max(f[0], f[1]); }),
-    min(2, f -> { return Math.min(f[0], f[1]); }),
-    pow(2, f -> { return (float) Math.pow(f[0], f[1]); }),
-    rad(1, f -> { return (float) Math.toRadians(f[0]); }),
-    round(1, f -> { return Math.round(f[0]); }),
-    sqrt(1, f -> { return (float) Math.sqrt(f[0]); });
+    cos(1, (a, b, c) -> LXUtils.cosf(Math.toRadians(a))),
+    sin(1, (a, b, c) -> LXUtils.sinf(Math.toRadians(a))),
+    tan(1, (a, b, c) -> LXUtils.tanf(Math.toRadians(a))),
+
+    abs(1, (a, b, c) -> Math.abs(a)),
+    avg(2, (a, b, c) -> 0.5f * (a + b)),
+    cbrt(1, (a, b, c) -> (float) Math.cbrt(a)),
+    ceil(1, (a, b, c) -> (float) Math.ceil(a)),
+    clamp(3, (a, b, c) -> LXUtils.clampf(a, b, c)),
+    deg(1, (a, b, c) -> (float) Math.toDegrees(a)),
+    exp(1, (a, b, c) -> (float) Math.exp(a)),
+    floor(1, (a, b, c) -> (float) Math.floor(a)),
+    ilerp(3, (a, b, c) -> LXUtils.ilerpf(a, b, c)),
+    lerp(3, (a, b, c) -> LXUtils.lerpf(a, b, c)),
+    log(1, (a, b, c) -> (float) Math.log(a)),
+    log10(1, (a, b, c) -> (float) Math.log10(a)),
+    max(2, (a, b, c) -> Math.max(a, b)),
+    min(2, (a, b, c) -> Math.min(a, b)),
+    pow(2, (a, b, c) -> (float) Math.pow(a, b)),
+    rad(1, (a, b, c) -> (float) Math.toRadians(a)),
+    round(1, (a, b, c) -> Math.round(a)),
+    sqrt(1, (a, b, c) -> (float) Math.sqrt(a));
 
     private interface Compute {
-      public float compute(float ... f);
+      public float compute(float a, float b, float c);
     }
 
     private final int numArgs;
@@ -380,7 +1176,7 @@ public class Expression {
         if (this.numArgs != list.results.length) {
           throw new IllegalArgumentException("Function " + name() + " expects " + this.numArgs + " arguments, was given " + list.results.length);
         }
-        final float[] args = new float[list.results.length];
+        final float[] args = new float[3];
         int a = 0;
         for (Result<?> arg : list.results) {
           if (arg instanceof Result.Numeric numeric) {
@@ -389,14 +1185,14 @@ public class Expression {
             throw new IllegalArgumentException("Function " + name() + " requires numeric arguments, was passed " + arg);
           }
         }
-        return new Result.Numeric(this.compute.compute(args));
+        return new Result.Numeric(this.compute.compute(args[0], args[1], args[2]));
       }
 
       case Result.Numeric numeric -> {
         if (this.numArgs != 1) {
           throw new IllegalArgumentException("Function " + name() + " expects " + this.numArgs + " arguments, was given 1");
         }
-        return new Result.Numeric(this.compute.compute(numeric.number));
+        return new Result.Numeric(this.compute.compute(numeric.number, 0, 0));
       }
 
       default -> throw new IllegalArgumentException("Function " + name() + " expects numeric arguments, was passed " + result);
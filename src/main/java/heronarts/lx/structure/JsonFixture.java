@@ -20,6 +20,7 @@ package heronarts.lx.structure;
 
 import java.io.File;
 import java.io.FileReader;
+import java.io.IOException;
 import java.lang.reflect.Method;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
@@ -31,6 +32,7 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -653,6 +655,13 @@ public class JsonFixture extends LXFixture {
   private int currentNumInstances = -1;
   private int currentChildInstance = -1;
 
+  // Compiled expressions are shared by all fixtures, keyed by the raw expression
+  // string from the fixture file, variables are bound at evaluation time
+  private static final int MAX_COMPILED_EXPRESSIONS = 8192;
+  private static final Map<String, Expression.Compiled> compiledExpressions = new ConcurrentHashMap<String, Expression.Compiled>();
+
+  private final Expression.Variables expressionVariables = new Expression.Variables();
+
   public JsonFixture(LX lx) {
     this(lx, null);
   }
@@ -781,6 +790,43 @@ public class JsonFixture extends LXFixture {
     return _getMeshFile(meshType);
   }
 
+  /**
+   * A parsed fixture file, along with the file state it was parsed from
+   */
+  private record Definition(long lastModified, long length, JsonObject obj) {}
+
+  // Parsed fixture files are shared by every instance of a fixture type, including
+  // sub-fixture includes. The parsed trees must be treated as immutable by the
+  // loading code, which only evaluates the parameterized parts per instance.
+  private static final Map<String, Definition> definitionCache = new ConcurrentHashMap<String, Definition>();
+
+  private static final Gson GSON = new Gson();
+
+  /**
+   * Gets the parsed contents of a fixture file, re-using a previous parse if the file
+   * has not been modified since
+   *
+   * @param fixtureFile Fixture file
+   * @return Parsed JSON object for the file, which must not be modified
+   * @throws IOException If the file could not be read
+   */
+  private static JsonObject loadDefinition(File fixtureFile) throws IOException {
+    final String key = fixtureFile.getAbsolutePath();
+    final long lastModified = fixtureFile.lastModified();
+    final long length = fixtureFile.length();
+    final Definition definition = definitionCache.get(key);
+    if ((definition != null) && (definition.lastModified == lastModified) && (definition.length == length)) {
+      return definition.obj;
+    }
+    try (FileReader fr = new FileReader(fixtureFile)) {
+      final JsonObject obj = GSON.fromJson(fr, JsonObject.class);
+      if (obj != null) {
+        definitionCache.put(key, new Definition(lastModified, length, obj));
+      }
+      return obj;
+    }
+  }
+
   private File getFixtureFile(String fixtureType) {
     return this.lx.getMediaFile(LX.Media.FIXTURES, fixtureType.replace(PATH_SEPARATOR, File.separator) + ".lxf", false);
   }
@@ -802,8 +848,8 @@ public class JsonFixture extends LXFixture {
       return;
     }
 
-    try (FileReader fr = new FileReader(fixtureFile)) {
-      JsonObject obj = new Gson().fromJson(fr, JsonObject.class);
+    try {
+      final JsonObject obj = loadDefinition(fixtureFile);
 
       if (loadParameters) {
         loadLabel(obj);
@@ -962,13 +1008,79 @@ public class JsonFixture extends LXFixture {
     return result.toString();
   }
 
-  private float evaluateVariableExpression(JsonObject obj, String key, String expression, ParameterType type) {
-    String substitutedExpression = replaceVariables(key, expression, type);
-    if (substitutedExpression == null) {
-      return 0;
+  private static Expression.Compiled compileExpression(String expression) {
+    Expression.Compiled compiled = compiledExpressions.get(expression);
+    if (compiled == null) {
+      if (compiledExpressions.size() >= MAX_COMPILED_EXPRESSIONS) {
+        compiledExpressions.clear();
+      }
+      compiled = Expression.compile(expression);
+      compiledExpressions.put(expression, compiled);
+    }
+    return compiled;
+  }
+
+  /**
+   * Binds the values of the variables referenced by a compiled expression, following
+   * the same rules as replaceVariables()
+   *
+   * @param key Key being evaluated, for warnings
+   * @param compiled Compiled expression
+   * @param returnType Type of value the expression is loaded into
+   * @return true if all variables were bound, false if a warning was raised
+   */
+  private boolean bindVariables(String key, Expression.Compiled compiled, ParameterType returnType) {
+    final Expression.Variables variables = this.expressionVariables;
+    for (int slot = 0; slot < compiled.getNumVariables(); ++slot) {
+      final String parameterName = compiled.getVariable(slot);
+      if (KEY_INSTANCE.equals(parameterName) || KEY_INSTANCES.equals(parameterName)) {
+        if (returnType == ParameterType.BOOLEAN) {
+          addWarning("Cannot load non-boolean parameter $" + parameterName + " into a boolean type: " + key);
+          return false;
+        }
+        if (KEY_INSTANCE.equals(parameterName)) {
+          if (this.currentChildInstance < 0) {
+            addWarning("Cannot reference variable $" + parameterName + " when \"" + KEY_INSTANCES + "\" has not been declared");
+            return false;
+          }
+          variables.setNumber(slot, this.currentChildInstance);
+        } else {
+          variables.setNumber(slot, this.currentNumInstances);
+        }
+        continue;
+      }
+
+      final ParameterDefinition parameter = this.definedParameters.get(parameterName);
+      if (parameter == null) {
+        addWarning("Illegal reference in " + key + ", there is no parameter: " + parameterName);
+        return false;
+      }
+      parameter.isReferenced = true;
+
+      if (parameter.type == ParameterType.BOOLEAN) {
+        variables.setBoolean(slot, parameter.booleanParameter.isOn());
+      } else if ((returnType != ParameterType.BOOLEAN) && (parameter.type == ParameterType.FLOAT)) {
+        variables.setNumber(slot, (float) parameter.floatParameter.getValue());
+      } else if ((returnType != ParameterType.BOOLEAN) && (parameter.type == ParameterType.INT)) {
+        variables.setNumber(slot, parameter.intParameter.getValuei());
+      } else if (returnType == ParameterType.BOOLEAN) {
+        addWarning("Cannot load non-boolean parameter $" + parameterName + " into a boolean type: " + key);
+        return false;
+      } else {
+        addWarning("Cannot load non-numeric parameter $" + parameterName + " into " + ((returnType == ParameterType.INT) ? "an integer" : "a float") + " type: " + key);
+        return false;
+      }
     }
+    return true;
+  }
+
+  private float evaluateVariableExpression(JsonObject obj, String key, String expression, ParameterType type) {
     try {
-      float value = Expression.evaluateNumeric(substitutedExpression.replaceAll("\\s", ""));
+      final Expression.Compiled compiled = compileExpression(expression);
+      if (!bindVariables(key, compiled, type)) {
+        return 0;
+      }
+      float value = compiled.evaluateNumeric(this.expressionVariables);
       if (Float.isNaN(value)) {
         addWarning("Variable expression produces NaN: " + expression);
         return 0;
@@ -986,12 +1098,12 @@ public class JsonFixture extends LXFixture {
   }
 
   private boolean evaluateBooleanExpression(JsonObject obj, String key, String expression) {
-    String substitutedExpression = replaceVariables(key, expression, ParameterType.BOOLEAN);
-    if (substitutedExpression == null) {
-      return false;
-    }
     try {
-      return Expression.evaluateBoolean(substitutedExpression.replaceAll("\\s", ""));
+      final Expression.Compiled compiled = compileExpression(expression);
+      if (!bindVariables(key, compiled, ParameterType.BOOLEAN)) {
+        return false;
+      }
+      return compiled.evaluateBoolean(this.expressionVariables);
     } catch (Exception x) {
       addWarning("Bad formatting in boolean expression: " + expression);
       x.printStackTrace();
@@ -1785,7 +1897,8 @@ public class JsonFixture extends LXFixture {
     try {
       LXFixture fixture = this.lx.instantiateFixture(className);
       if (nativeObj.has(KEY_PARAMETERS)) {
-        JsonObject paramsObj = nativeObj.get(KEY_PARAMETERS).getAsJsonObject();
+        // Copy, substituted values are written back and the definition is shared
+        JsonObject paramsObj = nativeObj.get(KEY_PARAMETERS).getAsJsonObject().deepCopy();
         fixture.isLoading = true;
         for (LXParameter parameter : fixture.getParameters()) {
           if (parameter instanceof AggregateParameter) {
@@ -1853,6 +1966,10 @@ public class JsonFixture extends LXFixture {
   }
 
   private void loadChild(JsonObject childObj) {
+    loadChild(childObj, true);
+  }
+
+  private void loadChild(JsonObject childObj, boolean allowInstances) {
     if (!childObj.has(KEY_TYPE)) {
       addWarning("Child object must specify type");
       return;
@@ -1870,7 +1987,7 @@ public class JsonFixture extends LXFixture {
       }
     }
 
-    if (childObj.has(KEY_INSTANCES)) {
+    if (allowInstances && childObj.has(KEY_INSTANCES)) {
 
       int numInstances = loadInt(childObj, KEY_INSTANCES, true, "Child object must specify positive number of instances");
       if (numInstances <= 0) {
@@ -1882,13 +1999,12 @@ public class JsonFixture extends LXFixture {
         return;
       }
 
-      // Load this child N times with an instance variable set
+      // Load this child N times with an instance variable set, every instance
+      // shares the same definition object
       this.currentNumInstances = numInstances;
       for (int i = 0; i < numInstances; ++i) {
         this.currentChildInstance = i;
-        JsonObject instanceObj = childObj.deepCopy();
-        instanceObj.remove(KEY_INSTANCES);
-        loadChild(instanceObj);
+        loadChild(childObj, false);
       }
       this.currentNumInstances = -1;
       this.currentChildInstance = -1;
@@ -2554,9 +2670,7 @@ public class JsonFixture extends LXFixture {
           this.currentNumInstances = numInstances;
           for (int i = 0; i < numInstances; ++i) {
             this.currentChildInstance = i;
-            JsonObject instanceObj = vertexObj.deepCopy();
-            instanceObj.remove(KEY_INSTANCES);
-            loadUIVertex(instanceObj, vertices);
+            loadUIVertex(vertexObj, vertices);
           }
           this.currentNumInstances = -1;
           this.currentChildInstance = -1;
@@ -709,6 +709,7 @@ public abstract class LXFixture extends LXComponent implements LXFixtureContaine
       } else if (this.deactivate == p) {
         this.container.fixtureGenerationChanged(this);
       } else if (this.tagParameters.contains(p)) {
+        invalidateModel();
         this.container.fixtureTagsChanged(this);
       }
     }
@@ -717,6 +718,9 @@ public abstract class LXFixture extends LXComponent implements LXFixtureContaine
         this.lx.structure.soloFixture(this);
       }
     }
+    if ((p == this.mute) || (p == this.solo) || (p == this.identify) || (p == this.deactivate)) {
+      this.lx.structure.fixtureMaskChanged();
+    }
   }
 
   protected void regenerateOutputs() {
@@ -849,7 +853,7 @@ public abstract class LXFixture extends LXComponent implements LXFixtureContaine
     }
 
     // A new model will have to be created, forget these points
-    this.model = null;
+    invalidateModel();
     this.modelPoints.clear();
 
     // Chance for subclasses to do custom prep work
@@ -869,6 +873,17 @@ public abstract class LXFixture extends LXComponent implements LXFixtureContaine
     }
   }
 
+  /**
+   * Discards the model for this fixture and any fixtures containing it, so that
+   * they are rebuilt on the next structure regeneration rather than re-used.
+   */
+  private void invalidateModel() {
+    this.model = null;
+    if (this.container instanceof LXFixture parent) {
+      parent.invalidateModel();
+    }
+  }
+
   /**
    * Subclasses may override this method to do custom preparation work before
    * {@link #computeGeometryMatrix(LXMatrix)} is called.
@@ -970,9 +985,10 @@ public abstract class LXFixture extends LXComponent implements LXFixtureContaine
    * be called by LXStructure. Subclasses should not use.
    *
    * @param startIndex Buffer index for the start of this fixture
+   * @return Whether the index of any point in this fixture changed
    */
-  final void reindex(int startIndex) {
-    _reindex(startIndex);
+  final boolean reindex(int startIndex) {
+    return _reindex(startIndex);
   }
 
   // Internal private recursive implementation
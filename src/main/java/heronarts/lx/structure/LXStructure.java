@@ -25,6 +25,7 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.net.SocketException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -275,6 +276,16 @@ public class LXStructure extends LXComponent implements LXFixtureContainer {
     return this.modelFile;
   }
 
+  /**
+   * Returns the model generated from the fixtures in the structure. Note that while
+   * the engine is running and not paused, changes to fixture parameters do not
+   * regenerate the model immediately. They are applied once by the engine before the
+   * next frame is rendered, so the model returned here, and the models of the
+   * fixtures, may not yet reflect a parameter that was just set. Code on the engine
+   * thread that needs the changes applied at once may call regeneratePending().
+   *
+   * @return Model of the structure
+   */
   public LXModel getModel() {
     return this.model;
   }
@@ -419,6 +430,116 @@ public class LXStructure extends LXComponent implements LXFixtureContainer {
     return this;
   }
 
+  /**
+   * Point ranges affected by fixture mute, identify and solo state, precomputed so
+   * that the engine can apply them in one pass over the buffer rather than walking
+   * every fixture on every frame. Ranges are flat arrays of (start, num) pairs.
+   */
+  public static class FixtureMask {
+
+    private final LXModel model;
+
+    /**
+     * Ranges that are sent as black, from muted fixtures and everything outside of
+     * a soloed fixture
+     */
+    public final int[] black;
+
+    /**
+     * Ranges that show the identify color
+     */
+    public final int[] identify;
+
+    private FixtureMask(LXModel model, List<LXFixture> fixtures) {
+      this.model = model;
+
+      LXFixture soloFixture = null;
+      for (LXFixture fixture : fixtures) {
+        if (!fixture.deactivate.isOn() && fixture.solo.isOn() && (fixture.totalSize() > 0)) {
+          soloFixture = fixture;
+          break;
+        }
+      }
+
+      final List<int[]> black = new ArrayList<int[]>();
+      final List<int[]> identify = new ArrayList<int[]>();
+      if (soloFixture != null) {
+        final int soloStart = soloFixture.getIndexBufferOffset();
+        final int soloEnd = soloStart + soloFixture.totalSize();
+        black.add(new int[] { 0, soloStart });
+        black.add(new int[] { soloEnd, model.size - soloEnd });
+      }
+      for (LXFixture fixture : fixtures) {
+        if (fixture.deactivate.isOn()) {
+          // Does not apply to deactivated fixtures
+          continue;
+        }
+        if ((soloFixture != null) && (fixture != soloFixture)) {
+          // Already covered by the solo mask
+          continue;
+        }
+        final int start = fixture.getIndexBufferOffset();
+        final int num = fixture.totalSize();
+        if (fixture.mute.isOn()) {
+          black.add(new int[] { start, num });
+        } else if (fixture.identify.isOn()) {
+          identify.add(new int[] { start, num });
+        }
+      }
+      this.black = toRanges(black, model.size);
+      this.identify = toRanges(identify, model.size);
+    }
+
+    private static int[] toRanges(List<int[]> list, int size) {
+      // Sort and coalesce adjacent ranges, clipped to the model size
+      list.sort((r1, r2) -> Integer.compare(r1[0], r2[0]));
+      final int[] ranges = new int[2 * list.size()];
+      int n = 0;
+      for (int[] range : list) {
+        final int start = Math.max(0, range[0]);
+        final int end = Math.min(size, range[0] + range[1]);
+        if (end <= start) {
+          continue;
+        }
+        if ((n > 0) && (ranges[n-2] + ranges[n-1] >= start)) {
+          ranges[n-1] = Math.max(end, ranges[n-2] + ranges[n-1]) - ranges[n-2];
+        } else {
+          ranges[n++] = start;
+          ranges[n++] = end - start;
+        }
+      }
+      return Arrays.copyOf(ranges, n);
+    }
+
+    public boolean isEmpty() {
+      return (this.black.length == 0) && (this.identify.length == 0);
+    }
+  }
+
+  private volatile FixtureMask fixtureMask = null;
+
+  /**
+   * Invoked when a fixture's mute, identify, solo or deactivate state changes
+   */
+  void fixtureMaskChanged() {
+    this.fixtureMask = null;
+  }
+
+  /**
+   * Gets the precomputed fixture mask for the current model. This is only
+   * rebuilt when fixture state or the model changes.
+   *
+   * @return Fixture mask
+   */
+  public FixtureMask getFixtureMask() {
+    FixtureMask mask = this.fixtureMask;
+    final LXModel model = this.lx.getModel();
+    if ((mask == null) || (mask.model != model)) {
+      this.fixtureMask = mask = new FixtureMask(model, this.fixtures);
+    }
+    return mask;
+  }
+
   public List<LXFixture> getSelectedFixtures() {
     List<LXFixture> selected = new ArrayList<LXFixture>();
     for (LXFixture fixture : this.fixtures) {
@@ -651,19 +772,56 @@ public class LXStructure extends LXComponent implements LXFixtureContainer {
       }
     }
 
+    // Any pending fixture changes are covered by this regeneration. If geometry
+    // changed as well, the whole model is built again from new points.
+    final boolean geometryChanged = this.pendingGeometry;
+    this.pendingModel = false;
+    this.pendingGeometry = false;
+
+    // Fixture models are only rebuilt if the fixture itself changed or its points
+    // moved to different indices. Otherwise the existing model is adopted by the new
+    // root with its points untouched, since the previous root may still be in use by
+    // other threads. A model that is not part of the current root, e.g. that of a
+    // fixture that was deactivated, belongs to an older root and is disposed with it.
+    final LXModel previous = this.model;
     final LXModel[] submodels = new LXModel[activeFixtures];
+    final List<LXModel> rebuilt = new ArrayList<LXModel>();
     int pointIndex = 0;
     int fixtureIndex = 0;
     for (LXFixture fixture : this.fixtures) {
       if (!fixture.deactivate.isOn()) {
-        fixture.reindex(pointIndex);
-        LXModel fixtureModel = fixture.toModel();
+        final boolean reindexed = fixture.reindex(pointIndex);
+        LXModel fixtureModel = fixture.getModel();
+        if (geometryChanged ||
+            reindexed ||
+            (fixtureModel == null) ||
+            (fixtureModel.getParent() != previous) ||
+            (fixtureModel.size != fixture.totalSize())) {
+          fixtureModel = fixture.toModel();
+          rebuilt.add(fixtureModel);
+        }
         pointIndex += fixtureModel.size;
         submodels[fixtureIndex++] = fixtureModel;
       }
     }
 
-    this.model = new LXModel(submodels, generateManualNormalizationBounds()).normalizePoints();
+    this.model = new LXModel(submodels, generateManualNormalizationBounds());
+    if (geometryChanged) {
+      this.model.update(true, true);
+    } else if (!this.model.normalizePoints(previous, rebuilt)) {
+      // The bounds changed and adopted points would need normalizing again, they
+      // went back to the previous root so copy those fixtures as well
+      fixtureIndex = 0;
+      for (LXFixture fixture : this.fixtures) {
+        if (!fixture.deactivate.isOn()) {
+          if (submodels[fixtureIndex].getParent() == previous) {
+            submodels[fixtureIndex] = fixture.toModel();
+          }
+          ++fixtureIndex;
+        }
+      }
+      this.model = new LXModel(submodels, generateManualNormalizationBounds()).normalizePoints();
+    }
     this.modelListener.structureChanged(this.model);
 
     if (!fromLoad) {
@@ -675,6 +833,7 @@ public class LXStructure extends LXComponent implements LXFixtureContainer {
     if (this.isLoading) {
       return;
     }
+    this.pendingOutputs = false;
     if (this.output != null) {
       this.output.rebuildOutputs();
     }
@@ -686,28 +845,98 @@ public class LXStructure extends LXComponent implements LXFixtureContainer {
     fixtureGenerationChanged(null);
   }
 
+  // Fixture parameters may be changed on other threads, the engine applies these
+  private volatile boolean pendingModel = false;
+  private volatile boolean pendingGeometry = false;
+  private volatile boolean pendingOutputs = false;
+
+  /**
+   * Changes originating from fixture parameters are coalesced while the engine is
+   * running, since a single UI gesture or burst of OSC may modify parameters many
+   * times in one frame. The regeneration is performed once by the engine before the
+   * frame is rendered, and the new model is swapped in with a single reference change.
+   *
+   * @param fixture Fixture that changed, or null if this was a structural change
+   * @return Whether the change has been deferred
+   */
+  private boolean deferFixtureChange(LXFixture fixture) {
+    return
+      (fixture != null) &&
+      !this.isLoading &&
+      this.lx.engine.isRunning() &&
+      !this.lx.engine.isPaused();
+  }
+
+  /**
+   * Applies any fixture changes that were deferred during this frame. Invoked by
+   * the engine before rendering. May also be called on the engine thread by code
+   * that needs the model to reflect fixture parameter changes immediately, such as
+   * a command or script that reads the model right after modifying a fixture. Must
+   * not be called from other threads while the engine is running.
+   */
+  public void regeneratePending() {
+    if (!this.pendingModel && !this.pendingGeometry && !this.pendingOutputs) {
+      return;
+    }
+    if (this.isImmutable || (this.staticModel != null)) {
+      this.pendingModel = this.pendingGeometry = this.pendingOutputs = false;
+      return;
+    }
+    if (this.pendingModel) {
+      regenerateModel(false);
+    } else if (this.pendingGeometry) {
+      updateGeometry();
+    }
+    if (this.pendingOutputs) {
+      regenerateOutputs();
+    }
+  }
+
+  private void updateGeometry() {
+    this.pendingGeometry = false;
+    this.model.update(true, true);
+    this.modelListener.structureGenerationChanged(this.model);
+    setDirty();
+  }
+
   @Override
   public void fixtureGenerationChanged(LXFixture fixture) {
+    if (deferFixtureChange(fixture)) {
+      this.pendingModel = true;
+      this.pendingOutputs = true;
+      return;
+    }
     regenerateModel(false);
     regenerateOutputs();
   }
 
   @Override
   public void fixtureGeometryChanged(LXFixture fixture) {
+    if (deferFixtureChange(fixture)) {
+      this.pendingGeometry = true;
+      return;
+    }
     // We need to re-normalize our model, things have changed
-    this.model.update(true, true);
-    this.modelListener.structureGenerationChanged(this.model);
-    setDirty();
+    updateGeometry();
   }
 
   @Override
   public void fixtureOutputChanged(LXFixture fixture) {
+    if (deferFixtureChange(fixture)) {
+      this.pendingOutputs = true;
+      setDirty();
+      return;
+    }
     regenerateOutputs();
     setDirty();
   }
 
   @Override
   public void fixtureTagsChanged(LXFixture fixture) {
+    if (deferFixtureChange(fixture)) {
+      this.pendingModel = true;
+      return;
+    }
     regenerateModel(false);
   }
 
@@ -22,21 +22,39 @@ import java.net.InetAddress;
 import java.net.SocketException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import heronarts.lx.LX;
 import heronarts.lx.output.ArtNetDatagram;
 import heronarts.lx.output.DDPDatagram;
 import heronarts.lx.output.IndexBuffer;
 import heronarts.lx.output.KinetDatagram;
+import heronarts.lx.output.LXDatagram;
 import heronarts.lx.output.LXOutput;
 import heronarts.lx.output.OPCDatagram;
 import heronarts.lx.output.OPCSocket;
 import heronarts.lx.output.StreamingACNDatagram;
+import heronarts.lx.parameter.BooleanParameter;
+import heronarts.lx.parameter.DiscreteParameter;
+import heronarts.lx.parameter.LXParameter;
 import heronarts.lx.utils.LXUtils;
 
 public class LXStructureOutput extends LXOutput {
 
+  /**
+   * Address space of a packet, packets with the same key are merged together
+   */
+  private record PacketKey(
+    LXFixture.Protocol protocol,
+    LXFixture.Transport transport,
+    InetAddress address,
+    int port,
+    int universe,
+    KinetDatagram.Version kinetVersion
+  ) {}
+
   /**
    * A packet definition contains the metadata for what will become one output packet or socket.
    * This is specified by a protocol, transport, network address, and protocol packet signifier,
@@ -48,6 +66,7 @@ public class LXStructureOutput extends LXOutput {
    */
   private class Packet {
 
+    private final PacketKey key;
     private final LXFixture.Protocol protocol;
     private final LXFixture.Transport transport;
     private final InetAddress address;
@@ -61,7 +80,8 @@ public class LXStructureOutput extends LXOutput {
 
     private final List<IndexBuffer.Segment> segments = new ArrayList<IndexBuffer.Segment>();
 
-    private Packet(LXFixture.Protocol protocol, LXFixture.Transport transport, InetAddress address, int port, int universe, int priority, boolean sequenceEnabled, KinetDatagram.Version kinetVersion) {
+    private Packet(PacketKey key, LXFixture.Protocol protocol, LXFixture.Transport transport, InetAddress address, int port, int universe, int priority, boolean sequenceEnabled, KinetDatagram.Version kinetVersion) {
+      this.key = key;
       this.protocol = protocol;
       this.transport = transport;
       this.address = address;
@@ -182,6 +202,35 @@ public class LXStructureOutput extends LXOutput {
       }
     }
 
+    /**
+     * Whether this packet would generate identical output to a previously built packet,
+     * in which case the existing output object can be kept
+     *
+     * @param that Previously built packet
+     * @return Whether the packets are equivalent
+     */
+    private boolean isEquivalent(Packet that) {
+      if ((this.priority != that.priority) ||
+          (this.sequenceEnabled != that.sequenceEnabled) ||
+          (this.fps != that.fps) ||
+          (this.segments.size() != that.segments.size())) {
+        return false;
+      }
+      for (int i = 0; i < this.segments.size(); ++i) {
+        final IndexBuffer.Segment s1 = this.segments.get(i);
+        final IndexBuffer.Segment s2 = that.segments.get(i);
+        if ((s1.startChannel != s2.startChannel) ||
+            (s1.outputStride != s2.outputStride) ||
+            (s1.byteEncoder != s2.byteEncoder) ||
+            (s1.brightness != s2.brightness) ||
+            !Arrays.equals(s1.staticBytes, s2.staticBytes) ||
+            !Arrays.equals(s1.indices, s2.indices)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
     private IndexBuffer toIndexBuffer() {
       return new IndexBuffer(this.segments);
     }
@@ -225,27 +274,22 @@ public class LXStructureOutput extends LXOutput {
 
   private Packet findPacket(LXFixture.Protocol protocol, LXFixture.Transport transport, InetAddress address, int port, int universe, int priority, boolean sequenceEnabled, KinetDatagram.Version kinetVersion) {
     // Check if there's an existing packet for this address space
-    for (Packet packet : this.packets) {
-      if ((packet.protocol == protocol)
-        && (packet.transport == transport)
-        && (packet.address.equals(address))
-        && (packet.port == port)
-        && (packet.universe == universe)
-        && (packet.kinetVersion == kinetVersion)) {
-
-        // Priority is the max of any segment contained within
-        packet.priority = LXUtils.max(packet.priority, priority);
+    final PacketKey key = new PacketKey(protocol, transport, address, port, universe, kinetVersion);
+    Packet packet = this.packetMap.get(key);
+    if (packet != null) {
+      // Priority is the max of any segment contained within
+      packet.priority = LXUtils.max(packet.priority, priority);
 
-        // Sequences enabled if any segment demands it
-        packet.sequenceEnabled = packet.sequenceEnabled || sequenceEnabled;
+      // Sequences enabled if any segment demands it
+      packet.sequenceEnabled = packet.sequenceEnabled || sequenceEnabled;
 
-        return packet;
-      }
+      return packet;
     }
 
     // Create a new packet for this address space
-    Packet packet = new Packet(protocol, transport, address, port, universe, priority, sequenceEnabled, kinetVersion);
+    packet = new Packet(key, protocol, transport, address, port, universe, priority, sequenceEnabled, kinetVersion);
     this.packets.add(packet);
+    this.packetMap.put(key, packet);
     return packet;
   }
 
@@ -253,15 +297,83 @@ public class LXStructureOutput extends LXOutput {
   private final List<LXOutput> generatedOutputs = new ArrayList<LXOutput>();
   private final List<String> outputErrors = new ArrayList<String>();
   private final List<Packet> packets = new ArrayList<Packet>();
+  private final Map<PacketKey, Packet> packetMap = new HashMap<PacketKey, Packet>();
+
+  /**
+   * Whether generated datagrams skip packets with unchanged data
+   */
+  public final BooleanParameter suppressUnchanged =
+    new BooleanParameter("Suppress Unchanged", false)
+    .setMappable(false)
+    .setDescription("Whether generated packets are skipped when their data has not changed since the last send");
+
+  /**
+   * Keep-alive interval applied to generated datagrams
+   */
+  public final DiscreteParameter keepAlive =
+    new DiscreteParameter("Keep Alive", LXDatagram.DEFAULT_KEEP_ALIVE_MS, 0, 60001)
+    .setMappable(false)
+    .setUnits(LXParameter.Units.MILLISECONDS_RAW)
+    .setDescription("Interval at which unchanged generated packets are re-sent so that receivers do not time out");
 
   LXStructureOutput(LX lx, LXStructure structure) throws SocketException {
     super(lx);
     this.structure = structure;
     this.gammaMode.setValue(GammaMode.DIRECT);
+    addParameter("suppressUnchanged", this.suppressUnchanged);
+    addParameter("keepAlive", this.keepAlive);
+  }
+
+  @Override
+  public void onParameterChanged(LXParameter p) {
+    super.onParameterChanged(p);
+    if (p == this.suppressUnchanged || p == this.keepAlive) {
+      for (LXOutput output : this.generatedOutputs) {
+        applySuppression(output);
+      }
+    }
+  }
+
+  private void applySuppression(LXOutput output) {
+    if (output instanceof LXDatagram datagram) {
+      datagram.suppressUnchanged.setValue(this.suppressUnchanged.isOn());
+      datagram.keepAlive.setValue(this.keepAlive.getValuei());
+    }
+  }
+
+  /**
+   * Gets the total number of packets sent by generated datagrams
+   *
+   * @return Number of packets sent
+   */
+  public long getSentPackets() {
+    long sent = 0;
+    for (LXOutput output : this.generatedOutputs) {
+      if (output instanceof LXDatagram datagram) {
+        sent += datagram.getSentPackets();
+      }
+    }
+    return sent;
+  }
+
+  /**
+   * Gets the total number of unchanged packets suppressed by generated datagrams
+   *
+   * @return Number of packets suppressed
+   */
+  public long getSuppressedPackets() {
+    long suppressed = 0;
+    for (LXOutput output : this.generatedOutputs) {
+      if (output instanceof LXDatagram datagram) {
+        suppressed += datagram.getSuppressedPackets();
+      }
+    }
+    return suppressed;
   }
 
   void clear() {
     this.packets.clear();
+    this.packetMap.clear();
     for (LXOutput output : this.generatedOutputs) {
       LX.dispose(output);
     }
@@ -271,16 +383,42 @@ public class LXStructureOutput extends LXOutput {
   }
 
   void rebuildOutputs() {
-    clear();
+    // Hold onto the previous generation, outputs for packets that are unchanged
+    // will be carried over rather than disposed and constructed again
+    final Map<PacketKey, LXOutput> previousOutputs = new HashMap<PacketKey, LXOutput>();
+    final Map<PacketKey, Packet> previousPackets = new HashMap<PacketKey, Packet>(this.packetMap);
+    for (int i = 0; i < this.packets.size(); ++i) {
+      previousOutputs.put(this.packets.get(i).key, this.generatedOutputs.get(i));
+    }
+    this.packets.clear();
+    this.packetMap.clear();
+    this.generatedOutputs.clear();
+    this.outputErrors.clear();
+    this.structure.outputError.setValue(null);
 
     // Iterate over all fixtures and build outputs
     for (LXFixture fixture : this.structure.fixtures) {
       rebuildFixtureOutputs(fixture);
     }
 
-    // Generate an output for all those packets!
+    // Generate an output for all those packets that have changed
     for (Packet packet : this.packets) {
-      this.generatedOutputs.add(packet.toOutput());
+      final Packet previous = previousPackets.get(packet.key);
+      LXOutput output;
+      if ((previous != null) && packet.isEquivalent(previous)) {
+        output = previousOutputs.remove(packet.key);
+      } else {
+        output = packet.toOutput();
+        applySuppression(output);
+      }
+      this.generatedOutputs.add(output);
+    }
+
+    // Dispose of anything that wasn't carried over
+    for (LXOutput output : previousOutputs.values()) {
+      if (output != null) {
+        LX.dispose(output);
+      }
     }
 
     // Did errors occur? Oh no!
@@ -0,0 +1,297 @@
+/**
+ * Copyright 2025- Mark C. Slee, Heron Arts LLC
+ *
+ * This file is part of the LX Studio software library. By using
+ * LX, you agree to the terms of the LX Studio Software License
+ * and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * Please note that the LX license is not open-source. The license
+ * allows for free, non-commercial use.
+ *
+ * HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR
+ * OTHERWISE, AND SPECIFICALLY DISCLAIMS ANY WARRANTY OF
+ * MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR
+ * PURPOSE, WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+
+package heronarts.lx.blend;
+
+import heronarts.lx.blend.LXBlend.FunctionalBlend.BulkFunction;
+import heronarts.lx.color.LXColor;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Bulk blend functions over packed ARGB colors using the incubating Vector API.
+ * Each one is a lane-wise transcription of the matching LXColor function, so
+ * results are bit-for-bit identical to the scalar path. Colors past the last full
+ * vector are blended with the scalar function.
+ *
+ * This class is only compiled with the vector profile and must only be loaded when
+ * the jdk.incubator.vector module is present, see {@link BlendKernels}.
+ */
+final class VectorBlend {
+
+  private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+  static final int LANES = SPECIES.length();
+
+  static final BulkFunction LERP = VectorBlend::lerp;
+  static final BulkFunction ADD = VectorBlend::add;
+  static final BulkFunction SUBTRACT = VectorBlend::subtract;
+  static final BulkFunction MULTIPLY = VectorBlend::multiply;
+  static final BulkFunction SCREEN = VectorBlend::screen;
+  static final BulkFunction LIGHTEST = VectorBlend::lightest;
+  static final BulkFunction DARKEST = VectorBlend::darkest;
+  static final BulkFunction DIFFERENCE = VectorBlend::difference;
+  static final BulkFunction HIGHLIGHT = VectorBlend::highlight;
+  static final BulkFunction SPOTLIGHT = VectorBlend::spotlight;
+
+  private static final int ALPHA_SHIFT = LXColor.ALPHA_SHIFT;
+  private static final int R_SHIFT = LXColor.R_SHIFT;
+  private static final int G_SHIFT = LXColor.G_SHIFT;
+  private static final int ALPHA_MASK = LXColor.ALPHA_MASK;
+  private static final int R_MASK = LXColor.R_MASK;
+  private static final int G_MASK = LXColor.G_MASK;
+  private static final int B_MASK = LXColor.B_MASK;
+  private static final int RB_MASK = LXColor.RB_MASK;
+  private static final int FULL = LXColor.BLEND_ALPHA_FULL;
+
+  private VectorBlend() {}
+
+  private static IntVector srcAlpha(IntVector src, int alpha) {
+    final IntVector a = src.lanewise(VectorOperators.LSHR, ALPHA_SHIFT).mul(alpha).lanewise(VectorOperators.ASHR, 8).and(0xff);
+    final VectorMask<Integer> round = a.compare(VectorOperators.GE, 0x7f);
+    return a.add(1, round);
+  }
+
+  private static IntVector alpha(IntVector dst, IntVector src) {
+    return
+      dst.lanewise(VectorOperators.LSHR, ALPHA_SHIFT)
+      .add(src.lanewise(VectorOperators.LSHR, ALPHA_SHIFT))
+      .min(0xff)
+      .lanewise(VectorOperators.LSHL, ALPHA_SHIFT);
+  }
+
+  /**
+   * Mixes the red/blue and green channels of a blended color over the destination
+   */
+  private static IntVector mix(IntVector dst, IntVector src, IntVector rb, IntVector gn, IntVector srcAlpha) {
+    final IntVector dstAlpha = srcAlpha.neg().add(FULL);
+    return alpha(dst, src)
+      .or(dst.and(RB_MASK).mul(dstAlpha).add(rb.mul(srcAlpha)).lanewise(VectorOperators.LSHR, 8).and(RB_MASK))
+      .or(dst.and(G_MASK).mul(dstAlpha).add(gn.mul(srcAlpha)).lanewise(VectorOperators.LSHR, 8).and(G_MASK));
+  }
+
+  private static IntVector lerp(IntVector dst, IntVector src, int alpha) {
+    return mix(dst, src, src.and(RB_MASK), src.and(G_MASK), srcAlpha(src, alpha));
+  }
+
+  private static IntVector add(IntVector dst, IntVector src, int alpha) {
+    final IntVector srcAlpha = srcAlpha(src, alpha);
+    final IntVector rb = dst.and(RB_MASK).add(src.and(RB_MASK).mul(srcAlpha).lanewise(VectorOperators.LSHR, 8).and(RB_MASK));
+    final IntVector gn = dst.and(G_MASK).add(src.and(G_MASK).mul(srcAlpha).lanewise(VectorOperators.LSHR, 8));
+    return alpha(dst, src)
+      .or(rb.and(0xffff0000).min(R_MASK))
+      .or(gn.and(0x00ffff00).min(G_MASK))
+      .or(rb.and(0x0000ffff).min(B_MASK));
+  }
+
+  private static IntVector subtract(IntVector dst, IntVector src, int alpha) {
+    final IntVector srcAlpha = srcAlpha(src, alpha);
+    final IntVector rb = src.and(RB_MASK).mul(srcAlpha).lanewise(VectorOperators.LSHR, 8);
+    final IntVector gn = src.and(G_MASK).mul(srcAlpha).lanewise(VectorOperators.LSHR, 8);
+    return alpha(dst, src)
+      .or(dst.and(R_MASK).sub(rb.and(R_MASK)).max(0))
+      .or(dst.and(G_MASK).sub(gn.and(G_MASK)).max(0))
+      .or(dst.and(B_MASK).sub(rb.and(B_MASK)).max(0));
+  }
+
+  private static IntVector multiply(IntVector dst, IntVector src, int alpha) {
+    final IntVector dstG = dst.and(G_MASK);
+    final IntVector dstR = dst.and(R_MASK).lanewise(VectorOperators.ASHR, R_SHIFT);
+    final IntVector dstB = dst.and(B_MASK);
+    final IntVector rb =
+      src.and(R_MASK).mul(dstR.add(1))
+      .or(src.and(B_MASK).mul(dstB.add(1)))
+      .lanewise(VectorOperators.LSHR, 8)
+      .and(RB_MASK);
+    final IntVector g = src.and(G_MASK).mul(dstG.add(0x100)).lanewise(VectorOperators.LSHR, 16).and(G_MASK);
+    return mix(dst, src, rb, g, srcAlpha(src, alpha));
+  }
+
+  private static IntVector screen(IntVector dst, IntVector src, int alpha) {
+    final IntVector dstRb = dst.and(RB_MASK);
+    final IntVector dstGn = dst.and(G_MASK);
+    final IntVector srcGn = src.and(G_MASK);
+    final IntVector dstR = dst.and(R_MASK).lanewise(VectorOperators.ASHR, R_SHIFT);
+    final IntVector dstB = dst.and(B_MASK);
+    final IntVector rbSub =
+      src.and(R_MASK).mul(dstR.add(1))
+      .or(src.and(B_MASK).mul(dstB.add(1)))
+      .lanewise(VectorOperators.LSHR, 8)
+      .and(RB_MASK);
+    final IntVector gnSub = srcGn.mul(dstGn.add(0x100)).lanewise(VectorOperators.ASHR, 16).and(G_MASK);
+    return mix(
+      dst,
+      src,
+      dstRb.add(src.and(RB_MASK)).sub(rbSub),
+      dstGn.add(srcGn).sub(gnSub),
+      srcAlpha(src, alpha)
+    );
+  }
+
+  private static IntVector lightest(IntVector dst, IntVector src, int alpha) {
+    final IntVector rb = src.and(R_MASK).max(dst.and(R_MASK)).or(src.and(B_MASK).max(dst.and(B_MASK)));
+    final IntVector gn = src.and(G_MASK).max(dst.and(G_MASK));
+    return mix(dst, src, rb, gn, srcAlpha(src, alpha));
+  }
+
+  private static IntVector darkest(IntVector dst, IntVector src, int alpha) {
+    final IntVector rb = src.and(R_MASK).min(dst.and(R_MASK)).or(src.and(B_MASK).min(dst.and(B_MASK)));
+    final IntVector gn = src.and(G_MASK).min(dst.and(G_MASK));
+    return mix(dst, src, rb, gn, srcAlpha(src, alpha));
+  }
+
+  private static IntVector difference(IntVector dst, IntVector src, int alpha) {
+    final IntVector r = dst.and(R_MASK).sub(src.and(R_MASK)).abs();
+    final IntVector g = dst.and(G_MASK).sub(src.and(G_MASK)).abs();
+    final IntVector b = dst.and(B_MASK).sub(src.and(B_MASK)).abs();
+    return mix(dst, src, r.or(b), g, srcAlpha(src, alpha));
+  }
+
+  private static IntVector highlight(IntVector dst, IntVector src, int alpha) {
+    return add(dst, multiply(dst, src, FULL), alpha);
+  }
+
+  private static IntVector spotlight(IntVector dst, IntVector src, int alpha) {
+    final IntVector dstMax =
+      dst.and(B_MASK)
+      .max(dst.and(G_MASK).lanewise(VectorOperators.ASHR, G_SHIFT))
+      .max(dst.and(R_MASK).lanewise(VectorOperators.ASHR, R_SHIFT));
+    final IntVector dstMlt =
+      dst.and(ALPHA_MASK)
+      .or(dstMax.lanewise(VectorOperators.LSHL, R_SHIFT))
+      .or(dstMax.lanewise(VectorOperators.LSHL, G_SHIFT))
+      .or(dstMax);
+    return add(dst, multiply(dstMlt, src, FULL), alpha);
+  }
+
+  // Each bulk function has its own loop with direct calls, so that the vector
+  // math is inlined and the intermediate vectors are never boxed
+
+  static void lerp(int[] dst, int[] src, int alpha, int[] output, int start, int num) {
+    final int bound = start + SPECIES.loopBound(num);
+    int i = start;
+    for (; i < bound; i += LANES) {
+      lerp(IntVector.fromArray(SPECIES, dst, i), IntVector.fromArray(SPECIES, src, i), alpha).intoArray(output, i);
+    }
+    for (final int end = start + num; i < end; ++i) {
+      output[i] = LXColor.lerp(dst[i], src[i], alpha);
+    }
+  }
+
+  static void add(int[] dst, int[] src, int alpha, int[] output, int start, int num) {
+    final int bound = start + SPECIES.loopBound(num);
+    int i = start;
+    for (; i < bound; i += LANES) {
+      add(IntVector.fromArray(SPECIES, dst, i), IntVector.fromArray(SPECIES, src, i), alpha).intoArray(output, i);
+    }
+    for (final int end = start + num; i < end; ++i) {
+      output[i] = LXColor.add(dst[i], src[i], alpha);
+    }
+  }
+
+  static void subtract(int[] dst, int[] src, int alpha, int[] output, int start, int num) {
+    final int bound = start + SPECIES.loopBound(num);
+    int i = start;
+    for (; i < bound; i += LANES) {
+      subtract(IntVector.fromArray(SPECIES, dst, i), IntVector.fromArray(SPECIES, src, i), alpha).intoArray(output, i);
+    }
+    for (final int end = start + num; i < end; ++i) {
+      output[i] = LXColor.subtract(dst[i], src[i], alpha);
+    }
+  }
+
+  static void multiply(int[] dst, int[] src, int alpha, int[] output, int start, int num) {
+    final int bound = start + SPECIES.loopBound(num);
+    int i = start;
+    for (; i < bound; i += LANES) {
+      multiply(IntVector.fromArray(SPECIES, dst, i), IntVector.fromArray(SPECIES, src, i), alpha).intoArray(output, i);
+    }
+    for (final int end = start + num; i < end; ++i) {
+      output[i] = LXColor.multiply(dst[i], src[i], alpha);
+    }
+  }
+
+  static void screen(int[] dst, int[] src, int alpha, int[] output, int start, int num) {
+    final int bound = start + SPECIES.loopBound(num);
+    int i = start;
+    for (; i < bound; i += LANES) {
+      screen(IntVector.fromArray(SPECIES, dst, i), IntVector.fromArray(SPECIES, src, i), alpha).intoArray(output, i);
+    }
+    for (final int end = start + num; i < end; ++i) {
+      output[i] = LXColor.screen(dst[i], src[i], alpha);
+    }
+  }
+
+  static void lightest(int[] dst, int[] src, int alpha, int[] output, int start, int num) {
+    final int bound = start + SPECIES.loopBound(num);
+    int i = start;
+    for (; i < bound; i += LANES) {
+      lightest(IntVector.fromArray(SPECIES, dst, i), IntVector.fromArray(SPECIES, src, i), alpha).intoArray(output, i);
+    }
+    for (final int end = start + num; i < end; ++i) {
+      output[i] = LXColor.lightest(dst[i], src[i], alpha);
+    }
+  }
+
+  static void darkest(int[] dst, int[] src, int alpha, int[] output, int start, int num) {
+    final int bound = start + SPECIES.loopBound(num);
+    int i = start;
+    for (; i < bound; i += LANES) {
+      darkest(IntVector.fromArray(SPECIES, dst, i), IntVector.fromArray(SPECIES, src, i), alpha).intoArray(output, i);
+    }
+    for (final int end = start + num; i < end; ++i) {
+      output[i] = LXColor.darkest(dst[i], src[i], alpha);
+    }
+  }
+
+  static void difference(int[] dst, int[] src, int alpha, int[] output, int start, int num) {
+    final int bound = start + SPECIES.loopBound(num);
+    int i = start;
+    for (; i < bound; i += LANES) {
+      difference(IntVector.fromArray(SPECIES, dst, i), IntVector.fromArray(SPECIES, src, i), alpha).intoArray(output, i);
+    }
+    for (final int end = start + num; i < end; ++i) {
+      output[i] = LXColor.difference(dst[i], src[i], alpha);
+    }
+  }
+
+  static void highlight(int[] dst, int[] src, int alpha, int[] output, int start, int num) {
+    final int bound = start + SPECIES.loopBound(num);
+    int i = start;
+    for (; i < bound; i += LANES) {
+      highlight(IntVector.fromArray(SPECIES, dst, i), IntVector.fromArray(SPECIES, src, i), alpha).intoArray(output, i);
+    }
+    for (final int end = start + num; i < end; ++i) {
+      output[i] = LXColor.highlight(dst[i], src[i], alpha);
+    }
+  }
+
+  static void spotlight(int[] dst, int[] src, int alpha, int[] output, int start, int num) {
+    final int bound = start + SPECIES.loopBound(num);
+    int i = start;
+    for (; i < bound; i += LANES) {
+      spotlight(IntVector.fromArray(SPECIES, dst, i), IntVector.fromArray(SPECIES, src, i), alpha).intoArray(output, i);
+    }
+    for (final int end = start + num; i < end; ++i) {
+      output[i] = LXColor.spotlight(dst[i], src[i], alpha);
+    }
+  }
+
+}
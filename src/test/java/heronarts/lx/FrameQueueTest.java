@@ -0,0 +1,148 @@
+/**
+ * Copyright 2025- Mark C. Slee, Heron Arts LLC
+ *
+ * <p>This file is part of the LX Studio software library. By using LX, you agree to the terms of
+ * the LX Studio Software License and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * <p>Please note that the LX license is not open-source. The license allows for free,
+ * non-commercial use.
+ *
+ * <p>HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR OTHERWISE, AND SPECIFICALLY
+ * DISCLAIMS ANY WARRANTY OF MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR PURPOSE,
+ * WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+package heronarts.lx;
+
+import java.util.IdentityHashMap;
+
+import org.junit.jupiter.api.Test;
+
+import heronarts.lx.model.GridModel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrameQueueTest {
+
+    private static LXEngine.Frame[] newFrames(LX lx, int num) {
+        final LXEngine.Frame[] frames = new LXEngine.Frame[num];
+        for (int i = 0; i < num; ++i) {
+            frames[i] = new LXEngine.Frame(lx);
+        }
+        return frames;
+    }
+
+    @Test
+    void testCapacityMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new LXEngine.FrameQueue(0));
+    }
+
+    @Test
+    void testFifoAndFull() {
+        final LX lx = new LX(new GridModel(4, 4));
+        try {
+            final LXEngine.Frame[] frames = newFrames(lx, 4);
+            final LXEngine.FrameQueue queue = new LXEngine.FrameQueue(3);
+            assertNull(queue.poll());
+
+            assertTrue(queue.offer(frames[0]));
+            assertTrue(queue.offer(frames[1]));
+            assertTrue(queue.offer(frames[2]));
+            assertFalse(queue.offer(frames[3]));
+            assertEquals(3, queue.size());
+
+            assertSame(frames[0], queue.poll());
+            assertEquals(2, queue.size());
+
+            // Wraps around the end of the ring
+            assertTrue(queue.offer(frames[3]));
+            assertSame(frames[1], queue.poll());
+            assertSame(frames[2], queue.poll());
+            assertSame(frames[3], queue.poll());
+            assertNull(queue.poll());
+            assertEquals(0, queue.size());
+        } finally {
+            lx.dispose();
+        }
+    }
+
+    @Test
+    void testSingleProducerSingleConsumer() throws InterruptedException {
+        final int numFrames = 100000;
+        final LX lx = new LX(new GridModel(4, 4));
+        try {
+            final LXEngine.Frame[] frames = newFrames(lx, 7);
+            final LXEngine.FrameQueue queue = new LXEngine.FrameQueue(4);
+
+            final Thread producer = new Thread(() -> {
+                for (int i = 0; i < numFrames; ++i) {
+                    while (!queue.offer(frames[i % frames.length])) {
+                        Thread.yield();
+                    }
+                }
+            });
+            producer.start();
+
+            // Every frame arrives exactly once and in order
+            for (int i = 0; i < numFrames; ++i) {
+                LXEngine.Frame frame;
+                while ((frame = queue.poll()) == null) {
+                    Thread.yield();
+                }
+                assertSame(frames[i % frames.length], frame);
+            }
+            producer.join();
+            assertNull(queue.poll());
+        } finally {
+            lx.dispose();
+        }
+    }
+
+    @Test
+    void testProducerEvictsOldest() throws InterruptedException {
+        final int numFrames = 10000;
+        final LX lx = new LX(new GridModel(4, 4));
+        try {
+            final LXEngine.Frame[] frames = newFrames(lx, numFrames);
+            final IdentityHashMap<LXEngine.Frame, Integer> order = new IdentityHashMap<>();
+            for (int i = 0; i < numFrames; ++i) {
+                order.put(frames[i], i);
+            }
+            final LXEngine.FrameQueue queue = new LXEngine.FrameQueue(3);
+
+            // When full, the producer takes the oldest frame off to make room
+            final Thread producer = new Thread(() -> {
+                for (int i = 0; i < numFrames; ++i) {
+                    if (!queue.offer(frames[i])) {
+                        queue.poll();
+                        assertTrue(queue.offer(frames[i]));
+                    }
+                    if (i % 16 == 0) {
+                        Thread.yield();
+                    }
+                }
+            });
+            producer.start();
+
+            // Frames may be skipped, but never repeated or out of order, and the
+            // last frame always arrives
+            int last = -1;
+            while (last < numFrames - 1) {
+                final LXEngine.Frame frame = queue.poll();
+                if (frame == null) {
+                    Thread.yield();
+                    continue;
+                }
+                final int index = order.get(frame);
+                assertTrue(index > last);
+                last = index;
+            }
+            producer.join();
+            assertNull(queue.poll());
+        } finally {
+            lx.dispose();
+        }
+    }
+
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright 2025- Mark C. Slee, Heron Arts LLC
+ *
+ * <p>This file is part of the LX Studio software library. By using LX, you agree to the terms of
+ * the LX Studio Software License and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * <p>Please note that the LX license is not open-source. The license allows for free,
+ * non-commercial use.
+ *
+ * <p>HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR OTHERWISE, AND SPECIFICALLY
+ * DISCLAIMS ANY WARRANTY OF MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR PURPOSE,
+ * WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+package heronarts.lx;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.JsonObject;
+
+import heronarts.lx.command.LXCommand;
+import heronarts.lx.effect.BlurEffect;
+import heronarts.lx.effect.InvertEffect;
+import heronarts.lx.mixer.LXChannel;
+import heronarts.lx.model.GridModel;
+import heronarts.lx.modulator.SinLFO;
+import heronarts.lx.pattern.color.GradientPattern;
+import heronarts.lx.pattern.color.SolidPattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LXAutoSaveTest {
+
+    private static LX newIncrementalLX() {
+        final LX.Flags flags = new LX.Flags();
+        flags.autosaveIncremental = true;
+        return new LX(flags, new GridModel(4, 4));
+    }
+
+    /**
+     * Serializes the project incrementally and in full, and checks that both are the
+     * same apart from the timestamp
+     */
+    private static void assertIncrementalMatchesFull(LX lx, String step) {
+        final JsonObject incremental = lx.autoSave.serialize(lx::saveProjectJson, lx.componentRegistry, true);
+        final JsonObject full = lx.saveProjectJson();
+        incremental.remove(LX.KEY_TIMESTAMP);
+        full.remove(LX.KEY_TIMESTAMP);
+        assertEquals(full, incremental, step);
+    }
+
+    @Test
+    void testIncrementalMatchesFullSave() {
+        final LX lx = newIncrementalLX();
+        try {
+            final LXChannel channel = lx.engine.mixer.addChannel();
+            final SolidPattern solid = new SolidPattern(lx);
+            final GradientPattern gradient = new GradientPattern(lx);
+            channel.addPattern(solid);
+            channel.addPattern(gradient);
+            final BlurEffect blur = new BlurEffect(lx);
+            final InvertEffect invert = new InvertEffect(lx);
+            channel.addEffect(blur);
+            channel.addEffect(invert);
+            final LXChannel other = lx.engine.mixer.addChannel();
+            other.addPattern(new SolidPattern(lx));
+            assertIncrementalMatchesFull(lx, "Initial");
+
+            lx.command.perform(new LXCommand.Parameter.SetValue(blur.level, .25));
+            assertIncrementalMatchesFull(lx, "Command");
+
+            lx.command.undo();
+            assertIncrementalMatchesFull(lx, "Undo");
+
+            gradient.enabled.setValue(false);
+            channel.fader.setValue(.5);
+            assertIncrementalMatchesFull(lx, "Direct parameter set");
+
+            channel.movePattern(gradient, 0);
+            assertIncrementalMatchesFull(lx, "Pattern move");
+
+            channel.moveEffect(invert, 0);
+            assertIncrementalMatchesFull(lx, "Effect move");
+
+            lx.command.perform(new LXCommand.Mixer.RemoveChannel(other));
+            assertIncrementalMatchesFull(lx, "Channel remove");
+
+            lx.command.undo();
+            assertIncrementalMatchesFull(lx, "Channel remove undo");
+        } finally {
+            lx.dispose();
+        }
+    }
+
+    @Test
+    void testModulatorBasisIsRefreshed() {
+        final LX lx = newIncrementalLX();
+        try {
+            lx.engine.setFixedDeltaMs(1000 / 60.);
+            final SinLFO lfo = new SinLFO(0, 1, 1000);
+            lx.engine.modulation.addModulator(lfo);
+            lfo.start();
+            assertIncrementalMatchesFull(lx, "Initial");
+
+            // The basis advances without anything being marked as modified
+            final double basis = lfo.getBasis();
+            for (int i = 0; i < 10; ++i) {
+                lx.engine.run();
+            }
+            assertNotEquals(basis, lfo.getBasis());
+            assertIncrementalMatchesFull(lx, "Advanced basis");
+        } finally {
+            lx.dispose();
+        }
+    }
+
+    @Test
+    void testReenabledDiscardsCache() {
+        final LX lx = newIncrementalLX();
+        try {
+            final LXChannel channel = lx.engine.mixer.addChannel();
+            channel.addPattern(new SolidPattern(lx));
+            assertIncrementalMatchesFull(lx, "Initial");
+
+            // Changes are not tracked while incremental saves are off
+            lx.flags.autosaveIncremental = false;
+            channel.fader.setValue(.5);
+            lx.autoSave.serialize(lx::saveProjectJson, lx.componentRegistry, false);
+
+            lx.flags.autosaveIncremental = true;
+            assertIncrementalMatchesFull(lx, "Re-enabled");
+        } finally {
+            lx.dispose();
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright 2025- Mark C. Slee, Heron Arts LLC
+ *
+ * <p>This file is part of the LX Studio software library. By using LX, you agree to the terms of
+ * the LX Studio Software License and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * <p>Please note that the LX license is not open-source. The license allows for free,
+ * non-commercial use.
+ *
+ * <p>HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR OTHERWISE, AND SPECIFICALLY
+ * DISCLAIMS ANY WARRANTY OF MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR PURPOSE,
+ * WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+package heronarts.lx;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LXMetricsTest {
+
+    // Sub-buckets give roughly 3% precision
+    private static final double PRECISION = .04;
+
+    private static void assertApproximately(long expected, long actual) {
+        assertEquals(expected, actual, expected * PRECISION);
+    }
+
+    @Test
+    void testPercentiles() {
+        final LXMetrics.Histogram histogram = new LXMetrics.Histogram();
+        for (int i = 1; i <= 100; ++i) {
+            histogram.record(i * 1000000L);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(100000000L, histogram.getMaxNanos());
+        assertApproximately(50000000L, histogram.getPercentileNanos(50));
+        assertApproximately(90000000L, histogram.getPercentileNanos(90));
+        assertApproximately(99000000L, histogram.getPercentileNanos(99));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentileNanos(99));
+    }
+
+    @Test
+    void testLongHitch() {
+        final LXMetrics.Histogram histogram = new LXMetrics.Histogram();
+        for (int i = 0; i < 99; ++i) {
+            histogram.record(16000000L);
+        }
+        // A hitch well beyond 2^31 nanoseconds
+        final long hitch = 5000000000L;
+        histogram.record(hitch);
+        assertEquals(hitch, histogram.getMaxNanos());
+        assertApproximately(16000000L, histogram.getPercentileNanos(50));
+        assertApproximately(hitch, histogram.getPercentileNanos(99.9));
+        assertApproximately(hitch, histogram.getPercentileNanos(100));
+    }
+
+}
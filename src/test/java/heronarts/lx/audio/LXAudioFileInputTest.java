@@ -0,0 +1,138 @@
+/**
+ * Copyright 2025- Mark C. Slee, Heron Arts LLC
+ *
+ * <p>This file is part of the LX Studio software library. By using LX, you agree to the terms of
+ * the LX Studio Software License and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * <p>Please note that the LX license is not open-source. The license allows for free,
+ * non-commercial use.
+ *
+ * <p>HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR OTHERWISE, AND SPECIFICALLY
+ * DISCLAIMS ANY WARRANTY OF MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR PURPOSE,
+ * WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+package heronarts.lx.audio;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.Random;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+
+import org.junit.jupiter.api.Test;
+
+import heronarts.lx.LX;
+import heronarts.lx.model.GridModel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LXAudioFileInputTest {
+
+    private static final float SAMPLE_RATE = 44100;
+
+    private static final int NUM_FRAMES = 40;
+
+    /**
+     * Writes a stereo file of noise bursts and tones, so that the meters see
+     * something different in every frame
+     */
+    private static File writeFile() throws Exception {
+        final int numSamples = (int) SAMPLE_RATE;
+        final byte[] bytes = new byte[numSamples * 4];
+        final Random random = new Random(1);
+        for (int i = 0; i < numSamples; ++i) {
+            final double t = i / (double) SAMPLE_RATE;
+            final double tone = Math.sin(2 * Math.PI * (200 + 2000 * t) * t);
+            final double noise = ((i / 2205) % 2 == 0) ? random.nextGaussian() * .3 : 0;
+            final short left = (short) (Short.MAX_VALUE * .5 * (tone + noise));
+            final short right = (short) (Short.MAX_VALUE * .5 * tone);
+            bytes[4*i] = (byte) left;
+            bytes[4*i + 1] = (byte) (left >> 8);
+            bytes[4*i + 2] = (byte) right;
+            bytes[4*i + 3] = (byte) (right >> 8);
+        }
+        final AudioFormat format = new AudioFormat(SAMPLE_RATE, 16, 2, true, false);
+        final File file = File.createTempFile("LXAudioFileInputTest", ".wav");
+        file.deleteOnExit();
+        AudioSystem.write(
+            new AudioInputStream(new ByteArrayInputStream(bytes), format, numSamples),
+            AudioFileFormat.Type.WAVE,
+            file
+        );
+        return file;
+    }
+
+    /**
+     * Plays the file through a fresh engine with a fixed frame time, recording the
+     * meter levels and bands after every frame
+     */
+    private static double[][] play(File file) throws Exception {
+        final LX lx = new LX(new GridModel(4, 4));
+        try {
+            lx.engine.setFixedDeltaMs(1000 / 60.);
+            final LXAudioEngine audio = lx.engine.audio;
+            audio.mode.setValue(LXAudioEngine.Mode.FILE);
+            audio.enabled.setValue(true);
+
+            // Parameters may be set from any thread, the file is opened by the engine
+            final Thread thread = new Thread(() -> {
+                audio.file.file.setValue(file.getAbsolutePath());
+                audio.file.trigger.trigger();
+            });
+            thread.start();
+            thread.join();
+            assertNull(audio.file.getFormat());
+
+            final GraphicMeter meter = audio.meter;
+            final double[][] frames = new double[NUM_FRAMES][];
+            for (int f = 0; f < NUM_FRAMES; ++f) {
+                lx.engine.run();
+                final double[] frame = new double[meter.numBands + 2];
+                frame[0] = meter.getNormalized();
+                frame[1] = audio.file.getFramesRead();
+                for (int b = 0; b < meter.numBands; ++b) {
+                    frame[b + 2] = meter.getBand(b);
+                }
+                frames[f] = frame;
+            }
+            assertNotNull(audio.file.getFormat());
+            return frames;
+        } finally {
+            lx.dispose();
+        }
+    }
+
+    @Test
+    void testFixedDeltaIsDeterministic() throws Exception {
+        final File file = writeFile();
+        try {
+            assertDeterministic(file);
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static void assertDeterministic(File file) throws Exception {
+        final double[][] first = play(file);
+        final double[][] second = play(file);
+
+        // The file is advanced by the fixed frame time and the meters respond to it
+        assertTrue(first[NUM_FRAMES - 1][1] > 0);
+        assertTrue(first[NUM_FRAMES - 1][1] <= SAMPLE_RATE * NUM_FRAMES / 60.);
+        boolean audible = false;
+        for (double[] frame : first) {
+            audible |= (frame[0] > 0);
+        }
+        assertTrue(audible);
+
+        for (int f = 0; f < NUM_FRAMES; ++f) {
+            assertArrayEquals(first[f], second[f], "Frame " + f);
+        }
+    }
+
+}
@@ -16,7 +16,7 @@ import org.openjdk.jmh.annotations.Timeout;
 @BenchmarkMode(Mode.All)
 @OutputTimeUnit(TimeUnit.MILLISECONDS)
 @State(Scope.Benchmark)
-@Fork(value = 1, warmups = 1)
+@Fork(value = 1, warmups = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
 @Timeout(time = 10, timeUnit = TimeUnit.SECONDS)
 public class AddBlend0100000Points extends BlendingHarness {
   static final int NUM_CHANNELS = 16;
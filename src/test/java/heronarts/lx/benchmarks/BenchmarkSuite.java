@@ -12,7 +12,12 @@ public class BenchmarkSuite {
   static final List<Class<?>> benchmarkTests = List.of(
       AddBlend0005000Points.class,
       AddBlend0100000Points.class,
-      AddBlend2000000Points.class
+      AddBlend2000000Points.class,
+      BuiltinBlends0100000Points.class,
+      ByteEncoders0100000Points.class,
+      FixtureExpressions.class,
+      FourierTransforms.class,
+      ModulatedParameters.class
   );
 
   public static void main(String[] args) throws RunnerException {
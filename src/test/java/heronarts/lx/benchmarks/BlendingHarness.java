@@ -3,12 +3,25 @@ package heronarts.lx.benchmarks;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import heronarts.lx.LX;
 import heronarts.lx.blend.AddBlend;
+import heronarts.lx.blend.BurnBlend;
+import heronarts.lx.blend.DarkestBlend;
+import heronarts.lx.blend.DifferenceBlend;
+import heronarts.lx.blend.DodgeBlend;
+import heronarts.lx.blend.HighlightBlend;
 import heronarts.lx.blend.LXBlend;
+import heronarts.lx.blend.LightestBlend;
+import heronarts.lx.blend.MultiplyBlend;
+import heronarts.lx.blend.NormalBlend;
+import heronarts.lx.blend.ScreenBlend;
+import heronarts.lx.blend.SpotlightBlend;
+import heronarts.lx.blend.SubtractBlend;
 import heronarts.lx.color.LXColor;
 import heronarts.lx.model.LXModel;
 import heronarts.lx.model.LXPoint;
@@ -49,13 +62,39 @@ import org.openjdk.jmh.runner.options.OptionsBuilder;
  * - For each "iteration":
  *   - For each "invocation": ("numTests")
  *     - Select a different pair of dest/source arrays, blend them into actual[].
+ *
+ * Expected outputs always come from the scalar baseline, a FunctionalBlend with only the
+ * per-color LXColor function, so the built-in blends' bulk path is checked against it after
+ * every invocation. Forks add the jdk.incubator.vector module so the bulk path is in use
+ * when built with the vector profile.
  */
 @BenchmarkMode(Mode.All)
 @OutputTimeUnit(TimeUnit.MILLISECONDS)
 @State(Scope.Benchmark)
-@Fork(value = 1, warmups = 1)
+@Fork(value = 1, warmups = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
 @Timeout(time = 10, timeUnit = TimeUnit.SECONDS)
 public class BlendingHarness {
+
+  /**
+   * Built-in blend and the scalar LXColor function it must match
+   */
+  public record BlendType(Function<LX, LXBlend> builtin, LXBlend.FunctionalBlend.BlendFunction function) {}
+
+  public static final Map<String, BlendType> BLENDS = Map.ofEntries(
+    Map.entry("Add", new BlendType(AddBlend::new, LXColor::add)),
+    Map.entry("Burn", new BlendType(BurnBlend::new, LXColor::burn)),
+    Map.entry("Darkest", new BlendType(DarkestBlend::new, LXColor::darkest)),
+    Map.entry("Difference", new BlendType(DifferenceBlend::new, LXColor::difference)),
+    Map.entry("Dodge", new BlendType(DodgeBlend::new, LXColor::dodge)),
+    Map.entry("Highlight", new BlendType(HighlightBlend::new, LXColor::highlight)),
+    Map.entry("Lightest", new BlendType(LightestBlend::new, LXColor::lightest)),
+    Map.entry("Multiply", new BlendType(MultiplyBlend::new, LXColor::multiply)),
+    Map.entry("Normal", new BlendType(NormalBlend::new, LXColor::lerp)),
+    Map.entry("Screen", new BlendType(ScreenBlend::new, LXColor::screen)),
+    Map.entry("Spotlight", new BlendType(SpotlightBlend::new, LXColor::spotlight)),
+    Map.entry("Subtract", new BlendType(SubtractBlend::new, LXColor::subtract))
+  );
+
   public LX lx;
   public LXModel model;
 
@@ -68,9 +107,9 @@ public class BlendingHarness {
   public int[][] expectedOutputs;
 
   // Current limitations: only testing one blend at a time, with one alpha value, scoped to whole model (not views).
-  // TODO: consider separating this logic out - e.g. to make an array of blends to test, or array of BlendTargets, etc
   public double alpha;
   public LXBlend blendToTest;
+  public LXBlend scalarBaseline;
 
   // Per-invocation state
   int index;
@@ -80,6 +119,14 @@ public class BlendingHarness {
   int[] actual;
 
   public void setupTrialBase(int numChannels, int numPointsPerChannel) {
+    setupTrialBase(numChannels, numPointsPerChannel, "Add");
+  }
+
+  public void setupTrialBase(int numChannels, int numPointsPerChannel, String blendName) {
+    final BlendType blendType = BLENDS.get(blendName);
+    if (blendType == null) {
+      throw new IllegalArgumentException("Unknown blend: " + blendName);
+    }
     this.numChannels = numChannels;
     this.numPointsPerChannel = numPointsPerChannel;
 
@@ -94,9 +141,10 @@ public class BlendingHarness {
       Arrays.fill(actualOutputs[i], LXColor.BLACK);
     }
 
-    blendToTest = new AddBlend(lx);
+    blendToTest = blendType.builtin().apply(lx);
+    scalarBaseline = new LXBlend.FunctionalBlend(lx, blendType.function());
     alpha = 0.9;
-    expectedOutputs = blendResult(blendToTest, destinations, sources, alpha, model);
+    expectedOutputs = blendResult(scalarBaseline, destinations, sources, alpha, model);
   }
 
   @Setup(Level.Invocation)
@@ -109,7 +157,10 @@ public class BlendingHarness {
 
   @TearDown(Level.Invocation)
   public void verifyInvocationBase() {
-    assert Arrays.equals(expected, actual);
+    // Checked explicitly, JMH forks do not enable assertions
+    if (!Arrays.equals(expected, actual)) {
+      throw new IllegalStateException(blendToTest.getName() + " blend does not match its scalar baseline");
+    }
     this.index = (this.index + 1) % this.numChannels;
   }
 
@@ -119,6 +170,7 @@ public class BlendingHarness {
     String fname = "target/benchmark_" + simpleName + ".json";
     Options opt = new OptionsBuilder()
         .include(simpleName)
+        .jvmArgsAppend("--add-modules", "jdk.incubator.vector")
         .result(fname)
         .resultFormat(ResultFormatType.JSON)
         .build();
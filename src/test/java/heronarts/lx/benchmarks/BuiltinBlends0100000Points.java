@@ -0,0 +1,51 @@
+package heronarts.lx.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Timeout;
+
+/**
+ * Every built-in blend against its scalar baseline. Both benchmarks write to the
+ * same output, which the harness checks against the scalar result after every
+ * invocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, warmups = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+@Timeout(time = 10, timeUnit = TimeUnit.SECONDS)
+public class BuiltinBlends0100000Points extends BlendingHarness {
+  static final int NUM_CHANNELS = 16;
+  static final int NUM_POINTS_PER_CHANNEL = 100_000;
+
+  @Param({
+    "Add", "Burn", "Darkest", "Difference", "Dodge", "Highlight",
+    "Lightest", "Multiply", "Normal", "Screen", "Spotlight", "Subtract"
+  })
+  public String blendName;
+
+  @Setup(Level.Trial)
+  public void setupWholeTrial() {
+    setupTrialBase(NUM_CHANNELS, NUM_POINTS_PER_CHANNEL, this.blendName);
+  }
+
+  @Benchmark
+  public void measureBuiltin() {
+    blendToTest.blend(dst, src, alpha, actual, model);
+  }
+
+  @Benchmark
+  public void measureScalar() {
+    scalarBaseline.blend(dst, src, alpha, actual, model);
+  }
+}
@@ -0,0 +1,99 @@
+package heronarts.lx.benchmarks;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Timeout;
+
+import heronarts.lx.output.LXBufferOutput;
+import heronarts.lx.output.LXOutput.GammaTable;
+
+/**
+ * Compares the bulk segment encoders of the common byte orders against the
+ * per-pixel writeBytes path. Each bulk encoder is verified to produce identical
+ * output to the per-pixel path during trial setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, warmups = 1)
+@Timeout(time = 10, timeUnit = TimeUnit.SECONDS)
+public class ByteEncoders0100000Points {
+  static final int NUM_POINTS = 100_000;
+
+  @Param({ "RGB", "GRB", "BGR", "RGBW", "WRGB", "W" })
+  public String byteOrderName;
+
+  public LXBufferOutput.ByteOrder byteOrder;
+  public int[] colors;
+  public int[] indices;
+  public GammaTable.Curve gamma;
+  public byte[] output;
+  public int stride;
+
+  @Setup(Level.Trial)
+  public void setupWholeTrial() {
+    this.byteOrder = LXBufferOutput.ByteOrder.valueOf(this.byteOrderName);
+    this.stride = this.byteOrder.getNumBytes();
+
+    final Random random = new Random(0);
+    this.colors = new int[NUM_POINTS];
+    for (int i = 0; i < NUM_POINTS; ++i) {
+      this.colors[i] = random.nextInt();
+    }
+
+    // Shuffled indices with some gaps, as in a real fixture mapping
+    this.indices = new int[NUM_POINTS];
+    for (int i = 0; i < NUM_POINTS; ++i) {
+      this.indices[i] = (i % 97 == 0) ? -1 : i;
+    }
+    for (int i = NUM_POINTS - 1; i > 0; --i) {
+      final int j = random.nextInt(i + 1);
+      final int tmp = this.indices[i];
+      this.indices[i] = this.indices[j];
+      this.indices[j] = tmp;
+    }
+
+    this.gamma = GammaTable.get(2.2, 255, 240, 220, 255).level[200];
+    this.output = new byte[NUM_POINTS * this.stride];
+
+    verifyEncoder();
+  }
+
+  private void verifyEncoder() {
+    final byte[] expected = new byte[this.output.length];
+    measurePerPixel();
+    System.arraycopy(this.output, 0, expected, 0, expected.length);
+    Arrays.fill(this.output, (byte) 0);
+    measureSegment();
+    if (!Arrays.equals(expected, this.output)) {
+      throw new IllegalStateException("Segment encoder for " + this.byteOrderName + " does not match per-pixel output");
+    }
+  }
+
+  @Benchmark
+  public void measureSegment() {
+    this.byteOrder.writeSegment(this.colors, this.indices, this.gamma, this.output, 0, this.stride);
+  }
+
+  @Benchmark
+  public void measurePerPixel() {
+    int offset = 0;
+    for (int i = 0; i < this.indices.length; ++i) {
+      final int index = this.indices[i];
+      this.byteOrder.writeBytes((index >= 0) ? this.colors[index] : 0, this.gamma, this.output, offset);
+      offset += this.stride;
+    }
+  }
+}
@@ -0,0 +1,125 @@
+package heronarts.lx.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Timeout;
+
+import heronarts.lx.structure.Expression;
+
+/**
+ * Compares evaluation of typical LXF expressions by text substitution and
+ * re-parsing, as JsonFixture used to do, against a compiled expression with
+ * variables bound to slots. Each invocation evaluates the expression for every
+ * instance of a fixture component.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, warmups = 1)
+@Timeout(time = 10, timeUnit = TimeUnit.SECONDS)
+public class FixtureExpressions {
+  static final int NUM_INSTANCES = 1000;
+
+  @Param({
+    "($offset + (($instance - 1) / 2)) * $pointSpacing",
+    "$flip ? -$pointSpacing : $pointSpacing",
+    "$radius * cos($instance * 360 / $instances) + sin(atan2($offset, $radius))"
+  })
+  public String expression;
+
+  private static final Pattern VARIABLE_PATTERN = Pattern.compile("\\$\\{?([a-zA-Z0-9]+)\\}?");
+
+  public Expression.Compiled compiled;
+  public Expression.Variables variables;
+
+  @Setup(Level.Trial)
+  public void setupWholeTrial() {
+    this.compiled = Expression.compile(this.expression);
+    this.variables = new Expression.Variables();
+    for (int i = 0; i < NUM_INSTANCES; ++i) {
+      bind(i);
+      final float compiled = this.compiled.evaluateNumeric(this.variables);
+      final float substituted = Expression.evaluateNumeric(substitute(i).replaceAll("\\s", ""));
+      if (compiled != substituted) {
+        throw new IllegalStateException("Compiled expression " + this.expression + " gives " + compiled + ", expected " + substituted);
+      }
+    }
+  }
+
+  private String valueOf(String name, int instance) {
+    return switch (name) {
+      case "instance" -> String.valueOf(instance);
+      case "instances" -> String.valueOf(NUM_INSTANCES);
+      case "offset" -> String.valueOf(0.5);
+      case "pointSpacing" -> String.valueOf(1.9685039);
+      case "radius" -> String.valueOf(24.0);
+      case "flip" -> String.valueOf((instance % 2) == 0);
+      default -> throw new IllegalArgumentException("Unknown variable: " + name);
+    };
+  }
+
+  private void bind(int instance) {
+    for (int slot = 0; slot < this.compiled.getNumVariables(); ++slot) {
+      final String value = valueOf(this.compiled.getVariable(slot), instance);
+      if ("true".equals(value) || "false".equals(value)) {
+        this.variables.setBoolean(slot, Boolean.parseBoolean(value));
+      } else {
+        this.variables.setNumber(slot, Float.parseFloat(value));
+      }
+    }
+  }
+
+  private String substitute(int instance) {
+    final StringBuilder result = new StringBuilder();
+    final Matcher matcher = VARIABLE_PATTERN.matcher(this.expression);
+    int index = 0;
+    while (matcher.find()) {
+      result.append(this.expression, index, matcher.start());
+      result.append(valueOf(matcher.group(1), instance));
+      index = matcher.end();
+    }
+    result.append(this.expression, index, this.expression.length());
+    return result.toString();
+  }
+
+  @Benchmark
+  public float measureSubstituted() {
+    float sum = 0;
+    for (int i = 0; i < NUM_INSTANCES; ++i) {
+      sum += Expression.evaluateNumeric(substitute(i).replaceAll("\\s", ""));
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public float measureCompiled() {
+    float sum = 0;
+    for (int i = 0; i < NUM_INSTANCES; ++i) {
+      bindInstance(i);
+      sum += this.compiled.evaluateNumeric(this.variables);
+    }
+    return sum;
+  }
+
+  // Only the per-instance variables change between evaluations
+  private void bindInstance(int instance) {
+    for (int slot = 0; slot < this.compiled.getNumVariables(); ++slot) {
+      switch (this.compiled.getVariable(slot)) {
+      case "instance" -> this.variables.setNumber(slot, instance);
+      case "flip" -> this.variables.setBoolean(slot, (instance % 2) == 0);
+      }
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package heronarts.lx.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Timeout;
+
+import heronarts.lx.audio.FourierTransform;
+
+/**
+ * Compares FourierTransform, which packs real samples into a half-size complex
+ * transform with precomputed twiddles, against a full-size complex radix-2
+ * transform with a zero imaginary input and twiddles computed by recurrence, as
+ * FourierTransform used to do.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, warmups = 1)
+@Timeout(time = 10, timeUnit = TimeUnit.SECONDS)
+public class FourierTransforms {
+  static final int SAMPLE_RATE = 48000;
+
+  @Param({ "512", "1024", "2048", "4096", "8192" })
+  public int bufferSize;
+
+  public float[] samples;
+  public FourierTransform fft;
+  public ComplexTransform complex;
+
+  @Setup(Level.Trial)
+  public void setupWholeTrial() {
+    final Random random = new Random(0);
+    this.samples = new float[this.bufferSize];
+    for (int i = 0; i < this.bufferSize; ++i) {
+      this.samples[i] = random.nextFloat() * 2 - 1;
+    }
+    this.fft = new FourierTransform(this.bufferSize);
+    this.complex = new ComplexTransform(this.bufferSize);
+
+    this.fft.compute(this.samples, SAMPLE_RATE);
+    this.complex.compute(this.samples);
+    for (int i = 0; i <= this.bufferSize / 2; ++i) {
+      final float expected = this.complex.amplitude[i];
+      if (Math.abs(this.fft.get(i) - expected) > 1e-3f * Math.max(1, expected)) {
+        throw new IllegalStateException("FourierTransform bin " + i + " gives " + this.fft.get(i) + ", expected " + expected);
+      }
+    }
+  }
+
+  @Benchmark
+  public FourierTransform measureRealTransform() {
+    return this.fft.compute(this.samples, SAMPLE_RATE);
+  }
+
+  @Benchmark
+  public float[] measureComplexTransform() {
+    return this.complex.compute(this.samples);
+  }
+
+  static class ComplexTransform {
+    final int size;
+    final int logN;
+    final float[] sinN;
+    final float[] cosN;
+    final float[] windowCoefficients;
+    final int[] bitReverseIndex;
+    final float[] real;
+    final float[] imaginary;
+    final float[] amplitude;
+
+    ComplexTransform(int size) {
+      this.size = size;
+      this.logN = Integer.numberOfTrailingZeros(size);
+      this.sinN = new float[this.logN];
+      this.cosN = new float[this.logN];
+      for (int i = 0, n = 1; i < this.logN; ++i, n <<= 1) {
+        this.sinN[i] = (float) Math.sin(-Math.PI / n);
+        this.cosN[i] = (float) Math.cos(-Math.PI / n);
+      }
+      this.windowCoefficients = new float[size];
+      for (int i = 0; i < size; ++i) {
+        this.windowCoefficients[i] = 0.54f - 0.46f * (float) Math.cos(2 * Math.PI * i / (size-1));
+      }
+      this.bitReverseIndex = new int[size];
+      for (int limit = 1, bit = size/2; limit < size; limit <<= 1, bit >>= 1) {
+        for (int i = 0; i < limit; ++i) {
+          this.bitReverseIndex[i + limit] = this.bitReverseIndex[i] + bit;
+        }
+      }
+      this.real = new float[size];
+      this.imaginary = new float[size];
+      this.amplitude = new float[size/2 + 1];
+    }
+
+    float[] compute(float[] samples) {
+      for (int i = 0; i < this.size; ++i) {
+        int bri = this.bitReverseIndex[i];
+        this.real[i] = samples[bri] * this.windowCoefficients[bri];
+        this.imaginary[i] = 0f;
+      }
+      for (int l = 0, n = 1; l < this.logN; ++l, n <<= 1) {
+        float cosN = this.cosN[l];
+        float sinN = this.sinN[l];
+        float phaseR = 1f;
+        float phaseI = 0f;
+        for (int f = 0; f < n; ++f) {
+          for (int i = f; i < this.size; i += 2*n) {
+            int n2 = i + n;
+            float tR = phaseR * this.real[n2] - phaseI * this.imaginary[n2];
+            float tI = phaseR * this.imaginary[n2] + phaseI * this.real[n2];
+            this.real[n2] = this.real[i] - tR;
+            this.imaginary[n2] = this.imaginary[i] - tI;
+            this.real[i] += tR;
+            this.imaginary[i] += tI;
+          }
+          float tmpR = phaseR;
+          phaseR = (phaseR * cosN) - (phaseI * sinN);
+          phaseI = (tmpR * sinN) + (phaseI * cosN);
+        }
+      }
+      for (int i = 0; i < this.amplitude.length; ++i) {
+        this.amplitude[i] = (float) Math.sqrt(this.real[i]*this.real[i] + this.imaginary[i]*this.imaginary[i]);
+      }
+      return this.amplitude;
+    }
+  }
+
+}
@@ -0,0 +1,110 @@
+package heronarts.lx.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Timeout;
+
+import heronarts.lx.LX;
+import heronarts.lx.color.LXColor;
+import heronarts.lx.mixer.LXChannel;
+import heronarts.lx.model.GridModel;
+import heronarts.lx.model.LXPoint;
+import heronarts.lx.modulation.LXCompoundModulation;
+import heronarts.lx.modulator.SinLFO;
+import heronarts.lx.parameter.CompoundParameter;
+import heronarts.lx.pattern.LXPattern;
+
+/**
+ * Renders a frame of a modulation-heavy pattern, which reads a set of heavily
+ * modulated parameters for every point, with and without memoization of the
+ * modulated values. Without memoization every read evaluates every modulation
+ * of the parameter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, warmups = 1)
+@Timeout(time = 10, timeUnit = TimeUnit.SECONDS)
+public class ModulatedParameters {
+  static final int GRID_SIZE = 100;
+  static final int NUM_PARAMETERS = 8;
+  static final int NUM_MODULATIONS = 4;
+
+  public static class ModulatedPattern extends LXPattern {
+
+    public final CompoundParameter[] parameters = new CompoundParameter[NUM_PARAMETERS];
+
+    // Without memoization, a new epoch is started before every read
+    public boolean memoize = true;
+
+    public ModulatedPattern(LX lx) {
+      super(lx);
+      for (int i = 0; i < NUM_PARAMETERS; ++i) {
+        this.parameters[i] = new CompoundParameter("Param-" + i, 50, 0, 100).setExponent(2);
+        addParameter("param-" + i, this.parameters[i]);
+      }
+    }
+
+    @Override
+    protected void run(double deltaMs) {
+      for (LXPoint p : model.points) {
+        double sum = 0;
+        for (CompoundParameter parameter : this.parameters) {
+          if (!this.memoize) {
+            this.lx.engine.advanceModulationEpoch();
+          }
+          sum += parameter.getValue();
+        }
+        colors[p.index] = LXColor.gray(sum / NUM_PARAMETERS);
+      }
+    }
+  }
+
+  @Param({ "true", "false" })
+  public boolean memoize;
+
+  public LX lx;
+  public ModulatedPattern pattern;
+  public LXChannel channel;
+
+  @Setup(Level.Trial)
+  public void setupWholeTrial() throws Exception {
+    this.lx = new LX(new GridModel(GRID_SIZE, GRID_SIZE));
+    this.pattern = new ModulatedPattern(this.lx);
+    this.channel = this.lx.engine.mixer.addChannel(new LXPattern[] { this.pattern });
+    this.channel.fader.setValue(1);
+    for (CompoundParameter parameter : this.pattern.parameters) {
+      for (int m = 0; m < NUM_MODULATIONS; ++m) {
+        final SinLFO lfo = this.lx.engine.modulation.addModulator(new SinLFO(0, 1, 1000 + 100 * m));
+        lfo.start();
+        final LXCompoundModulation modulation = new LXCompoundModulation(this.lx.engine.modulation, lfo, parameter);
+        modulation.range.setValue(.1);
+        this.lx.engine.modulation.addModulation(modulation);
+      }
+    }
+    this.pattern.memoize = this.memoize;
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDownWholeTrial() {
+    this.lx.dispose();
+  }
+
+  @Benchmark
+  public void measureFrame() {
+    this.lx.engine.modulation.loop(16);
+    this.channel.loop(16);
+  }
+
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright 2025- Mark C. Slee, Heron Arts LLC
+ *
+ * <p>This file is part of the LX Studio software library. By using LX, you agree to the terms of
+ * the LX Studio Software License and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * <p>Please note that the LX license is not open-source. The license allows for free,
+ * non-commercial use.
+ *
+ * <p>HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR OTHERWISE, AND SPECIFICALLY
+ * DISCLAIMS ANY WARRANTY OF MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR PURPOSE,
+ * WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+package heronarts.lx.blend;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import heronarts.lx.LX;
+import heronarts.lx.color.LXColor;
+import heronarts.lx.model.GridModel;
+import heronarts.lx.model.LXModel;
+import heronarts.lx.model.LXPoint;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FunctionalBlendTest {
+
+    private static final int WIDTH = 32;
+
+    private static final double ALPHA = .7;
+
+    private static final int ALPHA_MASK = (int) (ALPHA * LXColor.BLEND_ALPHA_FULL);
+
+    /**
+     * Built-in blend and the LXColor function it is expected to apply to every point
+     */
+    private record Case(LXBlend blend, LXBlend.FunctionalBlend.BlendFunction reference) {}
+
+    private static Case[] cases(LX lx) {
+        return new Case[] {
+            new Case(new AddBlend(lx), LXColor::add),
+            new Case(new BurnBlend(lx), LXColor::burn),
+            new Case(new DarkestBlend(lx), LXColor::darkest),
+            new Case(new DifferenceBlend(lx), LXColor::difference),
+            new Case(new DodgeBlend(lx), LXColor::dodge),
+            new Case(new HighlightBlend(lx), LXColor::highlight),
+            new Case(new LightestBlend(lx), LXColor::lightest),
+            new Case(new MultiplyBlend(lx), LXColor::multiply),
+            new Case(new NormalBlend(lx), LXColor::lerp),
+            new Case(new ScreenBlend(lx), LXColor::screen),
+            new Case(new SpotlightBlend(lx), LXColor::spotlight),
+            new Case(new SubtractBlend(lx), LXColor::subtract)
+        };
+    }
+
+    private static int[] randomColors(int size, Random random) {
+        final int[] colors = new int[size];
+        for (int i = 0; i < size; ++i) {
+            colors[i] = random.nextInt();
+        }
+        return colors;
+    }
+
+    @Test
+    void testBulkFunctions() {
+        // The vector profile runs these tests once with the bulk functions, so that the
+        // reference checks below cover them, and once with the scalar path forced
+        final boolean vectorized = Boolean.getBoolean("heronarts.lx.blend.vectorized");
+        assertEquals(vectorized, BlendKernels.VECTORIZED);
+        final LX lx = new LX();
+        try {
+            for (Case c : cases(lx)) {
+                final boolean division = (c.blend instanceof DodgeBlend) || (c.blend instanceof BurnBlend);
+                assertEquals(vectorized && !division, ((LXBlend.FunctionalBlend) c.blend).hasBulkFunction(), c.blend.getName());
+                c.blend.dispose();
+            }
+        } finally {
+            lx.dispose();
+        }
+    }
+
+    @Test
+    void testBlendsMatchReference() {
+        final GridModel model = new GridModel(WIDTH, WIDTH);
+        model.reindexPoints();
+        final LX lx = new LX(model);
+        try {
+            final Random random = new Random(1);
+
+            // A row is a single range of indices, a column is strided through the model
+            final LXModel[] views = { model, model.rows.get(3), model.columns.get(5) };
+            assertTrue(model.rows.get(3).hasCompactIndexRanges());
+            assertFalse(model.columns.get(5).hasCompactIndexRanges());
+
+            for (Case c : cases(lx)) {
+                final String name = c.blend.getName();
+                final int[] dst = randomColors(model.size, random);
+                final int[] src = randomColors(model.size, random);
+                final int[] initial = randomColors(model.size, random);
+
+                for (LXModel view : views) {
+                    final int[] expected = initial.clone();
+                    for (LXPoint p : view.points) {
+                        expected[p.index] = c.reference.apply(dst[p.index], src[p.index], ALPHA_MASK);
+                    }
+
+                    final int[] output = initial.clone();
+                    c.blend.blend(dst, src, ALPHA, output, view);
+                    assertArrayEquals(expected, output, name);
+
+                    // Compact colors of the view addressed by their indices in the model
+                    final int[] indices = new int[view.size];
+                    final int[] compact = new int[view.size];
+                    for (int i = 0; i < view.size; ++i) {
+                        indices[i] = view.points[i].index;
+                        compact[i] = src[indices[i]];
+                    }
+                    final int[] indexed = initial.clone();
+                    c.blend.blend(dst, compact, ALPHA, indexed, indices, 0, indices.length);
+                    assertArrayEquals(expected, indexed, name);
+                }
+
+                // A range of indices, blending in place, which does not end on a
+                // whole vector so the scalar tail is covered as well
+                final int start = 100, num = 301;
+                final int[] expected = dst.clone();
+                for (int i = start; i < start + num; ++i) {
+                    expected[i] = c.reference.apply(dst[i], src[i], ALPHA_MASK);
+                }
+                final int[] inPlace = dst.clone();
+                c.blend.blend(inPlace, src, ALPHA, inPlace, start, num);
+                assertArrayEquals(expected, inPlace, name);
+
+                c.blend.dispose();
+            }
+        } finally {
+            lx.dispose();
+        }
+    }
+
+}
@@ -0,0 +1,343 @@
+/**
+ * Copyright 2025- Mark C. Slee, Heron Arts LLC
+ *
+ * <p>This file is part of the LX Studio software library. By using LX, you agree to the terms of
+ * the LX Studio Software License and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * <p>Please note that the LX license is not open-source. The license allows for free,
+ * non-commercial use.
+ *
+ * <p>HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR OTHERWISE, AND SPECIFICALLY
+ * DISCLAIMS ANY WARRANTY OF MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR PURPOSE,
+ * WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+package heronarts.lx.dmx;
+
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import heronarts.lx.LX;
+import heronarts.lx.model.GridModel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LXDmxEngineTest {
+
+    private static final long MS = 1000000L;
+
+    private static final int UNIVERSE = 3;
+
+    private static final int OPTION_PREVIEW_DATA = 0x80;
+    private static final int OPTION_STREAM_TERMINATED = 0x40;
+
+    private static final byte[] ACN_PACKET_IDENTIFIER = {
+        0x41, 0x53, 0x43, 0x2d, 0x45, 0x31, 0x2e, 0x31, 0x37, 0x00, 0x00, 0x00
+    };
+
+    private static final byte[] ART_NET_HEADER = { 'A', 'r', 't', '-', 'N', 'e', 't', 0 };
+
+    private LX lx;
+    private LXDmxEngine dmx;
+    private LXDmxEngine.DmxInput input;
+    private InetAddress from;
+
+    @BeforeEach
+    void setup() throws Exception {
+        this.lx = new LX(new GridModel(4, 4));
+        this.dmx = this.lx.engine.dmx;
+        this.input = this.dmx.new DmxInput();
+        this.from = InetAddress.getByAddress(new byte[] { 10, 0, 0, 1 });
+    }
+
+    @AfterEach
+    void teardown() {
+        this.lx.dispose();
+    }
+
+    private ByteBuffer clearPacket() {
+        Arrays.fill(this.input.packet, (byte) 0);
+        return this.input.buffer.clear();
+    }
+
+    /**
+     * Writes an E1.31 data packet to the input buffer
+     */
+    private int sacnPacket(long cid, int universe, int priority, int sequence, int syncAddress, int options, int... data) {
+        final ByteBuffer buffer = clearPacket();
+        buffer.putShort(0, (short) 0x0010);
+        buffer.put(4, ACN_PACKET_IDENTIFIER);
+        buffer.putInt(18, 0x00000004);
+        buffer.putLong(22, 0);
+        buffer.putLong(30, cid);
+        buffer.putInt(40, 0x00000002);
+        buffer.put(108, (byte) priority);
+        buffer.putShort(109, (short) syncAddress);
+        buffer.put(111, (byte) sequence);
+        buffer.put(112, (byte) options);
+        buffer.putShort(113, (short) universe);
+        buffer.putShort(123, (short) (data.length + 1));
+        buffer.put(125, (byte) 0);
+        for (int i = 0; i < data.length; ++i) {
+            buffer.put(126 + i, (byte) data[i]);
+        }
+        return 126 + data.length;
+    }
+
+    /**
+     * Writes an E1.31 synchronization packet to the input buffer
+     */
+    private int sacnSyncPacket(long cid, int sequence, int syncAddress) {
+        final ByteBuffer buffer = clearPacket();
+        buffer.putShort(0, (short) 0x0010);
+        buffer.put(4, ACN_PACKET_IDENTIFIER);
+        buffer.putInt(18, 0x00000008);
+        buffer.putLong(22, 0);
+        buffer.putLong(30, cid);
+        buffer.putInt(40, 0x00000001);
+        buffer.put(44, (byte) sequence);
+        buffer.putShort(45, (short) syncAddress);
+        return 49;
+    }
+
+    /**
+     * Writes an ArtDmx packet to the input buffer
+     */
+    private int artDmxPacket(int universe, int sequence, int... data) {
+        final ByteBuffer buffer = clearPacket();
+        buffer.put(0, ART_NET_HEADER);
+        buffer.put(8, (byte) 0x00);
+        buffer.put(9, (byte) 0x50);
+        buffer.put(11, (byte) 14);
+        buffer.put(12, (byte) sequence);
+        buffer.put(14, (byte) universe);
+        buffer.put(15, (byte) (universe >>> 8));
+        buffer.putShort(16, (short) data.length);
+        for (int i = 0; i < data.length; ++i) {
+            buffer.put(18 + i, (byte) data[i]);
+        }
+        return 18 + data.length;
+    }
+
+    /**
+     * Writes an ArtSync packet to the input buffer
+     */
+    private int artSyncPacket() {
+        final ByteBuffer buffer = clearPacket();
+        buffer.put(0, ART_NET_HEADER);
+        buffer.put(8, (byte) 0x00);
+        buffer.put(9, (byte) 0x52);
+        buffer.put(11, (byte) 14);
+        return 14;
+    }
+
+    private void receiveSacn(int length, long nanos) {
+        this.input.receive(LXDmxEngine.Protocol.SACN, length, this.from, nanos);
+    }
+
+    private void receiveArtNet(int length, long nanos) {
+        this.input.receive(LXDmxEngine.Protocol.ART_NET, length, this.from, nanos);
+    }
+
+    private void assertChannels(int universe, String message, int... expected) {
+        this.dmx.dispatch();
+        for (int i = 0; i < expected.length; ++i) {
+            assertEquals(expected[i], this.dmx.getValuei(universe, i), message + " [channel " + i + "]");
+        }
+    }
+
+    @Test
+    void testSacnHeaderParsing() {
+        receiveSacn(sacnPacket(1, UNIVERSE, 100, 1, 0, 0, 10, 20, 30), 0);
+        assertChannels(UNIVERSE, "Valid packet", 10, 20, 30);
+        assertEquals(0, this.dmx.getValuei(UNIVERSE - 1, 0));
+
+        int length = sacnPacket(1, UNIVERSE, 100, 2, 0, 0, 1, 1, 1);
+        this.input.packet[4] = 'X';
+        receiveSacn(length, 0);
+        assertChannels(UNIVERSE, "Bad packet identifier", 10, 20, 30);
+
+        receiveSacn(sacnPacket(1, UNIVERSE, 100, 3, 0, 0, 1, 1, 1), 0);
+        assertChannels(UNIVERSE, "Next packet", 1, 1, 1);
+
+        sacnPacket(1, UNIVERSE, 100, 4, 0, 0, 2, 2, 2);
+        receiveSacn(40, 0);
+        assertChannels(UNIVERSE, "Truncated packet", 1, 1, 1);
+
+        length = sacnPacket(1, UNIVERSE, 100, 5, 0, 0, 2, 2, 2);
+        this.input.buffer.putInt(40, 0x00000003);
+        receiveSacn(length, 0);
+        assertChannels(UNIVERSE, "Unsupported framing vector", 1, 1, 1);
+
+        receiveSacn(sacnPacket(1, UNIVERSE, 100, 6, 0, OPTION_PREVIEW_DATA, 3, 3, 3), 0);
+        assertChannels(UNIVERSE, "Preview data", 1, 1, 1);
+
+        length = sacnPacket(1, UNIVERSE, 100, 7, 0, 0, 4, 4, 4);
+        this.input.packet[125] = (byte) 0xdd;
+        receiveSacn(length, 0);
+        assertChannels(UNIVERSE, "Non-zero start code", 1, 1, 1);
+
+        receiveSacn(sacnPacket(1, LXDmxEngine.MAX_UNIVERSE, 100, 8, 0, 0, 5, 5, 5), 0);
+        assertChannels(UNIVERSE, "Universe out of range", 1, 1, 1);
+
+        // Property value count limits the data, regardless of the packet length
+        length = sacnPacket(1, UNIVERSE, 100, 9, 0, 0, 6, 6, 6);
+        this.input.buffer.putShort(123, (short) 3);
+        receiveSacn(length, 0);
+        assertChannels(UNIVERSE, "Property value count", 6, 6, 1);
+    }
+
+    @Test
+    void testPriorityAndHtpMerge() {
+        receiveSacn(sacnPacket(1, UNIVERSE, 100, 1, 0, 0, 100, 0, 30), 0);
+        receiveSacn(sacnPacket(2, UNIVERSE, 100, 1, 0, 0, 50, 200, 30), 0);
+        assertChannels(UNIVERSE, "Equal priority merged highest-takes-precedence", 100, 200, 30);
+
+        receiveSacn(sacnPacket(3, UNIVERSE, 150, 1, 0, 0, 10, 10, 10), 0);
+        assertChannels(UNIVERSE, "Higher priority source wins", 10, 10, 10);
+
+        receiveSacn(sacnPacket(1, UNIVERSE, 100, 2, 0, 0, 255, 255, 255), 0);
+        assertChannels(UNIVERSE, "Lower priority sources are not merged", 10, 10, 10);
+
+        // Art-Net sources have the default priority
+        receiveSacn(sacnPacket(3, UNIVERSE, 90, 2, 0, 0, 10, 10, 10), 0);
+        receiveArtNet(artDmxPacket(UNIVERSE, 0, 0, 0, 0, 250), 0);
+        assertChannels(UNIVERSE, "Art-Net merged at default priority", 255, 255, 255, 250);
+
+        // Sources that time out are no longer merged
+        receiveSacn(sacnPacket(2, UNIVERSE, 100, 2, 0, 0, 1, 1, 1), 2000 * MS);
+        this.input.pruneSources(3000 * MS);
+        assertChannels(UNIVERSE, "Timed out sources pruned", 1, 1, 1, 0);
+    }
+
+    @Test
+    void testSequenceWindow() {
+        receiveSacn(sacnPacket(1, UNIVERSE, 100, 10, 0, 0, 1), 0);
+        assertChannels(UNIVERSE, "First packet", 1);
+
+        receiveSacn(sacnPacket(1, UNIVERSE, 100, 9, 0, 0, 2), 0);
+        assertChannels(UNIVERSE, "One behind", 1);
+
+        receiveSacn(sacnPacket(1, UNIVERSE, 100, 10, 0, 0, 2), 0);
+        assertChannels(UNIVERSE, "Duplicate", 1);
+
+        receiveSacn(sacnPacket(1, UNIVERSE, 100, 11, 0, 0, 3), 0);
+        assertChannels(UNIVERSE, "Next", 3);
+
+        receiveSacn(sacnPacket(1, UNIVERSE, 100, 11 - 19, 0, 0, 4), 0);
+        assertChannels(UNIVERSE, "19 behind", 3);
+
+        receiveSacn(sacnPacket(1, UNIVERSE, 100, 11 - 20, 0, 0, 5), 0);
+        assertChannels(UNIVERSE, "20 behind is a restarted sender", 5);
+
+        receiveSacn(sacnPacket(1, UNIVERSE, 100, 255, 0, 0, 6), 0);
+        receiveSacn(sacnPacket(1, UNIVERSE, 100, 0, 0, 0, 7), 0);
+        assertChannels(UNIVERSE, "Wraparound", 7);
+
+        receiveSacn(sacnPacket(1, UNIVERSE, 100, 0, 0, 0, 8), 3000 * MS);
+        assertChannels(UNIVERSE, "Any sequence after the source timed out", 8);
+
+        // Art-Net sequence 0 is unsequenced
+        receiveArtNet(artDmxPacket(UNIVERSE + 1, 5, 1), 0);
+        receiveArtNet(artDmxPacket(UNIVERSE + 1, 4, 2), 0);
+        assertChannels(UNIVERSE + 1, "Art-Net out of sequence", 1);
+        receiveArtNet(artDmxPacket(UNIVERSE + 1, 0, 3), 0);
+        receiveArtNet(artDmxPacket(UNIVERSE + 1, 0, 4), 0);
+        assertChannels(UNIVERSE + 1, "Art-Net unsequenced", 4);
+    }
+
+    @Test
+    void testStreamTermination() {
+        receiveSacn(sacnPacket(1, UNIVERSE, 150, 1, 0, 0, 200), 0);
+        receiveSacn(sacnPacket(2, UNIVERSE, 100, 1, 0, 0, 50), 0);
+        assertChannels(UNIVERSE, "Higher priority", 200);
+
+        receiveSacn(sacnPacket(1, UNIVERSE, 150, 2, 0, OPTION_STREAM_TERMINATED, 0), 0);
+        assertChannels(UNIVERSE, "Terminated source removed", 50);
+
+        // With no sources left the last look is held
+        receiveSacn(sacnPacket(2, UNIVERSE, 100, 2, 0, OPTION_STREAM_TERMINATED, 0), 0);
+        assertChannels(UNIVERSE, "Last look held", 50);
+
+        // A terminated source is a new source if it starts again
+        receiveSacn(sacnPacket(1, UNIVERSE, 150, 1, 0, 0, 100), 0);
+        assertChannels(UNIVERSE, "Restarted source", 100);
+    }
+
+    @Test
+    void testArtSyncHold() {
+        receiveArtNet(artDmxPacket(UNIVERSE, 0, 10), 0);
+        assertChannels(UNIVERSE, "Unsynchronized", 10);
+
+        receiveArtNet(artSyncPacket(), 0);
+        receiveArtNet(artDmxPacket(UNIVERSE, 0, 20), 10 * MS);
+        assertChannels(UNIVERSE, "Held for ArtSync", 10);
+
+        receiveArtNet(artSyncPacket(), 20 * MS);
+        assertChannels(UNIVERSE, "Released by ArtSync", 20);
+
+        receiveArtNet(artDmxPacket(UNIVERSE, 0, 30), 30 * MS);
+        assertChannels(UNIVERSE, "Held for next ArtSync", 20);
+
+        // No ArtSync for 4 seconds, output is no longer synchronized
+        receiveArtNet(artDmxPacket(UNIVERSE, 0, 40), 4030 * MS);
+        assertChannels(UNIVERSE, "ArtSync timed out", 40);
+    }
+
+    @Test
+    void testSacnSyncHold() {
+        receiveSacn(sacnPacket(1, UNIVERSE, 100, 1, 7, 0, 10), 0);
+        assertChannels(UNIVERSE, "No sync received yet", 10);
+
+        receiveSacn(sacnSyncPacket(1, 1, 7), 0);
+        receiveSacn(sacnPacket(1, UNIVERSE, 100, 2, 7, 0, 20), 10 * MS);
+        receiveSacn(sacnPacket(2, UNIVERSE + 1, 100, 1, 0, 0, 21), 10 * MS);
+        assertChannels(UNIVERSE, "Held for sync", 10);
+        assertChannels(UNIVERSE + 1, "Data without sync address is not held", 21);
+
+        receiveSacn(sacnSyncPacket(1, 2, 8), 20 * MS);
+        assertChannels(UNIVERSE, "Other sync address", 10);
+
+        receiveSacn(sacnSyncPacket(1, 3, 7), 30 * MS);
+        assertChannels(UNIVERSE, "Released by sync", 20);
+
+        receiveSacn(sacnPacket(1, UNIVERSE, 100, 3, 7, 0, 30), 40 * MS);
+        assertChannels(UNIVERSE, "Held for next sync", 20);
+
+        // No sync for 4 seconds, data is applied on receipt
+        receiveSacn(sacnPacket(1, UNIVERSE, 100, 4, 7, 0, 40), 4040 * MS);
+        assertChannels(UNIVERSE, "Sync timed out", 40);
+    }
+
+    @Test
+    void testDispatchSwapsFrontAndBack() {
+        final byte[] initial = this.dmx.getData(UNIVERSE);
+        receiveSacn(sacnPacket(1, UNIVERSE, 100, 1, 0, 0, 1), 0);
+        assertEquals(0, this.dmx.getValuei(UNIVERSE, 0), "Not visible before dispatch");
+
+        this.dmx.dispatch();
+        final byte[] front = this.dmx.getData(UNIVERSE);
+        assertNotSame(initial, front);
+        assertEquals(1, this.dmx.getValuei(UNIVERSE, 0));
+
+        // Nothing new, nothing swapped
+        this.dmx.dispatch();
+        assertSame(front, this.dmx.getData(UNIVERSE));
+
+        // New data is merged into the old front buffer while the current one is read
+        receiveSacn(sacnPacket(1, UNIVERSE, 100, 2, 0, 0, 2), 0);
+        assertSame(front, this.dmx.getData(UNIVERSE));
+        assertEquals(1, this.dmx.getValuei(UNIVERSE, 0));
+        this.dmx.dispatch();
+        assertSame(initial, this.dmx.getData(UNIVERSE));
+        assertEquals(2, this.dmx.getValuei(UNIVERSE, 0));
+        assertEquals(1, front[0], "Swapped out buffer is untouched until the next merge");
+    }
+
+}
@@ -0,0 +1,196 @@
+/**
+ * Copyright 2025- Mark C. Slee, Heron Arts LLC
+ *
+ * <p>This file is part of the LX Studio software library. By using LX, you agree to the terms of
+ * the LX Studio Software License and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * <p>Please note that the LX license is not open-source. The license allows for free,
+ * non-commercial use.
+ *
+ * <p>HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR OTHERWISE, AND SPECIFICALLY
+ * DISCLAIMS ANY WARRANTY OF MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR PURPOSE,
+ * WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+package heronarts.lx.mixer;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import heronarts.lx.model.LXModel;
+import heronarts.lx.model.LXPoint;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BufferRegionTest {
+
+    private static final int NUM_CHILDREN = 4;
+    private static final int CHILD_SIZE = 10;
+
+    private static LXModel buildModel() {
+        final List<LXPoint> points = new ArrayList<LXPoint>();
+        final LXModel[] children = new LXModel[NUM_CHILDREN];
+        for (int c = 0; c < NUM_CHILDREN; ++c) {
+            final List<LXPoint> childPoints = new ArrayList<LXPoint>();
+            for (int i = 0; i < CHILD_SIZE; ++i) {
+                childPoints.add(new LXPoint(c, i, 0));
+            }
+            points.addAll(childPoints);
+            children[c] = new LXModel(childPoints);
+        }
+        final LXModel model = new LXModel(points, children);
+        model.reindexPoints();
+        return model;
+    }
+
+    private static int[] filled(int size) {
+        final int[] colors = new int[size];
+        Arrays.fill(colors, 1);
+        return colors;
+    }
+
+    private static boolean isCleared(int[] colors, LXModel model) {
+        for (LXPoint p : model.points) {
+            if (colors[p.index] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Test
+    void testClearsWholeBufferOnViewChange() {
+        final LXModel model = buildModel();
+        final int size = model.size;
+        final BufferRegion region = new BufferRegion();
+
+        final int[] colors = filled(size);
+        assertEquals(size, region.clear(colors, model.children[1]));
+        assertArrayEquals(new int[size], colors);
+
+        // Same view and buffer, only its points are cleared
+        Arrays.fill(colors, 1);
+        assertEquals(CHILD_SIZE, region.clear(colors, model.children[1]));
+        assertTrue(isCleared(colors, model.children[1]));
+        assertEquals(1, colors[model.children[0].points[0].index]);
+        assertEquals(1, colors[model.children[2].points[0].index]);
+
+        // A different view clears everything again
+        Arrays.fill(colors, 1);
+        assertEquals(size, region.clear(colors, model.children[2]));
+        assertArrayEquals(new int[size], colors);
+
+        // A different buffer size clears everything again
+        assertEquals(size + 1, region.clear(filled(size + 1), model.children[2]));
+    }
+
+    @Test
+    void testClearsWholeBufferOnArrayChange() {
+        final LXModel model = buildModel();
+        final int size = model.size;
+        final BufferRegion region = new BufferRegion();
+
+        final int[] first = filled(size);
+        region.clear(first, model.children[1]);
+        Arrays.fill(first, 1);
+        assertEquals(CHILD_SIZE, region.clear(first, model.children[1]));
+
+        // Another array of the same size may hold anything outside the view
+        final int[] second = filled(size);
+        assertEquals(size, region.clear(second, model.children[1]));
+        assertArrayEquals(new int[size], second);
+
+        // Switching back to the first array is also a change
+        Arrays.fill(first, 1);
+        assertEquals(size, region.clear(first, model.children[1]));
+        assertArrayEquals(new int[size], first);
+    }
+
+    @Test
+    void testLentArraysClearOnlyView() {
+        final LXModel model = buildModel();
+        final int size = model.size;
+        final BufferRegion region = new BufferRegion();
+
+        // Pooled arrays are cleared within the view every time, whichever array it is
+        for (int i = 0; i < 3; ++i) {
+            final int[] colors = filled(size);
+            assertEquals(CHILD_SIZE, region.clear(colors, model.children[1], null, true));
+            assertTrue(isCleared(colors, model.children[1]));
+            assertEquals(1, colors[model.children[0].points[0].index]);
+        }
+
+        // Followed by an owned array, which is cleared in full
+        assertEquals(size, region.clear(filled(size), model.children[1]));
+    }
+
+    @Test
+    void testClearsUnionOfViews() {
+        final LXModel model = buildModel();
+        final int size = model.size;
+        final BufferRegion region = new BufferRegion();
+        final List<LXModel> views = new ArrayList<LXModel>();
+        views.add(model.children[0]);
+        views.add(model.children[2]);
+
+        final int[] colors = filled(size);
+        assertEquals(size, region.clear(colors, views));
+
+        // Both views are cleared, overlapping points only once
+        Arrays.fill(colors, 1);
+        views.add(model.children[2]);
+        assertEquals(size, region.clear(colors, views));
+        Arrays.fill(colors, 1);
+        assertEquals(2 * CHILD_SIZE, region.clear(colors, views));
+        assertTrue(isCleared(colors, model.children[0]));
+        assertTrue(isCleared(colors, model.children[2]));
+        assertEquals(1, colors[model.children[1].points[0].index]);
+        assertEquals(1, colors[model.children[3].points[0].index]);
+    }
+
+    @Test
+    void testCoveredPointsAreNotCleared() {
+        final LXModel model = buildModel();
+        final int size = model.size;
+        final BufferRegion region = new BufferRegion();
+        final int[] colors = filled(size);
+        region.clear(colors, model);
+
+        Arrays.fill(colors, 1);
+        final int cleared = region.clear(colors, model, model.children[2], false);
+        assertEquals(model.size - CHILD_SIZE, cleared);
+        for (int c = 0; c < NUM_CHILDREN; ++c) {
+            if (c == 2) {
+                for (LXPoint p : model.children[c].points) {
+                    assertEquals(1, colors[p.index]);
+                }
+            } else {
+                assertTrue(isCleared(colors, model.children[c]));
+            }
+        }
+
+        // Removing the cover clears the whole view
+        Arrays.fill(colors, 1);
+        assertEquals(model.size, region.clear(colors, model, null, false));
+    }
+
+    @Test
+    void testRangesAreClampedToBuffer() {
+        final LXModel model = buildModel();
+        final int size = model.size;
+        final BufferRegion region = new BufferRegion();
+
+        // A buffer that is missing the last child's points
+        final int shortSize = size - CHILD_SIZE;
+        final int[] colors = filled(shortSize);
+        region.clear(colors, model);
+        Arrays.fill(colors, 1);
+        assertEquals(model.size - CHILD_SIZE, region.clear(colors, model));
+    }
+
+}
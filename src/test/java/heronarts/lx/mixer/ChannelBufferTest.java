@@ -0,0 +1,303 @@
+/**
+ * Copyright 2025- Mark C. Slee, Heron Arts LLC
+ *
+ * <p>This file is part of the LX Studio software library. By using LX, you agree to the terms of
+ * the LX Studio Software License and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * <p>Please note that the LX license is not open-source. The license allows for free,
+ * non-commercial use.
+ *
+ * <p>HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR OTHERWISE, AND SPECIFICALLY
+ * DISCLAIMS ANY WARRANTY OF MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR PURPOSE,
+ * WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+package heronarts.lx.mixer;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import heronarts.lx.LX;
+import heronarts.lx.LXBuffer;
+import heronarts.lx.blend.AddBlend;
+import heronarts.lx.blend.DissolveBlend;
+import heronarts.lx.blend.LXBlend;
+import heronarts.lx.blend.NormalBlend;
+import heronarts.lx.color.LXColor;
+import heronarts.lx.model.GridModel;
+import heronarts.lx.model.LXModel;
+import heronarts.lx.model.LXPoint;
+import heronarts.lx.pattern.LXPattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChannelBufferTest {
+
+    private static final int WIDTH = 64;
+
+    private static GridModel newModel() {
+        final GridModel model = new GridModel(WIDTH, WIDTH);
+        model.reindexPoints();
+        return model;
+    }
+
+    /**
+     * Renders random colors into a channel buffer for the given view, and returns the
+     * full array that was rendered
+     */
+    private static int[] render(ChannelBuffer buffer, LXModel view, Random random) {
+        buffer.beginRender(view);
+        final int[] array = buffer.getArray();
+        final int[] rendered = new int[array.length];
+        for (int i = 0; i < array.length; ++i) {
+            array[i] = rendered[i] = random.nextInt();
+        }
+        buffer.endRender();
+        return rendered;
+    }
+
+    /**
+     * Blend with no indexed implementation of its own, which uses the default
+     * gather and scatter
+     */
+    private static class GatherBlend extends LXBlend {
+        private GatherBlend(LX lx) {
+            super(lx);
+        }
+
+        @Override
+        public void blend(int[] dst, int[] src, double alpha, int[] output, LXModel model) {
+            for (LXPoint p : model.points) {
+                output[p.index] = LXColor.add(dst[p.index], src[p.index], alpha);
+            }
+        }
+
+        @Override
+        public void blend(int[] dst, int[] src, double alpha, int[] output, int start, int num) {
+            for (int i = start; i < start + num; ++i) {
+                output[i] = LXColor.add(dst[i], src[i], alpha);
+            }
+        }
+    }
+
+    private static class TestPattern extends LXPattern {
+        private TestPattern(LX lx) {
+            super(lx);
+        }
+
+        @Override
+        protected void run(double deltaMs) {}
+    }
+
+    private static int[] randomColors(int size, Random random) {
+        final int[] colors = new int[size];
+        for (int i = 0; i < size; ++i) {
+            colors[i] = random.nextInt();
+        }
+        return colors;
+    }
+
+    @Test
+    void testCompactBlendMatchesModelBlend() {
+        final GridModel model = newModel();
+        final LX lx = new LX(model);
+        try {
+            final Random random = new Random(1);
+            final LXBlend[] blends = { new AddBlend(lx), new NormalBlend(lx), new DissolveBlend(lx), new GatherBlend(lx) };
+
+            // A column is strided through the model, a row is contiguous
+            for (LXModel view : new LXModel[] { model.columns.get(3), model.rows.get(5) }) {
+                final ChannelBuffer buffer = new ChannelBuffer(lx);
+                final int[] rendered = render(buffer, view, random);
+                assertTrue(buffer.isCompact());
+                assertEquals(0, buffer.peekArray().length);
+
+                for (LXBlend blend : blends) {
+                    final int[] dst = randomColors(model.size, random);
+                    final int[] expected = dst.clone();
+                    blend.blend(dst, rendered, .7, expected, view);
+
+                    final int[] output = dst.clone();
+                    buffer.blend(blend, dst, .7, output, view);
+                    assertArrayEquals(expected, output);
+
+                    // Chunks as used by the multi-threaded compositor
+                    final int[] chunked = dst.clone();
+                    for (int start = 0; start < model.size; start += 1000) {
+                        buffer.blend(blend, chunked, .7, chunked, view, start, Math.min(1000, model.size - start));
+                    }
+                    assertArrayEquals(expected, chunked);
+                }
+                buffer.dispose();
+            }
+        } finally {
+            lx.dispose();
+        }
+    }
+
+    @Test
+    void testColorsReadableAfterFrame() {
+        final GridModel model = newModel();
+        final LX lx = new LX(model);
+        try {
+            final Random random = new Random(2);
+            final LXModel view = model.columns.get(7);
+            final ChannelBuffer buffer = new ChannelBuffer(lx);
+            final TestPattern pattern = new TestPattern(lx);
+
+            for (int frame = 0; frame < 3; ++frame) {
+                buffer.beginRender(view);
+                pattern.setBuffer(buffer);
+                final int[] rendered = buffer.getArray().clone();
+                for (LXPoint p : view.points) {
+                    buffer.getArray()[p.index] = rendered[p.index] = random.nextInt();
+                }
+                buffer.endRender();
+
+                // Reading the colors outside of rendering gives the whole model
+                final int[] colors = pattern.getColors();
+                assertEquals(model.size, colors.length);
+                for (LXPoint p : view.points) {
+                    assertEquals(rendered[p.index], colors[p.index]);
+                }
+                assertTrue(buffer.isCompact());
+            }
+            pattern.dispose();
+            buffer.dispose();
+        } finally {
+            lx.dispose();
+        }
+    }
+
+    @Test
+    void testScratchReadableAfterRelease() {
+        final GridModel model = newModel();
+        final LX lx = new LX(model);
+        try {
+            final ScratchBuffer scratch = new ScratchBuffer(lx);
+            scratch.acquire();
+            scratch.release();
+
+            // Reading while not in use keeps a model-sized array for the following frames
+            final int[] array = scratch.getArray();
+            assertEquals(model.size, array.length);
+            scratch.acquire();
+            assertSame(array, scratch.getArray());
+            array[5] = 0xff00ff00;
+            scratch.release();
+            assertSame(array, scratch.getArray());
+            assertEquals(0xff00ff00, scratch.getArray()[5]);
+        } finally {
+            lx.dispose();
+        }
+    }
+
+    /**
+     * Reads the buffer's array from a thread other than the one rendering
+     */
+    private static int[] getArrayFromOtherThread(LXBuffer buffer) throws InterruptedException {
+        final int[][] result = new int[1][];
+        final Thread thread = new Thread(() -> result[0] = buffer.getArray());
+        thread.start();
+        thread.join();
+        return result[0];
+    }
+
+    @Test
+    void testLentArrayIsNotShared() throws InterruptedException {
+        final GridModel model = newModel();
+        final LX lx = new LX(model);
+        try {
+            final LXModel view = model.columns.get(2);
+            final ChannelBuffer buffer = new ChannelBuffer(lx);
+            render(buffer, view, new Random(3));
+
+            // While rendering into a lent array, other threads get their own
+            buffer.beginRender(view);
+            final int[] lent = buffer.getArray();
+            final int[] preview = getArrayFromOtherThread(buffer);
+            assertNotSame(lent, preview);
+            assertEquals(model.size, preview.length);
+            buffer.endRender();
+
+            // The request makes the next frame render into an array that is shared
+            buffer.beginRender(view);
+            final int[] owned = buffer.getArray();
+            assertSame(owned, getArrayFromOtherThread(buffer));
+            buffer.endRender();
+            assertSame(owned, buffer.peekArray());
+
+            // Which is dropped once the requests stop
+            for (int frame = 0; frame <= ChannelBuffer.RETAIN_FRAMES; ++frame) {
+                buffer.beginRender(view);
+                buffer.endRender();
+            }
+            assertEquals(0, buffer.peekArray().length);
+            buffer.dispose();
+
+            final ScratchBuffer scratch = new ScratchBuffer(lx);
+            scratch.acquire();
+            final int[] scratchLent = scratch.getArray();
+            assertNotSame(scratchLent, getArrayFromOtherThread(scratch));
+            scratch.release();
+            scratch.acquire();
+            final int[] scratchOwned = scratch.getArray();
+            assertSame(scratchOwned, getArrayFromOtherThread(scratch));
+            scratch.release();
+            for (int frame = 0; frame <= ChannelBuffer.RETAIN_FRAMES; ++frame) {
+                scratch.acquire();
+                scratch.release();
+            }
+            scratch.acquire();
+            assertNotSame(scratchOwned, scratch.getArray());
+            scratch.release();
+        } finally {
+            lx.dispose();
+        }
+    }
+
+    @Test
+    void testLargeViewIsNotCompact() {
+        final GridModel model = newModel();
+        final LX lx = new LX(model);
+        try {
+            final ChannelBuffer buffer = new ChannelBuffer(lx);
+            buffer.beginRender(model);
+            final int[] array = buffer.getArray();
+            assertEquals(model.size, array.length);
+            buffer.endRender();
+            assertFalse(buffer.isCompact());
+            assertSame(array, buffer.getArray());
+
+            // Switching to a small view releases the owned array
+            buffer.beginRender(model.rows.get(0));
+            assertNotSame(array, buffer.getArray());
+            buffer.endRender();
+            assertTrue(buffer.isCompact());
+            buffer.dispose();
+        } finally {
+            lx.dispose();
+        }
+    }
+
+    @Test
+    void testScratchIsReused() {
+        final GridModel model = newModel();
+        final LX lx = new LX(model);
+        try {
+            final int[] scratch = lx.engine.mixer.acquireScratch();
+            assertEquals(model.size, scratch.length);
+            lx.engine.mixer.releaseScratch(scratch);
+            assertSame(scratch, lx.engine.mixer.acquireScratch());
+
+            // Arrays of the wrong size are not pooled
+            lx.engine.mixer.releaseScratch(new int[10]);
+            assertEquals(model.size, lx.engine.mixer.acquireScratch().length);
+        } finally {
+            lx.dispose();
+        }
+    }
+
+}
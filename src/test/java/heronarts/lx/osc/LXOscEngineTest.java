@@ -0,0 +1,424 @@
+/**
+ * Copyright 2025- Mark C. Slee, Heron Arts LLC
+ *
+ * <p>This file is part of the LX Studio software library. By using LX, you agree to the terms of
+ * the LX Studio Software License and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * <p>Please note that the LX license is not open-source. The license allows for free,
+ * non-commercial use.
+ *
+ * <p>HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR OTHERWISE, AND SPECIFICALLY
+ * DISCLAIMS ANY WARRANTY OF MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR PURPOSE,
+ * WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+package heronarts.lx.osc;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import heronarts.lx.LX;
+import heronarts.lx.mixer.LXChannel;
+import heronarts.lx.model.GridModel;
+import heronarts.lx.parameter.LXParameter;
+import heronarts.lx.parameter.StringParameter;
+import heronarts.lx.pattern.LXPattern;
+import heronarts.lx.pattern.color.SolidPattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LXOscEngineTest {
+
+    private static final long RECEIVE_TIMEOUT_MS = 2000;
+
+    private static final String ADDRESS = "/test/value";
+
+    /**
+     * Listener that records every message it is sent, optionally declaring itself
+     * transient so that the receiver may re-use the messages
+     */
+    private static class RecordingListener implements LXOscListener {
+
+        private final boolean isTransient;
+        private final List<OscMessage> messages = new ArrayList<OscMessage>();
+        private final List<Float> values = new ArrayList<Float>();
+
+        private RecordingListener(boolean isTransient) {
+            this.isTransient = isTransient;
+        }
+
+        @Override
+        public void oscMessage(OscMessage message) {
+            this.messages.add(message);
+            this.values.add(message.getFloat(0));
+        }
+
+        @Override
+        public boolean isTransient() {
+            return this.isTransient;
+        }
+    }
+
+    /**
+     * Sends single-float messages over loopback to a receiver, dispatching each one
+     * before the next is sent
+     */
+    private static void sendAndDispatch(LX lx, LXOscEngine.Receiver receiver, RecordingListener recorder, float... values) throws Exception {
+        final InetAddress loopback = InetAddress.getLoopbackAddress();
+        final int port = ((InetSocketAddress) receiver.address).getPort();
+        final LXOscEngine.Transmitter transmitter = lx.engine.osc.transmitter(loopback, port);
+        try {
+            for (float value : values) {
+                final int expected = recorder.messages.size() + 1;
+                transmitter.send(new OscMessage(ADDRESS).add(value));
+                final long timeout = System.currentTimeMillis() + RECEIVE_TIMEOUT_MS;
+                while (recorder.messages.size() < expected) {
+                    assertTrue(System.currentTimeMillis() < timeout, "Timed out waiting for OSC message");
+                    Thread.sleep(1);
+                    lx.engine.osc.dispatch();
+                }
+            }
+        } finally {
+            transmitter.dispose();
+        }
+    }
+
+    @Test
+    void testMessageRingWraparound() {
+        final int capacity = 4;
+        final LXOscEngine.MessageRing ring = new LXOscEngine.MessageRing(capacity);
+        final OscMessage[] messages = new OscMessage[capacity + 1];
+        for (int i = 0; i < messages.length; ++i) {
+            messages[i] = new OscMessage("/" + i);
+        }
+        assertNull(ring.peek());
+        assertNull(ring.poll());
+
+        // Run the indices around the ring several times with different batch sizes
+        int next = 0;
+        for (int round = 0; round < 4 * capacity; ++round) {
+            final int batch = 1 + (round % capacity);
+            for (int i = 0; i < batch; ++i) {
+                assertTrue(ring.offer(messages[(next + i) % messages.length]));
+            }
+            assertNull(ring.peek(), "Staged messages must not be visible before publish");
+            ring.publish();
+            for (int i = 0; i < batch; ++i) {
+                final OscMessage expected = messages[next++ % messages.length];
+                assertSame(expected, ring.peek());
+                assertSame(expected, ring.poll());
+            }
+            assertNull(ring.poll());
+        }
+
+        // A full ring refuses more messages, staged and published alike
+        for (int i = 0; i < capacity; ++i) {
+            assertTrue(ring.offer(messages[i]));
+        }
+        assertFalse(ring.offer(messages[capacity]));
+        ring.publish();
+        assertFalse(ring.offer(messages[capacity]));
+        assertSame(messages[0], ring.poll());
+        assertTrue(ring.offer(messages[capacity]));
+
+        // Discarding abandons only the unpublished messages
+        ring.discard();
+        for (int i = 1; i < capacity; ++i) {
+            assertSame(messages[i], ring.poll());
+        }
+        assertNull(ring.poll());
+    }
+
+    @Test
+    void testTransientListenerMessagesAreReused() throws Exception {
+        final LX lx = new LX(new GridModel(4, 4));
+        try {
+            final LXOscEngine.Receiver receiver = lx.engine.osc.receiver(0, InetAddress.getLoopbackAddress());
+            final RecordingListener recorder = new RecordingListener(true);
+            receiver.addListener(recorder);
+            sendAndDispatch(lx, receiver, recorder, 1, 2, 3);
+            assertEquals(List.of(1f, 2f, 3f), recorder.values);
+
+            // Each message was handed back to the pool and parsed into again
+            final OscMessage first = recorder.messages.get(0);
+            assertSame(first, recorder.messages.get(1));
+            assertSame(first, recorder.messages.get(2));
+            assertEquals(3f, first.getFloat(0));
+            receiver.stop();
+        } finally {
+            lx.dispose();
+        }
+    }
+
+    @Test
+    void testRetainedMessagesAreNotReused() throws Exception {
+        final LX lx = new LX(new GridModel(4, 4));
+        try {
+            final LXOscEngine.Receiver receiver = lx.engine.osc.receiver(0, InetAddress.getLoopbackAddress());
+            final RecordingListener recorder = new RecordingListener(true);
+            final RecordingListener retainer = new RecordingListener(false);
+            receiver.addListener(recorder);
+            receiver.addListener(retainer);
+            sendAndDispatch(lx, receiver, recorder, 1, 2, 3);
+            assertRetained(retainer, 1, 2, 3);
+            receiver.stop();
+        } finally {
+            lx.dispose();
+        }
+    }
+
+    @Test
+    void testCustomEngineListenerMessagesAreNotReused() throws Exception {
+        final LX lx = new LX(new GridModel(4, 4));
+        try {
+            final LXOscEngine.Receiver receiver = lx.engine.osc.receiver(0, InetAddress.getLoopbackAddress());
+            final RecordingListener retainer = new RecordingListener(false);
+            receiver.addListener(lx.engine.osc.engineListener);
+            lx.engine.osc.addListener(retainer);
+            assertFalse(lx.engine.osc.engineListener.isTransient());
+            sendAndDispatch(lx, receiver, retainer, 1, 2, 3);
+            assertRetained(retainer, 1, 2, 3);
+
+            lx.engine.osc.removeListener(retainer);
+            assertTrue(lx.engine.osc.engineListener.isTransient());
+            receiver.stop();
+        } finally {
+            lx.dispose();
+        }
+    }
+
+    private static void assertRetained(RecordingListener retainer, float... values) {
+        assertEquals(values.length, retainer.messages.size());
+        for (int i = 0; i < values.length; ++i) {
+            final OscMessage message = retainer.messages.get(i);
+            assertEquals(ADDRESS, message.getAddressPattern().getValue());
+            assertEquals(values[i], message.getFloat(0), "Retained message was overwritten");
+            for (int j = 0; j < i; ++j) {
+                assertNotSame(retainer.messages.get(j), message);
+            }
+        }
+    }
+
+    private static void sendEngineMessage(LX lx, String address, float value) {
+        lx.engine.osc.engineListener.oscMessage(new OscMessage(address).add(value));
+    }
+
+    private static void sendEngineMessage(LX lx, String address, boolean value) {
+        lx.engine.osc.engineListener.oscMessage(new OscMessage(address).add(value ? 1 : 0));
+    }
+
+    @Test
+    void testResolvedAddressFollowsChannelReorder() {
+        final LX lx = new LX(new GridModel(4, 4));
+        try {
+            final LXChannel a = lx.engine.mixer.addChannel();
+            final LXChannel b = lx.engine.mixer.addChannel();
+            final String address = "/lx/mixer/channel/1/fader";
+            assertTrue(LXOscEngine.isCanonicalAddress(a.fader, address));
+            assertFalse(LXOscEngine.isCanonicalAddress(b.fader, address));
+
+            // Resolve the address, then repeat so that it is applied directly
+            sendEngineMessage(lx, address, .25f);
+            sendEngineMessage(lx, address, .3f);
+            assertEquals(.3, a.fader.getValue(), 1e-6);
+
+            // Channel b is now first, the resolved parameter must not be used
+            lx.engine.mixer.moveChannel(a, 1);
+            assertFalse(LXOscEngine.isCanonicalAddress(a.fader, address));
+            assertTrue(LXOscEngine.isCanonicalAddress(b.fader, address));
+            sendEngineMessage(lx, address, .75f);
+            assertEquals(.3, a.fader.getValue(), 1e-6);
+            assertEquals(.75, b.fader.getValue(), 1e-6);
+
+            // And the new resolution is used directly in turn
+            sendEngineMessage(lx, address, .5f);
+            assertEquals(.5, b.fader.getValue(), 1e-6);
+            assertEquals(.3, a.fader.getValue(), 1e-6);
+        } finally {
+            lx.dispose();
+        }
+    }
+
+    @Test
+    void testResolvedAddressFollowsPatternReorder() {
+        final LX lx = new LX(new GridModel(4, 4));
+        try {
+            final LXChannel channel = lx.engine.mixer.addChannel();
+            final LXPattern first = new SolidPattern(lx);
+            final LXPattern second = new SolidPattern(lx);
+            channel.addPattern(first);
+            channel.addPattern(second);
+            final String address = "/lx/mixer/channel/1/pattern/1/enabled";
+            assertTrue(LXOscEngine.isCanonicalAddress(first.enabled, address));
+
+            sendEngineMessage(lx, address, false);
+            sendEngineMessage(lx, address, true);
+            sendEngineMessage(lx, address, false);
+            assertFalse(first.enabled.isOn());
+            assertTrue(second.enabled.isOn());
+
+            channel.movePattern(second, 0);
+            assertFalse(LXOscEngine.isCanonicalAddress(first.enabled, address));
+            assertTrue(LXOscEngine.isCanonicalAddress(second.enabled, address));
+            sendEngineMessage(lx, address, false);
+            assertFalse(second.enabled.isOn());
+            sendEngineMessage(lx, address, true);
+            assertTrue(second.enabled.isOn());
+            assertFalse(first.enabled.isOn());
+        } finally {
+            lx.dispose();
+        }
+    }
+
+    /**
+     * Engine transmitter whose bundles are taken by the test instead of a sender thread
+     */
+    private static class BundleCapture extends LXOscEngine.EngineTransmitter {
+
+        private BundleSender sender = null;
+        private final List<ByteBuffer> held = new ArrayList<ByteBuffer>();
+
+        // Messages sent so far, keyed by address
+        private final Map<String, List<OscMessage>> messages = new HashMap<String, List<OscMessage>>();
+
+        private BundleCapture(LXOscEngine osc) throws SocketException {
+            osc.super(InetAddress.getLoopbackAddress(), LXOscEngine.DEFAULT_TRANSMIT_PORT, 8192);
+        }
+
+        @Override
+        BundleSender newSender() {
+            return this.sender = new BundleSender();
+        }
+
+        /**
+         * Parses all queued bundles, holding on to their buffers as a slow sender would
+         *
+         * @return Number of bundles taken
+         */
+        private int take() throws OscException {
+            int count = 0;
+            ByteBuffer buffer;
+            while ((this.sender != null) && (buffer = this.sender.poll()) != null) {
+                assertTrue(buffer.position() <= LXOscEngine.EngineTransmitter.MAX_BUNDLE_SIZE, "Bundle exceeds MAX_BUNDLE_SIZE: " + buffer.position());
+                final OscPacket packet = OscPacket.parse(null, buffer.array(), 0, buffer.position());
+                final OscBundle bundle = assertInstanceOf(OscBundle.class, packet);
+                assertFalse(bundle.getElements().isEmpty());
+                for (OscMessage message : bundle) {
+                    this.messages.computeIfAbsent(message.getAddressPattern().getValue(), address -> new ArrayList<OscMessage>()).add(message);
+                }
+                this.held.add(buffer);
+                ++count;
+            }
+            return count;
+        }
+
+        private void release() {
+            this.held.forEach(buffer -> this.sender.release(buffer));
+            this.held.clear();
+        }
+
+        private OscMessage getMessage(LXParameter parameter) {
+            final List<OscMessage> sent = this.messages.get(LXOscEngine.getOscAddress(parameter));
+            assertNotNull(sent, "Not sent: " + parameter.getCanonicalPath());
+            assertEquals(1, sent.size(), "Sent more than once: " + parameter.getCanonicalPath());
+            return sent.get(0);
+        }
+    }
+
+    private static BundleCapture newBundleCapture(LX lx) throws SocketException {
+        lx.engine.osc.transmitBundle.setValue(true);
+        lx.engine.osc.transmitActive.setValue(true);
+        assertEquals(LXOscEngine.IOState.BOUND, lx.engine.osc.transmitState.getEnum());
+        return new BundleCapture(lx.engine.osc);
+    }
+
+    @Test
+    void testFlushSendsLastValue() throws Exception {
+        final LX lx = new LX(new GridModel(4, 4));
+        try {
+            final BundleCapture capture = newBundleCapture(lx);
+            final LXChannel a = lx.engine.mixer.addChannel();
+            final LXChannel b = lx.engine.mixer.addChannel();
+            for (double value : new double[] { .1, .2, .3 }) {
+                a.fader.setValue(value);
+                capture.onParameterChanged(a.fader);
+            }
+            b.fader.setValue(.4);
+            capture.onParameterChanged(b.fader);
+            capture.onParameterChanged(a.fader);
+
+            capture.flush();
+            assertEquals(1, capture.take());
+            assertEquals(2, capture.messages.size());
+            assertEquals(.3f, capture.getMessage(a.fader).getFloat(0), 1e-6);
+            assertEquals(.4f, capture.getMessage(b.fader).getFloat(0), 1e-6);
+
+            // Nothing changed, nothing sent
+            capture.release();
+            capture.flush();
+            assertEquals(0, capture.take());
+            capture.dispose();
+        } finally {
+            lx.dispose();
+        }
+    }
+
+    @Test
+    void testFlushSurvivesBackedUpSender() throws Exception {
+        final LX lx = new LX(new GridModel(4, 4));
+        try {
+            final BundleCapture capture = newBundleCapture(lx);
+
+            // Enough changes that they can't all be queued at once, null strings are not sent
+            final List<LXParameter> parameters = new ArrayList<LXParameter>();
+            LXChannel last = null;
+            for (int i = 0; i < 64; ++i) {
+                last = lx.engine.mixer.addChannel();
+                for (LXParameter parameter : last.getParameters()) {
+                    capture.onParameterChanged(parameter);
+                    if ((LXOscEngine.getOscAddress(parameter) != null) &&
+                        !((parameter instanceof StringParameter string) && (string.getString() == null))) {
+                        parameters.add(parameter);
+                    }
+                }
+            }
+
+            capture.flush();
+            final int bundles = capture.take();
+            assertTrue(bundles > 1);
+            assertTrue(capture.messages.size() < parameters.size(), "Sender was not backed up");
+
+            // Sender still has every buffer, nothing more can be queued
+            capture.flush();
+            assertEquals(0, capture.take());
+
+            // A parameter still waiting to be sent changes again
+            last.fader.setValue(.7);
+            capture.onParameterChanged(last.fader);
+
+            for (int i = 0; (i < 10) && (capture.messages.size() < parameters.size()); ++i) {
+                capture.release();
+                capture.flush();
+                capture.take();
+            }
+            assertEquals(parameters.size(), capture.messages.size());
+            for (LXParameter parameter : parameters) {
+                capture.getMessage(parameter);
+            }
+            assertEquals(.7f, capture.getMessage(last.fader).getFloat(0), 1e-6);
+            capture.dispose();
+        } finally {
+            lx.dispose();
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright 2025- Mark C. Slee, Heron Arts LLC
+ *
+ * <p>This file is part of the LX Studio software library. By using LX, you agree to the terms of
+ * the LX Studio Software License and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * <p>Please note that the LX license is not open-source. The license allows for free,
+ * non-commercial use.
+ *
+ * <p>HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR OTHERWISE, AND SPECIFICALLY
+ * DISCLAIMS ANY WARRANTY OF MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR PURPOSE,
+ * WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+package heronarts.lx.output;
+
+import java.net.InetAddress;
+
+import org.junit.jupiter.api.Test;
+
+import heronarts.lx.LX;
+import heronarts.lx.model.GridModel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LXDatagramTest {
+
+    private static final int NUM_SENDS = 3;
+
+    private static GridModel newModel() {
+        // Point indices come from a global counter unless the model is reindexed
+        final GridModel model = new GridModel(4, 4);
+        model.reindexPoints();
+        return model;
+    }
+
+    private static void sendUnchanged(LXDatagram datagram, int[] colors) {
+        datagram.setAddress(InetAddress.getLoopbackAddress());
+        datagram.gammaMode.setValue(LXOutput.GammaMode.DIRECT);
+        datagram.suppressUnchanged.setValue(true);
+        for (int i = 0; i < NUM_SENDS; ++i) {
+            datagram.send(colors);
+        }
+    }
+
+    @Test
+    void testUnchangedDataIsSuppressed() {
+        final GridModel model = newModel();
+        final LX lx = new LX(model);
+        try {
+            final ArtNetDatagram datagram = new ArtNetDatagram(lx, model);
+            sendUnchanged(datagram, new int[model.size]);
+            assertEquals(1, datagram.getSentPackets());
+            assertEquals(NUM_SENDS - 1, datagram.getSuppressedPackets());
+            datagram.dispose();
+        } finally {
+            lx.dispose();
+        }
+    }
+
+    @Test
+    void testSyncIsNeverSuppressed() {
+        final GridModel model = newModel();
+        final LX lx = new LX(model);
+        try {
+            final ArtSyncDatagram datagram = new ArtSyncDatagram(lx);
+            sendUnchanged(datagram, new int[model.size]);
+            assertEquals(NUM_SENDS, datagram.getSentPackets());
+            assertEquals(0, datagram.getSuppressedPackets());
+            datagram.dispose();
+        } finally {
+            lx.dispose();
+        }
+    }
+
+    @Test
+    void testHeaderChangeIsSent() {
+        final GridModel model = newModel();
+        final LX lx = new LX(model);
+        try {
+            final ArtNetDatagram datagram = new ArtNetDatagram(lx, model);
+            final int[] colors = new int[model.size];
+            sendUnchanged(datagram, colors);
+
+            // Same color data to a different universe
+            datagram.setUniverseNumber(3);
+            datagram.send(colors);
+            assertEquals(2, datagram.getSentPackets());
+            assertEquals(NUM_SENDS - 1, datagram.getSuppressedPackets());
+            datagram.dispose();
+        } finally {
+            lx.dispose();
+        }
+    }
+
+}
@@ -0,0 +1,189 @@
+/**
+ * Copyright 2025- Mark C. Slee, Heron Arts LLC
+ *
+ * <p>This file is part of the LX Studio software library. By using LX, you agree to the terms of
+ * the LX Studio Software License and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * <p>Please note that the LX license is not open-source. The license allows for free,
+ * non-commercial use.
+ *
+ * <p>HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR OTHERWISE, AND SPECIFICALLY
+ * DISCLAIMS ANY WARRANTY OF MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR PURPOSE,
+ * WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+package heronarts.lx.parameter;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import heronarts.lx.LX;
+import heronarts.lx.model.GridModel;
+import heronarts.lx.modulation.LXCompoundModulation;
+import heronarts.lx.modulator.SinLFO;
+import heronarts.lx.pattern.LXPattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompoundParameterTest {
+
+    /**
+     * Counts how many times the modulated value is actually computed
+     */
+    private static class CountingParameter extends CompoundParameter {
+        private int computed = 0;
+
+        private CountingParameter(String label, double value, double v0, double v1) {
+            super(label, value, v0, v1);
+        }
+
+        @Override
+        protected double getNormalizedWithModulation(double normalized, List<? extends LXCompoundModulation> modulations) {
+            ++this.computed;
+            return super.getNormalizedWithModulation(normalized, modulations);
+        }
+    }
+
+    private static class TestPattern extends LXPattern {
+        private final CountingParameter parameter = new CountingParameter("Param", 50, 0, 100);
+        private final CompoundParameter other = new CompoundParameter("Other", 50, 0, 100);
+
+        private TestPattern(LX lx) {
+            super(lx);
+            addParameter("param", this.parameter);
+            addParameter("other", this.other);
+        }
+
+        @Override
+        protected void run(double deltaMs) {}
+    }
+
+    /**
+     * Reads the parameter, then again after starting a new epoch so that the values
+     * are computed afresh, asserting that they agree
+     */
+    private static void assertMemoized(LX lx, CompoundParameter parameter) {
+        final double normalized = parameter.getNormalized();
+        final double value = parameter.getValue();
+
+        lx.engine.advanceModulationEpoch();
+        for (int i = 0; i < 2; ++i) {
+            assertEquals(normalized, parameter.getNormalized());
+            assertEquals(value, parameter.getValue());
+        }
+    }
+
+    @Test
+    void testMemoizedMatchesComputed() throws Exception {
+        final LX lx = new LX(new GridModel(4, 4));
+        try {
+            final TestPattern pattern = new TestPattern(lx);
+            lx.engine.mixer.addChannel(new LXPattern[] { pattern });
+            final CompoundParameter parameter = pattern.parameter;
+
+            final SinLFO lfo = lx.engine.modulation.addModulator(new SinLFO(0, 1, 1000));
+            lfo.start();
+            final LXCompoundModulation modulation = new LXCompoundModulation(lx.engine.modulation, lfo, parameter);
+            modulation.range.setValue(.3);
+            lx.engine.modulation.addModulation(modulation);
+            assertMemoized(lx, parameter);
+
+            // Modulator advances
+            lx.engine.modulation.loop(250);
+            assertMemoized(lx, parameter);
+
+            // Base value
+            parameter.setValue(20);
+            assertMemoized(lx, parameter);
+
+            // Modulation depth
+            modulation.range.setValue(-.5);
+            assertMemoized(lx, parameter);
+
+            // Exponent and curve
+            parameter.setExponent(2);
+            assertMemoized(lx, parameter);
+            parameter.setNormalizationCurve(BoundedParameter.NormalizationCurve.BIAS_OUTER);
+            assertMemoized(lx, parameter);
+
+            // Modulation removed
+            lx.engine.modulation.removeModulation(modulation);
+            assertMemoized(lx, parameter);
+        } finally {
+            lx.dispose();
+        }
+    }
+
+    @Test
+    void testMemoHitsWithinFrame() throws Exception {
+        final LX lx = new LX(new GridModel(4, 4));
+        try {
+            final TestPattern pattern = new TestPattern(lx);
+            lx.engine.mixer.addChannel(new LXPattern[] { pattern });
+            final CountingParameter parameter = pattern.parameter;
+
+            final SinLFO lfo = lx.engine.modulation.addModulator(new SinLFO(0, 1, 1000));
+            final LXCompoundModulation modulation = new LXCompoundModulation(lx.engine.modulation, lfo, parameter);
+            modulation.range.setValue(.3);
+            lx.engine.modulation.addModulation(modulation);
+
+            // Start of a frame, repeated reads only compute once
+            lx.engine.advanceModulationEpoch();
+            final double value = parameter.getValue();
+            final int computed = parameter.computed;
+            for (int i = 0; i < 10; ++i) {
+                assertEquals(value, parameter.getValue());
+            }
+            assertEquals(computed, parameter.computed);
+
+            // Changes to unrelated parameters do not invalidate the memo
+            pattern.other.setValue(10);
+            assertEquals(value, parameter.getValue());
+            assertEquals(computed, parameter.computed);
+
+            // Nor does reading from another thread, e.g. a parallel channel
+            final double[] threadValue = new double[1];
+            final Thread thread = new Thread(() -> threadValue[0] = parameter.getValue());
+            thread.start();
+            thread.join();
+            assertEquals(value, threadValue[0]);
+            assertEquals(computed, parameter.computed);
+
+            // A modulator change within the frame is a miss
+            lfo.setValue(.5);
+            final double modulated = parameter.getValue();
+            assertNotEquals(value, modulated);
+            assertEquals(computed + 1, parameter.computed);
+            assertEquals(modulated, parameter.getValue());
+            assertEquals(computed + 1, parameter.computed);
+
+            // As is a change to the parameter's own base value
+            parameter.setValue(20);
+            final double base = parameter.getValue();
+            assertNotEquals(modulated, base);
+            assertEquals(computed + 2, parameter.computed);
+
+            // Or to a setting of the modulation
+            modulation.range.setValue(.4);
+            assertNotEquals(base, parameter.getValue());
+            assertEquals(computed + 3, parameter.computed);
+
+            // Other modulators running do not invalidate the memo
+            final SinLFO unrelated = lx.engine.modulation.addModulator(new SinLFO(0, 1, 1000));
+            unrelated.start();
+            unrelated.loop(100);
+            parameter.getValue();
+            assertEquals(computed + 3, parameter.computed);
+
+            // Nor does a modulator run that leaves its value unchanged
+            lfo.setValue(.5);
+            parameter.getValue();
+            assertEquals(computed + 3, parameter.computed);
+        } finally {
+            lx.dispose();
+        }
+    }
+
+}
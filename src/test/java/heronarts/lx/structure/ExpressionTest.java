@@ -203,4 +203,108 @@ public class ExpressionTest {
         // Test invalid number format
         assertThrows(NumberFormatException.class, () -> evaluate("abc"));
     }
+
+    private static final String[] NUMERIC_EXPRESSIONS = {
+        "(0+((2-1)/2))*1.9685039",
+        "(1+((3-1)/2))*1.9685039",
+        "(2-1)*1.7047743848",
+        "(0+((2-1)/2)-0.5)*1.9685039",
+        "true?-2:2",
+        "false?-2:2",
+        "42", "3.14", "-5", "0",
+        "3 + 4", "  3  *  4  ",
+        "3+4", "3-4", "3*4", "3/4", "3%2", "3^2",
+        "2+3*4", "(2+3)*4", "3+2^3", "(3+2)^3",
+        "((((42))))", "2*((3+4)*2-3)", "2*(3+(4*5))",
+        "--5", "---5", "-(-(-1))", "4+-4",
+        "sin(180)", "sin(90)", "cos(90)", "cos(180)", "tan(45)", "tan(-45)",
+        "pow(2, 0)", "pow(2, 5)",
+        "atan2(1, 0)", "atan2(1, -1)", "atan2(0, -1)", "atan2(-1, 1)",
+        "atan2p( ((2-3)) , (sin(90)))",
+        "sin(000.0)", "cos(0.000)", "abs(-5)", "sqrt(9.0)", "floor(2.7)", "round(2.7)",
+        "true?10:20", "false?10:20", "3>2?5:7", "2>3?5:7",
+        "true?true?1:2:3", "true?false?1:2:3", "false?true?1:2:3",
+        "false?(true?1:2):3", " false ?  ( true ?  1 : 2  ) :  3 "
+    };
+
+    private static final String[] BOOLEAN_EXPRESSIONS = {
+        "true", "false",
+        "5>3", "3>5", "5>=5", "3<5", "5<3", "3<=3", "5==5", "5==3", "5!=3", "5!=5",
+        "true&&true", "true&&false", "true||false", "false||false", "true&true", "true|false",
+        "!true", "!false", "!!true"
+    };
+
+    @Test
+    void testCompiledMatchesEvaluate() {
+        for (String expression : NUMERIC_EXPRESSIONS) {
+            assertEquals(evaluateNumeric(expression), compile(expression).evaluateNumeric(), expression);
+        }
+        for (String expression : BOOLEAN_EXPRESSIONS) {
+            assertEquals(evaluateBoolean(expression), compile(expression).evaluateBoolean(), expression);
+        }
+    }
+
+    @Test
+    void testCompiledVariables() {
+        final Compiled compiled = compile("($offset+(($row-1)/2))*${pointSpacing}-$row");
+        assertEquals(3, compiled.getNumVariables());
+        assertEquals("offset", compiled.getVariable(0));
+        assertEquals("row", compiled.getVariable(1));
+        assertEquals("pointSpacing", compiled.getVariable(2));
+
+        // The same Variables instance is re-used, each evaluation should match
+        // evaluate() on the text with the values substituted in
+        final Variables variables = new Variables();
+        for (int offset = 0; offset < 2; ++offset) {
+            for (int row = 1; row < 4; ++row) {
+                variables.setNumber(0, offset).setNumber(1, row).setNumber(2, 1.9685039f);
+                final String substituted = "(" + offset + "+((" + row + "-1)/2))*1.9685039-" + row;
+                assertEquals(evaluateNumeric(substituted), compiled.evaluateNumeric(variables), substituted);
+            }
+        }
+
+        final Compiled flip = compile("$flipBacking ? -2 : 2");
+        assertEquals(-2f, flip.evaluateNumeric(new Variables().setBoolean(0, true)));
+        assertEquals(2f, flip.evaluateNumeric(new Variables().setBoolean(0, false)));
+        assertTrue(compile("$a>$b||!$c").evaluateBoolean(new Variables().setNumber(0, 1).setNumber(1, 2).setBoolean(2, false)));
+
+        // Variables of the wrong type or without a value are errors
+        assertThrows(IllegalArgumentException.class, () -> flip.evaluateNumeric(new Variables().setNumber(0, 1)));
+        assertThrows(IllegalArgumentException.class, () -> flip.evaluateNumeric());
+        assertThrows(IllegalArgumentException.class, () -> compile("sin($x)").evaluateNumeric(new Variables().setBoolean(0, true)));
+    }
+
+    @Test
+    void testLazyBranchErrors() {
+        // Malformed portions that evaluate() never reaches are not errors
+        final String[] numeric = { "true?1:abc", "false?abc:2", "true?1:(2", "true?1:$y+", "true?2:sqrt(-1)" };
+        for (String expression : numeric) {
+            assertEquals(evaluateNumeric(expression), compile(expression).evaluateNumeric(), expression);
+        }
+        final String[] bool = { "true||abc", "false&&abc", "false&&(1/0>1)" };
+        for (String expression : bool) {
+            assertEquals(evaluateBoolean(expression), compile(expression).evaluateBoolean(), expression);
+        }
+
+        // Unless the branch is taken
+        assertThrows(IllegalArgumentException.class, () -> evaluateNumeric("false?1:abc"));
+        assertThrows(IllegalArgumentException.class, () -> compile("false?1:abc").evaluateNumeric());
+        assertThrows(IllegalArgumentException.class, () -> evaluateBoolean("true&&abc"));
+        assertThrows(IllegalArgumentException.class, () -> compile("true&&abc").evaluateBoolean());
+
+        // Parentheticals are always evaluated, even within a branch that is not taken
+        final String[] numericErrors = { "true?1:sin(true)", "false?(!3):2", "true?1:(false?2:sin(true))" };
+        for (String expression : numericErrors) {
+            assertThrows(IllegalArgumentException.class, () -> evaluateNumeric(expression), expression);
+            assertThrows(IllegalArgumentException.class, () -> compile(expression).evaluateNumeric(), expression);
+        }
+        final String[] boolErrors = { "false&&(sin(true)>0)", "true||(1+true)" };
+        for (String expression : boolErrors) {
+            assertThrows(IllegalArgumentException.class, () -> evaluateBoolean(expression), expression);
+            assertThrows(IllegalArgumentException.class, () -> compile(expression).evaluateBoolean(), expression);
+        }
+        final Compiled compiled = compile("$x?1:sin($y)");
+        assertEquals(1f, compiled.evaluateNumeric(new Variables().setBoolean(0, true).setNumber(1, 0)));
+        assertThrows(IllegalArgumentException.class, () -> compiled.evaluateNumeric(new Variables().setBoolean(0, true).setBoolean(1, true)));
+    }
 }
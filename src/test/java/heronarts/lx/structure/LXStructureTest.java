@@ -0,0 +1,177 @@
+/**
+ * Copyright 2025- Mark C. Slee, Heron Arts LLC
+ *
+ * <p>This file is part of the LX Studio software library. By using LX, you agree to the terms of
+ * the LX Studio Software License and Distribution Agreement, available at: http://lx.studio/license
+ *
+ * <p>Please note that the LX license is not open-source. The license allows for free,
+ * non-commercial use.
+ *
+ * <p>HERON ARTS MAKES NO WARRANTY, EXPRESS, IMPLIED, STATUTORY, OR OTHERWISE, AND SPECIFICALLY
+ * DISCLAIMS ANY WARRANTY OF MERCHANTABILITY, NON-INFRINGEMENT, OR FITNESS FOR A PARTICULAR PURPOSE,
+ * WITH RESPECT TO THE SOFTWARE.
+ *
+ * @author Mark C. Slee <mark@heronarts.com>
+ */
+package heronarts.lx.structure;
+
+import org.junit.jupiter.api.Test;
+
+import heronarts.lx.LX;
+import heronarts.lx.model.LXModel;
+import heronarts.lx.model.LXPoint;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LXStructureTest {
+
+    @Test
+    void testReactivatedFixtureIsRebuilt() {
+        final LX lx = new LX();
+        try {
+            final GridFixture first = new GridFixture(lx);
+            final GridFixture second = new GridFixture(lx);
+            lx.structure.addFixture(first);
+            lx.structure.addFixture(second);
+            final LXModel firstModel = first.getModel();
+            final LXModel secondModel = second.getModel();
+            assertSame(lx.getModel(), secondModel.getParent());
+
+            // Deactivating the last fixture shifts no indices, the first model is kept
+            second.deactivate.setValue(true);
+            assertSame(firstModel, first.getModel());
+            assertSame(lx.getModel(), firstModel.getParent());
+            assertEquals(firstModel.size, lx.getModel().size);
+
+            // Reactivated at the same index, its old model went with the old root
+            second.deactivate.setValue(false);
+            assertNotSame(secondModel, second.getModel());
+            assertSame(lx.getModel(), second.getModel().getParent());
+            assertSame(firstModel, first.getModel());
+            assertEquals(firstModel.size + second.getModel().size, lx.getModel().size);
+            assertSame(second.getModel().points[0], lx.getModel().points[firstModel.size]);
+        } finally {
+            lx.dispose();
+        }
+    }
+
+    @Test
+    void testResizedFixtureRebuildsLaterModels() {
+        final LX lx = new LX();
+        try {
+            final GridFixture first = new GridFixture(lx);
+            final GridFixture second = new GridFixture(lx);
+            final GridFixture third = new GridFixture(lx);
+            // The later fixtures span the first, so it does not define the bounds
+            second.rowSpacing.setValue(20);
+            second.columnSpacing.setValue(20);
+            third.numRows.setValue(3);
+            lx.structure.addFixture(first);
+            lx.structure.addFixture(second);
+            lx.structure.addFixture(third);
+
+            // Shrinking the first fixture moves the later points, they are copied
+            LXModel previous = lx.getModel();
+            float[][] snapshot = snapshot(previous);
+            LXModel firstModel = first.getModel();
+            LXModel secondModel = second.getModel();
+            first.numRows.setValue(4);
+            assertNotSame(firstModel, first.getModel());
+            assertNotSame(secondModel, second.getModel());
+            assertArrayEquals(new int[] { 40, 100 }, second.getModel().getIndexRanges());
+            assertIndexedAndNormalized(lx.getModel());
+            assertUnchanged(previous, snapshot);
+
+            // Shrinking the last fixture within the bounds keeps the earlier models
+            previous = lx.getModel();
+            snapshot = snapshot(previous);
+            firstModel = first.getModel();
+            secondModel = second.getModel();
+            final LXModel thirdModel = third.getModel();
+            third.numRows.setValue(2);
+            assertSame(firstModel, first.getModel());
+            assertSame(secondModel, second.getModel());
+            assertNotSame(thirdModel, third.getModel());
+            assertSame(lx.getModel(), secondModel.getParent());
+            assertIndexedAndNormalized(lx.getModel());
+            assertUnchanged(previous, snapshot);
+
+            // Growing past the bounds copies every fixture
+            previous = lx.getModel();
+            snapshot = snapshot(previous);
+            final LXModel lastModel = third.getModel();
+            first.numRows.setValue(30);
+            assertNotSame(secondModel, second.getModel());
+            assertNotSame(lastModel, third.getModel());
+            assertArrayEquals(new int[] { 300, 100 }, second.getModel().getIndexRanges());
+            assertIndexedAndNormalized(lx.getModel());
+            assertUnchanged(previous, snapshot);
+        } finally {
+            lx.dispose();
+        }
+    }
+
+    @Test
+    void testBoundsChangeLeavesPreviousModel() {
+        final LX lx = new LX();
+        try {
+            final GridFixture first = new GridFixture(lx);
+            final GridFixture second = new GridFixture(lx);
+            lx.structure.addFixture(first);
+            lx.structure.addFixture(second);
+            final LXModel previous = lx.getModel();
+            final float[][] snapshot = snapshot(previous);
+            final LXModel firstModel = first.getModel();
+
+            // Growing the last fixture changes the bounds, the first model is copied
+            // and the one adopted along the way goes back to the previous root
+            second.numRows.setValue(20);
+            assertNotSame(firstModel, first.getModel());
+            assertSame(previous, firstModel.getParent());
+            assertSame(previous.getNormalizationBounds(), firstModel.getNormalizationBounds());
+            assertIndexedAndNormalized(lx.getModel());
+            assertUnchanged(previous, snapshot);
+        } finally {
+            lx.dispose();
+        }
+    }
+
+    private static float[][] snapshot(LXModel model) {
+        final float[][] snapshot = new float[model.size][];
+        for (int i = 0; i < model.size; ++i) {
+            final LXPoint p = model.points[i];
+            snapshot[i] = new float[] { p.index, p.xn, p.yn, p.zn, p.rn, p.rc, p.rcn };
+        }
+        return snapshot;
+    }
+
+    /**
+     * Checks that a replaced model's points kept their indices and normalized values
+     */
+    private static void assertUnchanged(LXModel model, float[][] snapshot) {
+        assertEquals(snapshot.length, model.size);
+        for (int i = 0; i < model.size; ++i) {
+            final LXPoint p = model.points[i];
+            assertArrayEquals(snapshot[i], new float[] { p.index, p.xn, p.yn, p.zn, p.rn, p.rc, p.rcn }, "Point " + i);
+        }
+    }
+
+    /**
+     * Checks that points are indexed in order and hold the same normalized values as
+     * a full normalization of the model
+     */
+    private static void assertIndexedAndNormalized(LXModel model) {
+        final float[][] normalized = new float[model.size][];
+        for (int i = 0; i < model.size; ++i) {
+            final LXPoint p = model.points[i];
+            assertEquals(i, p.index);
+            normalized[i] = new float[] { p.xn, p.yn, p.zn, p.rn, p.rc, p.rcn };
+        }
+        model.normalizePoints();
+        for (int i = 0; i < model.size; ++i) {
+            final LXPoint p = model.points[i];
+            assertArrayEquals(new float[] { p.xn, p.yn, p.zn, p.rn, p.rc, p.rcn }, normalized[i], "Point " + i);
+        }
+    }
+
+}